@@ -0,0 +1,89 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of the deep learning data path, i.e. all classes of this project whose names end with
+ * <code>Benchmark</code>. Besides throughput (operations per second), the allocation rate of each benchmark is reported
+ * (<code>gc.alloc.rate.norm</code> is the number of bytes allocated per operation).
+ * <P>
+ * This project is not part of the regular build and its dependencies are not part of the target platform. JMH is
+ * referenced via the class path variable <code>JMH_HOME</code>, which has to point to a directory that contains
+ * <code>jmh-core.jar</code>, <code>jmh-generator-annprocess.jar</code>, <code>jopt-simple.jar</code> and
+ * <code>commons-math3.jar</code> (JMH 1.19 or later). The annotation processor of JMH is configured in the project
+ * settings and generates the benchmark list when the project is built.
+ * <P>
+ * Run as plain Java application (e.g. via a Java Application launch configuration in Eclipse). Any JMH command line
+ * options can be passed as arguments, e.g. a regular expression that selects a subset of the benchmarks or
+ * <code>-f 0</code> to run the benchmarks in the launching VM. No Python installation is required.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLBenchmarkRunner {
+
+	private static final String DEFAULT_INCLUDE = "org\\.knime\\.dl\\..*Benchmark";
+
+	private DLBenchmarkRunner() {
+	}
+
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions)
+				.addProfiler(GCProfiler.class);
+		if (commandLineOptions.getIncludes().isEmpty()) {
+			options.include(DEFAULT_INCLUDE);
+		}
+		new Runner(options.build()).run();
+	}
+}
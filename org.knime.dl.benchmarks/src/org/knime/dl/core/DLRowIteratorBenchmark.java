@@ -0,0 +1,195 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link DLAbstractRowIterator#groupByTensor(DataRow)} and
+ * {@link DLAbstractRowIterator#checkForMissingCells(DataRow)} over an in-memory batch of rows whose columns are split
+ * across two input tensors.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DLRowIteratorBenchmark {
+
+	private static final int NUM_ROWS = 1024;
+
+	private static final int NUM_COLUMNS_FIRST = 64;
+
+	private static final int NUM_COLUMNS_SECOND = 8;
+
+	private DLInMemoryRowIterator m_iterator;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final int numColumns = NUM_COLUMNS_FIRST + NUM_COLUMNS_SECOND;
+		final DataColumnSpec[] columnSpecs = new DataColumnSpec[numColumns];
+		for (int c = 0; c < numColumns; c++) {
+			columnSpecs[c] = new DataColumnSpecCreator("column" + c, DoubleCell.TYPE).createSpec();
+		}
+		final List<DataRow> rows = new ArrayList<>(NUM_ROWS);
+		for (int r = 0; r < NUM_ROWS; r++) {
+			final DataCell[] cells = new DataCell[numColumns];
+			for (int c = 0; c < numColumns; c++) {
+				cells[c] = new DoubleCell(r * numColumns + c);
+			}
+			rows.add(new DefaultRow(RowKey.createRowKey((long) r), cells));
+		}
+		final int[] first = new int[NUM_COLUMNS_FIRST];
+		for (int c = 0; c < NUM_COLUMNS_FIRST; c++) {
+			first[c] = c;
+		}
+		final int[] second = new int[NUM_COLUMNS_SECOND];
+		for (int c = 0; c < NUM_COLUMNS_SECOND; c++) {
+			second[c] = NUM_COLUMNS_FIRST + c;
+		}
+		final Map<DLTensorId, int[]> columns = new HashMap<>(2);
+		columns.put(new DLDefaultTensorId("first"), first);
+		columns.put(new DLDefaultTensorId("second"), second);
+		m_iterator = new DLInMemoryRowIterator(new DataTableSpec(columnSpecs), columns, rows);
+	}
+
+	@Benchmark
+	public void groupByTensor(final Blackhole blackhole) {
+		m_iterator.reset();
+		while (m_iterator.hasNext()) {
+			final Map<DLTensorId, List<DataValue>> grouped = m_iterator.groupByTensor(m_iterator.next());
+			blackhole.consume(grouped);
+		}
+	}
+
+	@Benchmark
+	public void checkForMissingCells(final Blackhole blackhole) {
+		m_iterator.reset();
+		while (m_iterator.hasNext()) {
+			final DataRow row = m_iterator.next();
+			m_iterator.checkForMissingCells(row);
+			blackhole.consume(row);
+		}
+	}
+
+	private static final class DLInMemoryRowIterator extends DLAbstractRowIterator {
+
+		private final List<DataRow> m_rows;
+
+		private int m_next;
+
+		private DLInMemoryRowIterator(final DataTableSpec tableSpec, final Map<DLTensorId, int[]> columns,
+				final List<DataRow> rows) {
+			super(tableSpec, columns);
+			m_rows = rows;
+		}
+
+		@Override
+		public long size() {
+			return m_rows.size();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return m_next < m_rows.size();
+		}
+
+		@Override
+		public DataRow peek() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return m_rows.get(m_next);
+		}
+
+		@Override
+		public DataRow next() {
+			final DataRow row = peek();
+			m_next++;
+			return row;
+		}
+
+		@Override
+		public void reset() {
+			m_next = 0;
+		}
+
+		@Override
+		public void close() {
+			// nothing to release
+		}
+	}
+}
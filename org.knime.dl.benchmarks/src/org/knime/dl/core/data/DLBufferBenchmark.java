@@ -0,0 +1,195 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data;
+
+import java.util.concurrent.TimeUnit;
+
+import org.knime.dl.testing.DLTestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures single-element and bulk writes and reads of the default float, double and bit buffers. Each operation
+ * processes the whole buffer. The buffers are kept full between operations, so read benchmarks only need to reset the
+ * read position.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DLBufferBenchmark {
+
+	@Param({ "1024", "1048576" })
+	public int m_size;
+
+	private DLDefaultFloatBuffer m_floatBuffer;
+
+	private DLDefaultDirectFloatBuffer m_directFloatBuffer;
+
+	private DLDefaultDoubleBuffer m_doubleBuffer;
+
+	private DLDefaultBitBuffer m_bitBuffer;
+
+	private float[] m_floats;
+
+	private double[] m_doubles;
+
+	private boolean[] m_booleans;
+
+	private float[] m_floatDest;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		m_floatBuffer = new DLDefaultFloatBuffer(m_size);
+		m_directFloatBuffer = new DLDefaultDirectFloatBuffer(m_size);
+		m_doubleBuffer = new DLDefaultDoubleBuffer(m_size);
+		m_bitBuffer = new DLDefaultBitBuffer(m_size);
+		m_floats = DLTestUtil.floatRange(m_size);
+		m_doubles = DLTestUtil.doubleRange(m_size);
+		m_booleans = DLTestUtil.alternatingBooleanArray(m_size);
+		m_floatDest = new float[m_size];
+		m_floatBuffer.putAll(m_floats);
+		m_directFloatBuffer.putAll(m_floats);
+		m_doubleBuffer.putAll(m_doubles);
+		m_bitBuffer.putAll(m_booleans);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_floatBuffer.close();
+		m_directFloatBuffer.close();
+		m_doubleBuffer.close();
+		m_bitBuffer.close();
+	}
+
+	@Benchmark
+	public DLDefaultFloatBuffer putFloat() {
+		m_floatBuffer.reset();
+		for (int i = 0; i < m_floats.length; i++) {
+			m_floatBuffer.put(m_floats[i]);
+		}
+		return m_floatBuffer;
+	}
+
+	@Benchmark
+	public DLDefaultFloatBuffer putAllFloat() {
+		m_floatBuffer.reset();
+		m_floatBuffer.putAll(m_floats);
+		return m_floatBuffer;
+	}
+
+	@Benchmark
+	public DLDefaultDirectFloatBuffer putAllDirectFloat() {
+		m_directFloatBuffer.reset();
+		m_directFloatBuffer.putAll(m_floats);
+		return m_directFloatBuffer;
+	}
+
+	@Benchmark
+	public DLDefaultDoubleBuffer putAllDouble() {
+		m_doubleBuffer.reset();
+		m_doubleBuffer.putAll(m_doubles);
+		return m_doubleBuffer;
+	}
+
+	@Benchmark
+	public DLDefaultBitBuffer putAllBoolean() {
+		m_bitBuffer.reset();
+		m_bitBuffer.putAll(m_booleans);
+		return m_bitBuffer;
+	}
+
+	@Benchmark
+	public void readNextFloat(final Blackhole blackhole) {
+		m_floatBuffer.resetRead();
+		for (int i = 0; i < m_size; i++) {
+			blackhole.consume(m_floatBuffer.readNextFloat());
+		}
+	}
+
+	@Benchmark
+	public float[] readToFloatArray() {
+		m_floatBuffer.resetRead();
+		m_floatBuffer.readToFloatArray(m_floatDest, 0, m_size);
+		return m_floatDest;
+	}
+
+	@Benchmark
+	public float[] readToFloatArrayDirect() {
+		m_directFloatBuffer.resetRead();
+		m_directFloatBuffer.readToFloatArray(m_floatDest, 0, m_size);
+		return m_floatDest;
+	}
+
+	@Benchmark
+	public double[] toDoubleArray() {
+		return m_doubleBuffer.toDoubleArray();
+	}
+
+	@Benchmark
+	public void readNextBit(final Blackhole blackhole) {
+		m_bitBuffer.resetRead();
+		for (int i = 0; i < m_size; i++) {
+			blackhole.consume(m_bitBuffer.readNextBit());
+		}
+	}
+}
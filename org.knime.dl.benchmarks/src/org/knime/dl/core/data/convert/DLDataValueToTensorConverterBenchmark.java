@@ -0,0 +1,234 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data.convert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.collection.CollectionDataValue;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bitvector.DenseBitVector;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensor;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
+import org.knime.dl.core.data.DLDefaultSparseFloatBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversion of one batch of data values into a tensor: scalar numbers (per row and in bulk), one-hot
+ * encoded index sequences and bit vectors. The latter two are measured with dense and with sparse buffers.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DLDataValueToTensorConverterBenchmark {
+
+	private static final int BATCH_SIZE = 32;
+
+	private static final int NUM_COLUMNS = 64;
+
+	private static final int SEQUENCE_LENGTH = 16;
+
+	private static final int VOCABULARY_SIZE = 4096;
+
+	private static final int BIT_VECTOR_LENGTH = 2048;
+
+	private static final int NUM_SET_BITS = 32;
+
+	@Param({ "dense", "sparse" })
+	public String m_storage;
+
+	private List<DataRow> m_rows;
+
+	private int[] m_columns;
+
+	private List<List<DoubleValue>> m_doubleValues;
+
+	private List<CollectionDataValue> m_sequences;
+
+	private List<BitVectorValue> m_bitVectors;
+
+	private DLTensor<DLWritableFloatBuffer> m_scalarTensor;
+
+	private DLTensor<DLWritableFloatBuffer> m_oneHotTensor;
+
+	private DLTensor<DLWritableFloatBuffer> m_bitVectorTensor;
+
+	private DLBulkDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer> m_scalarConverter;
+
+	private DLDataValueToTensorConverter<CollectionDataValue, DLWritableFloatBuffer> m_oneHotConverter;
+
+	private DLDataValueToTensorConverter<BitVectorValue, DLWritableFloatBuffer> m_bitVectorConverter;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final Random random = new Random(42);
+		m_rows = new ArrayList<>(BATCH_SIZE);
+		m_doubleValues = new ArrayList<>(BATCH_SIZE);
+		m_sequences = new ArrayList<>(BATCH_SIZE);
+		m_bitVectors = new ArrayList<>(BATCH_SIZE);
+		for (int r = 0; r < BATCH_SIZE; r++) {
+			final DataCell[] cells = new DataCell[NUM_COLUMNS];
+			for (int c = 0; c < NUM_COLUMNS; c++) {
+				cells[c] = new DoubleCell(random.nextDouble());
+			}
+			m_rows.add(new DefaultRow(RowKey.createRowKey((long) r), cells));
+			final List<DoubleValue> values = new ArrayList<>(NUM_COLUMNS);
+			for (final DataCell cell : cells) {
+				values.add((DoubleValue) cell);
+			}
+			m_doubleValues.add(values);
+			final List<IntCell> sequence = new ArrayList<>(SEQUENCE_LENGTH);
+			for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+				sequence.add(new IntCell(random.nextInt(VOCABULARY_SIZE)));
+			}
+			m_sequences.add((CollectionDataValue) CollectionCellFactory.createListCell(sequence));
+			final DenseBitVector bitVector = new DenseBitVector(BIT_VECTOR_LENGTH);
+			for (int i = 0; i < NUM_SET_BITS; i++) {
+				bitVector.set(random.nextInt(BIT_VECTOR_LENGTH));
+			}
+			m_bitVectors.add((BitVectorValue) new DenseBitVectorCellFactory(bitVector).createDataCell());
+		}
+		m_columns = new int[NUM_COLUMNS];
+		for (int c = 0; c < NUM_COLUMNS; c++) {
+			m_columns[c] = c;
+		}
+		m_scalarTensor = createTensor(NUM_COLUMNS, false);
+		m_oneHotTensor = createTensor(SEQUENCE_LENGTH * (long) VOCABULARY_SIZE, m_storage.equals("sparse"),
+				SEQUENCE_LENGTH, VOCABULARY_SIZE);
+		m_bitVectorTensor = createTensor(BIT_VECTOR_LENGTH, m_storage.equals("sparse"));
+		m_scalarConverter = (DLBulkDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer>) //
+		new DLDoubleValueToFloatTensorConverterFactory().createConverter();
+		m_oneHotConverter = new DLIntCollectionValueToOneHotFloatTensorConverterFactory().createConverter();
+		m_bitVectorConverter = new DLBitVectorToFloatTensorConverterFactory().createConverter();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_scalarTensor.close();
+		m_oneHotTensor.close();
+		m_bitVectorTensor.close();
+	}
+
+	@Benchmark
+	public DLTensor<DLWritableFloatBuffer> convertScalars() {
+		m_scalarTensor.getBuffer().reset();
+		for (final List<DoubleValue> values : m_doubleValues) {
+			m_scalarConverter.convert(values, m_scalarTensor);
+		}
+		return m_scalarTensor;
+	}
+
+	@Benchmark
+	public DLTensor<DLWritableFloatBuffer> convertScalarsBulk() {
+		m_scalarTensor.getBuffer().reset();
+		m_scalarConverter.convertBulk(m_rows, m_columns, m_scalarTensor);
+		return m_scalarTensor;
+	}
+
+	@Benchmark
+	public DLTensor<DLWritableFloatBuffer> convertOneHot() {
+		m_oneHotTensor.getBuffer().reset();
+		for (final CollectionDataValue sequence : m_sequences) {
+			m_oneHotConverter.convert(Collections.singletonList(sequence), m_oneHotTensor);
+		}
+		return m_oneHotTensor;
+	}
+
+	@Benchmark
+	public DLTensor<DLWritableFloatBuffer> convertBitVector() {
+		m_bitVectorTensor.getBuffer().reset();
+		for (final BitVectorValue bitVector : m_bitVectors) {
+			m_bitVectorConverter.convert(Collections.singletonList(bitVector), m_bitVectorTensor);
+		}
+		return m_bitVectorTensor;
+	}
+
+	private static DLTensor<DLWritableFloatBuffer> createTensor(final long exampleSize, final boolean sparse,
+			final long... shape) {
+		final long[] exampleShape = shape.length > 0 ? shape : new long[] { exampleSize };
+		final DLDefaultTensorSpec spec = new DLDefaultTensorSpec(new DLDefaultTensorId("input"), "input", BATCH_SIZE,
+				new DLDefaultFixedTensorShape(exampleShape), float.class, DLDimensionOrder.TDHWC);
+		final long capacity = exampleSize * BATCH_SIZE;
+		final DLWritableFloatBuffer buffer = sparse ? new DLDefaultSparseFloatBuffer(capacity)
+				: new DLDefaultFloatBuffer(capacity);
+		return new DLDefaultTensor<>(spec, buffer, exampleSize);
+	}
+}
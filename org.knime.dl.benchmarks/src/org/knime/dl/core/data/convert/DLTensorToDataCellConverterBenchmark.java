@@ -0,0 +1,149 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data.convert;
+
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.def.DoubleCell;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensor;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLDefaultDoubleBuffer;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLReadableFloatBuffer;
+import org.knime.dl.core.data.cell.DLFloatTensorCell;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversion of one batch of output tensors into data cells: one number cell per element and one tensor
+ * cell per example.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DLTensorToDataCellConverterBenchmark {
+
+	private static final int BATCH_SIZE = 1024;
+
+	private static final long[] EXAMPLE_SHAPE = { 16, 16 };
+
+	private static final int EXAMPLE_SIZE = 16 * 16;
+
+	private DLTensor<DLReadableDoubleBuffer> m_scalarTensor;
+
+	private DLTensor<DLReadableFloatBuffer> m_exampleTensor;
+
+	private DLTensorToDataCellConverter<DLReadableDoubleBuffer, DoubleCell> m_scalarConverter;
+
+	private DLTensorToDataCellConverter<DLReadableFloatBuffer, DLFloatTensorCell> m_exampleConverter;
+
+	private DoubleCell[] m_scalarCells;
+
+	private DLFloatTensorCell[] m_exampleCells;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final DLDefaultDoubleBuffer doubleBuffer = new DLDefaultDoubleBuffer(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			doubleBuffer.put(i * 0.5);
+		}
+		m_scalarTensor = new DLDefaultTensor<>(createSpec(double.class, 1), doubleBuffer, 1);
+		final DLDefaultFloatBuffer floatBuffer = new DLDefaultFloatBuffer((long) BATCH_SIZE * EXAMPLE_SIZE);
+		for (int i = 0; i < BATCH_SIZE * EXAMPLE_SIZE; i++) {
+			floatBuffer.put(i * 0.5f);
+		}
+		m_exampleTensor = new DLDefaultTensor<>(createSpec(float.class, EXAMPLE_SHAPE), floatBuffer, EXAMPLE_SIZE);
+		m_scalarConverter = new DLDoubleTensorToDoubleCellConverterFactory().createConverter();
+		m_exampleConverter = new DLFloatTensorToTensorCellConverterFactory().createConverter();
+		m_scalarCells = new DoubleCell[BATCH_SIZE];
+		m_exampleCells = new DLFloatTensorCell[BATCH_SIZE];
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_scalarTensor.close();
+		m_exampleTensor.close();
+	}
+
+	@Benchmark
+	public DoubleCell[] convertToDoubleCells() {
+		m_scalarTensor.getBuffer().resetRead();
+		m_scalarConverter.convert(m_scalarTensor, m_scalarCells, null);
+		return m_scalarCells;
+	}
+
+	@Benchmark
+	public DLFloatTensorCell[] convertToTensorCells() {
+		m_exampleTensor.getBuffer().resetRead();
+		m_exampleConverter.convert(m_exampleTensor, m_exampleCells, null);
+		return m_exampleCells;
+	}
+
+	private static DLDefaultTensorSpec createSpec(final Class<?> elementType, final long... exampleShape) {
+		return new DLDefaultTensorSpec(new DLDefaultTensorId("output"), "output", BATCH_SIZE,
+				new DLDefaultFixedTensorShape(exampleShape), elementType, DLDimensionOrder.TDHWC);
+	}
+}
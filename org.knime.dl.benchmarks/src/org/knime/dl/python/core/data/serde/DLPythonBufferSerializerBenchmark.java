@@ -0,0 +1,203 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.dl.core.data.DLTransferPrecision;
+import org.knime.dl.python.core.data.DLPythonBitBuffer;
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonDirectFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonSparseFloatBuffer;
+import org.knime.python.typeextension.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the serialization of Python data buffers into the byte arrays that are handed over to the Python process.
+ * Only the Java side of the transfer is measured, no Python installation is required.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@SuppressWarnings({ "rawtypes", "unchecked" }) // serializers are obtained with wildcard buffer types
+public class DLPythonBufferSerializerBenchmark {
+
+	/**
+	 * Every n-th element of the sparse buffer is non-zero.
+	 */
+	private static final int SPARSITY = 100;
+
+	@Param({ "65536", "1048576" })
+	public int m_size;
+
+	private DLPythonFloatBuffer m_floatBuffer;
+
+	private DLPythonDirectFloatBuffer m_directFloatBuffer;
+
+	private DLPythonDoubleBuffer m_doubleBuffer;
+
+	private DLPythonBitBuffer m_bitBuffer;
+
+	private DLPythonSparseFloatBuffer m_sparseFloatBuffer;
+
+	private Serializer m_floatSerializer;
+
+	private Serializer m_directFloatSerializer;
+
+	private Serializer m_doubleSerializer;
+
+	private Serializer m_bitSerializer;
+
+	private Serializer m_sparseFloatSerializer;
+
+	private Serializer m_float16Serializer;
+
+	private Serializer m_bfloat16Serializer;
+
+	private Serializer m_uint8Serializer;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		m_floatBuffer = new DLPythonFloatBuffer(m_size);
+		m_directFloatBuffer = new DLPythonDirectFloatBuffer(m_size);
+		m_doubleBuffer = new DLPythonDoubleBuffer(m_size);
+		m_bitBuffer = new DLPythonBitBuffer(m_size);
+		m_sparseFloatBuffer = new DLPythonSparseFloatBuffer(m_size);
+		for (int i = 0; i < m_size; i++) {
+			final float value = (i % 1000) * 0.01f;
+			m_floatBuffer.put(value);
+			m_directFloatBuffer.put(value);
+			m_doubleBuffer.put((double) value);
+			m_bitBuffer.put(i % 3 == 0);
+			m_sparseFloatBuffer.put(i % SPARSITY == 0 ? value : 0f);
+		}
+		m_floatSerializer = new DLPythonFloatBufferSerializerFactory().createSerializer();
+		m_directFloatSerializer = new DLPythonDirectFloatBufferSerializerFactory().createSerializer();
+		m_doubleSerializer = new DLPythonDoubleBufferSerializerFactory().createSerializer();
+		m_bitSerializer = new DLPythonBitBufferSerializerFactory().createSerializer();
+		m_sparseFloatSerializer = new DLPythonSparseFloatBufferSerializerFactory().createSerializer();
+		final DLPythonReducedPrecisionFloatBufferSerializerFactory reducedPrecisionFactory =
+				new DLPythonReducedPrecisionFloatBufferSerializerFactory();
+		m_float16Serializer = reducedPrecisionFactory.createSerializer(DLTransferPrecision.FLOAT16);
+		m_bfloat16Serializer = reducedPrecisionFactory.createSerializer(DLTransferPrecision.BFLOAT16);
+		m_uint8Serializer = reducedPrecisionFactory.createSerializer(DLTransferPrecision.UINT8);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_floatBuffer.close();
+		m_directFloatBuffer.close();
+		m_doubleBuffer.close();
+		m_bitBuffer.close();
+		m_sparseFloatBuffer.close();
+	}
+
+	@Benchmark
+	public byte[] serializeFloat() throws IOException {
+		return serialize(m_floatSerializer, m_floatBuffer);
+	}
+
+	@Benchmark
+	public byte[] serializeDirectFloat() throws IOException {
+		return serialize(m_directFloatSerializer, m_directFloatBuffer);
+	}
+
+	@Benchmark
+	public byte[] serializeDouble() throws IOException {
+		return serialize(m_doubleSerializer, m_doubleBuffer);
+	}
+
+	@Benchmark
+	public byte[] serializeBit() throws IOException {
+		return serialize(m_bitSerializer, m_bitBuffer);
+	}
+
+	@Benchmark
+	public byte[] serializeSparseFloat() throws IOException {
+		return serialize(m_sparseFloatSerializer, m_sparseFloatBuffer);
+	}
+
+	@Benchmark
+	public byte[] serializeFloatAsFloat16() throws IOException {
+		return serialize(m_float16Serializer, m_floatBuffer);
+	}
+
+	@Benchmark
+	public byte[] serializeFloatAsBFloat16() throws IOException {
+		return serialize(m_bfloat16Serializer, m_floatBuffer);
+	}
+
+	@Benchmark
+	public byte[] serializeFloatAsUInt8() throws IOException {
+		return serialize(m_uint8Serializer, m_floatBuffer);
+	}
+
+	private static byte[] serialize(final Serializer serializer, final DLPythonDataBuffer<?> buffer)
+			throws IOException {
+		buffer.resetRead();
+		return serializer.serialize(buffer);
+	}
+}
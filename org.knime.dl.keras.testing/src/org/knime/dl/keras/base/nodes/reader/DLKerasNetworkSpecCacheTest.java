@@ -0,0 +1,200 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.base.nodes.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.keras.core.DLKerasNetwork;
+import org.knime.dl.keras.core.DLKerasNetworkLoader;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkLoader;
+import org.knime.dl.keras.testing.DLKerasTestUtil;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasNetworkSpecCacheTest {
+
+    private static final DLKerasNetworkLoader<?> LOADER = new DLKerasTensorFlowNetworkLoader();
+
+    private final Random m_random = new Random(42);
+
+    private File m_cacheDirectory;
+
+    private File m_networkDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        m_cacheDirectory = FileUtil.createTempDir("dl-keras-spec-cache");
+        m_networkDirectory = FileUtil.createTempDir("dl-keras-networks");
+    }
+
+    @After
+    public void cleanup() {
+        FileUtil.deleteRecursively(m_cacheDirectory);
+        FileUtil.deleteRecursively(m_networkDirectory);
+    }
+
+    @Test
+    public void testHit() throws IOException {
+        final File network = createNetworkFile("network.h5", "network");
+        final DLKerasNetworkSpec spec = DLKerasTestUtil.randomNetworkSpec(m_random);
+        final DLKerasNetworkSpecCache cache = new DLKerasNetworkSpecCache(m_cacheDirectory, 10);
+        assertFalse(cache.get(LOADER, network.toURI()).isPresent());
+        cache.put(LOADER, network.toURI(), spec);
+        assertCached(cache, network, spec);
+        // a new cache instance (e.g. after restarting the application) reads the entries from disk
+        assertCached(new DLKerasNetworkSpecCache(m_cacheDirectory, 10), network, spec);
+    }
+
+    @Test
+    public void testMovedFileHitsByContent() throws IOException {
+        final File network = createNetworkFile("network.h5", "network");
+        final DLKerasNetworkSpec spec = DLKerasTestUtil.randomNetworkSpec(m_random);
+        new DLKerasNetworkSpecCache(m_cacheDirectory, 10).put(LOADER, network.toURI(), spec);
+        final File movedNetwork = new File(m_networkDirectory, "moved.h5");
+        Files.move(network.toPath(), movedNetwork.toPath());
+        assertCached(new DLKerasNetworkSpecCache(m_cacheDirectory, 10), movedNetwork, spec);
+    }
+
+    @Test
+    public void testChangedFileInvalidatesEntry() throws IOException {
+        final File network = createNetworkFile("network.h5", "network");
+        final DLKerasNetworkSpecCache cache = new DLKerasNetworkSpecCache(m_cacheDirectory, 10);
+        cache.put(LOADER, network.toURI(), DLKerasTestUtil.randomNetworkSpec(m_random));
+        Files.write(network.toPath(), "changed network".getBytes(StandardCharsets.UTF_8));
+        assertFalse(cache.get(LOADER, network.toURI()).isPresent());
+        assertFalse(new DLKerasNetworkSpecCache(m_cacheDirectory, 10).get(LOADER, network.toURI()).isPresent());
+    }
+
+    @Test
+    public void testCorruptEntryIsDeleted() throws IOException {
+        final File network = createNetworkFile("network.h5", "network");
+        new DLKerasNetworkSpecCache(m_cacheDirectory, 10).put(LOADER, network.toURI(),
+            DLKerasTestUtil.randomNetworkSpec(m_random));
+        final File[] specEntries = listSpecEntries();
+        assertEquals(1, specEntries.length);
+        Files.write(specEntries[0].toPath(), "corrupt".getBytes(StandardCharsets.UTF_8));
+        assertFalse(new DLKerasNetworkSpecCache(m_cacheDirectory, 10).get(LOADER, network.toURI()).isPresent());
+        assertFalse(specEntries[0].exists());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws IOException {
+        final File network0 = createNetworkFile("network0.h5", "network0");
+        final File network1 = createNetworkFile("network1.h5", "network1");
+        final File network2 = createNetworkFile("network2.h5", "network2");
+        final DLKerasNetworkSpec spec0 = DLKerasTestUtil.randomNetworkSpec(m_random);
+        final DLKerasNetworkSpec spec2 = DLKerasTestUtil.randomNetworkSpec(m_random);
+        final DLKerasNetworkSpecCache cache = new DLKerasNetworkSpecCache(m_cacheDirectory, 2);
+        cache.put(LOADER, network0.toURI(), spec0);
+        setLastModifiedOfAllEntries(System.currentTimeMillis() - 20000);
+        cache.put(LOADER, network1.toURI(), DLKerasTestUtil.randomNetworkSpec(m_random));
+        final long network1Used = System.currentTimeMillis() - 10000;
+        for (final File entry : m_cacheDirectory.listFiles()) {
+            if (entry.lastModified() > network1Used) {
+                entry.setLastModified(network1Used);
+            }
+        }
+        // an in-memory hit must mark the entries of network0 as recently used
+        assertCached(cache, network0, spec0);
+        cache.put(LOADER, network2.toURI(), spec2);
+        assertEquals(2, listSpecEntries().length);
+        final DLKerasNetworkSpecCache restartedCache = new DLKerasNetworkSpecCache(m_cacheDirectory, 2);
+        assertCached(restartedCache, network0, spec0);
+        assertFalse(restartedCache.get(LOADER, network1.toURI()).isPresent());
+        assertCached(restartedCache, network2, spec2);
+    }
+
+    @Test
+    public void testDisabled() throws IOException {
+        final File network = createNetworkFile("network.h5", "network");
+        final DLKerasNetworkSpecCache cache = new DLKerasNetworkSpecCache(m_cacheDirectory, 0);
+        assertFalse(cache.isEnabled());
+        cache.put(LOADER, network.toURI(), DLKerasTestUtil.randomNetworkSpec(m_random));
+        assertFalse(cache.get(LOADER, network.toURI()).isPresent());
+        assertEquals(0, listSpecEntries().length);
+    }
+
+    private File createNetworkFile(final String name, final String content) throws IOException {
+        final File network = new File(m_networkDirectory, name);
+        Files.write(network.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return network;
+    }
+
+    private File[] listSpecEntries() {
+        final File[] entries = m_cacheDirectory.listFiles((dir, name) -> name.endsWith(".spec"));
+        return entries != null ? entries : new File[0];
+    }
+
+    private void setLastModifiedOfAllEntries(final long lastModified) {
+        for (final File entry : m_cacheDirectory.listFiles()) {
+            entry.setLastModified(lastModified);
+        }
+    }
+
+    private static void assertCached(final DLKerasNetworkSpecCache cache, final File network,
+        final DLKerasNetworkSpec spec) {
+        final Optional<DLKerasNetwork> cachedNetwork = cache.get(LOADER, network.toURI());
+        assertTrue(cachedNetwork.isPresent());
+        assertEquals(spec, cachedNetwork.get().getSpec());
+        assertEquals(network.toURI(), cachedNetwork.get().getSource().getURI());
+    }
+}
@@ -46,6 +46,8 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputModelTestSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputMultiOutputForkJoinModelTestSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputMultiOutputModelTestSetup;
@@ -58,6 +60,7 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -133,6 +136,39 @@ public void testSerializeMultiInputMultiOutputForkJoinModel() throws IOException
         testSerialize(createMultiInputMultiOutputForkJoinModelTestSetup());
     }
 
+    @Test
+    public void testDeserializedLayersAreShared() throws IOException, ClassNotFoundException {
+        final List<DLKerasLayer> outputLayers = createSequentialModelTestSetup();
+        final DLKerasInnerLayer out0 = (DLKerasInnerLayer)outputLayers.get(0);
+        final DLKerasLayer hidden2 = (DLKerasLayer)out0.getParent(0);
+        // Mimics two consecutive layer nodes, each of which stores its entire upstream graph.
+        DLKerasNetworkGraphSerializer.writeGraphTo(Arrays.asList(hidden2), m_outStream);
+        DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, m_outStream);
+        m_inStream = outStreamToInStream();
+        final List<DLKerasLayer> deserializedHidden2 = DLKerasNetworkGraphSerializer.readGraphFrom(m_inStream, null);
+        final List<DLKerasLayer> deserializedOutputLayers =
+            DLKerasNetworkGraphSerializer.readGraphFrom(m_inStream, null);
+        assertGraphEquals(outputLayers, deserializedOutputLayers);
+        assertSame(deserializedHidden2.get(0), ((DLKerasInnerLayer)deserializedOutputLayers.get(0)).getParent(0));
+    }
+
+    @Test
+    public void testAlreadyWrittenLayersAreReferenced() throws IOException, ClassNotFoundException {
+        final List<DLKerasLayer> outputLayers = createSequentialModelTestSetup();
+        final DLKerasInnerLayer out0 = (DLKerasInnerLayer)outputLayers.get(0);
+        final DLKerasLayer hidden2 = (DLKerasLayer)out0.getParent(0);
+        DLKerasNetworkGraphSerializer.writeGraphTo(Arrays.asList(hidden2), m_outStream);
+        m_outStream.flush();
+        final int upstreamGraphSize = m_outStreamBase.size();
+        DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, m_outStream);
+        m_outStream.flush();
+        // only out0 is written in full, its ancestors are referenced via hidden2
+        assertTrue(m_outStreamBase.size() - upstreamGraphSize < upstreamGraphSize);
+        m_inStream = outStreamToInStream();
+        DLKerasNetworkGraphSerializer.readGraphFrom(m_inStream, null);
+        assertGraphEquals(outputLayers, DLKerasNetworkGraphSerializer.readGraphFrom(m_inStream, null));
+    }
+
     private void testSerialize(final List<DLKerasLayer> outputLayers) throws IOException, ClassNotFoundException {
         DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, m_outStream);
         m_inStream = outStreamToInStream();
@@ -46,6 +46,10 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputForkJoinModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputModelAppendedBinaryLayerSetup;
@@ -59,6 +63,8 @@
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnTwoMultiInputMultiOutputModelsAppendedBinaryLayerSetup;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
@@ -66,7 +72,11 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDefaultInputLayer;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDenseLayer;
+import org.knime.dl.util.DLUtils;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -134,6 +144,63 @@ public void testAppendBinaryLayerToTwoMultiInputMultiOutputModels()
         testOnTwoMultiInputMultiOutputModelsAppendedBinaryLayerSetup(this::inferSpecs, Function.identity());
     }
 
+    @Test
+    public void testRepeatedInferenceReusesLayerOutputSpecs() throws DLInvalidTensorSpecException {
+        final DLKerasDefaultInputLayer in0 = new DLKerasDefaultInputLayer();
+        final DLKerasDenseLayer hidden0 = new DLKerasDenseLayer();
+        hidden0.setParent(0, in0);
+        final DLKerasDenseLayer out0 = new DLKerasDenseLayer();
+        out0.setParent(0, hidden0);
+
+        final DLKerasNetworkSpec spec0 = inferSpecs(Arrays.asList(out0));
+        final List<DLTensorSpec> hidden0OutputSpecs = hidden0.getOutputSpecs();
+        final List<DLTensorSpec> out0OutputSpecs = out0.getOutputSpecs();
+        final DLKerasNetworkSpec spec1 = inferSpecs(Arrays.asList(out0));
+        assertEquals(spec0, spec1);
+        assertSame(hidden0OutputSpecs, hidden0.getOutputSpecs());
+        assertSame(out0OutputSpecs, out0.getOutputSpecs());
+    }
+
+    @Test
+    public void testChangingParentsInvalidatesLayerOutputSpecs() throws DLInvalidTensorSpecException {
+        final DLKerasDefaultInputLayer in0 = new DLKerasDefaultInputLayer();
+        final DLKerasDenseLayer hidden0 = new DLKerasDenseLayer();
+        hidden0.setParent(0, in0);
+        final DLKerasDenseLayer out0 = new DLKerasDenseLayer();
+        out0.setParent(0, hidden0);
+
+        final List<DLTensorSpec> out0OutputSpecs = out0.getOutputSpecs();
+        out0.setParent(0, in0);
+        final List<DLTensorSpec> reparentedOut0OutputSpecs = out0.getOutputSpecs();
+        assertNotSame(out0OutputSpecs, reparentedOut0OutputSpecs);
+        assertEquals(out0OutputSpecs, reparentedOut0OutputSpecs);
+        assertSame(reparentedOut0OutputSpecs, out0.getOutputSpecs());
+    }
+
+    @Test
+    public void testChangingAncestorParametersInvalidatesLayerOutputSpecs() throws Exception {
+        final DLKerasDefaultInputLayer in0 = new DLKerasDefaultInputLayer();
+        final DLKerasDenseLayer hidden0 = new DLKerasDenseLayer();
+        hidden0.setParent(0, in0);
+        final DLKerasDenseLayer out0 = new DLKerasDenseLayer();
+        out0.setParent(0, hidden0);
+
+        final List<DLTensorSpec> hidden0OutputSpecs = hidden0.getOutputSpecs();
+        final List<DLTensorSpec> out0OutputSpecs = out0.getOutputSpecs();
+        // parameters are written from outside of the layer, e.g. when loading node settings
+        final Field units = DLKerasDenseLayer.class.getDeclaredField("m_units");
+        units.setAccessible(true);
+        units.setLong(hidden0, 5);
+        DLKerasAbstractLayer.notifyLayerModified();
+
+        final List<DLTensorSpec> changedHidden0OutputSpecs = hidden0.getOutputSpecs();
+        assertNotSame(hidden0OutputSpecs, changedHidden0OutputSpecs);
+        assertArrayEquals(new long[]{5},
+            DLUtils.Shapes.getFixedShape(changedHidden0OutputSpecs.get(0).getShape()).get());
+        // the output specs of the child only depend on its own number of units and therefore did not change
+        assertSame(out0OutputSpecs, out0.getOutputSpecs());
+    }
+
     private DLKerasNetworkSpec inferSpecs(final List<DLKerasLayer> outputLayers) {
         return new DLKerasNetworkSpecInferrer(outputLayers).inferNetworkSpec();
     }
@@ -0,0 +1,199 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.keras.tensorflow.testing;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLNetworkReferenceLocation;
+import org.knime.dl.core.DLNetworkSpec;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorFactory;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowCommands;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkLoader;
+import org.knime.dl.keras.tensorflow.core.execution.DLKerasTensorFlowDefaultExecutionContext;
+import org.knime.dl.python.core.DLPythonDefaultNetworkReader;
+import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Tests that reusing the Keras model that computes the requested outputs across batches yields the same outputs as
+ * building a fresh execution model for each batch.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLKerasTensorFlowExecutionModelReuseTest {
+
+	private static final String BUNDLE_ID = "org.knime.dl.keras.testing";
+
+	private static final int BATCH_SIZE = 4;
+
+	private static final int NUM_BATCHES = 5;
+
+	@Test
+	public void testReusedExecutionModelMatchesFreshExecutionModel() throws Exception {
+		final URL source = FileUtil
+				.toURL(DLUtils.Files.getFileFromBundle(BUNDLE_ID, "data/my_2d_input_model.h5").getAbsolutePath());
+		final DLKerasTensorFlowNetworkLoader loader = new DLKerasTensorFlowNetworkLoader();
+		final DLKerasTensorFlowNetwork network = new DLPythonDefaultNetworkReader<>(loader)
+				.read(new DLNetworkReferenceLocation(source.toURI()), false, DLNotCancelable.INSTANCE);
+		final DLNetworkSpec networkSpec = network.getSpec();
+		final DLTensorSpec inputSpec = networkSpec.getInputSpecs()[0];
+		final DLTensorFactory tensorFactory = new DLKerasTensorFlowDefaultExecutionContext().getTensorFactory();
+		final DLTensor<? extends DLWritableBuffer> inputTensor = tensorFactory.createWritableTensor(tensorFactory
+				.createExecutionTensorSpec(inputSpec, BATCH_SIZE,
+						DLUtils.Shapes.getFixedShape(inputSpec.getShape()).get()));
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = Collections
+				.singletonMap(inputSpec.getIdentifier(), inputTensor);
+		final Set<DLTensorId> requestedOutputs = Collections.singleton(networkSpec.getOutputSpecs()[0].getIdentifier());
+		try (final DLKerasTensorFlowCommands commands = new DLKerasTensorFlowCommands()) {
+			final DLCancelable cancelable = DLNotCancelable.INSTANCE;
+			final DLPythonNetworkHandle handle = loader.load(network, commands.getContext(cancelable), false,
+					cancelable);
+			final List<double[]> reused = executeBatches(commands, tensorFactory, networkSpec, handle, input,
+					requestedOutputs, true);
+			final List<double[]> fresh = executeBatches(commands, tensorFactory, networkSpec, handle, input,
+					requestedOutputs, false);
+			assertEquals(NUM_BATCHES, reused.size());
+			for (int i = 0; i < NUM_BATCHES; i++) {
+				assertArrayEquals("Outputs of batch " + i + " differ.", fresh.get(i), reused.get(i), DOUBLE_EPSILON);
+			}
+		} finally {
+			inputTensor.close();
+		}
+	}
+
+	/**
+	 * @return the outputs of each batch
+	 */
+	private static List<double[]> executeBatches(final DLKerasTensorFlowCommands commands,
+			final DLTensorFactory tensorFactory, final DLNetworkSpec networkSpec, final DLPythonNetworkHandle handle,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final Set<DLTensorId> requestedOutputs,
+			final boolean cacheExecutionModel) throws Exception {
+		final DLCancelable cancelable = DLNotCancelable.INSTANCE;
+		final String setupCode = DLPythonUtils.createSourceCodeBuilder() //
+				.a("import DLPythonNetwork") //
+				.n("DLPythonNetwork.get_network(").as(handle.getIdentifier()).a(").cache_execution_model = ")
+				/**/ .a(cacheExecutionModel) //
+				.toString();
+		commands.getContext(cancelable).executeInKernel(setupCode, cancelable);
+		final List<double[]> outputs = new ArrayList<>(NUM_BATCHES);
+		Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = null;
+		try {
+			for (int i = 0; i < NUM_BATCHES; i++) {
+				for (final DLTensor<? extends DLWritableBuffer> tensor : input.values()) {
+					populate(tensor, i);
+				}
+				commands.setNetworkInputs(handle, input, cancelable);
+				for (final DLTensor<? extends DLWritableBuffer> tensor : input.values()) {
+					tensor.getBuffer().reset();
+				}
+				commands.executeNetwork(handle, requestedOutputs, BATCH_SIZE, cancelable);
+				if (output == null) {
+					output = createOutputTensors(commands, tensorFactory, networkSpec, handle, requestedOutputs);
+				}
+				commands.getNetworkOutputs(handle, output, cancelable);
+				final DLTensor<? extends DLReadableBuffer> tensor = output.values().iterator().next();
+				outputs.add(((DLReadableDoubleBuffer) tensor.getBuffer()).toDoubleArray());
+				tensor.getBuffer().reset();
+			}
+		} finally {
+			if (output != null) {
+				output.values().forEach(DLTensor::close);
+			}
+		}
+		return outputs;
+	}
+
+	private static Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> createOutputTensors(
+			final DLKerasTensorFlowCommands commands, final DLTensorFactory tensorFactory,
+			final DLNetworkSpec networkSpec, final DLPythonNetworkHandle handle, final Set<DLTensorId> requestedOutputs)
+			throws Exception {
+		final DLTensorSpec outputSpec = networkSpec.getOutputSpecs()[0];
+		final long[] outShape = commands
+				.getNetworkOutputShapes(handle, requestedOutputs, DLNotCancelable.INSTANCE)
+				.get(outputSpec.getIdentifier());
+		final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
+		System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
+		return Collections.singletonMap(outputSpec.getIdentifier(), tensorFactory.createReadableTensor(
+				tensorFactory.createExecutionTensorSpec(outputSpec, outShape[0], outShapeWithoutBatchSize)));
+	}
+
+	/**
+	 * Fills the tensor with values that differ between batches and between the elements of a batch.
+	 */
+	private static void populate(final DLTensor<?> data, final int batchIndex) {
+		if (data.getBuffer() instanceof DLWritableFloatBuffer) {
+			final DLWritableFloatBuffer buffer = (DLWritableFloatBuffer) data.getBuffer();
+			buffer.resetWrite();
+			for (int i = 0; i < buffer.getCapacity(); i++) {
+				buffer.put((batchIndex + 1) * 0.5f - (i % 7) * 0.1f);
+			}
+		} else {
+			throw new IllegalStateException("Unexpected input buffer type.");
+		}
+	}
+}
@@ -138,6 +138,11 @@ class DLKerasNetwork(DLPythonNetwork):
     def __init__(self, model, compatibility_mode=False):
         super().__init__(DLKerasNetwork._convert_sequential_to_model(model, compatibility_mode))
         self._training_monitor = None
+        # The model that is used for prediction, keyed by the requested outputs. Building it (and its predict function)
+        # is expensive, so we reuse it as long as the same outputs are requested.
+        self.cache_execution_model = True
+        self._execution_model = None
+        self._execution_model_output_identifiers = None
 
     @abc.abstractmethod
     def _extract_model_spec(self):
@@ -150,26 +155,9 @@ class DLKerasNetwork(DLPythonNetwork):
         return self._spec
 
     def execute(self, in_data, batch_size, output_identifiers):
-        model = self._model
         X = self._format_input(in_data, batch_size)
-
-        # Get the requested output tensors
-        outputs = []
-        for id in output_identifiers:
-            matcher = re.match(r'^(.*)_(\d+):(\d+)$', id)
-            layer_name = matcher.group(1)
-            node_idx = int(matcher.group(2))
-            tensor_idx = int(matcher.group(3))
-            output_tensors = model.get_layer(layer_name).get_output_at(node_idx)
-            if not isinstance(output_tensors, list):
-                output_tensors = [output_tensors]
-            if output_tensors[tensor_idx] in model.inputs:
-                output_tensors[tensor_idx] = Lambda(lambda x: x)(output_tensors[tensor_idx])
-            outputs.append(output_tensors[tensor_idx])
-
-        # Build the model with the requested outputs
-        intermediate_model = Model(inputs=model.inputs, outputs=outputs)
-        Y = intermediate_model.predict(X, batch_size=batch_size, verbose=0)
+        execution_model = self._get_execution_model(output_identifiers)
+        Y = execution_model.predict(X, batch_size=batch_size, verbose=0)
         return self._format_output(Y, output_identifiers)
 
     def train(self, training_data_supplier, validation_data_supplier=None, send_to_java=None):
@@ -193,7 +181,8 @@ class DLKerasNetwork(DLPythonNetwork):
         self._model.compile(loss=loss, optimizer=config.optimizer, metrics=metrics)
 
         if not any(isinstance(c, DLKerasTrainingMonitor) for c in config.callbacks):
-            training_monitor = DLKerasTrainingMonitor(self)
+            training_monitor = DLKerasTrainingMonitor(self, report_batches=config.metrics_reporting_batches,
+                                                      report_interval=config.metrics_reporting_interval)
             config.callbacks.append(training_monitor)
             self._training_monitor = training_monitor
 
@@ -215,7 +204,7 @@ class DLKerasNetwork(DLPythonNetwork):
                                             callbacks=config.callbacks,
                                             validation_data=validation_data_generator,
                                             validation_steps=validation_steps,
-                                            **{kw_max_queue: 1})
+                                            **{kw_max_queue: max(1, config.prefetch_depth)})
         return history.history
 
     def stop_early(self):
@@ -235,6 +224,34 @@ class DLKerasNetwork(DLPythonNetwork):
 
     # "Protected" helper methods:
 
+    def _get_execution_model(self, output_identifiers):
+        output_identifiers = tuple(output_identifiers)
+        if (not self.cache_execution_model or self._execution_model is None
+                or self._execution_model_output_identifiers != output_identifiers):
+            self._execution_model = self._build_execution_model(output_identifiers)
+            self._execution_model_output_identifiers = output_identifiers
+        return self._execution_model
+
+    def _build_execution_model(self, output_identifiers):
+        model = self._model
+        # Get the requested output tensors
+        outputs = []
+        for id in output_identifiers:
+            matcher = re.match(r'^(.*)_(\d+):(\d+)$', id)
+            layer_name = matcher.group(1)
+            node_idx = int(matcher.group(2))
+            tensor_idx = int(matcher.group(3))
+            output_tensors = model.get_layer(layer_name).get_output_at(node_idx)
+            if not isinstance(output_tensors, list):
+                output_tensors = [output_tensors]
+            if output_tensors[tensor_idx] in model.inputs:
+                output_tensors[tensor_idx] = Lambda(lambda x: x)(output_tensors[tensor_idx])
+            outputs.append(output_tensors[tensor_idx])
+
+        # Build the model with the requested outputs. It shares its layers (and therefore its weights) with the actual
+        # model, so it stays valid if the actual model gets trained.
+        return Model(inputs=model.inputs, outputs=outputs)
+
     def _format_input(self, in_data, batch_size):
         return self._format_tensor(in_data, self.spec.input_specs, batch_size)
 
@@ -309,3 +326,9 @@ class DLKerasTrainingConfig(DLPythonTrainingConfig):
         self.loss = {}
         self.metrics = ['acc']
         self.callbacks = []
+        # number of batches that are requested from Java ahead of time while training, 0 means on demand
+        self.prefetch_depth = 0
+        # number of batches whose metrics are reported to Java at once, 1 means each batch is reported on its own
+        self.metrics_reporting_batches = 1
+        # maximum time in ms that coalesced batch metrics are held back, 0 means no limit
+        self.metrics_reporting_interval = 0
@@ -49,7 +49,9 @@
 '''
 
 import abc
+import struct
 import sys
+import time
 
 from keras.callbacks import Callback
 from keras.callbacks import EarlyStopping
@@ -107,10 +109,28 @@ class DLKerasTerminateOnNaN(TerminateOnNaN, DLKerasAbstractTrainingCallback):
 
 
 class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
-    def __init__(self, network):
+    def __init__(self, network, report_batches=1, report_interval=0):
+        """
+        :param report_batches: the number of batches whose metrics are reported to Java in one message. If 1, each
+            batch is reported via separate 'batch_begin' and 'batch_end' messages. Otherwise, metrics are coalesced
+            into binary 'batch_metrics' messages.
+        :param report_interval: the maximum time in milliseconds that coalesced metrics are held back before they are
+            reported, even if fewer than report_batches batches have been completed. Only applies if report_batches
+            is greater than 1, 0 disables the time limit.
+        """
         super().__init__()
         self._network = network
         self._stop_training = False
+        self._report_batches = max(1, report_batches)
+        self._report_interval = report_interval / 1000.0
+        self._metric_names = None
+        self._pending_metrics = []
+        self._last_report = None
+        self._batch_start = None
+
+    @property
+    def _coalesce(self):
+        return self._report_batches > 1
 
     def stop_early(self):
         self._stop_training = True
@@ -120,8 +140,12 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
         # metrics_names = self.params['metrics']
         # self._metrics = pd.DataFrame(index=[0], columns=metrics_names)
         self._stop_training = False
+        self._metric_names = None
+        self._pending_metrics = []
+        self._last_report = time.perf_counter()
 
     def on_train_end(self, logs=None):
+        self._report_pending_metrics()
         if self._stop_training:
             # flush pending Keras logs before printing our own status message
             sys.stdout.flush()
@@ -131,6 +155,7 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
         self.send_to_java('epoch_begin')
 
     def on_epoch_end(self, epoch, logs=None):
+        self._report_pending_metrics()
         if logs:
             loss = logs.get('val_loss')
             acc = logs.get('val_acc')
@@ -146,17 +171,71 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
             self.send_to_java('epoch_end', str(acc) + ';' + str(loss))
 
     def on_batch_begin(self, batch, logs=None):
-        self.send_to_java('batch_begin')
+        if self._coalesce:
+            self._batch_start = time.perf_counter()
+        else:
+            self.send_to_java('batch_begin')
 
     def on_batch_end(self, batch, logs=None):
-        if logs:
+        if self._coalesce:
+            self._collect_metrics(batch, logs)
+        elif logs:
             loss = logs.get('loss')
-            acc = logs.get('acc')
-            if acc is None:
-                # Multi-output networks only have an accuracy metric per output. Average over them and use the result as
-                # accuracy for the entire network. TODO: Note that this is a temporary workaround. Per-output metric
-                # reporting is pending.
-                accs = [v for k, v in logs.items() if k.endswith('_acc')]
-                acc = sum(accs) / len(accs)
-
+            acc = DLKerasTrainingMonitor._get_accuracy(logs)
             self.send_to_java('batch_end', str(acc) + ';' + str(loss))
+
+    @staticmethod
+    def _get_accuracy(logs):
+        acc = logs.get('acc')
+        if acc is None:
+            # Multi-output networks only have an accuracy metric per output. Average over them and use the result as
+            # accuracy for the entire network. TODO: Note that this is a temporary workaround. Per-output metric
+            # reporting is pending.
+            accs = [v for k, v in logs.items() if k.endswith('_acc')]
+            if accs:
+                acc = sum(accs) / len(accs)
+        return acc
+
+    def _is_last_batch_of_epoch(self, batch):
+        steps = self.params.get('steps')
+        return steps is not None and batch + 1 >= steps
+
+    def _collect_metrics(self, batch, logs):
+        now = time.perf_counter()
+        duration = int((now - self._batch_start) * 1e9) if self._batch_start is not None else 0
+        self._batch_start = None
+        logs = logs or {}
+        if self._metric_names is None:
+            # 'accuracy' and 'loss' first as expected by Java, followed by any per-output metrics
+            self._metric_names = ['accuracy', 'loss'] + sorted(
+                k for k in logs.keys() if k not in ('batch', 'size', 'acc', 'loss'))
+        values = [DLKerasTrainingMonitor._get_accuracy(logs) if logs else None, logs.get('loss')]
+        values += [logs.get(name) for name in self._metric_names[2:]]
+        # invalid values are reported as -1, just like in the per-batch messages
+        self._pending_metrics.append((duration, [float(v) if v is not None else -1.0 for v in values]))
+        # always report at the end of an epoch such that Java can follow the validation phase
+        if (len(self._pending_metrics) >= self._report_batches
+                or (0 < self._report_interval <= now - self._last_report)
+                or self._is_last_batch_of_epoch(batch)):
+            self._report_pending_metrics()
+
+    def _report_pending_metrics(self):
+        """
+        Sends the collected batch metrics to Java. Layout (little endian): int32 number of metrics, for each metric
+        its name as int32 length plus UTF-8 bytes, int32 number of batches, for each batch the int64 execution time in
+        nanoseconds followed by one float32 value per metric.
+        """
+        if not self._pending_metrics:
+            return
+        names = [n.encode('utf-8') for n in self._metric_names]
+        parts = [struct.pack('<i', len(names))]
+        for name in names:
+            parts.append(struct.pack('<i', len(name)))
+            parts.append(name)
+        parts.append(struct.pack('<i', len(self._pending_metrics)))
+        values_format = '<q' + 'f' * len(names)
+        for duration, values in self._pending_metrics:
+            parts.append(struct.pack(values_format, duration, *values))
+        self._pending_metrics = []
+        self._last_report = time.perf_counter()
+        self.send_to_java('batch_metrics', b''.join(parts))
@@ -67,6 +67,7 @@
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectSpecBase;
 import org.knime.dl.keras.base.portobjects.DLKerasUnmaterializedNetworkPortObject;
 import org.knime.dl.keras.base.portobjects.DLKerasUnmaterializedNetworkPortObjectSpec;
+import org.knime.dl.keras.core.layers.DLKerasAbstractLayer;
 import org.knime.dl.keras.core.layers.DLKerasDefaultBaseNetworkTensorSpecOutput;
 import org.knime.dl.keras.core.layers.DLKerasInnerLayer;
 import org.knime.dl.keras.core.layers.DLKerasLayer;
@@ -192,6 +193,7 @@ private static void appendToExistingNetwork(final int parentIndex,
     @Override
     protected void loadValidatedSettingsFrom(NodeSettingsRO settings) throws InvalidSettingsException {
         Structs.shallowCopyUnsafe(StructInstances.createReadInstance(settings, m_settingsRO), m_instance);
+        DLKerasAbstractLayer.notifyLayerModified();
     }
 
     @Override
@@ -103,6 +103,36 @@ final class DLKerasLearnerGeneralConfig extends AbstractConfig implements DLGene
 
 	static final String CFG_KEY_RANDOM_SEED = "random_seed";
 
+	/**
+	 * @since 3.7
+	 */
+	static final String CFG_KEY_CACHE_TRAINING_DATA = "cache_training_data";
+
+	/**
+	 * @since 3.7
+	 */
+	static final String CFG_KEY_SHUFFLE_WINDOW_SIZE = "shuffle_window_size";
+
+	/**
+	 * @since 3.7
+	 */
+	static final String CFG_KEY_PREFETCH_DEPTH = "training_data_prefetch_depth";
+
+	/**
+	 * @since 3.7
+	 */
+	static final String CFG_KEY_METRICS_REPORTING_BATCHES = "metrics_reporting_batches";
+
+	/**
+	 * @since 3.7
+	 */
+	static final String CFG_KEY_METRICS_REPORTING_INTERVAL = "metrics_reporting_interval";
+
+	/**
+	 * @since 3.7
+	 */
+	static final String CFG_KEY_STATISTICS_FLOW_VARIABLES = "statistics_flow_variables";
+
 	static Collection<DLKerasTrainingContext<?>> getAvailableTrainingContexts(
 			final Class<? extends DLNetwork> networkType) {
 		return DLTrainingContextRegistry.getInstance().getTrainingContextsForNetworkType((networkType)) //
@@ -216,6 +246,61 @@ protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings,
 			}
 		};
 		put(randomSeed);
+
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_CACHE_TRAINING_DATA, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): set to false as we previously did not cache any data
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_SHUFFLE_WINDOW_SIZE, Integer.class, 0) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): shuffle the whole table as we previously did
+				m_value = 0;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_PREFETCH_DEPTH, Integer.class, 2) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): batches were only prepared upon request
+				m_value = 0;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_METRICS_REPORTING_BATCHES, Integer.class, 1) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): the metrics of each batch were reported on their own
+				m_value = 1;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_METRICS_REPORTING_INTERVAL, Integer.class, 1000) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): only relevant if more than one batch is reported at once
+				m_value = 1000;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_STATISTICS_FLOW_VARIABLES, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): no statistics were pushed
+				m_value = false;
+				return true;
+			}
+		});
 	}
 
 	@Override
@@ -276,6 +361,48 @@ ConfigEntry<Long> getRandomSeed() {
 		return get(CFG_KEY_RANDOM_SEED, Long.class);
 	}
 
+	/**
+	 * @since 3.7
+	 */
+	ConfigEntry<Boolean> getCacheTrainingDataEntry() {
+		return get(CFG_KEY_CACHE_TRAINING_DATA, Boolean.class);
+	}
+
+	/**
+	 * @since 3.7
+	 */
+	ConfigEntry<Integer> getShuffleWindowSizeEntry() {
+		return get(CFG_KEY_SHUFFLE_WINDOW_SIZE, Integer.class);
+	}
+
+	/**
+	 * @since 3.7
+	 */
+	ConfigEntry<Integer> getPrefetchDepthEntry() {
+		return get(CFG_KEY_PREFETCH_DEPTH, Integer.class);
+	}
+
+	/**
+	 * @since 3.7
+	 */
+	ConfigEntry<Integer> getMetricsReportingBatchesEntry() {
+		return get(CFG_KEY_METRICS_REPORTING_BATCHES, Integer.class);
+	}
+
+	/**
+	 * @since 3.7
+	 */
+	ConfigEntry<Integer> getMetricsReportingIntervalEntry() {
+		return get(CFG_KEY_METRICS_REPORTING_INTERVAL, Integer.class);
+	}
+
+	/**
+	 * @since 3.7
+	 */
+	ConfigEntry<Boolean> getStatisticsFlowVariablesEntry() {
+		return get(CFG_KEY_STATISTICS_FLOW_VARIABLES, Boolean.class);
+	}
+
 	void copyClipSettingsToOptimizer() {
 		final DLKerasOptimizer optimizer = getOptimizerEntry().getValue();
 		if (optimizer != null) {
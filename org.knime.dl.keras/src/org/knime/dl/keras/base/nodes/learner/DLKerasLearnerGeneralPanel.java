@@ -106,6 +106,10 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 		ConfigEntry<Boolean> shuffleEntry = m_cfg.getShuffleTrainingData();
 		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(shuffleEntry),
 				"Shuffle training data before each epoch", true);
+
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getShuffleWindowSizeEntry(), 0, Integer.MAX_VALUE),
+				"Shuffle window size (0 = whole table)", 1000);
 		
 		ConfigEntry<Long> randomSeedConfig = m_cfg.getRandomSeed();
 		DialogComponentRandomSeed randomSeed = 
@@ -119,6 +123,20 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 			randomSeedConfig.setEnabled(!v);
 			toggleCheckBox.setEnabled(!v);
 		});
+
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getCacheTrainingDataEntry()),
+				"Cache converted training data across epochs", true);
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getPrefetchDepthEntry(), 0, Integer.MAX_VALUE),
+				"Number of training batches to prefetch", 1);
+		addNumberSpinnerRowComponent(
+				ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getMetricsReportingBatchesEntry(), 1, Integer.MAX_VALUE),
+				"Number of batches per metrics report", 1);
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+				m_cfg.getMetricsReportingIntervalEntry(), 0, Integer.MAX_VALUE),
+				"Maximum metrics reporting delay (ms, 0 = no limit)", 100);
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getStatisticsFlowVariablesEntry()),
+				"Output training statistics as flow variables", true);
 	}
 	
 	private JCheckBox getLastCheckBox() {
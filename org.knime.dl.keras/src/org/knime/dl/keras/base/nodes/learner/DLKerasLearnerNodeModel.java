@@ -97,9 +97,12 @@
 import org.knime.dl.core.DLNetworkSpec;
 import org.knime.dl.core.DLNotCancelable;
 import org.knime.dl.core.DLRowIterator;
+import org.knime.dl.core.DLSessionStatistics;
 import org.knime.dl.core.DLShuffleDataTableRowIterator;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.DLWindowedShuffleDataTableRowIterator;
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.core.training.DLKnimeNetworkTrainingInputPreparer;
 import org.knime.dl.core.training.DLKnimeNetworkValidationInputPreparer;
@@ -639,7 +642,10 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
 				inNetworkSpec.getInputSpecs().length + inNetworkSpec.getOutputSpecs().length);
 		final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converterForTensorId = new LinkedHashMap<>(
 				columnsForTensorId.size());
-		fillInputAndTargetSpecificMaps(inTableSpec, columnsForTensorId, converterForTensorId);
+		final HashMap<DLTensorId, DLTransferPrecision> transferPrecisionForTensorId = new HashMap<>(
+				columnsForTensorId.size());
+		fillInputAndTargetSpecificMaps(inTableSpec, columnsForTensorId, converterForTensorId,
+				transferPrecisionForTensorId);
 
 		// TODO: only valid if we don't crop the last batch. This has to be considered if we want to add 'crop' as an
 		// alternative strategy for handling incomplete batches.
@@ -655,23 +661,35 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
 		final Random random = createRandom();
 
 		m_status = new DLKerasDefaultTrainingStatus(trainingConfig.getEpochs(), numTrainingBatchesPerEpoch);
+		final boolean doCache = m_generalCfg.getCacheTrainingDataEntry().getValue();
 		try (final DLRowIterator rowIterator = createRowIterator(inTable, columnsForTensorId, random, exec);
 				final DLKnimeNetworkTrainingInputPreparer inputPreparer = new DLKnimeNetworkTrainingInputPreparer(
-						rowIterator, (int)trainingConfig.getBatchSize(), converterForTensorId);
+						rowIterator, (int)trainingConfig.getBatchSize(), converterForTensorId, doCache,
+						m_generalCfg.getShuffleTrainingData().getValue() ? new Random(random.nextLong()) : null);
 				final DLKnimeNetworkValidationInputPreparer validationPreparer = doValidation
 						? new DLKnimeNetworkValidationInputPreparer(
 								new DLDataTableRowIterator(inValidationTable, columnsForTensorId), (int)trainingConfig.getValidationBatchSize(),
-								converterForTensorId)
+								converterForTensorId, doCache)
 						: null;
                 DLKerasNetworkTrainingSession session = ctx.createTrainingSession(inNetwork, trainingConfig,
 						DLExecutionSpecCreator.createExecutionSpecs(rowIterator.peek(), ctx.getTensorFactory(),
 								trainingConfig.getBatchSize(), columnsForTensorId, m_converters),
 						inputPreparer, validationPreparer);) {
             m_session = session; // Needed for early stopping.
+			inputPreparer.setTransferPrecisions(transferPrecisionForTensorId);
+			if (validationPreparer != null) {
+				validationPreparer.setTransferPrecisions(transferPrecisionForTensorId);
+			}
 			final DLKnimeTrainingMonitor<DLKerasTrainingStatus> monitor = new DLKnimeTrainingMonitor<>(exec, m_status);
 			setupTrainingStatus(doValidation, trainingConfig, numTrainingBatchesPerEpoch, totalNumTrainingBatches,
                 monitor);
             session.run(monitor);
+			final DLSessionStatistics statistics = m_status.getStatistics();
+			LOGGER.debug("Training statistics:\n" + statistics);
+			if (m_generalCfg.getStatisticsFlowVariablesEntry().getValue()) {
+				statistics.toMap().forEach((name, value) -> pushFlowVariableDouble(
+						DLSessionStatistics.FLOW_VARIABLE_PREFIX + name, value));
+			}
 			exec.setMessage("Saving trained Keras deep learning network...");
             return session.getTrainedNetwork(exec);
 		} catch (final CanceledExecutionException | DLCanceledExecutionException e) {
@@ -809,7 +827,8 @@ private void prepareView(final boolean doValidation, final int totalNumTrainingB
     }
 
     private void fillInputAndTargetSpecificMaps(final DataTableSpec inTableSpec, final Map<DLTensorId, int[]> columnsForTensorId,
-        final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converterForTensorId) {
+        final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converterForTensorId,
+        final Map<DLTensorId, DLTransferPrecision> transferPrecisionForTensorId) {
         for (final Entry<DLTensorSpec, DLDataValueToTensorConverterFactory<?, ?>> entry : m_converters.entrySet()) {
             final DLTensorSpec inputOrTargetSpec = entry.getKey();
             final DLTensorId inputOrTargetId = inputOrTargetSpec.getIdentifier();
@@ -831,6 +850,8 @@ private void fillInputAndTargetSpecificMaps(final DataTableSpec inTableSpec, fin
 			}).toArray();
 			columnsForTensorId.put(inputOrTargetSpec.getIdentifier(), indices);
 			converterForTensorId.put(inputOrTargetSpec.getIdentifier(), entry.getValue());
+			transferPrecisionForTensorId.put(inputOrTargetSpec.getIdentifier(),
+					inputOrTargetCfg.getTransferPrecisionEntry().getValue());
 		}
     }
 
@@ -841,8 +862,11 @@ private DLKerasTrainingConfig createTrainingConfig(final DLKerasNetworkSpec inNe
 		final DLKerasOptimizer optimizer = m_generalCfg.getOptimizerEntry().getValue();
         final Map<DLTensorId, DLKerasLossFunction> lossFunctions = createLossFunctionMap(inNetworkSpec);
 		final ArrayList<DLKerasCallback> callbacks = createCallbackList();
-		return new DLKerasDefaultTrainingConfig(numEpochs, trainingBatchSize,
-				validationBatchSize, optimizer, lossFunctions, callbacks);
+		final int prefetchDepth = m_generalCfg.getPrefetchDepthEntry().getValue();
+		final int metricsReportingBatches = m_generalCfg.getMetricsReportingBatchesEntry().getValue();
+		final int metricsReportingInterval = m_generalCfg.getMetricsReportingIntervalEntry().getValue();
+		return new DLKerasDefaultTrainingConfig(numEpochs, trainingBatchSize, validationBatchSize, optimizer,
+				lossFunctions, callbacks, prefetchDepth, metricsReportingBatches, metricsReportingInterval);
     }
 
     private ArrayList<DLKerasCallback> createCallbackList() {
@@ -899,6 +923,11 @@ private DLRowIterator createRowIterator(final BufferedDataTable inTable,
 			final Map<DLTensorId, int[]> columnsForTensorId, final Random random, final ExecutionContext exec) {
 		final boolean doShuffle = m_generalCfg.getShuffleTrainingData().getValue();
 		if (doShuffle) {
+			final int windowSize = m_generalCfg.getShuffleWindowSizeEntry().getValue();
+			if (windowSize > 0) {
+				return new DLWindowedShuffleDataTableRowIterator(inTable, columnsForTensorId, random.nextLong(),
+						windowSize);
+			}
 			return new DLShuffleDataTableRowIterator(inTable, columnsForTensorId, random.nextLong(),
 					exec.createSubExecutionContext(0));
 		}
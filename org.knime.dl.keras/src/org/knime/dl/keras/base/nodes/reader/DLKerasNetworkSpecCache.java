@@ -0,0 +1,421 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.keras.base.nodes.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNetworkReferenceLocation;
+import org.knime.dl.keras.core.DLKerasNetwork;
+import org.knime.dl.keras.core.DLKerasNetworkLoader;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.util.DLUtils;
+import org.knime.python2.PythonPreferencePage;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Persistent cache of the network specs that were extracted from Keras network files by the Keras reader node.
+ * Extracting a spec requires starting Python and loading the entire network which blocks configuring the node for
+ * several seconds, while the spec of an unchanged file can simply be reused.
+ * <P>
+ * Specs are stored in the KNIME home directory under their content key, the hash of the network file's content and
+ * the back end. In addition, a lookup entry maps the file's URI, size and modification time to the content key, so the
+ * (potentially large) file does not need to be hashed again as long as it is unchanged. Specs are also kept in memory
+ * for the lifetime of the application. Both keys also contain the version of the Keras integration (including its
+ * build qualifier) and the configured Python installation. Specs are therefore neither reused across releases or
+ * builds of the integration, whose spec classes may have changed while their serial version UID did not, nor across
+ * Python installations. Updating the Keras or back end packages within the same Python installation is not detected.
+ * <P>
+ * The maximum number of cached specs can be specified via VM option {@link #SPEC_CACHE_SIZE_VM_OPT}. A size of zero
+ * disables the cache. If the maximum is exceeded, the least recently used entries are evicted.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLKerasNetworkSpecCache {
+
+    /**
+     * @see #isEnabled()
+     */
+    static final String SPEC_CACHE_SIZE_VM_OPT = "knime.dl.keras.speccachesize";
+
+    /**
+     * @see #isEnabled()
+     */
+    static final int SPEC_CACHE_DEFAULT_SIZE = 100;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasNetworkSpecCache.class);
+
+    /**
+     * Must be incremented whenever the layout of the cache entries changes.
+     */
+    private static final int CACHE_FORMAT_VERSION = 1;
+
+    private static final String SPEC_ENTRY_EXTENSION = ".spec";
+
+    private static final String LOOKUP_ENTRY_EXTENSION = ".ref";
+
+    private static final DLKerasNetworkSpecCache INSTANCE = new DLKerasNetworkSpecCache(
+        new File(KNIMEConstants.getKNIMEHomeDir(), "dl" + File.separator + "keras-network-spec-cache"),
+        parseMaxCachedSpecs());
+
+    private static int parseMaxCachedSpecs() {
+        int size = -1;
+        try {
+            size = Integer
+                .parseInt(System.getProperty(SPEC_CACHE_SIZE_VM_OPT, Integer.toString(SPEC_CACHE_DEFAULT_SIZE)));
+        } catch (final NumberFormatException ex) {
+            // Ignore, see below.
+        }
+        if (size < 0) {
+            size = SPEC_CACHE_DEFAULT_SIZE;
+            LOGGER.warn("The VM option -D" + SPEC_CACHE_SIZE_VM_OPT
+                + " was not set to a non-negative integer value, and thus defaults to " + size + ".");
+        }
+        return size;
+    }
+
+    /**
+     * @return the cache used by the Keras reader node
+     */
+    static DLKerasNetworkSpecCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final File m_cacheDirectory;
+
+    private final int m_maxCachedSpecs;
+
+    /**
+     * Maps lookup keys to the cached specs along with their content keys.
+     */
+    private final Cache<String, DLCachedSpec> m_inMemoryCache;
+
+    /**
+     * @param cacheDirectory the directory in which to store the cache entries, created if it does not exist
+     * @param maxCachedSpecs the maximum number of cached specs, zero disables the cache
+     */
+    DLKerasNetworkSpecCache(final File cacheDirectory, final int maxCachedSpecs) {
+        m_cacheDirectory = cacheDirectory;
+        m_maxCachedSpecs = maxCachedSpecs;
+        m_inMemoryCache = CacheBuilder.newBuilder().maximumSize(maxCachedSpecs).build();
+    }
+
+    /**
+     * @return <code>true</code> if extracted specs are cached at all, the maximum number of cached specs can be
+     *         specified by the user via VM option {@link #SPEC_CACHE_SIZE_VM_OPT}, defaults to
+     *         {@link #SPEC_CACHE_DEFAULT_SIZE}
+     */
+    boolean isEnabled() {
+        return m_maxCachedSpecs > 0;
+    }
+
+    /**
+     * Creates a network from the cached spec of the given network file, if any.
+     *
+     * @param loader the back end that reads the file
+     * @param source the URI of the network file
+     * @return the network, empty if there is no cached spec or the file is not available locally
+     */
+    Optional<DLKerasNetwork> get(final DLKerasNetworkLoader<?> loader, final URI source) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        final Optional<File> file = getLocalFile(source);
+        if (!file.isPresent()) {
+            return Optional.empty();
+        }
+        final String environmentKey = createEnvironmentKey(loader);
+        final String lookupKey = createLookupKey(environmentKey, source, file.get());
+        DLCachedSpec cachedSpec = m_inMemoryCache.getIfPresent(lookupKey);
+        if (cachedSpec != null) {
+            // Keeps the entries of specs that are only used in memory from being evicted.
+            touchEntry(lookupKey + LOOKUP_ENTRY_EXTENSION);
+            if (cachedSpec.m_contentKey != null) {
+                touchEntry(cachedSpec.m_contentKey + SPEC_ENTRY_EXTENSION);
+            }
+        } else {
+            // The file may have been touched or moved, in which case we have to fall back to its content.
+            final String cachedContentKey = readLookupEntry(lookupKey);
+            final Optional<String> contentKey = cachedContentKey != null ? Optional.of(cachedContentKey)
+                : createContentKey(environmentKey, source);
+            if (!contentKey.isPresent()) {
+                return Optional.empty();
+            }
+            final DLKerasNetworkSpec spec = readSpecEntry(contentKey.get());
+            if (spec == null) {
+                return Optional.empty();
+            }
+            writeLookupEntry(lookupKey, contentKey.get());
+            cachedSpec = new DLCachedSpec(contentKey.get(), spec);
+            m_inMemoryCache.put(lookupKey, cachedSpec);
+        }
+        try {
+            // The source has already been validated by the caller.
+            return Optional.of(cachedSpec.m_spec.create(new DLNetworkReferenceLocation(source), false));
+        } catch (final DLInvalidSourceException e) {
+            // Cannot happen as per DLKerasNetworkSpec#create(..) API.
+            LOGGER.debug("Cached network spec of '" + source + "' could not be reused.", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Caches the spec of the given network file.
+     *
+     * @param loader the back end that read the file
+     * @param source the URI of the network file
+     * @param spec the extracted spec
+     */
+    void put(final DLKerasNetworkLoader<?> loader, final URI source, final DLKerasNetworkSpec spec) {
+        if (!isEnabled()) {
+            return;
+        }
+        final Optional<File> file = getLocalFile(source);
+        if (!file.isPresent()) {
+            return;
+        }
+        final String environmentKey = createEnvironmentKey(loader);
+        final String lookupKey = createLookupKey(environmentKey, source, file.get());
+        final Optional<String> contentKey = createContentKey(environmentKey, source);
+        m_inMemoryCache.put(lookupKey, new DLCachedSpec(contentKey.orElse(null), spec));
+        if (contentKey.isPresent()) {
+            writeSpecEntry(contentKey.get(), spec);
+            writeLookupEntry(lookupKey, contentKey.get());
+            evictLeastRecentlyUsedEntries();
+        }
+    }
+
+    private static Optional<File> getLocalFile(final URI source) {
+        try {
+            final File file = FileUtil.getFileFromURL(source.toURL());
+            return file != null && file.isFile() ? Optional.of(file) : Optional.empty();
+        } catch (final Exception e) {
+            // Unknown protocol, remote source or resolving failed.
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Identifies everything besides the network file that the extracted spec depends on: the back end, the cache
+     * format, the version of the Keras integration and the Python installation.
+     */
+    private static String createEnvironmentKey(final DLKerasNetworkLoader<?> loader) {
+        final Hasher hasher = Hashing.sha256().newHasher() //
+            .putString(loader.getNetworkType().getName(), StandardCharsets.UTF_8) //
+            .putInt(CACHE_FORMAT_VERSION);
+        // Includes the build qualifier, serialized specs of other builds may not be compatible.
+        final Bundle bundle = FrameworkUtil.getBundle(DLKerasNetworkSpecCache.class);
+        hasher.putString(bundle != null ? bundle.getVersion().toString() : "", StandardCharsets.UTF_8);
+        String pythonPath;
+        try {
+            pythonPath = PythonPreferencePage.getPython3Path();
+        } catch (final Exception e) {
+            // Preferences not available, the installation will be tested when actually reading the network.
+            pythonPath = null;
+        }
+        if (pythonPath != null) {
+            hasher.putString(pythonPath, StandardCharsets.UTF_8);
+            // Changes if the installation is replaced at the same path.
+            hasher.putLong(new File(pythonPath).lastModified());
+        }
+        return hasher.hash().toString();
+    }
+
+    private static String createLookupKey(final String environmentKey, final URI source, final File file) {
+        return Hashing.sha256().newHasher() //
+            .putString(environmentKey, StandardCharsets.UTF_8) //
+            .putString(source.toString(), StandardCharsets.UTF_8) //
+            .putLong(file.length()) //
+            .putLong(file.lastModified()) //
+            .hash().toString();
+    }
+
+    private static Optional<String> createContentKey(final String environmentKey, final URI source) {
+        return DLUtils.Files.getContentHash(source).map(contentHash -> Hashing.sha256().newHasher() //
+            .putString(environmentKey, StandardCharsets.UTF_8) //
+            .putString(contentHash, StandardCharsets.UTF_8) //
+            .hash().toString());
+    }
+
+    private String readLookupEntry(final String lookupKey) {
+        final File entry = new File(getCacheDirectory(), lookupKey + LOOKUP_ENTRY_EXTENSION);
+        if (!entry.isFile()) {
+            return null;
+        }
+        try {
+            final String contentKey = new String(Files.readAllBytes(entry.toPath()), StandardCharsets.UTF_8).trim();
+            entry.setLastModified(System.currentTimeMillis());
+            return contentKey;
+        } catch (final IOException e) {
+            LOGGER.debug("Network spec cache entry '" + entry + "' could not be read.", e);
+            return null;
+        }
+    }
+
+    private DLKerasNetworkSpec readSpecEntry(final String contentKey) {
+        final File entry = new File(getCacheDirectory(), contentKey + SPEC_ENTRY_EXTENSION);
+        if (!entry.isFile()) {
+            return null;
+        }
+        try (ObjectInputStream objIn = new ObjectInputStream(Files.newInputStream(entry.toPath()))) {
+            final DLKerasNetworkSpec spec = (DLKerasNetworkSpec)objIn.readObject();
+            // Keeps recently used entries from being evicted.
+            entry.setLastModified(System.currentTimeMillis());
+            return spec;
+        } catch (final Exception e) {
+            // E.g. the entry is corrupt.
+            LOGGER.debug("Network spec cache entry '" + entry + "' could not be read and will be deleted.", e);
+            entry.delete();
+            return null;
+        }
+    }
+
+    private void touchEntry(final String entryName) {
+        final File entry = new File(getCacheDirectory(), entryName);
+        if (entry.isFile()) {
+            entry.setLastModified(System.currentTimeMillis());
+        }
+    }
+
+    private void writeLookupEntry(final String lookupKey, final String contentKey) {
+        writeEntry(lookupKey + LOOKUP_ENTRY_EXTENSION, contentKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeSpecEntry(final String contentKey, final DLKerasNetworkSpec spec) {
+        final File tmpEntry = new File(getCacheDirectory(), UUID.randomUUID().toString() + ".tmp");
+        try {
+            try (ObjectOutputStream objOut = new ObjectOutputStream(Files.newOutputStream(tmpEntry.toPath()))) {
+                objOut.writeObject(spec);
+            }
+            moveEntry(tmpEntry, contentKey + SPEC_ENTRY_EXTENSION);
+        } catch (final IOException e) {
+            LOGGER.debug("Network spec cache entry '" + contentKey + "' could not be written.", e);
+            tmpEntry.delete();
+        }
+    }
+
+    private void writeEntry(final String entryName, final byte[] content) {
+        final File tmpEntry = new File(getCacheDirectory(), UUID.randomUUID().toString() + ".tmp");
+        try {
+            Files.write(tmpEntry.toPath(), content);
+            moveEntry(tmpEntry, entryName);
+        } catch (final IOException e) {
+            LOGGER.debug("Network spec cache entry '" + entryName + "' could not be written.", e);
+            tmpEntry.delete();
+        }
+    }
+
+    /**
+     * Entries are written to a temporary file first and then moved into place, so concurrently configured reader nodes
+     * never see partially written entries.
+     */
+    private void moveEntry(final File tmpEntry, final String entryName) throws IOException {
+        final File entry = new File(getCacheDirectory(), entryName);
+        try {
+            Files.move(tmpEntry.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(tmpEntry.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Entries are touched whenever they are used, so their modification times order them by recency.
+     */
+    private synchronized void evictLeastRecentlyUsedEntries() {
+        final File[] entries = getCacheDirectory().listFiles(
+            (dir, name) -> name.endsWith(SPEC_ENTRY_EXTENSION) || name.endsWith(LOOKUP_ENTRY_EXTENSION));
+        // Each spec is usually referenced by one lookup entry.
+        if (entries == null || entries.length <= 2 * m_maxCachedSpecs) {
+            return;
+        }
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < entries.length - 2 * m_maxCachedSpecs; i++) {
+            entries[i].delete();
+        }
+    }
+
+    private File getCacheDirectory() {
+        m_cacheDirectory.mkdirs();
+        return m_cacheDirectory;
+    }
+
+    private static final class DLCachedSpec {
+
+        /**
+         * May be <code>null</code> if the spec is only cached in memory.
+         */
+        private final String m_contentKey;
+
+        private final DLKerasNetworkSpec m_spec;
+
+        private DLCachedSpec(final String contentKey, final DLKerasNetworkSpec spec) {
+            m_contentKey = contentKey;
+            m_spec = spec;
+        }
+    }
+}
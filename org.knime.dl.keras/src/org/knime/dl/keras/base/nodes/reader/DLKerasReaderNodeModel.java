@@ -56,6 +56,7 @@
 import java.net.URL;
 import java.nio.file.InvalidPathException;
 import java.util.List;
+import java.util.Optional;
 
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.CanceledExecutionException;
@@ -168,10 +169,17 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
         } catch (final DLInvalidSourceException e) {
 			throw new InvalidSettingsException(e.getMessage(), e);
 		}
+        // Extracting the spec requires loading the network in Python, so reuse the spec of unchanged files.
+        final Optional<DLKerasNetwork> cachedNetwork = DLKerasNetworkSpecCache.getInstance().get(loader, uri);
+        if (cachedNetwork.isPresent()) {
+            m_network = cachedNetwork.get();
+            return new PortObjectSpec[]{new DLKerasNetworkPortObjectSpec(m_network.getSpec(), m_network.getClass())};
+        }
         try {
             // TODO: We could allow the user to configure "loadTrainingConfig" flag.
             m_network = new DLPythonDefaultNetworkReader<>(loader).read(new DLNetworkReferenceLocation(uri), true,
                 DLNotCancelable.INSTANCE);
+            DLKerasNetworkSpecCache.getInstance().put(loader, uri, m_network.getSpec());
         } catch (final Exception e) {
             String message;
             if (e instanceof DLException) {
@@ -104,7 +104,7 @@ private DLKerasUnmaterializedNetworkPortObject(final DLKerasPortObjectContent co
     }
 
     @Override
-    public DLKerasNetwork getNetwork() throws DLInvalidSourceException, IOException {
+    public synchronized DLKerasNetwork getNetwork() throws DLInvalidSourceException, IOException {
         if (m_content instanceof DLKerasUnmaterializedPortObjectContent) {
             final DLNetworkFileStoreLocation saveLocation = new DLNetworkFileStoreLocation(getFileStore(0));
             m_content = ((DLKerasUnmaterializedPortObjectContent)m_content).materialize(saveLocation);
@@ -72,6 +72,14 @@ public DLKerasCNTKNetworkExecutionSession(final DLKerasCNTKNetwork network,
 		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory);
 	}
 
+	public DLKerasCNTKNetworkExecutionSession(final DLKerasCNTKNetwork network,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+			final DLTensorFactory tensorFactory, final int numBatchesInFlight) {
+		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory,
+				numBatchesInFlight);
+	}
+
 	@Override
 	protected DLKerasCNTKCommands createCommands() throws DLInvalidEnvironmentException {
 		return new DLKerasCNTKCommands();
@@ -71,6 +71,7 @@
 import org.knime.dl.python.core.DLPythonAbstractCommands;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.core.DLPythonNetworkHandleCache;
 import org.knime.dl.python.core.DLPythonNetworkHandleTableCreatorFactory;
 import org.knime.dl.python.core.SingleValueTableCreator;
 import org.knime.dl.python.core.training.DLPythonTrainingStatus;
@@ -92,6 +93,11 @@ public abstract class DLKerasAbstractCommands extends DLPythonAbstractCommands {
 
     private static final String KERAS_VERSION_NAME = "keras_version";
 
+    /**
+     * Set by {@link #setNetworkTrainingConfig(DLPythonNetworkHandle, DLKerasTrainingConfig, DLCancelable)}.
+     */
+    private int m_prefetchDepth = 0;
+
 	protected DLKerasAbstractCommands() {
 	}
 
@@ -107,13 +113,26 @@ protected String getSetupBackendCode() {
         return "";
     }
 
+    @Override
+    protected String getResetWorkspaceCode() {
+        // Release the graph and session of the back end before cleaning up the workspace. Cached networks still live in
+        // that graph, so it is kept as long as there are any, but only for a bounded number of resets as the graph
+        // grows with every use of the kernel. Releasing it also clears the network cache.
+        return "import DLPythonNetwork\n" + //
+            "if DLPythonNetwork.release_cached_state(" + DLPythonNetworkHandleCache.getMaxResetsWithCachedNetworks()
+            + "):\n" + //
+            "    import keras.backend\n" + //
+            "    keras.backend.clear_session()\n" + //
+            super.getResetWorkspaceCode();
+    }
+
     @Override
     protected DLPythonNetworkTrainingTaskHandler createNetworkTrainingTaskHandler(final DLPythonContext context,
         final DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor,
         final DLNetworkInputProvider trainingInputProvider, final DLNetworkInputProvider validationInputProvider,
         final DLThrowingBiFunction<DLTensorId, DLTensor<? extends DLWritableBuffer>, TableChunker, IOException> singleTensorTableChunkerCreator) {
         return new DLKerasNetworkTrainingTaskHandler(context, monitor, trainingInputProvider, validationInputProvider,
-            singleTensorTableChunkerCreator);
+            singleTensorTableChunkerCreator, m_prefetchDepth);
     }
 
     @Override
@@ -182,6 +201,9 @@ public void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final D
 		.n("config.epochs = ").a(config.getEpochs()) //
 		.n("config.batch_size = ").a(config.getBatchSize()) //
 		.n("config.validation_batch_size = ").a(config.getValidationBatchSize()) //
+		.n("config.prefetch_depth = ").a(config.getPrefetchDepth()) //
+		.n("config.metrics_reporting_batches = ").a(config.getMetricsReportingBatches()) //
+		.n("config.metrics_reporting_interval = ").a(config.getMetricsReportingInterval()) //
 		// TODO: How to import dependencies (here: of optimizer and losses) in a generic way?
 		.n("import keras") //
 		.n("config.optimizer = ").a(config.getOptimizer().getBackendRepresentation()) //
@@ -194,6 +216,7 @@ public void setNetworkTrainingConfig(final DLPythonNetworkHandle handle, final D
 		.n("network = DLPythonNetwork.get_network(").as(handle.getIdentifier()).a(")")
 		.n("network.spec.training_config = config");
 		getContext(cancelable).executeInKernel(b.toString(), cancelable);
+		m_prefetchDepth = config.getPrefetchDepth();
 	}
 
     public void stopTrainNetworkEarly(final DLPythonNetworkHandle network)
@@ -271,8 +294,10 @@ private static class DLKerasNetworkTrainingTaskHandler extends DLPythonNetworkTr
         protected DLKerasNetworkTrainingTaskHandler(final DLPythonContext context,
             final DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor,
             final DLNetworkInputProvider trainingInputProvider, final DLNetworkInputProvider validationInputProvider,
-            final DLThrowingBiFunction<DLTensorId, DLTensor<? extends DLWritableBuffer>, TableChunker, IOException> singleTensorTableChunkerCreator) {
-            super(context, monitor, trainingInputProvider, validationInputProvider, singleTensorTableChunkerCreator);
+            final DLThrowingBiFunction<DLTensorId, DLTensor<? extends DLWritableBuffer>, TableChunker, IOException> singleTensorTableChunkerCreator,
+            final int prefetchDepth) {
+            super(context, monitor, trainingInputProvider, validationInputProvider, singleTensorTableChunkerCreator,
+                prefetchDepth);
         }
 
         @Override
@@ -71,7 +71,15 @@
     protected DLKerasAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
 			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
 			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
-		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory);
+		this(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory, 1);
+	}
+
+	protected DLKerasAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
+			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
+			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory,
+			final int numBatchesInFlight) {
+		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory,
+				numBatchesInFlight);
 		boolean hasFixedBatchSizes = false;
 		boolean hasVariableBatchSizes = false;
 		for (final DLTensorSpec inputSpec : network.getSpec().getInputSpecs()) {
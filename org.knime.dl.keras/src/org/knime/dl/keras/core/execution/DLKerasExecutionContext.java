@@ -65,4 +65,9 @@
 	DLKerasNetworkExecutionSession createExecutionSession(N network, Set<DLTensorSpec> executionInputSpecs,
 			Set<DLTensorId> requestedOutputs, DLNetworkInputPreparer inputPreparer,
 			DLNetworkOutputConsumer outputConsumer);
+
+	@Override
+	DLKerasNetworkExecutionSession createExecutionSession(N network, Set<DLTensorSpec> executionInputSpecs,
+			Set<DLTensorId> requestedOutputs, DLNetworkInputPreparer inputPreparer,
+			DLNetworkOutputConsumer outputConsumer, int numBatchesInFlight);
 }
@@ -51,6 +51,7 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.knime.dl.core.DLDefaultTensorId;
@@ -79,6 +80,14 @@ protected static void checkInputSpec(final boolean expression, final String mess
     
     private DLKerasDataFormat m_dataFormat;
 
+    /**
+     * The output specs inferred by the last call to {@link #getOutputSpecs()} along with the inputs they were inferred
+     * from. As long as no layer was modified since the memo was last validated, it is returned without looking at the
+     * parents at all. Otherwise only the direct parents are checked: they revalidate their own memos and keep
+     * returning the identical output specs list as long as their output specs did not change.
+     */
+    private volatile DLOutputSpecsMemo m_outputSpecsMemo;
+
     public DLKerasAbstractInnerLayer(final String kerasIdentifier, final int numParents) {
         super(kerasIdentifier);
         m_parents = new DLKerasTensorSpecsOutput[numParents];
@@ -120,11 +129,15 @@ public void setParent(final int index, final DLKerasTensorSpecsOutput parent) {
         checkNotNull(parent);
         checkArgument(parent != this);
         m_parents[index] = parent;
+        m_outputSpecsMemo = null;
+        notifyLayerModified();
     }
     
     @Override
     public final void setTensorIndexInParent(int parentIndex, int indexInParent) {
         m_indexInParents[parentIndex] = indexInParent;
+        m_outputSpecsMemo = null;
+        notifyLayerModified();
     }
     
     @Override
@@ -134,7 +147,24 @@ public int getTensorIndexInParent(int parentIndex) {
 
     @Override
     public final List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecException {
-        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
+        final long modificationCount = getModificationCount();
+        final DLOutputSpecsMemo memo = m_outputSpecsMemo;
+        if (memo != null && memo.m_modificationCount == modificationCount) {
+            return memo.m_outputSpecs;
+        }
+        final List<List<DLTensorSpec>> parentOutputSpecs = new ArrayList<>(m_parents.length);
+        final List<DLTensorSpec> selectedInputSpecs = new ArrayList<>(m_parents.length);
+        for (int i = 0; i < m_parents.length; i++) {
+            parentOutputSpecs.add(m_parents[i] != null ? m_parents[i].getOutputSpecs() : null);
+            selectedInputSpecs.add(getInputTensorSpec(i));
+        }
+        // The parameters may have been changed (e.g. by loading new settings), so they are part of the memo's key.
+        final String parameters = getBackendRepresentation(null);
+        if (memo != null && memo.isValidFor(parameters, parentOutputSpecs, selectedInputSpecs)) {
+            m_outputSpecsMemo = memo.revalidate(modificationCount);
+            return memo.m_outputSpecs;
+        }
+        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs(parentOutputSpecs);
         validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
         final List<Class<?>> outputElementTypes = inferOutputElementTypes(inputSpecs.m_elementTypes);
         final List<Long[]> outputShapes = inferOutputShapes(inputSpecs.m_shapes);
@@ -143,7 +173,13 @@ public final List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecExcep
             outputSpecs.add(DLDefaultTensorSpec.create(new DLDefaultTensorId("dummy"), "dummy", inputSpecs.m_batchSize,
                 outputShapes.get(i), outputElementTypes.get(i), inputSpecs.m_dimensionOrder));
         }
-        return outputSpecs;
+        // Keep returning the identical list if the output specs did not change, such that the memos of the children
+        // stay valid.
+        final List<DLTensorSpec> unmodifiableOutputSpecs = memo != null && memo.m_outputSpecs.equals(outputSpecs)
+            ? memo.m_outputSpecs : Collections.unmodifiableList(outputSpecs);
+        m_outputSpecsMemo = new DLOutputSpecsMemo(modificationCount, parameters, parentOutputSpecs,
+            selectedInputSpecs, unmodifiableOutputSpecs);
+        return unmodifiableOutputSpecs;
     }
 
     @Override
@@ -176,15 +212,23 @@ public boolean equalsIgnoreName(final DLKerasTensorSpecsOutput other) {
     }
 
     private DLInputSpecsHelperStruct collectInputSpecs() throws DLInvalidTensorSpecException {
+        final List<List<DLTensorSpec>> parentOutputSpecs = new ArrayList<>(m_parents.length);
+        for (final DLKerasTensorSpecsOutput parent : m_parents) {
+            parentOutputSpecs.add(parent != null ? parent.getOutputSpecs() : null);
+        }
+        return collectInputSpecs(parentOutputSpecs);
+    }
+
+    private DLInputSpecsHelperStruct collectInputSpecs(final List<List<DLTensorSpec>> allParentOutputSpecs)
+        throws DLInvalidTensorSpecException {
         Long inputBatchSize = null;
         final List<Long[]> inputShapes = new ArrayList<>(m_parents.length);
         final List<Class<?>> inputElementTypes = new ArrayList<>(m_parents.length);
         DLDimensionOrder inputDimensionOrder = null;
         for (int i = 0; i < m_parents.length; i++) {
-            DLKerasTensorSpecsOutput parent = m_parents[i];
+            final List<DLTensorSpec> parentOutputSpecs = allParentOutputSpecs.get(i);
             DLTensorSpec selected = getInputTensorSpec(i);
-            if (parent != null) {
-                final List<DLTensorSpec> parentOutputSpecs = parent.getOutputSpecs();
+            if (parentOutputSpecs != null) {
                 DLTensorSpec parentOutputSpec =
                     parentOutputSpecs.contains(selected) ? selected : parentOutputSpecs.get(0);
                 if (parentOutputSpec.getBatchSize().isPresent()) {
@@ -230,4 +274,46 @@ private DLInputSpecsHelperStruct(final Long inputBatchSize, final List<Long[]> i
             m_dimensionOrder = inputDimensionOrder;
         }
     }
+
+    private static final class DLOutputSpecsMemo {
+
+        private final long m_modificationCount;
+
+        private final String m_parameters;
+
+        private final List<List<DLTensorSpec>> m_parentOutputSpecs;
+
+        private final List<DLTensorSpec> m_selectedInputSpecs;
+
+        private final List<DLTensorSpec> m_outputSpecs;
+
+        private DLOutputSpecsMemo(final long modificationCount, final String parameters,
+            final List<List<DLTensorSpec>> parentOutputSpecs, final List<DLTensorSpec> selectedInputSpecs,
+            final List<DLTensorSpec> outputSpecs) {
+            m_modificationCount = modificationCount;
+            m_parameters = parameters;
+            m_parentOutputSpecs = parentOutputSpecs;
+            m_selectedInputSpecs = selectedInputSpecs;
+            m_outputSpecs = outputSpecs;
+        }
+
+        private boolean isValidFor(final String parameters, final List<List<DLTensorSpec>> parentOutputSpecs,
+            final List<DLTensorSpec> selectedInputSpecs) {
+            if (!m_parameters.equals(parameters) || !m_selectedInputSpecs.equals(selectedInputSpecs)) {
+                return false;
+            }
+            for (int i = 0; i < m_parentOutputSpecs.size(); i++) {
+                // identity suffices, parents keep returning the identical list as long as their specs do not change
+                if (m_parentOutputSpecs.get(i) != parentOutputSpecs.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private DLOutputSpecsMemo revalidate(final long modificationCount) {
+            return new DLOutputSpecsMemo(modificationCount, m_parameters, m_parentOutputSpecs, m_selectedInputSpecs,
+                m_outputSpecs);
+        }
+    }
 }
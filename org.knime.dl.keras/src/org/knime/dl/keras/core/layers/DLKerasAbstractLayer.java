@@ -49,6 +49,7 @@
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.knime.dl.keras.core.struct.param.Required;
@@ -61,6 +62,30 @@
  */
 public abstract class DLKerasAbstractLayer extends DLKerasAbstractObject implements DLKerasLayer {
 
+    /**
+     * Incremented whenever the parameters or the connections of any layer change. Memoized output specs are only
+     * revalidated against their inputs if this count changed since they were last validated.
+     */
+    private static final AtomicLong MODIFICATION_COUNT = new AtomicLong();
+
+    /**
+     * Must be called after the parameters of a layer were changed from outside the layer (e.g. after new settings
+     * were loaded into it), as this cannot be detected by the layer itself.
+     *
+     * @since 3.7
+     */
+    public static void notifyLayerModified() {
+        MODIFICATION_COUNT.incrementAndGet();
+    }
+
+    /**
+     * @return the number of modifications of any layer so far
+     * @since 3.7
+     */
+    protected static long getModificationCount() {
+        return MODIFICATION_COUNT.get();
+    }
+
     @Parameter(label = "Name prefix", required = Required.OptionalAndNotEnabled)
     private String m_namePrefix = null;
 
@@ -50,13 +50,18 @@
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import org.knime.core.data.filestore.FileStore;
@@ -79,6 +84,11 @@
 import org.knime.dl.keras.core.struct.param.ParameterStructs;
 import org.knime.dl.keras.core.struct.param.ValidityException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import gnu.trove.TIntArrayList;
 
 /**
@@ -109,6 +119,25 @@ public final class DLKerasNetworkGraphSerializer {
 
     private static final String CFG_KEY_OUTPUT_LAYERS = "output_layers";
 
+    private static final String CFG_KEY_LAYER_KEY = "key";
+
+    private static final String CFG_KEY_LAYER_REFERENCE = "reference";
+
+    /**
+     * Layers that were written or read by this class, keyed by their content. Each node of a chain of layer nodes
+     * stores the graph of its output layers, so this is used to resolve references to the ancestor layers which were
+     * written in full by an upstream node and to share equal subgraphs across loaded graphs. Layers are only looked up
+     * if their runtime id did not change since, as layer nodes assign a new runtime id on each reset.
+     */
+    private static final Cache<String, DLKerasLayer> INTERNED_LAYERS = CacheBuilder.newBuilder().weakValues().build();
+
+    /**
+     * The content keys of the layers in {@link #INTERNED_LAYERS} along with their runtime ids at the time they were
+     * written or read. {@link #writeGraphTo(List, ObjectOutputStream)} only references layers contained in here.
+     */
+    private static final Cache<DLKerasLayer, DLPersistedLayer> PERSISTED_LAYERS =
+        CacheBuilder.newBuilder().weakKeys().build();
+
     private DLKerasNetworkGraphSerializer() {
     }
 
@@ -151,7 +180,9 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
 
     /**
      * Writes the Keras network graph specified by the given output layers and their inputs (i.e. predecessor nodes) to
-     * a stream.
+     * a stream. Layers that were already written or read before (and were not reset since) are only referenced, along
+     * with all of their ancestors. Reading the graph therefore requires the graphs that contain these layers in full
+     * (i.e. those of the upstream nodes) to be read before.
      *
      * @param outputLayers the output layers of the network to serialize
      * @param objOut the stream to which to write the network graph, it is the client's responsibility to close it
@@ -160,8 +191,7 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
     public static Map<Integer, DLKerasBaseNetworkTensorSpecOutput> writeGraphTo(final List<DLKerasLayer> outputLayers,
         final ObjectOutputStream objOut) throws IOException {
         final NodeSettings graphSettings = new NodeSettings(CFG_KEY_GRAPH);
-        final AtomicInteger layerIndexCounter = new AtomicInteger();
-        final Map<DLKerasTensorSpecsOutput, Integer> layerIndices = new HashMap<>();
+        final Map<DLKerasTensorSpecsOutput, Integer> layerIndices = new IdentityHashMap<>();
         try {
             final TIntArrayList outputLayerIndices = new TIntArrayList(outputLayers.size());
             // Collects all base network specs. We have to serialize them outside the node settings.
@@ -169,41 +199,31 @@ public static Map<Integer, DLKerasBaseNetworkTensorSpecOutput> writeGraphTo(fina
             // Collects all the base networks whose network location cannot be simply (de)serialized.
             final LinkedHashMap<Integer, DLKerasBaseNetworkTensorSpecOutput> nonReferenceBaseNetworkLayers =
                 new LinkedHashMap<>(2);
-            new DLKerasNetworkGraphTopologicalOrderIterator(outputLayers).visitAll(new DLKerasLayerVisitor() {
-
-                @Override
-                public void visitOutput(final DLKerasInnerLayer outputLayer) throws Exception {
-                    visitHidden(outputLayer);
-                    outputLayerIndices.add(layerIndices.get(outputLayer));
-                }
-
-                @Override
-                public void visitHidden(final DLKerasInnerLayer innerLayer) throws Exception {
-                    final NodeSettingsWO layerSettings = saveLayer(innerLayer);
-                    final NodeSettingsWO parentSettings = layerSettings.addNodeSettings(CFG_KEY_LAYER_PARENTS);
-                    for (int i = 0; i < innerLayer.getNumParents(); i++) {
-                        final DLKerasTensorSpecsOutput parent = innerLayer.getParent(i);
-                        NodeSettingsWO parentSetting = parentSettings.addNodeSettings(Integer.toString(i));
-                        parentSetting.addInt(CFG_KEY_PARENT_INDEX, layerIndices.get(parent));
-                        parentSetting.addInt(CFG_KEY_INDEX_IN_PARENT, innerLayer.getTensorIndexInParent(i));
+            // Content keys of the written layers, null for layers that must not be shared (see readGraphFrom).
+            final List<String> layerKeys = new ArrayList<>();
+            final Map<DLKerasLayer, DLPersistedLayer> writtenLayers = new IdentityHashMap<>();
+            for (final DLKerasTensorSpecsOutput layer : collectLayersToWrite(outputLayers)) {
+                final int layerIndex = layerIndices.size();
+                layerIndices.put(layer, layerIndex);
+                final NodeSettingsWO layerSettings = graphSettings.addNodeSettings(Integer.toString(layerIndex));
+                layerSettings.addString(CFG_KEY_LAYER_CLASS, layer.getClass().getCanonicalName());
+                final DLPersistedLayer persistedLayer = getPersistedLayer(layer);
+                if (persistedLayer != null) {
+                    // Was already written in full, e.g. as part of the port object spec of an upstream node.
+                    layerSettings.addString(CFG_KEY_LAYER_REFERENCE, persistedLayer.m_key);
+                    layerSettings.addString(CFG_KEY_LAYER_RUNTIME_ID, persistedLayer.m_runtimeId);
+                    layerKeys.add(persistedLayer.m_key);
+                } else if (layer instanceof DLKerasLayer) {
+                    final String layerKey = saveLayer((DLKerasLayer)layer, layerSettings, layerIndices, layerKeys);
+                    if (layerKey != null) {
+                        layerSettings.addString(CFG_KEY_LAYER_KEY, layerKey);
+                        writtenLayers.put((DLKerasLayer)layer,
+                            new DLPersistedLayer(layerKey, ((DLKerasLayer)layer).getRuntimeId()));
                     }
-                }
-
-                @Override
-                public void visitInput(final DLKerasInputLayer inputLayer) throws Exception {
-                    saveLayer(inputLayer);
-                }
-
-                @Override
-                public void visitInputOutput(final DLKerasInputLayer inputOutputLayer) throws Exception {
-                    saveLayer(inputOutputLayer);
-                    outputLayerIndices.add(layerIndices.get(inputOutputLayer));
-                }
-
-                @Override
-                public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput) {
-                    final NodeSettingsWO layerSettings = createLayerSettings(baseNetworkOutput);
-                    final int layerIndex = layerIndices.get(baseNetworkOutput);
+                    layerKeys.add(layerKey);
+                } else if (layer instanceof DLKerasBaseNetworkTensorSpecOutput) {
+                    final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput =
+                        (DLKerasBaseNetworkTensorSpecOutput)layer;
                     layerSettings.addInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX,
                         baseNetworkOutput.getBaseNetworkOutputIndex());
                     final DLNetworkLocation baseNetworkSource = baseNetworkOutput.getBaseNetworkSource();
@@ -213,31 +233,17 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
                         nonReferenceBaseNetworkLayers.put(layerIndex, baseNetworkOutput);
                     }
                     baseNetworkSpecs.put(layerIndex, baseNetworkOutput.getBaseNetworkSpec());
+                    layerKeys.add(null);
+                } else {
+                    throw new UnsupportedOperationException("Layer class '" + layer.getClass().getCanonicalName()
+                        + "' is not marked as either " + DLKerasLayer.class.getCanonicalName() + " or "
+                        + DLKerasBaseNetworkTensorSpecOutput.class.getCanonicalName()
+                        + ". This is an implementation error.");
                 }
-
-                private NodeSettingsWO saveLayer(final DLKerasLayer layer)
-                    throws ValidityException, InvalidSettingsException {
-                    final NodeSettingsWO layerSettings = createLayerSettings(layer);
-                    // TODO: Avoid redundant creation of layer struct (not instance), should be cached somewhere.
-                    final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
-                        ParameterStructs.createInstance(layer);
-                    final StructInstance<MemberWriteInstance<?>, ?> settingsInstance =
-                        NodeSettingsStructs.createNodeSettingsInstance(
-                            layerSettings.addNodeSettings(CFG_KEY_LAYER_PARAMS), layerInstance.struct());
-                    Structs.shallowCopyUnsafe(layerInstance, settingsInstance);
-                    layerSettings.addString(CFG_KEY_LAYER_RUNTIME_ID, layer.getRuntimeId());
-                    return layerSettings;
-                }
-
-                private NodeSettingsWO createLayerSettings(final DLKerasTensorSpecsOutput layer) {
-                    assert !layerIndices.containsKey(layer);
-                    final int layerIndex = layerIndexCounter.getAndIncrement();
-                    layerIndices.put(layer, layerIndex);
-                    final NodeSettingsWO layerSettings = graphSettings.addNodeSettings(Integer.toString(layerIndex));
-                    layerSettings.addString(CFG_KEY_LAYER_CLASS, layer.getClass().getCanonicalName());
-                    return layerSettings;
-                }
-            });
+            }
+            for (final DLKerasLayer outputLayer : outputLayers) {
+                outputLayerIndices.add(layerIndices.get(outputLayer));
+            }
             graphSettings.addIntArray(CFG_KEY_OUTPUT_LAYERS, outputLayerIndices.toNativeArray());
             // Write to stream.
             objOut.writeInt(baseNetworkSpecs.size());
@@ -246,6 +252,10 @@ private NodeSettingsWO createLayerSettings(final DLKerasTensorSpecsOutput layer)
                 objOut.writeObject(entry.getValue());
             }
             objOut.writeObject(graphSettings);
+            // Only now, written layers may be referenced by subsequent writes.
+            for (final Entry<DLKerasLayer, DLPersistedLayer> entry : writtenLayers.entrySet()) {
+                internLayer(entry.getValue().m_key, entry.getKey());
+            }
             return nonReferenceBaseNetworkLayers;
         } catch (final Exception e) {
             throw new IOException("An exception occurred while saving the Keras layer graph. See log for details.", e);
@@ -254,7 +264,8 @@ private NodeSettingsWO createLayerSettings(final DLKerasTensorSpecsOutput layer)
 
     /**
      * Reads a Keras network graph from stream and returns its output layers. The entire graph can be accessed via the
-     * layers' input (i.e. predecessor node) relationships.
+     * layers' input (i.e. predecessor node) relationships. Graphs written before 3.7 contain all layers in full and
+     * can still be read.
      *
      * @param objIn the stream from which to read the network graph, it is the client's responsibility to close it
      * @param baseNetworkSourceAmender may be <code>null</code>
@@ -284,26 +295,63 @@ public static List<DLKerasLayer> readGraphFrom(final ObjectInputStream objIn,
             // -1 because of saved output indices
             final int numLayers = graphSettings.getChildCount() - 1;
             final DLKerasTensorSpecsOutput[] loadedLayers = new DLKerasTensorSpecsOutput[numLayers];
+            // Content keys of the loaded layers, null for layers that must not be shared (see below).
+            final String[] layerKeys = new String[numLayers];
             for (int i = 0; i < numLayers; i++) {
                 final NodeSettings layerSettings = graphSettings.getNodeSettings(Integer.toString(i));
                 final Class<?> layerClass = Class.forName(layerSettings.getString(CFG_KEY_LAYER_CLASS));
                 final DLKerasTensorSpecsOutput layer;
-                if (DLKerasLayer.class.isAssignableFrom(layerClass)) {
-                    // Ordinary layers must expose a public nullary constructor.
-                    layer = (DLKerasTensorSpecsOutput)layerClass.newInstance();
-                    final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
-                        ParameterStructs.createInstance((DLKerasLayer)layer);
-                    final StructInstance<MemberReadInstance<?>, ?> settingsInstance = NodeSettingsStructs
-                        .createNodeSettingsInstance((NodeSettingsRO)layerSettings.getNodeSettings(CFG_KEY_LAYER_PARAMS),
-                            layerInstance.struct());
-                    Structs.shallowCopyUnsafe(settingsInstance, layerInstance);
-                    if (layer instanceof DLKerasInnerLayer) {
-                        final DLKerasInnerLayer innerLayer = ((DLKerasInnerLayer)layer);
-                        final NodeSettings parentSettings = layerSettings.getNodeSettings(CFG_KEY_LAYER_PARENTS);
-                        loadParentSettings(loadedLayers, innerLayer, parentSettings);
+                if (layerSettings.containsKey(CFG_KEY_LAYER_REFERENCE)) {
+                    // The layer was written in full by an upstream node whose graph must have been read before.
+                    layerKeys[i] = layerSettings.getString(CFG_KEY_LAYER_REFERENCE);
+                    final String runtimeId = layerSettings.getString(CFG_KEY_LAYER_RUNTIME_ID);
+                    layer = getInternedLayer(layerKeys[i], runtimeId);
+                    if (layer == null) {
+                        throw new InvalidSettingsException("The referenced layer with runtime id '" + runtimeId
+                            + "' is not available. The network of the upstream node it stems from must be loaded "
+                            + "first.");
+                    }
+                } else if (DLKerasLayer.class.isAssignableFrom(layerClass)) {
+                    final NodeSettings paramSettings = layerSettings.getNodeSettings(CFG_KEY_LAYER_PARAMS);
+                    final String runtimeId = layerSettings.getString(CFG_KEY_LAYER_RUNTIME_ID);
+                    final int[][] parents = DLKerasInnerLayer.class.isAssignableFrom(layerClass)
+                        ? readParents(layerSettings.getNodeSettings(CFG_KEY_LAYER_PARENTS)) : new int[2][0];
+                    if (layerSettings.containsKey(CFG_KEY_LAYER_KEY)) {
+                        layerKeys[i] = layerSettings.getString(CFG_KEY_LAYER_KEY);
+                    } else {
+                        // Graphs written before 3.7 do not contain keys. Layers that must not be shared do not
+                        // contain one either, no hashing takes place for them.
+                        final String[] parentKeys = new String[parents[0].length];
+                        for (int j = 0; j < parents[0].length; j++) {
+                            parentKeys[j] = layerKeys[parents[0][j]];
+                        }
+                        layerKeys[i] = createLayerKey(layerClass, paramSettings, runtimeId, parentKeys, parents[1]);
+                    }
+                    final DLKerasLayer internedLayer =
+                        layerKeys[i] != null ? getInternedLayer(layerKeys[i], runtimeId) : null;
+                    if (internedLayer != null) {
+                        layer = internedLayer;
+                    } else {
+                        // Ordinary layers must expose a public nullary constructor.
+                        final DLKerasLayer newLayer = (DLKerasLayer)layerClass.newInstance();
+                        final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance =
+                            ParameterStructs.createInstance(newLayer);
+                        final StructInstance<MemberReadInstance<?>, ?> settingsInstance = NodeSettingsStructs
+                            .createNodeSettingsInstance((NodeSettingsRO)paramSettings, layerInstance.struct());
+                        Structs.shallowCopyUnsafe(settingsInstance, layerInstance);
+                        if (newLayer instanceof DLKerasInnerLayer) {
+                            final DLKerasInnerLayer innerLayer = (DLKerasInnerLayer)newLayer;
+                            for (int j = 0; j < parents[0].length; j++) {
+                                innerLayer.setParent(j, loadedLayers[parents[0][j]]);
+                                innerLayer.setTensorIndexInParent(j, parents[1][j]);
+                            }
+                        }
+                        newLayer.setRuntimeId(runtimeId);
+                        layer = layerKeys[i] != null ? internLayer(layerKeys[i], newLayer) : newLayer;
                     }
-                    ((DLKerasLayer)layer).setRuntimeId(layerSettings.getString(CFG_KEY_LAYER_RUNTIME_ID));
                 } else if (DLKerasBaseNetworkTensorSpecOutput.class.isAssignableFrom(layerClass)) {
+                    // Base network sources get amended per port object, so neither base network outputs nor their
+                    // successors are shared. Their keys remain null.
                     final DLKerasNetworkSpec spec = baseNetworkSpecs.get(i);
                     final int outputIndex = layerSettings.getInt(CFG_KEY_BASE_NETWORK_OUTPUT_INDEX);
                     layer = new DLKerasDefaultBaseNetworkTensorSpecOutput(spec, outputIndex);
@@ -339,31 +387,157 @@ public static List<DLKerasLayer> readGraphFrom(final ObjectInputStream objIn,
         }
     }
 
-    private static void loadParentSettings(final DLKerasTensorSpecsOutput[] loadedLayers,
-        final DLKerasInnerLayer innerLayer, final NodeSettings parentSettings) throws InvalidSettingsException {
+    /**
+     * @return the parent indices in the first and the tensor indices in the parents in the second row
+     */
+    private static int[][] readParents(final NodeSettings parentSettings) throws InvalidSettingsException {
+        final int numParents = parentSettings.getChildCount();
+        final int[][] parents = new int[2][numParents];
         try {
-            newLoadParentSettings(loadedLayers, innerLayer, parentSettings);
-        } catch (InvalidSettingsException e) {
-            oldLoadParentSettings(loadedLayers, innerLayer, parentSettings);
+            for (int j = 0; j < numParents; j++) {
+                final NodeSettings parentSetting = parentSettings.getNodeSettings(Integer.toString(j));
+                parents[0][j] = parentSetting.getInt(CFG_KEY_PARENT_INDEX);
+                parents[1][j] = parentSetting.getInt(CFG_KEY_INDEX_IN_PARENT);
+            }
+        } catch (final InvalidSettingsException e) {
+            // Old format, parents were referenced by their index only.
+            for (int j = 0; j < numParents; j++) {
+                parents[0][j] = parentSettings.getInt(Integer.toString(j));
+                parents[1][j] = 0;
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * Collects the layers of the graph specified by the given output layers, parents before their children. Layers
+     * that were already written in full are referenced instead, which is why their ancestors are not collected.
+     */
+    private static List<DLKerasTensorSpecsOutput> collectLayersToWrite(final List<DLKerasLayer> outputLayers) {
+        final List<DLKerasTensorSpecsOutput> layers = new ArrayList<>();
+        final Set<DLKerasTensorSpecsOutput> collectedLayers = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<DLKerasTensorSpecsOutput> expandedLayers = Collections.newSetFromMap(new IdentityHashMap<>());
+        // Iterative depth-first search, layer chains may be too deep for recursion.
+        final Deque<DLKerasTensorSpecsOutput> pendingLayers = new ArrayDeque<>(outputLayers);
+        while (!pendingLayers.isEmpty()) {
+            final DLKerasTensorSpecsOutput layer = pendingLayers.peek();
+            if (collectedLayers.contains(layer)) {
+                pendingLayers.pop();
+            } else if (layer instanceof DLKerasInnerLayer && getPersistedLayer(layer) == null
+                && expandedLayers.add(layer)) {
+                final DLKerasInnerLayer innerLayer = (DLKerasInnerLayer)layer;
+                for (int i = innerLayer.getNumParents() - 1; i >= 0; i--) {
+                    pendingLayers.push(innerLayer.getParent(i));
+                }
+            } else {
+                pendingLayers.pop();
+                collectedLayers.add(layer);
+                layers.add(layer);
+            }
+        }
+        return layers;
+    }
+
+    /**
+     * @return the content key of the layer or <code>null</code> if it must not be shared
+     */
+    private static String saveLayer(final DLKerasLayer layer, final NodeSettingsWO layerSettings,
+        final Map<DLKerasTensorSpecsOutput, Integer> layerIndices, final List<String> layerKeys)
+        throws ValidityException, InvalidSettingsException {
+        // TODO: Avoid redundant creation of layer struct (not instance), should be cached somewhere.
+        final StructInstance<MemberReadWriteInstance<?>, ?> layerInstance = ParameterStructs.createInstance(layer);
+        final NodeSettings paramSettings = (NodeSettings)layerSettings.addNodeSettings(CFG_KEY_LAYER_PARAMS);
+        final StructInstance<MemberWriteInstance<?>, ?> settingsInstance =
+            NodeSettingsStructs.createNodeSettingsInstance(paramSettings, layerInstance.struct());
+        Structs.shallowCopyUnsafe(layerInstance, settingsInstance);
+        layerSettings.addString(CFG_KEY_LAYER_RUNTIME_ID, layer.getRuntimeId());
+        String[] parentKeys = new String[0];
+        int[] indicesInParents = new int[0];
+        if (layer instanceof DLKerasInnerLayer) {
+            final DLKerasInnerLayer innerLayer = (DLKerasInnerLayer)layer;
+            final NodeSettingsWO parentSettings = layerSettings.addNodeSettings(CFG_KEY_LAYER_PARENTS);
+            parentKeys = new String[innerLayer.getNumParents()];
+            indicesInParents = new int[innerLayer.getNumParents()];
+            for (int i = 0; i < innerLayer.getNumParents(); i++) {
+                final int parentIndex = layerIndices.get(innerLayer.getParent(i));
+                final NodeSettingsWO parentSetting = parentSettings.addNodeSettings(Integer.toString(i));
+                parentSetting.addInt(CFG_KEY_PARENT_INDEX, parentIndex);
+                parentSetting.addInt(CFG_KEY_INDEX_IN_PARENT, innerLayer.getTensorIndexInParent(i));
+                parentKeys[i] = layerKeys.get(parentIndex);
+                indicesInParents[i] = innerLayer.getTensorIndexInParent(i);
+            }
+        }
+        return createLayerKey(layer.getClass(), paramSettings, layer.getRuntimeId(), parentKeys, indicesInParents);
+    }
+
+    /**
+     * @return the persisted state of the layer or <code>null</code> if it was not written or read yet or was reset
+     *         since
+     */
+    private static DLPersistedLayer getPersistedLayer(final DLKerasTensorSpecsOutput layer) {
+        if (!(layer instanceof DLKerasLayer)) {
+            return null;
+        }
+        final DLPersistedLayer persistedLayer = PERSISTED_LAYERS.getIfPresent(layer);
+        return persistedLayer != null
+            && Objects.equals(persistedLayer.m_runtimeId, ((DLKerasLayer)layer).getRuntimeId()) ? persistedLayer
+                : null;
+    }
+
+    private static DLKerasLayer getInternedLayer(final String key, final String runtimeId) {
+        final DLKerasLayer layer = INTERNED_LAYERS.getIfPresent(key);
+        return layer != null && Objects.equals(layer.getRuntimeId(), runtimeId) ? layer : null;
+    }
+
+    /**
+     * @return the given layer or an equal one that was interned before
+     */
+    private static DLKerasLayer internLayer(final String key, final DLKerasLayer layer) {
+        PERSISTED_LAYERS.put(layer, new DLPersistedLayer(key, layer.getRuntimeId()));
+        final DLKerasLayer internedLayer = getInternedLayer(key, layer.getRuntimeId());
+        if (internedLayer != null) {
+            return internedLayer;
         }
+        INTERNED_LAYERS.put(key, layer);
+        return layer;
     }
 
-    private static void oldLoadParentSettings(final DLKerasTensorSpecsOutput[] loadedLayers,
-        final DLKerasInnerLayer innerLayer, final NodeSettings parentSettings) throws InvalidSettingsException {
-        for (int j = 0; j < parentSettings.getChildCount(); j++) {
-            innerLayer.setParent(j, loadedLayers[parentSettings.getInt(Integer.toString(j))]);
-            innerLayer.setTensorIndexInParent(j, 0);
+    /**
+     * Creates a key that identifies a layer by its class, parameters, runtime id and the keys of its parents. Layers
+     * with equal keys describe the same subgraph and can therefore be shared across loaded graphs.
+     *
+     * @return the key or <code>null</code> if the layer must not be shared because one of its parents must not be
+     */
+    private static String createLayerKey(final Class<?> layerClass, final NodeSettings paramSettings,
+        final String runtimeId, final String[] parentKeys, final int[] indicesInParents) {
+        for (final String parentKey : parentKeys) {
+            if (parentKey == null) {
+                return null;
+            }
+        }
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(layerClass.getName(), StandardCharsets.UTF_8);
+        hasher.putString(paramSettings.toString(), StandardCharsets.UTF_8);
+        hasher.putBoolean(runtimeId != null);
+        if (runtimeId != null) {
+            hasher.putString(runtimeId, StandardCharsets.UTF_8);
         }
+        for (int j = 0; j < parentKeys.length; j++) {
+            hasher.putString(parentKeys[j], StandardCharsets.UTF_8);
+            hasher.putInt(indicesInParents[j]);
+        }
+        return hasher.hash().toString();
     }
 
-    private static void newLoadParentSettings(final DLKerasTensorSpecsOutput[] loadedLayers,
-        final DLKerasInnerLayer innerLayer, final NodeSettings parentSettings) throws InvalidSettingsException {
-        for (int j = 0; j < parentSettings.getChildCount(); j++) {
-            NodeSettings parentSetting = parentSettings.getNodeSettings(Integer.toString(j));
-            int parentIndex = parentSetting.getInt(CFG_KEY_PARENT_INDEX);
-            int indexInParent = parentSetting.getInt(CFG_KEY_INDEX_IN_PARENT);
-            innerLayer.setParent(j, loadedLayers[parentIndex]);
-            innerLayer.setTensorIndexInParent(j, indexInParent);
+    private static final class DLPersistedLayer {
+
+        private final String m_key;
+
+        private final String m_runtimeId;
+
+        private DLPersistedLayer(final String key, final String runtimeId) {
+            m_key = key;
+            m_runtimeId = runtimeId;
         }
     }
 }
@@ -0,0 +1,293 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.layers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.keras.core.DLKerasNetwork;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.util.DLUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Caches materialized Keras networks such that materializing a structurally identical layer graph again, e.g. in a
+ * later iteration of a parameter optimization loop, does not have to start Python. Layer graphs are keyed by a
+ * canonical hash of their structure: the class, backend representation and name prefix of each layer, the way layers
+ * are connected, and the content of the source files of any base networks. On a cache hit, the saved network file is
+ * copied to the requested save location.
+ * <P>
+ * Note that a cache hit yields the very same initial weights that the cached network was materialized with, while
+ * materializing the graph again would draw new random weights (unless the layers' initializers are seeded). Loops
+ * that retrain a freshly materialized network in each iteration would therefore always start from the same weights,
+ * which is why the cache is disabled by default.
+ * <P>
+ * The cache is enabled by setting the maximum number of cached networks via VM option
+ * {@link #MATERIALIZATION_CACHE_SIZE_VM_OPT} to a positive value. Cached network files are kept in a temporary
+ * directory and deleted upon eviction.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLKerasNetworkMaterializationCache {
+
+    /**
+     * @see #getMaxCachedNetworks()
+     */
+    public static final String MATERIALIZATION_CACHE_SIZE_VM_OPT = "knime.dl.keras.materializationcachesize";
+
+    /**
+     * @see #getMaxCachedNetworks()
+     */
+    public static final int MATERIALIZATION_CACHE_DEFAULT_SIZE = 0;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasNetworkMaterializationCache.class);
+
+    private static final int MAX_CACHED_NETWORKS = parseMaxCachedNetworks();
+
+    private static final Cache<String, DLKerasCachedNetwork> CACHE = CacheBuilder.newBuilder() //
+        .maximumSize(MAX_CACHED_NETWORKS) //
+        .<String, DLKerasCachedNetwork> removalListener(n -> n.getValue().delete()) //
+        .build();
+
+    private static File cacheDirectory;
+
+    private static int parseMaxCachedNetworks() {
+        int size = -1;
+        try {
+            size = Integer.parseInt(System.getProperty(MATERIALIZATION_CACHE_SIZE_VM_OPT,
+                Integer.toString(MATERIALIZATION_CACHE_DEFAULT_SIZE)));
+        } catch (final NumberFormatException ex) {
+            // Ignore, see below.
+        }
+        if (size < 0) {
+            size = MATERIALIZATION_CACHE_DEFAULT_SIZE;
+            LOGGER.warn("The VM option -D" + MATERIALIZATION_CACHE_SIZE_VM_OPT
+                + " was not set to a non-negative integer value, and thus defaults to " + size + ".");
+        }
+        return size;
+    }
+
+    /**
+     * @return the maximum number of materialized networks that are cached, can be specified by the user via VM option
+     *         {@link #MATERIALIZATION_CACHE_SIZE_VM_OPT}, defaults to {@link #MATERIALIZATION_CACHE_DEFAULT_SIZE}
+     */
+    public static int getMaxCachedNetworks() {
+        return MAX_CACHED_NETWORKS;
+    }
+
+    /**
+     * @return <code>true</code> if materialized networks are cached at all, i.e. if the user opted in via VM option
+     *         {@link #MATERIALIZATION_CACHE_SIZE_VM_OPT}
+     */
+    public static boolean isEnabled() {
+        return MAX_CACHED_NETWORKS > 0;
+    }
+
+    /**
+     * Computes the canonical structural hash of the layer graph specified by the given output layers.
+     *
+     * @param outputLayers the output layers of the graph
+     * @return the hash, empty if the graph cannot be hashed, e.g. because the source of a base network is not
+     *         available locally
+     */
+    static Optional<String> createKey(final List<DLKerasLayer> outputLayers) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        final Map<DLKerasTensorSpecsOutput, Integer> visited = new IdentityHashMap<>();
+        hasher.putInt(outputLayers.size());
+        for (final DLKerasLayer outputLayer : outputLayers) {
+            if (!hash(outputLayer, hasher, visited)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(hasher.hash().toString());
+    }
+
+    /**
+     * Creates a network from the cached materialization of the layer graph with the given key, if any.
+     *
+     * @param key the key of the layer graph as returned by {@link #createKey(List)}
+     * @param saveLocation the location to which the cached network file is copied, must be a local file
+     * @return the network, empty if there is no cached materialization
+     */
+    static Optional<DLKerasNetwork> get(final String key, final DLNetworkLocation saveLocation) {
+        final DLKerasCachedNetwork cached = CACHE.getIfPresent(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        try {
+            final File target = FileUtil.getFileFromURL(saveLocation.getURI().toURL());
+            if (target != null && cached.copyTo(target)) {
+                LOGGER.debug("Reusing cached materialization of Keras layer graph '" + key + "'.");
+                return Optional.of(cached.m_spec.create(saveLocation));
+            }
+        } catch (final IOException | DLInvalidSourceException ex) {
+            LOGGER.debug("Cached materialization of Keras layer graph '" + key + "' could not be reused.", ex);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Caches the given materialized network under the given key. Failures are logged and otherwise ignored.
+     *
+     * @param key the key of the layer graph as returned by {@link #createKey(List)}
+     * @param network the network that was materialized from the layer graph, must be saved in a local file
+     */
+    static void put(final String key, final DLKerasNetwork network) {
+        try {
+            final File source = FileUtil.getFileFromURL(network.getSource().getURI().toURL());
+            if (source == null || !source.isFile()) {
+                return;
+            }
+            final File cachedFile = new File(getCacheDirectory(), UUID.randomUUID().toString() + ".h5");
+            FileUtil.copy(source, cachedFile);
+            CACHE.put(key, new DLKerasCachedNetwork(network.getSpec(), cachedFile));
+        } catch (final IOException ex) {
+            LOGGER.debug("Materialized Keras network could not be cached.", ex);
+        }
+    }
+
+    private static synchronized File getCacheDirectory() throws IOException {
+        if (cacheDirectory == null || !cacheDirectory.isDirectory()) {
+            cacheDirectory = FileUtil.createTempDir("knime-dl-keras-materialization-cache");
+        }
+        return cacheDirectory;
+    }
+
+    /**
+     * Feeds the structure of the given graph node and its ancestors to the hasher. Nodes that were already visited are
+     * only referenced by their visiting order such that a node shared by several children is distinguished from
+     * several distinct but equal nodes.
+     *
+     * @return <code>false</code> if the node cannot be hashed
+     */
+    private static boolean hash(final DLKerasTensorSpecsOutput node, final Hasher hasher,
+        final Map<DLKerasTensorSpecsOutput, Integer> visited) {
+        final Integer index = visited.get(node);
+        if (index != null) {
+            hasher.putByte((byte)0).putInt(index);
+            return true;
+        }
+        visited.put(node, visited.size());
+        hasher.putByte((byte)1).putString(node.getClass().getName(), StandardCharsets.UTF_8);
+        if (node instanceof DLKerasBaseNetworkTensorSpecOutput) {
+            final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput = (DLKerasBaseNetworkTensorSpecOutput)node;
+            final DLNetworkLocation source = baseNetworkOutput.getBaseNetworkSource();
+            final Optional<String> sourceHash =
+                source != null ? DLUtils.Files.getContentHash(source.getURI()) : Optional.empty();
+            if (!sourceHash.isPresent()) {
+                return false;
+            }
+            hasher.putString(sourceHash.get(), StandardCharsets.UTF_8)
+                .putInt(baseNetworkOutput.getBaseNetworkOutputIndex());
+            return true;
+        }
+        final DLKerasLayer layer = (DLKerasLayer)node;
+        hasher.putString(layer.getBackendRepresentation(null), StandardCharsets.UTF_8)
+            .putString(layer.getNamePrefix().orElse(""), StandardCharsets.UTF_8);
+        if (layer instanceof DLKerasInnerLayer) {
+            final DLKerasInnerLayer innerLayer = (DLKerasInnerLayer)layer;
+            hasher.putInt(innerLayer.getNumParents());
+            for (int i = 0; i < innerLayer.getNumParents(); i++) {
+                hasher.putInt(innerLayer.getTensorIndexInParent(i));
+                if (!hash(innerLayer.getParent(i), hasher, visited)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private DLKerasNetworkMaterializationCache() {
+        // utility class
+    }
+
+    private static final class DLKerasCachedNetwork {
+
+        private final DLKerasNetworkSpec m_spec;
+
+        private final File m_file;
+
+        private boolean m_deleted = false;
+
+        private DLKerasCachedNetwork(final DLKerasNetworkSpec spec, final File file) {
+            m_spec = spec;
+            m_file = file;
+        }
+
+        /**
+         * @return <code>false</code> if the cached file was already deleted
+         */
+        private synchronized boolean copyTo(final File target) throws IOException {
+            if (m_deleted) {
+                return false;
+            }
+            FileUtil.copy(m_file, target);
+            return true;
+        }
+
+        private synchronized void delete() {
+            m_deleted = true;
+            if (!m_file.delete() && m_file.exists()) {
+                LOGGER.debug("Cached network file '" + m_file + "' could not be deleted.");
+            }
+        }
+    }
+}
@@ -53,6 +53,7 @@
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.function.Function;
@@ -74,10 +75,10 @@
 import org.knime.dl.keras.core.layers.DLKerasNetworkGraphIterator.DLNetworkGraphTraversalException;
 import org.knime.dl.keras.core.layers.impl.DLKerasCollectLayer;
 import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
-import org.knime.dl.python.core.DLPythonDefaultContext;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
+import org.knime.dl.python.core.DLPythonPooledContext;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
 import org.knime.dl.python.util.DLPythonUtils;
 
@@ -106,7 +107,8 @@ public DLKerasNetworkMaterializer(final List<DLKerasLayer> outputLayers, final D
     }
 
     /**
-     * Materializes the Keras network graph.
+     * Materializes the Keras network graph. If the materialization cache is enabled and a structurally identical graph
+     * was materialized before, the cached result is reused (see {@link DLKerasNetworkMaterializationCache}).
      *
      * @return the materialized network
      * @throws DLNetworkGraphTraversalException if traversing the network graph failed
@@ -116,6 +118,24 @@ public DLKerasNetworkMaterializer(final List<DLKerasLayer> outputLayers, final D
      * @throws IOException if failed to materialize and save the network due to I/O related errors
      */
     public DLKerasNetwork materialize() throws DLInvalidEnvironmentException, DLInvalidSourceException, IOException {
+        final Optional<String> cacheKey = DLKerasNetworkMaterializationCache.isEnabled()
+            ? DLKerasNetworkMaterializationCache.createKey(m_outputLayers) : Optional.empty();
+        if (cacheKey.isPresent()) {
+            final Optional<DLKerasNetwork> cached =
+                DLKerasNetworkMaterializationCache.get(cacheKey.get(), m_saveLocation);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        final DLKerasNetwork materialized = materializeInternal();
+        if (cacheKey.isPresent()) {
+            DLKerasNetworkMaterializationCache.put(cacheKey.get(), materialized);
+        }
+        return materialized;
+    }
+
+    private DLKerasNetwork materializeInternal()
+        throws DLInvalidEnvironmentException, DLInvalidSourceException, IOException {
         final DLKerasNetworkSpecInferrer specInferrer = new DLKerasNetworkSpecInferrer(m_outputLayers);
         specInferrer.inferNetworkSpec();
         // Parse layer graph.
@@ -131,7 +151,7 @@ public DLKerasNetwork materialize() throws DLInvalidEnvironmentException, DLInva
                 + backend.getName() + "' is missing. " + "Are you missing a KNIME Deep Learning extension?"));
 
         try (final DLKerasAbstractCommands commands =
-            ((DLKerasNetworkLoader<?>)loader).createCommands(new DLPythonDefaultContext())) {
+            ((DLKerasNetworkLoader<?>)loader).createCommands(new DLPythonPooledContext())) {
             // Load base networks (if any). Make base networks available on Python side for later. Collect base network
             // specs.We need the network specs (a) to reserve the layer names that are already present in the base
             // networks and (b) to specify the inputs and outputs of the new network that come from the base networks.
@@ -46,6 +46,8 @@
  */
 package org.knime.dl.keras.core.training;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -66,6 +68,9 @@ public class DLKerasDefaultTrainingConfig implements DLKerasTrainingConfig {
 	private final DLKerasOptimizer m_optimizer;
 	private final Map<DLTensorId, DLKerasLossFunction> m_losses;
 	private final Collection<DLKerasCallback> m_callbacks;
+	private final int m_prefetchDepth;
+	private final int m_metricsReportingBatches;
+	private final int m_metricsReportingInterval;
 
 	/**
 	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
@@ -81,6 +86,56 @@ public class DLKerasDefaultTrainingConfig implements DLKerasTrainingConfig {
 	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
 			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
 			final Collection<DLKerasCallback> callbacks) {
+		this(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks, 0);
+	}
+
+	/**
+	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
+	 *            actual number of executed epochs can be smaller in case of early stopping.
+	 * @param batchSize the number of training samples to use for a single training step
+	 * @param validationBatchSize may be null in which case the validation batch size defaults the to batch size. This
+	 *            value only matters if performing model evaluation during training.
+	 * @param optimizer the optimizer that is used for model updating
+	 * @param losses a mapping of network outputs to loss functions. There must be a mapping for each of the outputs of
+	 *            the network that will be trained.
+	 * @param callbacks may be null or empty in which case it defaults to an empty list
+	 * @param prefetchDepth the number of training batches that are prepared ahead of the back end's requests, zero if
+	 *            batches are only prepared upon request
+	 * @since 3.7
+	 */
+	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
+			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+			final Collection<DLKerasCallback> callbacks, final int prefetchDepth) {
+		this(epochs, batchSize, validationBatchSize, optimizer, losses, callbacks, prefetchDepth, 1, 0);
+	}
+
+	/**
+	 * @param epochs the number of times to iterate over the training data before training is finished. Note that the
+	 *            actual number of executed epochs can be smaller in case of early stopping.
+	 * @param batchSize the number of training samples to use for a single training step
+	 * @param validationBatchSize may be null in which case the validation batch size defaults the to batch size. This
+	 *            value only matters if performing model evaluation during training.
+	 * @param optimizer the optimizer that is used for model updating
+	 * @param losses a mapping of network outputs to loss functions. There must be a mapping for each of the outputs of
+	 *            the network that will be trained.
+	 * @param callbacks may be null or empty in which case it defaults to an empty list
+	 * @param prefetchDepth the number of training batches that are prepared ahead of the back end's requests, zero if
+	 *            batches are only prepared upon request
+	 * @param metricsReportingBatches the number of batches whose metrics are reported by the back end at once, must be
+	 *            positive
+	 * @param metricsReportingInterval the maximum time in milliseconds that the back end holds back the metrics of
+	 *            completed batches, zero if there is no limit
+	 * @since 3.7
+	 */
+	public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final Integer validationBatchSize,
+			final DLKerasOptimizer optimizer, final Map<DLTensorId, DLKerasLossFunction> losses,
+			final Collection<DLKerasCallback> callbacks, final int prefetchDepth, final int metricsReportingBatches,
+			final int metricsReportingInterval) {
+		checkArgument(prefetchDepth >= 0, "Prefetch depth must be non-negative but was %s.", prefetchDepth);
+		checkArgument(metricsReportingBatches > 0,
+				"Number of batches per metrics report must be positive but was %s.", metricsReportingBatches);
+		checkArgument(metricsReportingInterval >= 0, "Metrics reporting interval must be non-negative but was %s.",
+				metricsReportingInterval);
 		m_epochs = epochs;
 		m_batchSize = batchSize;
 		m_validationBatchSize = validationBatchSize != null ? validationBatchSize : batchSize;
@@ -88,6 +143,9 @@ public DLKerasDefaultTrainingConfig(final int epochs, final int batchSize, final
 		m_losses = Collections.unmodifiableMap(new HashMap<>(losses));
 		m_callbacks = callbacks != null ? Collections.unmodifiableCollection(new ArrayList<>(callbacks))
 				: Collections.emptyList();
+		m_prefetchDepth = prefetchDepth;
+		m_metricsReportingBatches = metricsReportingBatches;
+		m_metricsReportingInterval = metricsReportingInterval;
 	}
 
 	@Override
@@ -119,4 +177,19 @@ public Map<DLTensorId, DLKerasLossFunction> getLosses() {
 	public Collection<DLKerasCallback> getCallbacks() {
 		return m_callbacks;
 	}
+
+	@Override
+	public int getPrefetchDepth() {
+		return m_prefetchDepth;
+	}
+
+	@Override
+	public int getMetricsReportingBatches() {
+		return m_metricsReportingBatches;
+	}
+
+	@Override
+	public int getMetricsReportingInterval() {
+		return m_metricsReportingInterval;
+	}
 }
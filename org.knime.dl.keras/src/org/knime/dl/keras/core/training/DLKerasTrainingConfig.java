@@ -75,4 +75,31 @@ public interface DLKerasTrainingConfig extends DLTrainingConfig {
 	 *         training process
 	 */
 	Collection<DLKerasCallback> getCallbacks();
+
+	/**
+	 * @return the number of training batches that are prepared ahead of the back end's requests while the network
+	 *         trains, zero if batches are only prepared upon request
+	 * @since 3.7
+	 */
+	default int getPrefetchDepth() {
+		return 0;
+	}
+
+	/**
+	 * @return the number of training batches whose metrics are reported by the back end at once, one if the metrics of
+	 *         each batch are reported on their own
+	 * @since 3.7
+	 */
+	default int getMetricsReportingBatches() {
+		return 1;
+	}
+
+	/**
+	 * @return the maximum time in milliseconds that the back end holds back the metrics of completed batches if
+	 *         {@link #getMetricsReportingBatches() more than one batch} is reported at once, zero if there is no limit
+	 * @since 3.7
+	 */
+	default int getMetricsReportingInterval() {
+		return 0;
+	}
 }
@@ -83,7 +83,16 @@ public void checkAvailability(final boolean forceRefresh, final int timeout, fin
 	public DLKerasTensorFlowNetworkExecutionSession createExecutionSession(final DLKerasTensorFlowNetwork network,
 			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
 			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer) {
-		return new DLKerasTensorFlowNetworkExecutionSession(network, executionInputSpecs, requestedOutputs,
-				inputPreparer, outputConsumer, getTensorFactory());
+		return createExecutionSession(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer,
+				1);
+	}
+
+	@Override
+	public DLKerasTensorFlowNetworkExecutionSession createExecutionSession(final DLKerasTensorFlowNetwork network,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+			final int numBatchesInFlight) {
+		return new DLKerasTensorFlowNetworkExecutionSession(network, executionInputSpecs, requestedOutputs, inputPreparer,
+				outputConsumer, getTensorFactory(), numBatchesInFlight);
 	}
 }
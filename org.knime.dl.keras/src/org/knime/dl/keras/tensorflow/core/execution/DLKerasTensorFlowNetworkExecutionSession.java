@@ -72,6 +72,14 @@ public DLKerasTensorFlowNetworkExecutionSession(final DLKerasTensorFlowNetwork n
 		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory);
 	}
 
+	public DLKerasTensorFlowNetworkExecutionSession(final DLKerasTensorFlowNetwork network,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+			final DLTensorFactory tensorFactory, final int numBatchesInFlight) {
+		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory,
+				numBatchesInFlight);
+	}
+
 	@Override
 	protected DLKerasTensorFlowCommands createCommands() throws DLInvalidEnvironmentException {
 		return new DLKerasTensorFlowCommands();
@@ -82,7 +82,16 @@ public void checkAvailability(final boolean forceRefresh, final int timeout, fin
 	public DLKerasTheanoNetworkExecutionSession createExecutionSession(final DLKerasTheanoNetwork network,
 			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
 			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer) {
+		return createExecutionSession(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer,
+				1);
+	}
+
+	@Override
+	public DLKerasTheanoNetworkExecutionSession createExecutionSession(final DLKerasTheanoNetwork network,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+			final int numBatchesInFlight) {
 		return new DLKerasTheanoNetworkExecutionSession(network, executionInputSpecs, requestedOutputs, inputPreparer,
-				outputConsumer, getTensorFactory());
+				outputConsumer, getTensorFactory(), numBatchesInFlight);
 	}
 }
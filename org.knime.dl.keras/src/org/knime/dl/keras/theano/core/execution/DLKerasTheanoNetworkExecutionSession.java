@@ -72,6 +72,14 @@ public DLKerasTheanoNetworkExecutionSession(final DLKerasTheanoNetwork network,
 		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory);
 	}
 
+	public DLKerasTheanoNetworkExecutionSession(final DLKerasTheanoNetwork network,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+			final DLTensorFactory tensorFactory, final int numBatchesInFlight) {
+		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory,
+				numBatchesInFlight);
+	}
+
 	@Override
 	protected DLKerasTheanoCommands createCommands() throws DLInvalidEnvironmentException {
 		return new DLKerasTheanoCommands();
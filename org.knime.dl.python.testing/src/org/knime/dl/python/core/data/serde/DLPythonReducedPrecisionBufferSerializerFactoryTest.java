@@ -0,0 +1,177 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+import org.knime.dl.core.data.DLTransferPrecision;
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.python.typeextension.Serializer;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLPythonReducedPrecisionBufferSerializerFactoryTest {
+
+	@Test
+	public void testToFloat16() {
+		assertEquals((short) 0x0000, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(0f));
+		assertEquals((short) 0x8000, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(-0f));
+		assertEquals((short) 0x3c00, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(1f));
+		assertEquals((short) 0xc000, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(-2f));
+		assertEquals((short) 0x7bff, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(65504f));
+		assertEquals((short) 0x7c00, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(65520f));
+		assertEquals((short) 0x7c00,
+				DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(Float.POSITIVE_INFINITY));
+		// smallest subnormal
+		assertEquals((short) 0x0001, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(5.9604645e-8f));
+		// ties to even
+		assertEquals((short) 0x3c00, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(1f + 0x1p-11f));
+		assertEquals((short) 0x3c02, DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(1f + 0x3p-11f));
+		assertEquals((short) 0x7e00, (short) (DLPythonReducedPrecisionBufferSerializerFactory.toFloat16(Float.NaN)
+				& 0x7e00));
+	}
+
+	@Test
+	public void testToBFloat16() {
+		assertEquals((short) 0x3f80, DLPythonReducedPrecisionBufferSerializerFactory.toBFloat16(1f));
+		assertEquals((short) 0xc000, DLPythonReducedPrecisionBufferSerializerFactory.toBFloat16(-2f));
+		// ties to even
+		assertEquals((short) 0x3f80, DLPythonReducedPrecisionBufferSerializerFactory.toBFloat16(1f + 0x1p-8f));
+		assertEquals((short) 0x3f82, DLPythonReducedPrecisionBufferSerializerFactory.toBFloat16(1f + 0x3p-8f));
+		assertEquals((short) 0x7f80,
+				DLPythonReducedPrecisionBufferSerializerFactory.toBFloat16(Float.POSITIVE_INFINITY));
+	}
+
+	@Test
+	public void testSerializeFloat16() throws Exception {
+		try (final DLPythonFloatBuffer buffer = new DLPythonFloatBuffer(3)) {
+			buffer.putAll(new float[] { 1f, -2f, 0.5f });
+			final ByteBuffer serialized = serialize(buffer, DLTransferPrecision.FLOAT16);
+			assertEquals(2 + 3 * Short.BYTES, serialized.remaining());
+			assertEquals(1, serialized.get());
+			assertEquals(0, serialized.get());
+			assertEquals((short) 0x3c00, serialized.getShort());
+			assertEquals((short) 0xc000, serialized.getShort());
+			assertEquals((short) 0x3800, serialized.getShort());
+		}
+	}
+
+	@Test
+	public void testSerializeUInt8() throws Exception {
+		try (final DLPythonDoubleBuffer buffer = new DLPythonDoubleBuffer(4)) {
+			buffer.putAll(new double[] { 0d, 255d, 128d, 1d });
+			final ByteBuffer serialized = serialize(buffer, DLTransferPrecision.UINT8);
+			assertEquals(2 + 2 * Double.BYTES + 4, serialized.remaining());
+			assertEquals(3, serialized.get());
+			assertEquals(1, serialized.get());
+			assertEquals(0d, serialized.getDouble(), 0d);
+			assertEquals(1d, serialized.getDouble(), 0d);
+			final byte[] quantized = new byte[4];
+			serialized.get(quantized);
+			assertArrayEquals(new byte[] { 0, (byte) 255, (byte) 128, 1 }, quantized);
+		}
+	}
+
+	@Test
+	public void testSerializeUInt8Constant() throws Exception {
+		try (final DLPythonFloatBuffer buffer = new DLPythonFloatBuffer(2)) {
+			buffer.putAll(new float[] { 3f, 3f });
+			final ByteBuffer serialized = serialize(buffer, DLTransferPrecision.UINT8);
+			serialized.position(2);
+			assertEquals(3d, serialized.getDouble(), 0d);
+			assertEquals(1d, serialized.getDouble(), 0d);
+			assertEquals(0, serialized.get());
+			assertEquals(0, serialized.get());
+		}
+	}
+
+	@Test
+	public void testSerializeUInt8Fixed() throws Exception {
+		try (final DLPythonFloatBuffer buffer = new DLPythonFloatBuffer(5)) {
+			// the range of the values does not influence the quantization
+			buffer.putAll(new float[] { 3f, 4.4f, 4.6f, -1f, 300f });
+			final ByteBuffer serialized = serialize(buffer, DLTransferPrecision.UINT8_FIXED);
+			assertEquals(2 + 2 * Double.BYTES + 5, serialized.remaining());
+			assertEquals(3, serialized.get());
+			assertEquals(0, serialized.get());
+			assertEquals(0d, serialized.getDouble(), 0d);
+			assertEquals(1d, serialized.getDouble(), 0d);
+			final byte[] quantized = new byte[5];
+			serialized.get(quantized);
+			assertArrayEquals(new byte[] { 3, 4, 5, 0, (byte) 255 }, quantized);
+		}
+	}
+
+	@Test
+	public void testBufferTypes() {
+		assertEquals(DLPythonFloatBuffer.class,
+				new DLPythonReducedPrecisionFloatBufferSerializerFactory().getBufferType());
+		assertEquals(DLPythonDoubleBuffer.class,
+				new DLPythonReducedPrecisionDoubleBufferSerializerFactory().getBufferType());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFullPrecisionIsRejected() {
+		new DLPythonReducedPrecisionFloatBufferSerializerFactory().createSerializer(DLTransferPrecision.FULL);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ByteBuffer serialize(final DLPythonDataBuffer<?> buffer, final DLTransferPrecision precision)
+			throws Exception {
+		final Serializer serializer = buffer instanceof DLPythonFloatBuffer
+				? new DLPythonReducedPrecisionFloatBufferSerializerFactory().createSerializer(precision)
+				: new DLPythonReducedPrecisionDoubleBufferSerializerFactory().createSerializer(precision);
+		return ByteBuffer.wrap(serializer.serialize(buffer)).order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
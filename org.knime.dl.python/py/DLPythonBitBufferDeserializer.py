@@ -52,5 +52,7 @@ sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
 from DLPythonDataBuffers import DLPythonBitBuffer
 
 def deserialize(bytes):
-	return DLPythonBitBuffer(np.frombuffer(bytes, dtype=np.bool_))
-
+	# bits are packed (eight per byte), the number of bits is prepended as the last byte may be padded
+	num_bits = int(np.frombuffer(bytes, dtype='<i8', count=1)[0])
+	bits = np.unpackbits(np.frombuffer(bytes, dtype=np.uint8, offset=8))[:num_bits]
+	return DLPythonBitBuffer(bits.view(np.bool_))
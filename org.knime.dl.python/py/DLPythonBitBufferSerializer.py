@@ -52,9 +52,9 @@ sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
 from DLPythonDataBuffers import DLPythonBitBuffer
 
 def serialize(value):
-	if not value.array.dtype == np.bool_:
-		value = DLPythonBitBuffer(value.array.astype(np.bool_))
+	# bits are packed (eight per byte), the number of bits is prepended as the last byte may be padded
+	bits = value.array.astype(np.bool_, copy=False).ravel()
 	buffer = BytesIO(bytes())
-	buffer.write(value.array.tobytes())
+	buffer.write(np.array([bits.size], dtype='<i8').tobytes())
+	buffer.write(np.packbits(bits).tobytes())
 	return buffer.getvalue()
-
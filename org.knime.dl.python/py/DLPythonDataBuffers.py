@@ -43,6 +43,8 @@
 #  when such Node is propagated with or for interoperation with KNIME.
 # ------------------------------------------------------------------------
 
+import numpy as np
+
 # base
 class DLPythonDataBuffer(object):  
 	def __init__(self, array):
@@ -78,6 +80,39 @@ class DLPythonFloatBuffer(DLPythonDataBuffer):
 		"""
 		super(DLPythonFloatBuffer, self).__init__(array)
 
+# sparse float
+class DLPythonSparseFloatBuffer(DLPythonFloatBuffer):
+	def __init__(self, size, indices, values):
+		"""
+		Creates a new float buffer that only holds the non-zero values of a flat array of the given size. The dense
+		numpy.ndarray is only materialized on first access of the array property.
+		:param size: The number of values including the zeros.
+		:param indices: The positions of the non-zero values as numpy.ndarray.
+		:param values: The non-zero values as numpy.ndarray.
+		"""
+		self.size = size
+		self.indices = indices
+		self.values = values
+		self._array = None
+
+	@property
+	def array(self):
+		if self._array is None:
+			self._array = np.zeros(self.size, dtype=np.float32)
+			self._array[self.indices] = self.values
+		return self._array
+
+	def __len__(self):
+		return self.size
+
+	def to_scipy(self):
+		"""
+		:return: The non-zero values as scipy.sparse.coo_matrix of shape (1, size).
+		"""
+		from scipy.sparse import coo_matrix
+		return coo_matrix((self.values, (np.zeros(len(self.indices), dtype=np.int32), self.indices)),
+			shape=(1, self.size))
+
 # bit
 class DLPythonBitBuffer(DLPythonDataBuffer):
 	def __init__(self, array):
@@ -49,6 +49,7 @@
 '''
 
 import abc
+from collections import OrderedDict
 
 from pandas.util.testing import network
 
@@ -57,6 +58,14 @@ _networks = {}
 
 _network_id_suffix = 0
 
+# Already loaded networks keyed by their source and content hash, least recently used first. Unlike _networks, this is
+# not cleared when the workspace of a pooled kernel is reset (see org.knime.dl.python.core.DLPythonNetworkHandleCache).
+_network_cache = OrderedDict()
+
+# Number of workspace resets that kept the back end's state alive because networks were cached (see
+# release_cached_state).
+_resets_since_release = 0
+
 def get_network(identifier):
     return _networks[identifier]
 
@@ -77,6 +86,39 @@ def remove_network(identifier):
     else:
         return False
 
+def get_cached_network(key):
+    network = _network_cache.pop(key, None)
+    if network is not None:
+        # mark as most recently used
+        _network_cache[key] = network
+    return network
+
+def cache_network(key, network, max_size):
+    _network_cache.pop(key, None)
+    _network_cache[key] = network
+    while len(_network_cache) > max_size:
+        _network_cache.popitem(last=False)
+
+def has_cached_networks():
+    return len(_network_cache) > 0
+
+def clear_network_cache():
+    _network_cache.clear()
+
+def release_cached_state(max_resets):
+    """
+    Returns True if the back end's state (e.g. the default graph of TensorFlow) should be released on this workspace
+    reset. This is the case if no networks are cached or if the state has been kept for max_resets resets in a row. In
+    the latter case, the network cache is cleared as well, cached networks are simply reloaded on their next use.
+    """
+    global _resets_since_release
+    if has_cached_networks() and _resets_since_release < max_resets:
+        _resets_since_release += 1
+        return False
+    clear_network_cache()
+    _resets_since_release = 0
+    return True
+
 def _get_next_network_id():
     global _network_id_suffix
     identifier = 'network_' + str(_network_id_suffix)
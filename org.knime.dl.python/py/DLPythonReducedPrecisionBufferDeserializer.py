@@ -0,0 +1,76 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+from io import BytesIO
+import os
+import sys
+import numpy as np
+
+sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
+from DLPythonDataBuffers import DLPythonFloatBuffer, DLPythonDoubleBuffer
+
+_FLOAT16 = 1
+_BFLOAT16 = 2
+_UINT8 = 3
+
+_ELEMENT_TYPE_FLOAT = 0
+
+def deserialize(bytes):
+	# header: precision and element type of the source buffer (one byte each)
+	precision, element_type = np.frombuffer(bytes, dtype=np.uint8, count=2)
+	dtype = np.float32 if element_type == _ELEMENT_TYPE_FLOAT else np.float64
+	if precision == _FLOAT16:
+		values = np.frombuffer(bytes, dtype='<f2', offset=2).astype(dtype)
+	elif precision == _BFLOAT16:
+		# bfloat16 values are the upper halves of float32 values
+		values = (np.frombuffer(bytes, dtype='<u2', offset=2).astype(np.uint32) << 16).view(np.float32).astype(dtype,
+			copy=False)
+	elif precision == _UINT8:
+		offset, scale = np.frombuffer(bytes, dtype='<f8', count=2, offset=2)
+		values = np.frombuffer(bytes, dtype=np.uint8, offset=18).astype(dtype)
+		values *= dtype(scale)
+		values += dtype(offset)
+	else:
+		raise ValueError('Unknown transfer precision: ' + str(precision))
+	return DLPythonFloatBuffer(values) if dtype == np.float32 else DLPythonDoubleBuffer(values)
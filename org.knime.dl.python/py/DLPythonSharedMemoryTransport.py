@@ -0,0 +1,91 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+"""
+Counterpart of org.knime.dl.python.core.DLPythonSharedMemoryTransport. Tensors are exchanged via memory-mapped files
+that are shared with the Java process instead of being serialized.
+
+@author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+"""
+
+import numpy as np
+import pandas as pd
+
+import DLPythonDataBuffers
+
+
+def read_tensor(path, dtype, num_elements, buffer_type, identifier, shape):
+    """
+    Maps the flat tensor that Java wrote to the given file. The returned data frame has the same layout as the ones
+    that are transmitted via the serialization library, i.e. it consists of a buffer and a shape column.
+    Note that the file may be larger than the tensor if it was reused for a smaller batch.
+    """
+    if num_elements > 0:
+        array = np.memmap(path, dtype=dtype, mode='r', shape=(num_elements,))
+    else:
+        # empty files cannot be mapped
+        array = np.empty(0, dtype=dtype)
+    buffer = getattr(DLPythonDataBuffers, buffer_type)(array)
+    # Create object columns explicitly, pandas would otherwise try to unpack the buffer and the shape.
+    buffer_column = np.empty(1, dtype=object)
+    buffer_column[0] = buffer
+    shape_column = np.empty(1, dtype=object)
+    shape_column[0] = list(shape)
+    return pd.DataFrame({identifier: buffer_column, 'shape': shape_column}, columns=[identifier, 'shape'])
+
+
+def write_tensor(data_frame, path, dtype):
+    """
+    Writes the flattened tensor of the given data frame (as created by the network's execute method) to the given
+    file, which is then read by Java.
+    """
+    array = np.ascontiguousarray(data_frame.iloc[0, 0].array, dtype=dtype).reshape(-1)
+    if array.size == 0:
+        open(path, 'wb').close()
+        return
+    target = np.memmap(path, dtype=dtype, mode='w+', shape=array.shape)
+    target[:] = array
+    target.flush()
+    del target
@@ -48,17 +48,29 @@
  */
 package org.knime.dl.python.core;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntSupplier;
@@ -70,16 +82,21 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLNetworkInputProvider;
+import org.knime.dl.core.DLSessionStatistics;
+import org.knime.dl.core.DLSessionStatistics.Stage;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableSparseBuffer;
 import org.knime.dl.core.training.DLReportedMetric;
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.python.core.data.DLPythonDataBuffer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonReducedPrecisionBufferSerializerFactory;
 import org.knime.dl.python.core.data.serde.DLSerializerFactory;
 import org.knime.dl.python.core.training.DLPythonTrainingStatus;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
@@ -92,6 +109,7 @@
 import org.knime.python.typeextension.KnimeToPythonExtensions;
 import org.knime.python.typeextension.PythonToKnimeExtensions;
 import org.knime.python.typeextension.Serializer;
+import org.knime.python2.PythonPreferencePage;
 import org.knime.python2.extensions.serializationlibrary.interfaces.Cell;
 import org.knime.python2.extensions.serializationlibrary.interfaces.Row;
 import org.knime.python2.extensions.serializationlibrary.interfaces.TableChunker;
@@ -163,16 +181,28 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
 	private final Map<DLTensorId, DLPythonTableChunker> m_tableChunkers = new HashMap<>();
 
+	private Map<DLTensorId, DLTransferPrecision> m_transferPrecisions = Collections.emptyMap();
+
+	/**
+	 * Lazily created if enabled, see {@link DLPythonSharedMemoryTransport#isEnabled()}.
+	 */
+	private DLPythonSharedMemoryTransport m_sharedMemoryTransport;
+
+	private final AtomicLong m_numBytesSent = new AtomicLong();
+
+	private final AtomicLong m_numBytesReceived = new AtomicLong();
+
 	/**
 	 * Set to <code>true</code> if the setup steps in {@link #getContext()} were successful.
 	 */
 	private boolean m_contextSetup = false;
 
 	/**
-	 * Creates a new instance of this commands class.
+	 * Creates a new instance of this commands class. Its Python kernel is leased from the {@link DLPythonKernelPool} if
+	 * pooling is enabled.
 	 */
 	protected DLPythonAbstractCommands() {
-		this(new DLPythonDefaultContext());
+		this(new DLPythonPooledContext());
 	}
 
 	/**
@@ -190,6 +220,26 @@ protected DLPythonAbstractCommands(final DLPythonContext context) {
 
 	protected abstract String getSetupBackendCode();
 
+	/**
+	 * Returns the code that resets the workspace of a kernel that was set up by this commands class to its state right
+	 * after the setup. The code is executed before the kernel is returned to the {@link DLPythonKernelPool}. Subclasses
+	 * that allocate back end specific resources should extend the default implementation.
+	 *
+	 * @return the code that resets the workspace
+	 */
+	protected String getResetWorkspaceCode() {
+		return "import DLPythonWorkspace\n" + //
+				"DLPythonWorkspace.reset(globals())";
+	}
+
+	/**
+	 * Kernels are only interchangeable if they were set up by the same commands class and launched from the same
+	 * Python executable (and hence environment), which may be changed by the user at any time.
+	 */
+	private String getKernelPoolKey() {
+		return getClass().getName() + "@" + PythonPreferencePage.getPython3Path();
+	}
+
     protected abstract DLPythonAbstractNetworkReaderCommands getNetworkReaderCommands();
 
     protected abstract DLPythonNetworkTrainingTaskHandler createNetworkTrainingTaskHandler(DLPythonContext context,
@@ -200,6 +250,12 @@ protected abstract DLPythonNetworkTrainingTaskHandler createNetworkTrainingTaskH
 	@Override
 	public final synchronized DLPythonContext getContext(final DLCancelable cancelable) throws DLInvalidEnvironmentException, DLCanceledExecutionException {
 		if (!m_contextSetup) {
+			if (m_context instanceof DLPythonPooledContext && ((DLPythonPooledContext) m_context)
+					.leaseSetUpKernel(getKernelPoolKey(), getResetWorkspaceCode())) {
+				// leased kernel is already set up for this back end
+				m_contextSetup = true;
+				return m_context;
+			}
 			// setup Python process environment
 			try {
 				final String setupGatewayCode = DLPythonUtils.createSourceCodeBuilder() //
@@ -247,6 +303,17 @@ public final synchronized DLPythonContext getContext(final DLCancelable cancelab
 								+ (e.getMessage() != null ? "\nCause: " + e.getMessage() : ""),
 						e);
 			}
+			if (m_context instanceof DLPythonPooledContext) {
+				try {
+					((DLPythonPooledContext) m_context).markSetUp(getKernelPoolKey(), getResetWorkspaceCode(),
+							cancelable);
+				} catch (final IOException e) {
+					throw new DLInvalidEnvironmentException(
+							"An error occurred while communicating with Python (while preparing the kernel for reuse)."
+									+ (e.getMessage() != null ? "\nCause: " + e.getMessage() : ""),
+							e);
+				}
+			}
 
 			m_contextSetup = true;
 		}
@@ -306,11 +373,35 @@ public void saveNetwork(final DLPythonNetworkHandle network, final String path,
 		getContext(cancelable).executeInKernel(b.toString(), cancelable);
 	}
 
+	@Override
+	public void setTransferPrecisions(final Map<DLTensorId, DLTransferPrecision> transferPrecisions) {
+		m_transferPrecisions = transferPrecisions;
+	}
+
+	@Override
+	public long getNumBytesSent() {
+		return m_numBytesSent.get();
+	}
+
+	@Override
+	public long getNumBytesReceived() {
+		return m_numBytesReceived.get();
+	}
+
 	// TODO: implement network handle
 	@Override
 	public void setNetworkInputs(final DLPythonNetworkHandle network,
 			final Map<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> inputs, final DLCancelable cancelable)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		if (DLPythonSharedMemoryTransport.isEnabled()) {
+			try {
+				m_numBytesSent.addAndGet(
+						getSharedMemoryTransport().putTensors(inputs, getContext(cancelable), cancelable));
+			} catch (final IOException ex) {
+				throw new IOException("Transmitting input data to Python via shared memory failed.", ex);
+			}
+			return;
+		}
 		for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> input : inputs
 				.entrySet()) {
 			final DLTensorId tensorIdentifier = input.getKey();
@@ -397,6 +488,15 @@ public Object getTable() {
 	public void getNetworkOutputs(final DLPythonNetworkHandle network,
 			final Map<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> outputs, final DLCancelable cancelable)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		if (DLPythonSharedMemoryTransport.isEnabled()) {
+			try {
+				m_numBytesReceived.addAndGet(
+						getSharedMemoryTransport().getTensors(outputs, getContext(cancelable), cancelable));
+			} catch (final IOException ex) {
+				throw new IOException("Receiving network output from Python via shared memory failed.", ex);
+			}
+			return;
+		}
 		for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> output : outputs
 				.entrySet()) {
 			final DLTensorId tensorIdentifier = output.getKey();
@@ -424,7 +524,9 @@ public void addRow(final Row row) {
 							}
 							final Cell cell = row.getCell(0);
 							try {
-								((DLPythonDeserializer) deserializer).deserialize(cell.getBytesValue(), tensor);
+								final byte[] bytes = cell.getBytesValue();
+								m_numBytesReceived.addAndGet(bytes.length);
+								((DLPythonDeserializer) deserializer).deserialize(bytes, tensor);
 							} catch (final IllegalStateException e) {
 								LOGGER.error("An exception occurred while collecting network output from Python: "
 										+ e.getMessage(), e);
@@ -451,6 +553,8 @@ public void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInp
         throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final DLPythonContext context = getContext(monitor);
         final DLPythonTrainingStatus status = monitor.getTrainingStatus();
+        // training and validation data are fed to the same tensors and are therefore configured alike
+        setTransferPrecisions(trainingInputProvider.getTransferPrecisions());
 
         // Add log listeners.
         final StringBuilder stdOut = new StringBuilder();
@@ -521,9 +625,9 @@ public void messageReceived(final String message, final boolean isWarningMessage
             .a("validation_data_supplier=validation_data_supplier)") //
             .n("train_task.get()");
 
+        final DLPythonNetworkTrainingTaskHandler trainingTaskHandler = createNetworkTrainingTaskHandler(context,
+            monitor, trainingInputProvider, validationInputProvider, this::createSingleTensorTableChunker);
         try {
-            final DLPythonNetworkTrainingTaskHandler trainingTaskHandler = createNetworkTrainingTaskHandler(context,
-                monitor, trainingInputProvider, validationInputProvider, this::createSingleTensorTableChunker);
             final RunnableFuture<Void> trainingTask = kernel.createExecutionTask(trainingTaskHandler, b.toString());
             kernel.routeErrorMessagesToWarningLog(true);
             trainingTask.run();
@@ -531,10 +635,12 @@ public void messageReceived(final String message, final boolean isWarningMessage
         } catch (final ExecutionException | InterruptedException ex) {
             throw new IOException(ex);
         } finally {
+            trainingTaskHandler.stopPrefetching();
             kernel.routeErrorMessagesToWarningLog(false);
-            // Remove log listeners.
-            kernel.removeStderrorListener(stdOutListener);
+            // Remove log listeners and restore the default output, the kernel may be reused via the kernel pool.
+            kernel.removeStdoutListener(stdOutListener);
             kernel.removeStderrorListener(stdErrListener);
+            kernel.getDefaultStdoutListener().setSilenced(false);
         }
     }
 
@@ -544,6 +650,10 @@ public void messageReceived(final String message, final boolean isWarningMessage
 	@Override
 	public synchronized void close() {
 		m_context.close();
+		if (m_sharedMemoryTransport != null) {
+			m_sharedMemoryTransport.close();
+			m_sharedMemoryTransport = null;
+		}
 	}
 
     protected String getRegisterNetworkCode(final String networkVariable, final String networkIdentifier) {
@@ -607,17 +717,41 @@ protected Version getPythonVersion(final DLCancelable cancelable)
         return new Version(pythonVersion);
     }
 
+    private DLPythonSharedMemoryTransport getSharedMemoryTransport() throws IOException {
+        if (m_sharedMemoryTransport == null) {
+            m_sharedMemoryTransport = new DLPythonSharedMemoryTransport();
+        }
+        return m_sharedMemoryTransport;
+    }
+
     private TableChunker createSingleTensorTableChunker(final DLTensorId tensorId, final DLTensor<? extends DLWritableBuffer> tensor)
         throws IOException {
+        DLTransferPrecision precision = m_transferPrecisions.getOrDefault(tensorId, DLTransferPrecision.FULL);
+        // sparse buffers are already compact and transferred as they are
+        if (!precision.isApplicableTo(tensor.getSpec().getElementType())
+            || tensor.getBuffer() instanceof DLWritableSparseBuffer) {
+            precision = DLTransferPrecision.FULL;
+        }
         DLPythonTableChunker tableChunker = m_tableChunkers.get(tensorId);
-        if (tableChunker == null) {
-            tableChunker = new DLPythonTableChunker(tensor);
+        // training and validation tensors of the same input may differ in their buffer types
+        if (tableChunker == null || tableChunker.m_precision != precision
+            || tableChunker.m_bufferType != tensor.getBuffer().getClass()) {
+            tableChunker = new DLPythonTableChunker(tensor, precision);
             m_tableChunkers.put(tensorId, tableChunker);
         }
         tableChunker.resetWithNextTensor(tensor);
+        m_numBytesSent.addAndGet(tableChunker.m_numBytes);
         return tableChunker;
     }
 
+    /**
+     * @return the number of bytes of the tensor that was serialized last by the given table chunker, zero if the
+     *         chunker was not created by {@link #createSingleTensorTableChunker(DLTensorId, DLTensor)}
+     */
+    private static long getNumBytes(final TableChunker tableChunker) {
+        return tableChunker instanceof DLPythonTableChunker ? ((DLPythonTableChunker)tableChunker).m_numBytes : 0;
+    }
+
     private static byte[] getNotMissingForLength(final int length) {
         final int entries = length / 8 + 1;
         final byte[] missings = new byte[entries];
@@ -637,18 +771,46 @@ private static final class DLPythonTableChunker implements TableChunker {
 
         private final Row m_row;
 
-        private DLPythonTableChunker(final DLTensor<? extends DLWritableBuffer> tensor) {
+        private final DLTransferPrecision m_precision;
+
+        private final Class<?> m_bufferType;
+
+        /**
+         * The number of bytes of the tensor that was serialized last.
+         */
+        private int m_numBytes;
+
+        private DLPythonTableChunker(final DLTensor<? extends DLWritableBuffer> tensor,
+            final DLTransferPrecision precision) {
+            m_precision = precision;
+            m_bufferType = tensor.getBuffer().getClass();
             // Create the serializer
-            final KnimeToPythonExtension extension = KnimeToPythonExtensions.getExtensions().stream()
-                .filter(ext -> (ext.getJavaSerializerFactory() instanceof DLSerializerFactory)
-                    && ((DLSerializerFactory)ext.getJavaSerializerFactory()).getBufferType()
-                        .isAssignableFrom(tensor.getBuffer().getClass()))
-                .findFirst() //
-                .orElseThrow(() -> new RuntimeException(
-                    "Transmitting data to Python failed. No matching serializer available."));
-            // TODO: if nothing found, we should also try to match primitive types with their wrapper types (guava
-            // Primitives.wrap etc.)
-            m_serializer = (Serializer<DLPythonDataBuffer<?>>)extension.getJavaSerializerFactory().createSerializer();
+            final KnimeToPythonExtension extension;
+            if (precision == DLTransferPrecision.FULL) {
+                extension = KnimeToPythonExtensions.getExtensions().stream()
+                    .filter(ext -> (ext.getJavaSerializerFactory() instanceof DLSerializerFactory)
+                        // is only used if explicitly requested, see below
+                        && !(ext.getJavaSerializerFactory() instanceof DLPythonReducedPrecisionBufferSerializerFactory)
+                        && ((DLSerializerFactory)ext.getJavaSerializerFactory()).getBufferType()
+                            .isAssignableFrom(tensor.getBuffer().getClass()))
+                    .findFirst() //
+                    .orElseThrow(() -> new RuntimeException(
+                        "Transmitting data to Python failed. No matching serializer available."));
+                // TODO: if nothing found, we should also try to match primitive types with their wrapper types (guava
+                // Primitives.wrap etc.)
+                m_serializer =
+                    (Serializer<DLPythonDataBuffer<?>>)extension.getJavaSerializerFactory().createSerializer();
+            } else {
+                extension = KnimeToPythonExtensions.getExtensions().stream()
+                    .filter(ext -> ext.getJavaSerializerFactory() instanceof DLPythonReducedPrecisionBufferSerializerFactory
+                        && ((DLSerializerFactory)ext.getJavaSerializerFactory()).getBufferType()
+                            .isAssignableFrom(tensor.getBuffer().getClass()))
+                    .findFirst() //
+                    .orElseThrow(() -> new RuntimeException("Transmitting data to Python failed. No serializer for "
+                        + "transfer precision '" + precision.getName() + "' available."));
+                m_serializer = (Serializer<DLPythonDataBuffer<?>>)((DLPythonReducedPrecisionBufferSerializerFactory<?>)extension
+                    .getJavaSerializerFactory()).createSerializer(precision);
+            }
 
             // Create the shape cell (the same every time)
             final long[] shape = DLUtils.Shapes.getFixedShape(tensor.getSpec().getShape())
@@ -690,7 +852,9 @@ public TableSpec getTableSpec() {
         }
 
         private void resetWithNextTensor(final DLTensor<? extends DLWritableBuffer> tensor) throws IOException {
-            final Cell cell = new CellImpl(m_serializer.serialize((DLPythonDataBuffer<?>)tensor.getBuffer()));
+            final byte[] bytes = m_serializer.serialize((DLPythonDataBuffer<?>)tensor.getBuffer());
+            m_numBytes = bytes.length;
+            final Cell cell = new CellImpl(bytes);
             m_row.setCell(cell, 0);
             m_iterator.reset();
             m_hasNextChunk = true;
@@ -781,10 +945,61 @@ protected static class DLPythonNetworkTrainingTaskHandler extends AbstractTaskHa
         protected final DLThrowingBiFunction<DLTensorId, DLTensor<? extends DLWritableBuffer>, TableChunker, //
                 IOException> m_singleTensorTableChunkerCreator;
 
+        /**
+         * The maximum number of training batches that are prepared ahead of Python's requests, zero if prefetching is
+         * disabled.
+         */
+        private final int m_prefetchDepth;
+
+        /**
+         * Prepares the next training batches while Python trains on the current one. Also prepares the batches that
+         * were not prefetched, as the training input must not be accessed concurrently. <code>null</code> if
+         * prefetching is disabled.
+         */
+        private final ExecutorService m_prefetcher;
+
+        /**
+         * The pending and completed prefetches keyed by batch index. Batches are prepared sequentially regardless of
+         * their index, so a prefetched batch is kept until its index is requested instead of being discarded.
+         */
+        private final Map<Long, Future<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>>> m_prefetched =
+            new HashMap<>();
+
+        /**
+         * The tensors of prefetched batches, each batch in flight occupies its own set.
+         */
+        private final Set<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_prefetchTensors =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private final Deque<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_freePrefetchTensors =
+            new ArrayDeque<>();
+
+        /**
+         * The start of the training batch Python currently works on, <code>-1</code> if none.
+         */
+        private long m_batchStartNanos = -1;
+
         protected DLPythonNetworkTrainingTaskHandler(final DLPythonContext context,
             final DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor,
             final DLNetworkInputProvider trainingInputProvider, final DLNetworkInputProvider validationInputProvider,
             final DLThrowingBiFunction<DLTensorId, DLTensor<? extends DLWritableBuffer>, TableChunker, IOException> singleTensorTableChunkerCreator) {
+            this(context, monitor, trainingInputProvider, validationInputProvider, singleTensorTableChunkerCreator,
+                0);
+        }
+
+        /**
+         * @param prefetchDepth the maximum number of training batches that are prepared ahead of Python's requests,
+         *            i.e. while Python trains on the current batch. Zero if batches are only prepared when Python
+         *            requests them. Prefetching requires the training input provider to support
+         *            {@link DLNetworkInputProvider#createTensors() additional tensors}.
+         * @since 3.7
+         */
+        protected DLPythonNetworkTrainingTaskHandler(final DLPythonContext context,
+            final DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor,
+            final DLNetworkInputProvider trainingInputProvider, final DLNetworkInputProvider validationInputProvider,
+            final DLThrowingBiFunction<DLTensorId, DLTensor<? extends DLWritableBuffer>, TableChunker, IOException> singleTensorTableChunkerCreator,
+            final int prefetchDepth) {
+            checkArgument(prefetchDepth >= 0, "Prefetch depth must be non-negative but was %s.", prefetchDepth);
             m_context = context;
             m_monitor = monitor;
             m_status = monitor.getTrainingStatus();
@@ -798,6 +1013,35 @@ protected DLPythonNetworkTrainingTaskHandler(final DLPythonContext context,
 
             batchMetrics.put("accuracy", new DLReportedMetric("accuracy", 0f));
             batchMetrics.put("loss", new DLReportedMetric("loss", 0f));
+
+            m_prefetchDepth = prefetchDepth;
+            m_prefetcher = prefetchDepth > 0
+                ? Executors.newSingleThreadExecutor(r -> new Thread(r, "DL-Training-Data-Prefetcher")) : null;
+        }
+
+        /**
+         * Waits for pending prefetches to finish (the training input must not be accessed anymore once training is
+         * done) and releases the prefetching thread and tensors. Must be called once training has ended.
+         *
+         * @since 3.7
+         */
+        protected void stopPrefetching() {
+            if (m_prefetcher != null) {
+                for (final Future<?> prefetched : m_prefetched.values()) {
+                    try {
+                        prefetched.get();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (final ExecutionException e) {
+                        // batch is not needed anymore
+                    }
+                }
+                m_prefetched.clear();
+                m_prefetcher.shutdownNow();
+                m_prefetchTensors.forEach(t -> t.values().forEach(DLTensor::close));
+                m_prefetchTensors.clear();
+                m_freePrefetchTensors.clear();
+            }
         }
 
         @Override
@@ -825,6 +1069,9 @@ protected boolean handleCustomMessage(final Message message, final IntSupplier r
                     case "batch_end":
                         handleBatchEnd(message);
                         break;
+                    case "batch_metrics":
+                        handleBatchMetrics(message);
+                        break;
                     default:
                         return false;
                 }
@@ -840,10 +1087,18 @@ protected boolean handleCustomMessage(final Message message, final IntSupplier r
         private Message handleTrainingDataRequest(final Message message, final IntSupplier responseMessageIdSupplier)
             throws Exception {
             final long batchIndex = Long.parseLong(new PayloadDecoder(message.getPayload()).getNextString());
-            final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = m_trainingInputProvider.get(batchIndex);
+            final DLSessionStatistics statistics = m_status.getStatistics();
+            long start = System.nanoTime();
+            // if the batch was prefetched, this is only the time spent waiting for it
+            final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = getTrainingBatch(batchIndex);
+            statistics.recordSince(Stage.PREPARE_INPUT, start, 0);
+            start = System.nanoTime();
+            long bytes = 0;
+            final long numRows = getBatchSize(input);
             for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
                 final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
                 final TableChunker tableChunker = m_singleTensorTableChunkerCreator.apply(entry.getKey(), tensor);
+                bytes += getNumBytes(tableChunker);
                 try {
                     m_context.putDataInKernel(entry.getKey().getIdentifierString(), tableChunker, 1, m_monitor);
                 } catch (final IOException ex) {
@@ -852,6 +1107,15 @@ private Message handleTrainingDataRequest(final Message message, final IntSuppli
                     tensor.getBuffer().reset();
                 }
             }
+            statistics.recordSince(Stage.TRANSFER_INPUT, start, bytes);
+            statistics.recordRows(numRows);
+            if (m_prefetcher != null) {
+                // the tensors are free again at this point
+                if (m_prefetchTensors.contains(input)) {
+                    m_freePrefetchTensors.push(input);
+                }
+                prefetch(batchIndex);
+            }
 
             final HashMap<String, String> options = new HashMap<>(1);
             options.put(FIELD_KEY_MESSAGE_TYPE, MESSAGE_TYPE_SUCCESS);
@@ -859,14 +1123,72 @@ private Message handleTrainingDataRequest(final Message message, final IntSuppli
                 options);
         }
 
+        private Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> getTrainingBatch(final long batchIndex)
+            throws Exception {
+            if (m_prefetcher == null) {
+                return m_trainingInputProvider.get(batchIndex);
+            }
+            Future<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> batch = m_prefetched.remove(batchIndex);
+            if (batch == null) {
+                // not prefetched, e.g. the first batch of an epoch
+                batch = m_prefetcher.submit(() -> m_trainingInputProvider.get(batchIndex));
+            }
+            try {
+                return batch.get();
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception)cause : e;
+            }
+        }
+
+        /**
+         * Prefetches the batches that follow the given one, up to the prefetch depth. Python requests batches in
+         * order, wrapping around at the end of each epoch. Batches of the next epoch are not prefetched: training may
+         * end before and preparing them may already trigger the reshuffling of the training data.
+         */
+        private void prefetch(final long batchIndex) {
+            final long lastBatchIndex =
+                Math.min(batchIndex + m_prefetchDepth, m_trainingInputProvider.getNumBatches() - 1);
+            for (long i = batchIndex + 1; i <= lastBatchIndex; i++) {
+                if (!m_prefetched.containsKey(i)) {
+                    Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors = m_freePrefetchTensors.poll();
+                    if (tensors == null) {
+                        if (m_prefetchTensors.size() == m_prefetchDepth) {
+                            // all tensors are in use, e.g. by batches whose requests are still pending
+                            return;
+                        }
+                        tensors = m_trainingInputProvider.createTensors();
+                        m_prefetchTensors.add(tensors);
+                    }
+                    final long nextBatchIndex = i;
+                    final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> nextTensors = tensors;
+                    m_prefetched.put(nextBatchIndex, m_prefetcher.submit(() -> {
+                        m_trainingInputProvider.prepare(nextBatchIndex, nextTensors);
+                        return nextTensors;
+                    }));
+                }
+            }
+        }
+
+        private static long getBatchSize(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+            final DLTensor<? extends DLWritableBuffer> tensor = input.values().iterator().next();
+            return tensor.getBuffer().size() / tensor.getExampleSize();
+        }
+
         private Message handleValidationDataRequest(final Message message, final IntSupplier responseMessageIdSupplier)
             throws Exception {
             final long batchIndex = Long.parseLong(new PayloadDecoder(message.getPayload()).getNextString());
+            final DLSessionStatistics statistics = m_status.getStatistics();
+            long start = System.nanoTime();
             final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input =
                 m_validationInputProvider.get(batchIndex);
+            statistics.recordSince(Stage.PREPARE_INPUT, start, 0);
+            start = System.nanoTime();
+            long bytes = 0;
             for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
                 final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
                 final TableChunker tableChunker = m_singleTensorTableChunkerCreator.apply(entry.getKey(), tensor);
+                bytes += getNumBytes(tableChunker);
                 try {
                     m_context.putDataInKernel(entry.getKey().getIdentifierString() + "_validation", tableChunker, 1,
                         m_monitor);
@@ -876,6 +1198,7 @@ private Message handleValidationDataRequest(final Message message, final IntSupp
                     tensor.getBuffer().reset();
                 }
             }
+            statistics.recordSince(Stage.TRANSFER_INPUT, start, bytes);
 
             final HashMap<String, String> options = new HashMap<>(1);
             options.put(FIELD_KEY_MESSAGE_TYPE, MESSAGE_TYPE_SUCCESS);
@@ -903,10 +1226,15 @@ private void handleEpochEnd(final Message message) {
         }
 
         private void handleBatchBegin(final Message message) {
+            m_batchStartNanos = System.nanoTime();
             m_status.batchStarted().raise(null);
         }
 
         private void handleBatchEnd(final Message message) {
+            if (m_batchStartNanos != -1) {
+                m_status.getStatistics().recordSince(Stage.EXECUTE, m_batchStartNanos, 0);
+                m_batchStartNanos = -1;
+            }
             final String[] metricsStr = new PayloadDecoder(message.getPayload()).getNextString().split(";");
             int i = 0;
             for (final DLReportedMetric m : batchMetrics.values()) {
@@ -919,8 +1247,42 @@ private void handleBatchEnd(final Message message) {
                 i++;
             }
             m_status.batchEnded().raise(batchMetrics);
-            // Start validation phase if validation is enabled and we finished the last training batch of the
-            // epoch.
+            raiseValidationStartedIfEpochDone();
+        }
+
+        /**
+         * Handles the metrics of several training batches that were coalesced into a single binary message by the
+         * back end. Replays the begin and end events of each batch such that status listeners observe the same
+         * sequence as if each batch had been reported on its own. Layout (little endian): int32 number of metrics,
+         * for each metric its name as int32 length plus UTF-8 bytes, int32 number of batches, for each batch the int64
+         * execution time in nanoseconds followed by one float32 value per metric.
+         */
+        private void handleBatchMetrics(final Message message) {
+            final ByteBuffer payload = ByteBuffer.wrap(message.getPayload()).order(ByteOrder.LITTLE_ENDIAN);
+            final DLReportedMetric[] metrics = new DLReportedMetric[payload.getInt()];
+            for (int i = 0; i < metrics.length; i++) {
+                final byte[] name = new byte[payload.getInt()];
+                payload.get(name);
+                metrics[i] = batchMetrics.computeIfAbsent(new String(name, StandardCharsets.UTF_8),
+                    n -> new DLReportedMetric(n, 0f));
+            }
+            final int numBatches = payload.getInt();
+            final DLSessionStatistics statistics = m_status.getStatistics();
+            for (int b = 0; b < numBatches; b++) {
+                statistics.record(Stage.EXECUTE, payload.getLong(), 0);
+                for (final DLReportedMetric m : metrics) {
+                    m.setValue(payload.getFloat());
+                }
+                m_status.batchStarted().raise(null);
+                m_status.batchEnded().raise(batchMetrics);
+                raiseValidationStartedIfEpochDone();
+            }
+        }
+
+        /**
+         * Starts the validation phase if validation is enabled and the last training batch of the epoch is finished.
+         */
+        private void raiseValidationStartedIfEpochDone() {
             if (m_validationInputProvider != null
                 && m_status.getCurrentBatchInEpoch() == m_status.getNumBatchesPerEpoch() - 1) {
                 m_status.validationStarted().raise(null);
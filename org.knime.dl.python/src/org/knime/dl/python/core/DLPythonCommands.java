@@ -58,6 +58,7 @@
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.core.training.DLTrainingStatus;
@@ -92,6 +93,30 @@ void setNetworkInputs(DLPythonNetworkHandle network,
 			Map<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> inputs, DLCancelable cancelable)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
 
+	/**
+	 * Sets the precision in which the tensors passed to {@link #setNetworkInputs(DLPythonNetworkHandle, Map,
+	 * DLCancelable)} and the training and validation data are transferred to Python. Tensors that are not contained in
+	 * the map are transferred in {@link DLTransferPrecision#FULL full precision}.
+	 *
+	 * @param transferPrecisions the transfer precisions per tensor
+	 * @since 3.7
+	 */
+	void setTransferPrecisions(Map<DLTensorId, DLTransferPrecision> transferPrecisions);
+
+	/**
+	 * @return the number of bytes that were sent to Python so far, as they were actually transferred (i.e. after
+	 *         serialization), including training and validation data
+	 * @since 3.7
+	 */
+	long getNumBytesSent();
+
+	/**
+	 * @return the number of bytes that were received from Python so far, as they were actually transferred (i.e.
+	 *         before deserialization)
+	 * @since 3.7
+	 */
+	long getNumBytesReceived();
+
 	void executeNetwork(DLPythonNetworkHandle network, Set<? extends DLTensorId> requestedOutputs, final long batchSize, DLCancelable cancelable)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
 
@@ -46,15 +46,15 @@
  */
 package org.knime.dl.python.core;
 
-import java.util.function.Supplier;
-
 import org.knime.dl.core.DLDefaultFixedTensorShape;
-import org.knime.dl.core.DLDefaultTensor;
 import org.knime.dl.core.DLDefaultTensorSpec;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorFactory;
+import org.knime.dl.core.DLTensorPool;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLDefaultDirectDoubleBuffer;
+import org.knime.dl.core.data.DLDefaultDirectFloatBuffer;
 import org.knime.dl.core.data.DLReadableBitBuffer;
 import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.DLReadableByteBuffer;
@@ -75,11 +75,14 @@
 import org.knime.dl.core.data.DLWritableUnsignedByteBuffer;
 import org.knime.dl.python.core.data.DLPythonBitBuffer;
 import org.knime.dl.python.core.data.DLPythonByteBuffer;
+import org.knime.dl.python.core.data.DLPythonDirectDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonDirectFloatBuffer;
 import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
 import org.knime.dl.python.core.data.DLPythonFloatBuffer;
 import org.knime.dl.python.core.data.DLPythonIntBuffer;
 import org.knime.dl.python.core.data.DLPythonLongBuffer;
 import org.knime.dl.python.core.data.DLPythonShortBuffer;
+import org.knime.dl.python.core.data.DLPythonSparseFloatBuffer;
 import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
 import org.knime.dl.util.DLUtils;
 
@@ -91,6 +94,16 @@
  */
 public final class DLPythonDefaultTensorFactory implements DLTensorFactory {
 
+	/**
+	 * If set to <code>true</code>, writable (i.e. input) tensors of element type float or double are backed by
+	 * off-heap buffers as long as they do not exceed the maximum capacity of such buffers. This keeps large batches off
+	 * the Java heap at the cost of direct memory, whose limit may need to be raised via
+	 * <code>-XX:MaxDirectMemorySize</code>.
+	 *
+	 * @since 3.7
+	 */
+	public static final String OFF_HEAP_TENSORS_VM_OPT = "knime.dl.python.offheaptensors";
+
 	@Override
 	public Class<? extends DLWritableBuffer> getWritableBufferType(final DLTensorSpec spec) {
 		final Class<?> t = spec.getElementType();
@@ -143,12 +156,38 @@ public Class<? extends DLReadableBuffer> getReadableBufferType(final DLTensorSpe
 
 	@Override
 	public DLTensor<? extends DLWritableBuffer> createWritableTensor(final DLTensorSpec spec) {
-		return createTensorInternal(spec);
+		// Readable tensors are filled by deserializers that expect heap buffers, thus only writable tensors can be
+		// moved off the heap.
+		return createTensorInternal(spec, Boolean.getBoolean(OFF_HEAP_TENSORS_VM_OPT));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <P>
+	 * Sparse storage is available for tensors of element type float unless the shared memory transport is enabled,
+	 * which requires dense storage.
+	 */
+	@Override
+	public DLTensor<? extends DLWritableBuffer> createWritableSparseTensor(final DLTensorSpec spec) {
+		if (!spec.getElementType().equals(float.class) || DLPythonSharedMemoryTransport.isEnabled()) {
+			return createWritableTensor(spec);
+		}
+		final long[] shape = DLUtils.Shapes.getFixedShape(spec.getShape())
+				.orElseThrow(() -> new IllegalArgumentException(
+						"Tensor spec '" + spec.getName() + "' does not provide a shape. Tensor cannot be created."));
+		if (!spec.getBatchSize().isPresent()) {
+			throw new IllegalArgumentException(
+					"Tensor spec '" + spec.getName() + "' does not provide a batch size. Tensor cannot be created.");
+		}
+		final long exampleSize = DLUtils.Shapes.getSize(shape);
+		final long size = exampleSize * spec.getBatchSize().getAsLong();
+		return DLTensorPool.getInstance().createTensor(spec, exampleSize, DLPythonSparseFloatBuffer.class, size,
+				DLPythonSparseFloatBuffer::new);
 	}
 
 	@Override
 	public DLTensor<? extends DLReadableBuffer> createReadableTensor(final DLTensorSpec spec) {
-		return createTensorInternal(spec);
+		return createTensorInternal(spec, false);
 	}
 
 	@Override
@@ -157,7 +196,7 @@ public DLTensorSpec createExecutionTensorSpec(final DLTensorSpec spec, final lon
 				new DLDefaultFixedTensorShape(shape), spec.getElementType(), spec.getDimensionOrder());
 	}
 
-	private <B extends DLBuffer> DLTensor<B> createTensorInternal(final DLTensorSpec spec) {
+	private <B extends DLBuffer> DLTensor<B> createTensorInternal(final DLTensorSpec spec, final boolean offHeap) {
 		final long[] shape = DLUtils.Shapes.getFixedShape(spec.getShape())
 				.orElseThrow(() -> new IllegalArgumentException(
 						"Tensor spec '" + spec.getName() + "' does not provide a shape. Tensor cannot be created."));
@@ -169,27 +208,35 @@ private <B extends DLBuffer> DLTensor<B> createTensorInternal(final DLTensorSpec
 		final long batchSize = spec.getBatchSize().getAsLong();
 		final long size = exampleSize * batchSize;
 		final Class<?> t = spec.getElementType();
-		// TODO: handle unsafe casts
-		final Supplier<B> s;
+		final DLTensorPool pool = DLTensorPool.getInstance();
+		final DLTensor<?> tensor;
 		if (t.equals(double.class)) {
-			s = () -> (B) new DLPythonDoubleBuffer(size);
+			tensor = offHeap && size <= DLDefaultDirectDoubleBuffer.MAX_CAPACITY
+					? pool.createTensor(spec, exampleSize, DLPythonDirectDoubleBuffer.class, size,
+							DLPythonDirectDoubleBuffer::new)
+					: pool.createTensor(spec, exampleSize, DLPythonDoubleBuffer.class, size, DLPythonDoubleBuffer::new);
 		} else if (t.equals(float.class)) {
-			s = () -> (B) new DLPythonFloatBuffer(size);
+			tensor = offHeap && size <= DLDefaultDirectFloatBuffer.MAX_CAPACITY
+					? pool.createTensor(spec, exampleSize, DLPythonDirectFloatBuffer.class, size,
+							DLPythonDirectFloatBuffer::new)
+					: pool.createTensor(spec, exampleSize, DLPythonFloatBuffer.class, size, DLPythonFloatBuffer::new);
 		} else if (t.equals(boolean.class)) {
-			s = () -> (B) new DLPythonBitBuffer(size);
+			tensor = pool.createTensor(spec, exampleSize, DLPythonBitBuffer.class, size, DLPythonBitBuffer::new);
 		} else if (t.equals(UnsignedBytes.class)) {
-			s = () -> (B) new DLPythonUnsignedByteBuffer(size);
+			tensor = pool.createTensor(spec, exampleSize, DLPythonUnsignedByteBuffer.class, size,
+					DLPythonUnsignedByteBuffer::new);
 		} else if (t.equals(byte.class)) {
-			s = () -> (B) new DLPythonByteBuffer(size);
+			tensor = pool.createTensor(spec, exampleSize, DLPythonByteBuffer.class, size, DLPythonByteBuffer::new);
 		} else if (t.equals(short.class)) {
-			s = () -> (B) new DLPythonShortBuffer(size);
+			tensor = pool.createTensor(spec, exampleSize, DLPythonShortBuffer.class, size, DLPythonShortBuffer::new);
 		} else if (t.equals(int.class)) {
-			s = () -> (B) new DLPythonIntBuffer(size);
+			tensor = pool.createTensor(spec, exampleSize, DLPythonIntBuffer.class, size, DLPythonIntBuffer::new);
 		} else if (t.equals(long.class)) {
-			s = () -> (B) new DLPythonLongBuffer(size);
+			tensor = pool.createTensor(spec, exampleSize, DLPythonLongBuffer.class, size, DLPythonLongBuffer::new);
 		} else {
 			throw new IllegalArgumentException("No matching tensor type for tensor spec '" + spec.getName() + "'.");
 		}
-		return new DLDefaultTensor<>(spec, s.get(), exampleSize);
+		// TODO: handle unsafe casts
+		return (DLTensor<B>) tensor;
 	}
 }
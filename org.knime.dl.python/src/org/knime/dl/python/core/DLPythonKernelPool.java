@@ -0,0 +1,354 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.util.memory.MemoryAlert;
+import org.knime.core.data.util.memory.MemoryAlertListener;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLNotCancelable;
+import org.knime.python2.kernel.PythonKernel;
+
+/**
+ * Keeps Python kernels alive after their {@link DLPythonPooledContext context} was closed such that they can be reused
+ * by later contexts of the same back end and Python executable, which saves the costs of launching Python and importing the back end (e.g.
+ * Keras and TensorFlow). Kernels are kept per back end, their workspace is reset before they are returned to the pool
+ * and their health is checked before they are leased again. Kernels that were idle for longer than the idle timeout
+ * are closed. All idle kernels are closed if the {@link MemoryAlertSystem} reports low memory, which also releases the
+ * networks that were cached in their workspaces (see {@link DLPythonNetworkHandleCache}).
+ * <P>
+ * The pool is disabled by default. Its size (the maximum number of idle kernels per back end) can be specified via VM
+ * option {@link #KERNEL_POOL_SIZE_VM_OPT}, the idle timeout via {@link #KERNEL_POOL_IDLE_TIMEOUT_VM_OPT}.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonKernelPool implements AutoCloseable {
+
+    /**
+     * @see #getMaxIdleKernelsPerBackend()
+     */
+    public static final String KERNEL_POOL_SIZE_VM_OPT = "knime.dl.python.kernelpoolsize";
+
+    /**
+     * @see #getMaxIdleKernelsPerBackend()
+     */
+    public static final int KERNEL_POOL_DEFAULT_SIZE = 0;
+
+    /**
+     * @see #getIdleTimeout()
+     */
+    public static final String KERNEL_POOL_IDLE_TIMEOUT_VM_OPT = "knime.dl.python.kernelpoolidletimeout";
+
+    /**
+     * @see #getIdleTimeout()
+     */
+    public static final long KERNEL_POOL_DEFAULT_IDLE_TIMEOUT = 300000; // in ms
+
+    private static final String HEALTH_CHECK_CODE = "import sys";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonKernelPool.class);
+
+    private static DLPythonKernelPool instance;
+
+    /**
+     * @return the instance of this class
+     */
+    public static synchronized DLPythonKernelPool getInstance() {
+        if (instance == null) {
+            instance = new DLPythonKernelPool(parseMaxIdleKernelsPerBackend(), parseIdleTimeout());
+        }
+        return instance;
+    }
+
+    private static int parseMaxIdleKernelsPerBackend() {
+        int size = -1;
+        try {
+            size = Integer
+                .parseInt(System.getProperty(KERNEL_POOL_SIZE_VM_OPT, Integer.toString(KERNEL_POOL_DEFAULT_SIZE)));
+        } catch (final NumberFormatException ex) {
+            // Ignore, see below.
+        }
+        if (size < 0) {
+            size = KERNEL_POOL_DEFAULT_SIZE;
+            LOGGER.warn("The VM option -D" + KERNEL_POOL_SIZE_VM_OPT
+                + " was not set to a non-negative integer value, and thus defaults to " + size + ".");
+        }
+        return size;
+    }
+
+    private static long parseIdleTimeout() {
+        long timeout = -1;
+        try {
+            timeout = Long.parseLong(
+                System.getProperty(KERNEL_POOL_IDLE_TIMEOUT_VM_OPT, Long.toString(KERNEL_POOL_DEFAULT_IDLE_TIMEOUT)));
+        } catch (final NumberFormatException ex) {
+            // Ignore, see below.
+        }
+        if (timeout <= 0) {
+            timeout = KERNEL_POOL_DEFAULT_IDLE_TIMEOUT;
+            LOGGER.warn("The VM option -D" + KERNEL_POOL_IDLE_TIMEOUT_VM_OPT
+                + " was not set to a positive integer value, and thus defaults to " + timeout + " ms.");
+        }
+        return timeout;
+    }
+
+    private final int m_maxIdleKernelsPerBackend;
+
+    private final long m_idleTimeout;
+
+    private final Map<String, Deque<DLIdleKernel>> m_idleKernels = new HashMap<>();
+
+    /**
+     * Created when the first kernel gets idle.
+     */
+    private ScheduledExecutorService m_evictor;
+
+    private boolean m_closed = false;
+
+    private DLPythonKernelPool(final int maxIdleKernelsPerBackend, final long idleTimeout) {
+        m_maxIdleKernelsPerBackend = maxIdleKernelsPerBackend;
+        m_idleTimeout = idleTimeout;
+        if (isEnabled()) {
+            MemoryAlertSystem.getInstance().addListener(new MemoryAlertListener() {
+                @Override
+                protected boolean memoryAlert(final MemoryAlert alert) {
+                    evictIdleKernels(true);
+                    return false;
+                }
+            });
+        }
+    }
+
+    /**
+     * @return <code>true</code> if kernels are pooled at all, i.e. if {@link #getMaxIdleKernelsPerBackend()} is
+     *         greater than zero
+     */
+    public boolean isEnabled() {
+        return m_maxIdleKernelsPerBackend > 0;
+    }
+
+    /**
+     * @return the maximum number of idle kernels that are kept per back end, can be specified by the user via VM
+     *         option {@link #KERNEL_POOL_SIZE_VM_OPT}, defaults to {@link #KERNEL_POOL_DEFAULT_SIZE}
+     */
+    public int getMaxIdleKernelsPerBackend() {
+        return m_maxIdleKernelsPerBackend;
+    }
+
+    /**
+     * @return the time in milliseconds after which idle kernels are closed, can be specified by the user via VM option
+     *         {@link #KERNEL_POOL_IDLE_TIMEOUT_VM_OPT}, defaults to {@link #KERNEL_POOL_DEFAULT_IDLE_TIMEOUT}
+     */
+    public long getIdleTimeout() {
+        return m_idleTimeout;
+    }
+
+    /**
+     * Closes all idle kernels. Kernels that are currently leased are closed as usual once their context is closed.
+     */
+    @Override
+    public void close() {
+        final List<DLIdleKernel> toClose = new ArrayList<>();
+        synchronized (this) {
+            m_closed = true;
+            m_idleKernels.values().forEach(toClose::addAll);
+            m_idleKernels.clear();
+            if (m_evictor != null) {
+                m_evictor.shutdownNow();
+                m_evictor = null;
+            }
+        }
+        toClose.forEach(k -> closeQuietly(k.m_context));
+    }
+
+    /**
+     * Leases an idle, healthy kernel of the given back end.
+     *
+     * @param backend the identifier of the back end
+     * @return the context of the leased kernel, empty if no idle kernel is available
+     */
+    Optional<DLPythonDefaultContext> lease(final String backend) {
+        while (true) {
+            final DLIdleKernel idle;
+            synchronized (this) {
+                final Deque<DLIdleKernel> idleKernels = m_idleKernels.get(backend);
+                // most recently used first, older kernels are more likely to be evicted anyway
+                idle = idleKernels != null ? idleKernels.pollLast() : null;
+            }
+            if (idle == null) {
+                return Optional.empty();
+            }
+            if (isHealthy(idle.m_context)) {
+                LOGGER.debug("Reusing pooled Python kernel of back end '" + backend + "'.");
+                return Optional.of(idle.m_context);
+            }
+            LOGGER.debug("Discarding unhealthy pooled Python kernel of back end '" + backend + "'.");
+            closeQuietly(idle.m_context);
+        }
+    }
+
+    /**
+     * Resets the workspace of the given kernel and returns it to the pool. The caller is responsible for closing the
+     * kernel if this fails.
+     *
+     * @param backend the identifier of the back end for which the kernel was set up, including the Python executable
+     *            that launched the kernel
+     * @param context the context of the kernel
+     * @param resetWorkspaceCode the code that resets the workspace of the kernel
+     * @return <code>true</code> if the kernel was returned to the pool, <code>false</code> if the pool is disabled or
+     *         full, or if the kernel could not be reset
+     */
+    boolean release(final String backend, final DLPythonDefaultContext context, final String resetWorkspaceCode) {
+        synchronized (this) {
+            if (!canAccept(backend)) {
+                return false;
+            }
+        }
+        try {
+            // Output handling may have been altered by the previous user (e.g. during training).
+            final PythonKernel kernel = context.getKernel();
+            kernel.getDefaultStdoutListener().setSilenced(false);
+            kernel.routeErrorMessagesToWarningLog(false);
+            final String error = context.executeInKernel(resetWorkspaceCode, DLNotCancelable.INSTANCE)[1];
+            if (!error.isEmpty()) {
+                LOGGER.debug("Python kernel of back end '" + backend + "' could not be reset: " + error);
+                return false;
+            }
+        } catch (final Exception ex) {
+            LOGGER.debug("Python kernel of back end '" + backend + "' could not be reset.", ex);
+            return false;
+        }
+        synchronized (this) {
+            if (!canAccept(backend)) {
+                return false;
+            }
+            m_idleKernels.computeIfAbsent(backend, b -> new ArrayDeque<>())
+                .addLast(new DLIdleKernel(context, System.currentTimeMillis()));
+            if (m_evictor == null) {
+                m_evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                    final Thread t = new Thread(r, "DL-Python-Kernel-Pool-Evictor");
+                    t.setDaemon(true);
+                    return t;
+                });
+                final long period = Math.max(m_idleTimeout / 4, 1000);
+                m_evictor.scheduleWithFixedDelay(() -> evictIdleKernels(false), period, period, TimeUnit.MILLISECONDS);
+            }
+        }
+        return true;
+    }
+
+    private boolean canAccept(final String backend) {
+        if (!isEnabled() || m_closed) {
+            return false;
+        }
+        final Deque<DLIdleKernel> idleKernels = m_idleKernels.get(backend);
+        return idleKernels == null || idleKernels.size() < m_maxIdleKernelsPerBackend;
+    }
+
+    /**
+     * @param all <code>true</code> if all idle kernels shall be closed regardless of how long they were idle
+     */
+    private void evictIdleKernels(final boolean all) {
+        final List<DLIdleKernel> toClose = new ArrayList<>();
+        synchronized (this) {
+            final long now = System.currentTimeMillis();
+            for (final Deque<DLIdleKernel> idleKernels : m_idleKernels.values()) {
+                for (final Iterator<DLIdleKernel> it = idleKernels.iterator(); it.hasNext();) {
+                    final DLIdleKernel idle = it.next();
+                    if (all || now - idle.m_idleSince > m_idleTimeout) {
+                        it.remove();
+                        toClose.add(idle);
+                    }
+                }
+            }
+        }
+        if (!toClose.isEmpty()) {
+            LOGGER.debug("Closing " + toClose.size() + " idle pooled Python kernel(s).");
+            toClose.forEach(k -> closeQuietly(k.m_context));
+        }
+    }
+
+    private static boolean isHealthy(final DLPythonDefaultContext context) {
+        try {
+            return context.isKernelOpen()
+                && context.executeInKernel(HEALTH_CHECK_CODE, DLNotCancelable.INSTANCE)[1].isEmpty();
+        } catch (final Exception ex) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(final DLPythonDefaultContext context) {
+        try {
+            context.close();
+        } catch (final Exception ex) {
+            LOGGER.debug("An exception occurred while closing a pooled Python kernel.", ex);
+        }
+    }
+
+    private static final class DLIdleKernel {
+
+        private final DLPythonDefaultContext m_context;
+
+        private final long m_idleSince;
+
+        private DLIdleKernel(final DLPythonDefaultContext context, final long idleSince) {
+            m_context = context;
+            m_idleSince = idleSince;
+        }
+    }
+}
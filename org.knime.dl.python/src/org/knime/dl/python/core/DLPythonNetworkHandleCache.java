@@ -0,0 +1,225 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.dl.util.DLUtils;
+import org.knime.python2.extensions.serializationlibrary.interfaces.Cell;
+
+/**
+ * Caches already loaded networks in the workspace of a Python kernel such that later executions of the same network
+ * in the same (pooled) kernel do not have to load it again. Networks are keyed by their source URI and the hash of the
+ * content of their source file, i.e. a cached network is not reused if its source file was overwritten in the
+ * meantime.
+ * <P>
+ * Caching only pays off if kernels are reused, which is why it is only active if the {@link DLPythonKernelPool} is
+ * enabled. Networks that are loaded for training must not be cached as training modifies them. The cache lives in the
+ * kernel's workspace and is not cleared when the workspace is reset. It is released together with the kernel, in
+ * particular when the pool closes its idle kernels due to low memory.
+ * <P>
+ * The maximum number of networks that are cached per kernel can be specified via VM option
+ * {@link #NETWORK_CACHE_SIZE_VM_OPT}. A size of zero disables the cache.
+ * <P>
+ * Cached networks may keep state of their back end alive across workspace resets (e.g. the default graph of
+ * TensorFlow) that would otherwise grow with every use of the kernel. Back ends therefore release this state together
+ * with the cache after a number of resets that can be specified via VM option {@link #NETWORK_CACHE_MAX_RESETS_VM_OPT}.
+ * Cached networks are simply reloaded on their next use.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonNetworkHandleCache {
+
+    /**
+     * @see #getMaxCachedNetworksPerKernel()
+     */
+    public static final String NETWORK_CACHE_SIZE_VM_OPT = "knime.dl.python.networkcachesize";
+
+    /**
+     * @see #getMaxCachedNetworksPerKernel()
+     */
+    public static final int NETWORK_CACHE_DEFAULT_SIZE = 3;
+
+    /**
+     * @see #getMaxResetsWithCachedNetworks()
+     */
+    public static final String NETWORK_CACHE_MAX_RESETS_VM_OPT = "knime.dl.python.networkcachemaxresets";
+
+    /**
+     * @see #getMaxResetsWithCachedNetworks()
+     */
+    public static final int NETWORK_CACHE_DEFAULT_MAX_RESETS = 10;
+
+    private static final String CACHE_HIT_NAME = "network_cache_hit";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonNetworkHandleCache.class);
+
+    private static final int MAX_CACHED_NETWORKS_PER_KERNEL =
+        parseNonNegativeVmOption(NETWORK_CACHE_SIZE_VM_OPT, NETWORK_CACHE_DEFAULT_SIZE);
+
+    private static final int MAX_RESETS_WITH_CACHED_NETWORKS =
+        parseNonNegativeVmOption(NETWORK_CACHE_MAX_RESETS_VM_OPT, NETWORK_CACHE_DEFAULT_MAX_RESETS);
+
+    private static int parseNonNegativeVmOption(final String vmOption, final int defaultValue) {
+        int value = -1;
+        try {
+            value = Integer.parseInt(System.getProperty(vmOption, Integer.toString(defaultValue)));
+        } catch (final NumberFormatException ex) {
+            // Ignore, see below.
+        }
+        if (value < 0) {
+            value = defaultValue;
+            LOGGER.warn("The VM option -D" + vmOption
+                + " was not set to a non-negative integer value, and thus defaults to " + value + ".");
+        }
+        return value;
+    }
+
+    /**
+     * @return the maximum number of networks that are cached per kernel, can be specified by the user via VM option
+     *         {@link #NETWORK_CACHE_SIZE_VM_OPT}, defaults to {@link #NETWORK_CACHE_DEFAULT_SIZE}
+     */
+    public static int getMaxCachedNetworksPerKernel() {
+        return MAX_CACHED_NETWORKS_PER_KERNEL;
+    }
+
+    /**
+     * @return the maximum number of consecutive workspace resets of a kernel during which cached networks keep the
+     *         state of their back end alive, can be specified by the user via VM option
+     *         {@link #NETWORK_CACHE_MAX_RESETS_VM_OPT}, defaults to {@link #NETWORK_CACHE_DEFAULT_MAX_RESETS}
+     */
+    public static int getMaxResetsWithCachedNetworks() {
+        return MAX_RESETS_WITH_CACHED_NETWORKS;
+    }
+
+    /**
+     * @return <code>true</code> if networks are cached at all
+     */
+    public static boolean isEnabled() {
+        return MAX_CACHED_NETWORKS_PER_KERNEL > 0 && DLPythonKernelPool.getInstance().isEnabled();
+    }
+
+    /**
+     * Loads the given network into the given context for execution, reusing a network that was previously loaded from
+     * the same source into the same kernel if possible.
+     *
+     * @param loader the loader of the network
+     * @param network the network to load
+     * @param context the context into which to load the network
+     * @param cancelable to check if the execution has been canceled
+     * @return the handle of the loaded network
+     * @throws DLInvalidSourceException if the network source is invalid or unavailable
+     * @throws DLInvalidEnvironmentException if the Python environment is invalid
+     * @throws IOException if loading the network failed
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     */
+    public static <N extends DLPythonNetwork> DLPythonNetworkHandle load(final DLPythonNetworkLoader<N> loader,
+        final N network, final DLPythonContext context, final DLCancelable cancelable)
+        throws DLInvalidSourceException, DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final Optional<String> key = isEnabled() ? createKey(network.getSource().getURI()) : Optional.empty();
+        if (!key.isPresent()) {
+            return loader.load(network, context, false, cancelable);
+        }
+        final DLPythonNetworkHandle cached = getCached(key.get(), context, cancelable);
+        if (cached != null) {
+            LOGGER.debug("Reusing cached network '" + network.getSource().getURI() + "'.");
+            return cached;
+        }
+        final DLPythonNetworkHandle handle = loader.load(network, context, false, cancelable);
+        put(key.get(), handle, context, cancelable);
+        return handle;
+    }
+
+    /**
+     * @return the source URI and the hash of the content of the source file, empty if the source cannot be resolved to
+     *         a local file
+     */
+    private static Optional<String> createKey(final URI source) {
+        final Optional<String> key = DLUtils.Files.getContentHash(source).map(hash -> source.toString() + "#" + hash);
+        if (!key.isPresent()) {
+            LOGGER.debug("Network source '" + source + "' is not a readable local file and is therefore not cached.");
+        }
+        return key;
+    }
+
+    private static DLPythonNetworkHandle getCached(final String key, final DLPythonContext context,
+        final DLCancelable cancelable) throws IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("import pandas as pd") //
+            .n("network = DLPythonNetwork.get_cached_network(").as(key).a(")") //
+            .n("global ").a(CACHE_HIT_NAME) //
+            .n(CACHE_HIT_NAME).a(" = pd.DataFrame([DLPythonNetwork.add_network(network) ")
+            /**/ .a("if network is not None else ''])");
+        context.executeInKernel(b.toString(), cancelable);
+        final String identifier = (String)context.getDataFromKernel(CACHE_HIT_NAME,
+            (s, ts) -> new SingleValueTableCreator<>(s, Cell::getStringValue), cancelable).getTable();
+        return identifier.isEmpty() ? null : new DLPythonNetworkHandle(identifier);
+    }
+
+    private static void put(final String key, final DLPythonNetworkHandle handle, final DLPythonContext context,
+        final DLCancelable cancelable) throws IOException, DLCanceledExecutionException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonNetwork") //
+            .n("DLPythonNetwork.cache_network(").as(key).a(", ") //
+            /**/ .a("DLPythonNetwork.get_network(").as(handle.getIdentifier()).a("), ") //
+            /**/ .a(MAX_CACHED_NETWORKS_PER_KERNEL).a(")");
+        context.executeInKernel(b.toString(), cancelable);
+    }
+
+    private DLPythonNetworkHandleCache() {
+        // utility class
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableChunker;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableCreator;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableCreatorFactory;
+import org.knime.python2.kernel.PythonKernel;
+
+/**
+ * A {@link DLPythonContext} whose kernel is leased from and returned to the {@link DLPythonKernelPool}. If the pool is
+ * disabled, this context behaves exactly like {@link DLPythonDefaultContext}.
+ * <P>
+ * Leasing and returning is driven by {@link DLPythonAbstractCommands}: a kernel can only be leased for a back end
+ * before any kernel was launched by this context, and only kernels that were completely set up for a back end are
+ * returned to the pool on {@link #close()}.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLPythonPooledContext implements DLPythonContext {
+
+    private static final String SNAPSHOT_WORKSPACE_CODE = "import DLPythonWorkspace\n" + //
+        "DLPythonWorkspace.snapshot(globals())";
+
+    private final DLPythonKernelPool m_pool;
+
+    /**
+     * Created on demand.
+     */
+    private DLPythonDefaultContext m_delegate;
+
+    /**
+     * Non-<code>null</code> once the kernel was set up for (or leased for) a back end.
+     */
+    private String m_backend;
+
+    private String m_resetWorkspaceCode;
+
+    public DLPythonPooledContext() {
+        m_pool = DLPythonKernelPool.getInstance();
+    }
+
+    @Override
+    public boolean isKernelOpen() {
+        return m_delegate != null && m_delegate.isKernelOpen();
+    }
+
+    @Override
+    public PythonKernel getKernel() throws DLInvalidEnvironmentException {
+        return getDelegate().getKernel();
+    }
+
+    @Override
+    public String[] execute(final DLCancelable cancelable, final File script, final String... args)
+        throws IOException, DLCanceledExecutionException {
+        return getDelegate().execute(cancelable, script, args);
+    }
+
+    @Override
+    public String[] executeInKernel(final String code, final DLCancelable cancelable)
+        throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException {
+        return getDelegate().executeInKernel(code, cancelable);
+    }
+
+    @Override
+    public String[] executeAsyncInKernel(final String code, final DLCancelable cancelable)
+        throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException {
+        return getDelegate().executeAsyncInKernel(code, cancelable);
+    }
+
+    @Override
+    public void putDataInKernel(final String name, final TableChunker tableChunker, final int rowsPerChunk,
+        final DLCancelable cancelable) throws IOException, DLCanceledExecutionException, DLInvalidEnvironmentException {
+        getDelegate().putDataInKernel(name, tableChunker, rowsPerChunk, cancelable);
+    }
+
+    @Override
+    public TableCreator<?> getDataFromKernel(final String name, final TableCreatorFactory tcf,
+        final DLCancelable cancelable) throws IOException, DLCanceledExecutionException, DLInvalidEnvironmentException {
+        return getDelegate().getDataFromKernel(name, tcf, cancelable);
+    }
+
+    /**
+     * Returns the kernel to the pool if it was set up for a back end and if the pool accepts it, closes it otherwise.
+     */
+    @Override
+    public void close() {
+        if (m_delegate == null) {
+            return;
+        }
+        final DLPythonDefaultContext delegate = m_delegate;
+        m_delegate = null;
+        if (m_backend == null || !delegate.isKernelOpen()
+            || !m_pool.release(m_backend, delegate, m_resetWorkspaceCode)) {
+            delegate.close();
+        }
+        m_backend = null;
+    }
+
+    /**
+     * Tries to lease a kernel from the pool that was already set up for the given back end.
+     *
+     * @param backend the identifier of the back end
+     * @param resetWorkspaceCode the code that resets the workspace of the kernel before it is returned to the pool
+     * @return <code>true</code> if a kernel was leased, i.e. no further setup is required, <code>false</code> if the
+     *         pool is disabled, if it does not contain a matching kernel or if this context already launched a kernel
+     */
+    boolean leaseSetUpKernel(final String backend, final String resetWorkspaceCode) {
+        if (m_delegate != null || !m_pool.isEnabled()) {
+            return false;
+        }
+        final Optional<DLPythonDefaultContext> leased = m_pool.lease(backend);
+        if (leased.isPresent()) {
+            m_delegate = leased.get();
+            m_backend = backend;
+            m_resetWorkspaceCode = resetWorkspaceCode;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Marks the kernel of this context as completely set up for the given back end. This allows returning it to the
+     * pool on {@link #close()}. The current workspace is remembered as the state to which the workspace is reset.
+     *
+     * @param backend the identifier of the back end
+     * @param resetWorkspaceCode the code that resets the workspace of the kernel before it is returned to the pool
+     * @param cancelable to check if the execution has been canceled
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if remembering the workspace failed
+     */
+    void markSetUp(final String backend, final String resetWorkspaceCode, final DLCancelable cancelable)
+        throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException {
+        if (!m_pool.isEnabled() || !isKernelOpen()) {
+            return;
+        }
+        final String error = m_delegate.executeInKernel(SNAPSHOT_WORKSPACE_CODE, cancelable)[1];
+        if (!error.isEmpty()) {
+            throw new IOException("Python workspace could not be remembered for pooling.\nCause: " + error);
+        }
+        m_backend = backend;
+        m_resetWorkspaceCode = resetWorkspaceCode;
+    }
+
+    private DLPythonDefaultContext getDelegate() {
+        if (m_delegate == null) {
+            m_delegate = new DLPythonDefaultContext();
+        }
+        return m_delegate;
+    }
+}
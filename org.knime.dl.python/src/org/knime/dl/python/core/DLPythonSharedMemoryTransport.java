@@ -0,0 +1,374 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Stream;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLCancelable;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidEnvironmentException;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLStorageCopier;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.python.core.data.DLPythonBitBuffer;
+import org.knime.dl.python.core.data.DLPythonByteBuffer;
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonDirectDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonDirectFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonIntBuffer;
+import org.knime.dl.python.core.data.DLPythonLongBuffer;
+import org.knime.dl.python.core.data.DLPythonShortBuffer;
+import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
+import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
+import org.knime.dl.python.util.DLPythonUtils;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Transmits tensors between Java and Python via memory-mapped files instead of the serialization library of the
+ * Python kernel. Java copies the tensor storages directly into (or out of) the mapped files while the Python side maps
+ * the very same files as NumPy arrays, thus no intermediate byte arrays are created and tensors are not limited to
+ * 2^31-1 bytes. The files are placed in <code>/dev/shm</code> (i.e. in shared memory) where available and in the
+ * default temporary directory otherwise.
+ * <P>
+ * The transport is disabled by default and can be enabled via VM option {@link #SHARED_MEMORY_TRANSPORT_VM_OPT}. It is
+ * primarily intended for Linux hosts where files that are mapped by one process can still be resized by another.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLPythonSharedMemoryTransport implements AutoCloseable {
+
+    /**
+     * @see #isEnabled()
+     */
+    static final String SHARED_MEMORY_TRANSPORT_VM_OPT = "knime.dl.python.sharedmemorytransport";
+
+    private static final String SHARED_MEMORY_DIRECTORY = "/dev/shm";
+
+    /**
+     * A single mapping cannot exceed 2^31-1 bytes, larger tensors are mapped chunk-wise.
+     */
+    private static final long MAX_MAPPING_SIZE = Integer.MAX_VALUE;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonSharedMemoryTransport.class);
+
+    /**
+     * @return <code>true</code> if the transport was enabled by the user via VM option
+     *         {@link #SHARED_MEMORY_TRANSPORT_VM_OPT}
+     */
+    static boolean isEnabled() {
+        return Boolean.getBoolean(SHARED_MEMORY_TRANSPORT_VM_OPT);
+    }
+
+    private final Path m_directory;
+
+    private final Map<DLTensorId, Path> m_inputFiles = new HashMap<>();
+
+    private final Map<DLTensorId, Path> m_outputFiles = new HashMap<>();
+
+    /**
+     * Creates a new transport along with the directory that holds its files.
+     *
+     * @throws IOException if creating the directory failed
+     */
+    DLPythonSharedMemoryTransport() throws IOException {
+        final Path sharedMemory = Paths.get(SHARED_MEMORY_DIRECTORY);
+        m_directory = Files.isDirectory(sharedMemory) && Files.isWritable(sharedMemory)
+            ? Files.createTempDirectory(sharedMemory, "knime-dl-")
+            : Files.createTempDirectory("knime-dl-");
+    }
+
+    /**
+     * Writes the given tensors to their mapped files and makes them available in the global namespace of the Python
+     * kernel, just like {@link DLPythonContext#putDataInKernel} does.
+     *
+     * @param tensors the tensors to transmit
+     * @param context the Python context
+     * @param cancelable to check if the execution has been canceled
+     * @return the number of bytes that were written to the mapped files
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if writing the tensors or mapping them on Python side failed
+     */
+    long putTensors(final Map<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> tensors,
+        final DLPythonContext context, final DLCancelable cancelable)
+        throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException {
+        final DLPythonSourceCodeBuilder b =
+            DLPythonUtils.createSourceCodeBuilder("import DLPythonSharedMemoryTransport");
+        long numBytes = 0;
+        for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> entry : tensors
+            .entrySet()) {
+            final DLTensorId id = entry.getKey();
+            final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+            final DLPythonDataBuffer<?> buffer = (DLPythonDataBuffer<?>)tensor.getBuffer();
+            final BufferType type = BufferType.of(buffer);
+            final long start = buffer.getNextReadPosition();
+            final long numElements = buffer.size() - start;
+            final Path file = getFile(m_inputFiles, "input_", id);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+                final long maxChunkSize = MAX_MAPPING_SIZE / type.m_elementBytes;
+                for (long written = 0; written < numElements;) {
+                    final int length = (int)Math.min(maxChunkSize, numElements - written);
+                    final MappedByteBuffer mapped = channel.map(MapMode.READ_WRITE, written * type.m_elementBytes,
+                        (long)length * type.m_elementBytes);
+                    mapped.order(ByteOrder.LITTLE_ENDIAN);
+                    type.m_writer.write(buffer, mapped, (int)(start + written), length);
+                    written += length;
+                }
+            }
+            numBytes += numElements * type.m_elementBytes;
+            final long[] shape = DLUtils.Shapes.getFixedShape(tensor.getSpec().getShape())
+                .orElseThrow(() -> new IllegalStateException("Execution spec does not contain fixed shape."));
+            b.n("globals()[").as(id.getIdentifierString()).a("] = DLPythonSharedMemoryTransport.read_tensor(") //
+                .asr(file.toString()).a(", ").as(type.m_numPyType).a(", ").a(numElements).a(", ") //
+                .as(type.m_pythonBufferType).a(", ").as(id.getIdentifierString()).a(", ").a(shape).a(")");
+        }
+        context.executeInKernel(b.toString(), cancelable);
+        return numBytes;
+    }
+
+    /**
+     * Lets Python write the tensors of the given identifiers from its global namespace to their mapped files and
+     * copies them into the given tensors, just like {@link DLPythonContext#getDataFromKernel} does.
+     *
+     * @param tensors the tensors to fill
+     * @param context the Python context
+     * @param cancelable to check if the execution has been canceled
+     * @return the number of bytes that were read from the mapped files
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if failed to properly setup the Python context
+     * @throws IOException if writing the tensors on Python side or reading them failed
+     */
+    long getTensors(final Map<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> tensors,
+        final DLPythonContext context, final DLCancelable cancelable)
+        throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException {
+        final DLPythonSourceCodeBuilder b =
+            DLPythonUtils.createSourceCodeBuilder("import DLPythonSharedMemoryTransport");
+        for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> entry : tensors
+            .entrySet()) {
+            final BufferType type = BufferType.of((DLPythonDataBuffer<?>)entry.getValue().getBuffer());
+            final Path file = getFile(m_outputFiles, "output_", entry.getKey());
+            b.n("DLPythonSharedMemoryTransport.write_tensor(globals()[") //
+                .as(entry.getKey().getIdentifierString()).a("], ") //
+                .asr(file.toString()).a(", ").as(type.m_numPyType).a(")");
+        }
+        context.executeInKernel(b.toString(), cancelable);
+        long numBytes = 0;
+        for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> entry : tensors
+            .entrySet()) {
+            final DLPythonDataBuffer<?> buffer = (DLPythonDataBuffer<?>)entry.getValue().getBuffer();
+            final BufferType type = BufferType.of(buffer);
+            final long start = buffer.size();
+            try (FileChannel channel = FileChannel.open(m_outputFiles.get(entry.getKey()), StandardOpenOption.READ)) {
+                final long numElements = channel.size() / type.m_elementBytes;
+                final long maxChunkSize = MAX_MAPPING_SIZE / type.m_elementBytes;
+                for (long read = 0; read < numElements;) {
+                    final int length = (int)Math.min(maxChunkSize, numElements - read);
+                    final MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, read * type.m_elementBytes,
+                        (long)length * type.m_elementBytes);
+                    mapped.order(ByteOrder.LITTLE_ENDIAN);
+                    type.m_reader.read(mapped, buffer, (int)(start + read), length);
+                    read += length;
+                }
+                numBytes += numElements * type.m_elementBytes;
+            }
+        }
+        return numBytes;
+    }
+
+    /**
+     * Deletes the files of this transport.
+     */
+    @Override
+    public void close() {
+        m_inputFiles.clear();
+        m_outputFiles.clear();
+        try (Stream<Path> files = Files.walk(m_directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> {
+                try {
+                    Files.deleteIfExists(f);
+                } catch (final IOException ex) {
+                    // Mapped files cannot be deleted on some platforms as long as they are not garbage collected.
+                    f.toFile().deleteOnExit();
+                    LOGGER.debug("Could not delete file '" + f + "' of shared memory transport.", ex);
+                }
+            });
+        } catch (final IOException ex) {
+            LOGGER.debug("Could not delete directory '" + m_directory + "' of shared memory transport.", ex);
+        }
+    }
+
+    private Path getFile(final Map<DLTensorId, Path> files, final String prefix, final DLTensorId id) {
+        // Tensor identifiers may contain characters that are not allowed in file names, thus we simply enumerate the
+        // files.
+        return files.computeIfAbsent(id, i -> m_directory.resolve(prefix + files.size() + ".bin"));
+    }
+
+    @FunctionalInterface
+    private interface StorageWriter {
+
+        void write(DLPythonDataBuffer<?> source, ByteBuffer target, int start, int length);
+    }
+
+    @FunctionalInterface
+    private interface StorageReader {
+
+        void read(ByteBuffer source, DLPythonDataBuffer<?> target, int start, int length);
+    }
+
+    private enum BufferType {
+
+            DOUBLE(DLPythonDoubleBuffer.class, "float64", "DLPythonDoubleBuffer", Double.BYTES,
+                (s, t, start, length) -> t.asDoubleBuffer()
+                    .put(((DLPythonDoubleBuffer)s).getStorageForReading(start, length), start, length),
+                (s, t, start, length) -> s.asDoubleBuffer()
+                    .get(((DLPythonDoubleBuffer)t).getStorageForWriting(start, length), start, length)),
+
+            FLOAT(DLPythonFloatBuffer.class, "float32", "DLPythonFloatBuffer", Float.BYTES,
+                (s, t, start, length) -> t.asFloatBuffer()
+                    .put(((DLPythonFloatBuffer)s).getStorageForReading(start, length), start, length),
+                (s, t, start, length) -> s.asFloatBuffer()
+                    .get(((DLPythonFloatBuffer)t).getStorageForWriting(start, length), start, length)),
+
+            DIRECT_DOUBLE(DLPythonDirectDoubleBuffer.class, "float64", "DLPythonDoubleBuffer", Double.BYTES,
+                (s, t, start, length) -> DLStorageCopier
+                    .copyToBytes(((DLPythonDirectDoubleBuffer)s).getStorageForReading(start, length), start, length, t),
+                (s, t, start, length) -> DLStorageCopier.copyFromBytes(s,
+                    ((DLPythonDirectDoubleBuffer)t).getStorageForWriting(start, length), start, length)),
+
+            DIRECT_FLOAT(DLPythonDirectFloatBuffer.class, "float32", "DLPythonFloatBuffer", Float.BYTES,
+                (s, t, start, length) -> DLStorageCopier
+                    .copyToBytes(((DLPythonDirectFloatBuffer)s).getStorageForReading(start, length), start, length, t),
+                (s, t, start, length) -> DLStorageCopier.copyFromBytes(s,
+                    ((DLPythonDirectFloatBuffer)t).getStorageForWriting(start, length), start, length)),
+
+            LONG(DLPythonLongBuffer.class, "int64", "DLPythonLongBuffer", Long.BYTES,
+                (s, t, start, length) -> t.asLongBuffer()
+                    .put(((DLPythonLongBuffer)s).getStorageForReading(start, length), start, length),
+                (s, t, start, length) -> s.asLongBuffer()
+                    .get(((DLPythonLongBuffer)t).getStorageForWriting(start, length), start, length)),
+
+            INT(DLPythonIntBuffer.class, "int32", "DLPythonIntBuffer", Integer.BYTES,
+                (s, t, start, length) -> t.asIntBuffer()
+                    .put(((DLPythonIntBuffer)s).getStorageForReading(start, length), start, length),
+                (s, t, start, length) -> s.asIntBuffer()
+                    .get(((DLPythonIntBuffer)t).getStorageForWriting(start, length), start, length)),
+
+            SHORT(DLPythonShortBuffer.class, "int16", "DLPythonShortBuffer", Short.BYTES,
+                (s, t, start, length) -> t.asShortBuffer()
+                    .put(((DLPythonShortBuffer)s).getStorageForReading(start, length), start, length),
+                (s, t, start, length) -> s.asShortBuffer()
+                    .get(((DLPythonShortBuffer)t).getStorageForWriting(start, length), start, length)),
+
+            BYTE(DLPythonByteBuffer.class, "int8", "DLPythonByteBuffer", Byte.BYTES,
+                (s, t, start, length) -> t.put(((DLPythonByteBuffer)s).getStorageForReading(start, length), start,
+                    length),
+                (s, t, start, length) -> s.get(((DLPythonByteBuffer)t).getStorageForWriting(start, length), start,
+                    length)),
+
+            UNSIGNED_BYTE(DLPythonUnsignedByteBuffer.class, "uint8", "DLPythonUnsignedByteBuffer", Byte.BYTES,
+                (s, t, start, length) -> t
+                    .put(((DLPythonUnsignedByteBuffer)s).getStorageForReading(start, length), start, length),
+                (s, t, start, length) -> s
+                    .get(((DLPythonUnsignedByteBuffer)t).getStorageForWriting(start, length), start, length)),
+
+            // bits are packed into words, see DLDefaultBitBuffer, but mapped as one byte per bit
+            BIT(DLPythonBitBuffer.class, "bool", "DLPythonBitBuffer", Byte.BYTES,
+                (s, t, start, length) -> DLStorageCopier
+                    .copyBitsToBytes(((DLPythonBitBuffer)s).getStorageForReading(start, length), start, length, t),
+                (s, t, start, length) -> DLStorageCopier.copyBitsFromBytes(s,
+                    ((DLPythonBitBuffer)t).getStorageForWriting(start, length), start, length));
+
+        private static BufferType of(final DLPythonDataBuffer<?> buffer) {
+            return Arrays.stream(values()).filter(t -> t.m_bufferClass.isInstance(buffer)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Transmitting data of type '"
+                    + buffer.getClass().getSimpleName() + "' via shared memory is not supported."));
+        }
+
+        private final Class<? extends DLPythonDataBuffer<?>> m_bufferClass;
+
+        private final String m_numPyType;
+
+        private final String m_pythonBufferType;
+
+        private final int m_elementBytes;
+
+        private final StorageWriter m_writer;
+
+        private final StorageReader m_reader;
+
+        private BufferType(final Class<? extends DLPythonDataBuffer<?>> bufferClass, final String numPyType,
+            final String pythonBufferType, final int elementBytes, final StorageWriter writer,
+            final StorageReader reader) {
+            m_bufferClass = bufferClass;
+            m_numPyType = numPyType;
+            m_pythonBufferType = pythonBufferType;
+            m_elementBytes = elementBytes;
+            m_writer = writer;
+            m_reader = reader;
+        }
+    }
+}
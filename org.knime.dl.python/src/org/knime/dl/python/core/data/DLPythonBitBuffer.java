@@ -64,7 +64,7 @@
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
 @SuppressWarnings("serial") // not intended for serialization
-public class DLPythonBitBuffer extends DLPythonAbstractDataBuffer<DLDefaultBitBuffer, boolean[]>
+public class DLPythonBitBuffer extends DLPythonAbstractDataBuffer<DLDefaultBitBuffer, long[]>
     implements DLWritableBitBuffer, DLReadableBitBuffer {
 
     /**
@@ -96,6 +96,11 @@ public void readToBitArray(boolean[] dest, int destPos, int length) {
         m_buffer.readToBitArray(dest, destPos, length);
     }
 
+    @Override
+    public void readToPackedByteArray(final byte[] dest, final int destPos, final int length) {
+        m_buffer.readToPackedByteArray(dest, destPos, length);
+    }
+
     @Override
     public byte readNextByte() throws BufferUnderflowException {
         return m_buffer.readNextByte();
@@ -195,4 +200,9 @@ public void put(final boolean value) throws BufferOverflowException {
     public void putAll(final boolean[] values) throws BufferOverflowException {
         m_buffer.putAll(values);
     }
+
+    @Override
+    public void putAllPacked(final long[] words, final long numBits) throws BufferOverflowException {
+        m_buffer.putAllPacked(words, numBits);
+    }
 }
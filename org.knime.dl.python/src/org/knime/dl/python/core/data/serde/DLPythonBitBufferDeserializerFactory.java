@@ -49,10 +49,13 @@
 package org.knime.dl.python.core.data.serde;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.filestore.FileStoreFactory;
 import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLDefaultBitBuffer;
 import org.knime.dl.python.core.data.DLPythonBitBuffer;
 import org.knime.python.typeextension.Deserializer;
 import org.knime.python.typeextension.DeserializerFactory;
@@ -92,9 +95,9 @@ public DataCell deserialize(final byte[] bytes, final FileStoreFactory fileStore
                 // for (int i = 0; i < numDimensions; i++) {
                 // shape[i] = buffer.getLong();
                 // }
-                final DLPythonBitBuffer value = new DLPythonBitBuffer(bytes.length);
-                final boolean[] storage = value.getStorageForWriting(0, bytes.length);
-                writeToStorage(bytes, storage, 0, bytes.length);
+                final long numBits = getNumBits(bytes);
+                final DLPythonBitBuffer value = new DLPythonBitBuffer(numBits);
+                value.putAllPacked(unpack(bytes, numBits), numBits);
                 return value;
             }
 
@@ -106,17 +109,33 @@ public void deserialize(final byte[] bytes, final DLTensor<DLPythonBitBuffer> da
                 // for (int i = 0; i < numDimensions; i++) {
                 // shape[i] = buffer.getLong();
                 // }
-                final DLPythonBitBuffer tensorBuffer = data.getBuffer();
-                final int writeStart = (int)tensorBuffer.size();
-                final boolean[] storage = tensorBuffer.getStorageForWriting(writeStart, bytes.length);
-                writeToStorage(bytes, storage, writeStart, bytes.length);
+                final long numBits = getNumBits(bytes);
+                data.getBuffer().putAllPacked(unpack(bytes, numBits), numBits);
             }
 
-            private void writeToStorage(final byte[] bytes, final boolean[] storage, final int start,
-                final int length) {
-                for (int i = start; i < start + length; i++) {
-                    storage[i] = bytes[i] != 0;
+            /**
+             * The number of bits is prepended as the last byte may be padded, see DLPythonBitBufferSerializer.py.
+             */
+            private long getNumBits(final byte[] bytes) {
+                return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong();
+            }
+
+            /**
+             * Converts the bits that were packed by <code>numpy.packbits</code> (first bit in the most significant
+             * position of a byte) into words (first bit in the least significant position of a word).
+             */
+            private long[] unpack(final byte[] bytes, final long numBits) {
+                final int numBytes = bytes.length - Long.BYTES;
+                final long[] words = new long[DLDefaultBitBuffer.getNumWords(numBits)];
+                for (int i = 0; i < words.length; i++) {
+                    long reversed = 0;
+                    for (int j = 0; j < Long.BYTES && i * Long.BYTES + j < numBytes; j++) {
+                        reversed |= (bytes[Long.BYTES + i * Long.BYTES + j] & 0xFFL) << (Long.SIZE
+                            - Byte.SIZE * (j + 1));
+                    }
+                    words[i] = Long.reverse(reversed);
                 }
+                return words;
             }
         };
     }
@@ -49,6 +49,8 @@
 package org.knime.dl.python.core.data.serde;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.knime.dl.core.data.DLBuffer;
 import org.knime.dl.python.core.data.DLPythonBitBuffer;
@@ -83,14 +85,18 @@ public Serializer<? extends DLPythonBitBuffer> createSerializer() {
             // final int numDimensions = value.getNumDimensions();
             // final long[] shape = value.getShape();
             final long size = value.size() - value.getNextReadPosition();
-            final long numBytes = size;
+            // the number of bits is prepended as the last byte may be padded, see DLPythonBitBufferDeserializer.py
+            final long numBytes = Long.BYTES + (size + Byte.SIZE - 1) / Byte.SIZE;
             if (numBytes > Integer.MAX_VALUE) {
                 throw new IOException(
                     "Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
             }
             // Create the target array
             final byte[] target = new byte[(int)numBytes];
-            value.readToByteArray(target, 0, (int)size);
+            ByteBuffer.wrap(target).order(ByteOrder.LITTLE_ENDIAN).putLong(size);
+            if (size > 0) {
+                value.readToPackedByteArray(target, Long.BYTES, (int)size);
+            }
             // TODO: we serialize to flat buffers for now
             // buffer.putInt(numDimensions);
             // for (final long dim : shape) {
@@ -0,0 +1,295 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLReadableFloatBuffer;
+import org.knime.dl.core.data.DLTransferPrecision;
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.python.typeextension.Serializer;
+import org.knime.python.typeextension.SerializerFactory;
+
+/**
+ * Serializes float and double buffers in a {@link DLTransferPrecision reduced precision}. The serialized bytes start
+ * with a header that holds the precision and the element type of the source buffer (one byte each), followed by the
+ * offset and scale of the quantization (eight bytes each, {@link DLTransferPrecision#UINT8 uint8} and
+ * {@link DLTransferPrecision#UINT8_FIXED fixed range uint8} only) and the encoded values. The deserializer on Python
+ * side restores the source element type. All values are little endian.
+ * <P>
+ * Unlike the other serializers, these ones are not selected via the type of the buffer alone but explicitly for
+ * tensors that are configured to be transferred in a reduced precision, see
+ * {@link #createSerializer(DLTransferPrecision)}. There is one registered subclass per concrete float and double
+ * buffer type.
+ *
+ * @param <B> the type of the serialized buffers
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public abstract class DLPythonReducedPrecisionBufferSerializerFactory
+		<B extends DLPythonDataBuffer<?> & DLReadableDoubleBuffer> extends SerializerFactory<B>
+		implements DLSerializerFactory {
+
+	private static final byte ELEMENT_TYPE_FLOAT = 0;
+
+	private static final byte ELEMENT_TYPE_DOUBLE = 1;
+
+	private static final int HEADER_BYTES = 2;
+
+	private static final int QUANTIZATION_HEADER_BYTES = 2 * Double.BYTES;
+
+	/**
+	 * Number of values that are encoded at once if the values do not have to be inspected in advance.
+	 */
+	private static final int CHUNK_SIZE = 1 << 14;
+
+	private final Class<B> m_bufferType;
+
+	/**
+	 * @param bufferType the type of the serialized buffers
+	 */
+	protected DLPythonReducedPrecisionBufferSerializerFactory(final Class<B> bufferType) {
+		super(bufferType);
+		m_bufferType = bufferType;
+	}
+
+	/**
+	 * Returns the precision code that is written to the header of the serialized bytes.
+	 */
+	private static byte getPrecisionCode(final DLTransferPrecision precision) {
+		switch (precision) {
+		case FLOAT16:
+			return 1;
+		case BFLOAT16:
+			return 2;
+		case UINT8:
+		case UINT8_FIXED:
+			return 3;
+		default:
+			throw new IllegalArgumentException("Transfer precision '" + precision.getName() + "' is not reduced.");
+		}
+	}
+
+	/**
+	 * Creates a serializer that transfers values in {@link DLTransferPrecision#FLOAT16 half precision}. Use
+	 * {@link #createSerializer(DLTransferPrecision)} to choose another precision.
+	 */
+	@Override
+	public Serializer<? extends B> createSerializer() {
+		return createSerializer(DLTransferPrecision.FLOAT16);
+	}
+
+	/**
+	 * @param precision the reduced precision in which values are serialized, must not be
+	 *            {@link DLTransferPrecision#FULL}
+	 * @return the serializer
+	 */
+	public Serializer<? extends B> createSerializer(final DLTransferPrecision precision) {
+		final byte precisionCode = getPrecisionCode(precision);
+		final boolean quantized =
+				precision == DLTransferPrecision.UINT8 || precision == DLTransferPrecision.UINT8_FIXED;
+		return buffer -> {
+			final long size = buffer.size() - buffer.getNextReadPosition();
+			final int bytesPerValue = quantized ? Byte.BYTES : Short.BYTES;
+			final long numBytes = HEADER_BYTES + (quantized ? QUANTIZATION_HEADER_BYTES : 0) + size * bytesPerValue;
+			if (numBytes > Integer.MAX_VALUE) {
+				throw new IOException(
+						"Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
+			}
+			final ByteBuffer out = ByteBuffer.allocate((int) numBytes).order(ByteOrder.LITTLE_ENDIAN);
+			out.put(precisionCode);
+			out.put(buffer instanceof DLReadableFloatBuffer ? ELEMENT_TYPE_FLOAT : ELEMENT_TYPE_DOUBLE);
+			if (precision == DLTransferPrecision.UINT8) {
+				quantize(buffer, (int) size, out);
+			} else if (precision == DLTransferPrecision.UINT8_FIXED) {
+				quantizeFixed(buffer, size, out);
+			} else if (buffer instanceof DLReadableFloatBuffer) {
+				final DLReadableFloatBuffer floatBuffer = (DLReadableFloatBuffer) buffer;
+				final float[] chunk = new float[(int) Math.min(CHUNK_SIZE, size)];
+				for (int remaining = (int) size; remaining > 0; remaining -= chunk.length) {
+					final int length = Math.min(chunk.length, remaining);
+					floatBuffer.readToFloatArray(chunk, 0, length);
+					encodeSixteenBit(chunk, length, precision, out);
+				}
+			} else {
+				final double[] chunk = new double[(int) Math.min(CHUNK_SIZE, size)];
+				final float[] narrowed = new float[chunk.length];
+				for (int remaining = (int) size; remaining > 0; remaining -= chunk.length) {
+					final int length = Math.min(chunk.length, remaining);
+					buffer.readToDoubleArray(chunk, 0, length);
+					for (int i = 0; i < length; i++) {
+						narrowed[i] = (float) chunk[i];
+					}
+					encodeSixteenBit(narrowed, length, precision, out);
+				}
+			}
+			return out.array();
+		};
+	}
+
+	@Override
+	public Class<? extends DLBuffer> getBufferType() {
+		return m_bufferType;
+	}
+
+	private static void encodeSixteenBit(final float[] values, final int length, final DLTransferPrecision precision,
+			final ByteBuffer out) {
+		if (precision == DLTransferPrecision.FLOAT16) {
+			for (int i = 0; i < length; i++) {
+				out.putShort(toFloat16(values[i]));
+			}
+		} else {
+			for (int i = 0; i < length; i++) {
+				out.putShort(toBFloat16(values[i]));
+			}
+		}
+	}
+
+	/**
+	 * Linearly maps the values of the buffer onto [0, 255]. The bounds of the mapping are the minimum and maximum of
+	 * the values, which therefore have to be known before encoding, so all values are read at once.
+	 */
+	private static void quantize(final DLReadableDoubleBuffer buffer, final int size, final ByteBuffer out) {
+		final double[] values = new double[size];
+		buffer.readToDoubleArray(values, 0, size);
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (final double v : values) {
+			if (v < min) {
+				min = v;
+			}
+			if (v > max) {
+				max = v;
+			}
+		}
+		if (size == 0) {
+			min = max = 0d;
+		}
+		final double scale = max > min ? (max - min) / 255d : 1d;
+		out.putDouble(min);
+		out.putDouble(scale);
+		for (final double v : values) {
+			out.put((byte) Math.round((v - min) / scale));
+		}
+	}
+
+	/**
+	 * Rounds the values of the buffer to the nearest integer in [0, 255]. Unlike {@link #quantize}, the mapping does
+	 * not depend on the values, so they are encoded chunk-wise. The offset and scale are written nevertheless to keep
+	 * the format the same for both quantization modes.
+	 */
+	private static void quantizeFixed(final DLReadableDoubleBuffer buffer, final long size, final ByteBuffer out) {
+		out.putDouble(0d);
+		out.putDouble(1d);
+		final double[] chunk = new double[(int) Math.min(CHUNK_SIZE, size)];
+		for (long remaining = size; remaining > 0; remaining -= chunk.length) {
+			final int length = (int) Math.min(chunk.length, remaining);
+			buffer.readToDoubleArray(chunk, 0, length);
+			for (int i = 0; i < length; i++) {
+				// NaN is rounded to zero
+				out.put((byte) Math.min(255L, Math.max(0L, Math.round(chunk[i]))));
+			}
+		}
+	}
+
+	/**
+	 * Converts the given value to IEEE 754 half precision, rounding to nearest even.
+	 */
+	static short toFloat16(final float value) {
+		final int bits = Float.floatToRawIntBits(value);
+		final int sign = (bits >>> 16) & 0x8000;
+		final int abs = bits & 0x7fffffff;
+		if (abs >= 0x7f800000) {
+			// infinity or NaN, keep NaNs quiet
+			return (short) (sign | 0x7c00 | (abs > 0x7f800000 ? 0x200 | ((abs >>> 13) & 0x3ff) : 0));
+		}
+		if (abs >= 0x477ff000) {
+			// rounds to a value beyond the largest half (65504)
+			return (short) (sign | 0x7c00);
+		}
+		if (abs < 0x38800000) {
+			// below the smallest normal half (2^-14): subnormal or zero
+			if (abs <= 0x33000000) {
+				// at most half of the smallest subnormal half (2^-24), rounds to zero
+				return (short) sign;
+			}
+			final int exponent = abs >>> 23;
+			final int mantissa = (abs & 0x7fffff) | 0x800000;
+			final int shift = 126 - exponent;
+			int half = mantissa >>> shift;
+			final int remainder = mantissa & ((1 << shift) - 1);
+			final int halfway = 1 << (shift - 1);
+			if (remainder > halfway || (remainder == halfway && (half & 1) == 1)) {
+				half++;
+			}
+			return (short) (sign | half);
+		}
+		// rebias the exponent from 127 to 15 and drop 13 mantissa bits, a carry may propagate into the exponent
+		int half = (abs - 0x38000000) >>> 13;
+		final int remainder = abs & 0x1fff;
+		if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) == 1)) {
+			half++;
+		}
+		return (short) (sign | half);
+	}
+
+	/**
+	 * Converts the given value to bfloat16 (the upper 16 bits of its single precision representation), rounding to
+	 * nearest even.
+	 */
+	static short toBFloat16(final float value) {
+		final int bits = Float.floatToRawIntBits(value);
+		if ((bits & 0x7fffffff) > 0x7f800000) {
+			// NaN, keep it quiet
+			return (short) ((bits >>> 16) | 0x40);
+		}
+		return (short) ((bits + 0x7fff + ((bits >>> 16) & 1)) >>> 16);
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLDefaultSparseFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonSparseFloatBuffer;
+import org.knime.python.typeextension.Serializer;
+import org.knime.python.typeextension.SerializerFactory;
+
+/**
+ * Serializes {@link DLPythonSparseFloatBuffer}s in coordinate format: the (dense) number of values as 64 bit integer,
+ * the number of non-zero values as 32 bit integer, the positions of the non-zero values as 32 bit integers and the
+ * non-zero values as 32 bit floats, all in little endian byte order. Positions are relative to the buffer's next read
+ * position.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public class DLPythonSparseFloatBufferSerializerFactory extends SerializerFactory<DLPythonSparseFloatBuffer>
+		implements DLSerializerFactory {
+
+	/**
+	 * The unique identifier of this serializer factory.
+	 */
+	public static final String IDENTIFIER =
+			"org.knime.dl.python.core.data.serde.DLPythonSparseFloatBufferSerializerFactory";
+
+	private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+
+	/**
+	 * Empty framework constructor.
+	 */
+	public DLPythonSparseFloatBufferSerializerFactory() {
+		super(DLPythonSparseFloatBuffer.class);
+	}
+
+	@Override
+	public Serializer<? extends DLPythonSparseFloatBuffer> createSerializer() {
+		return value -> {
+			final long start = value.getNextReadPosition();
+			final long size = value.size() - start;
+			final DLDefaultSparseFloatBuffer.Storage storage = value.getStorageForReading(start, size);
+			final int[] positions = storage.getPositions();
+			final float[] values = storage.getValues();
+			final int first = storage.getEntryIndex((int) start);
+			final int nnz = storage.getEntryIndex((int) (start + size)) - first;
+			final long numBytes = HEADER_BYTES + (long) nnz * (Integer.BYTES + Float.BYTES);
+			if (numBytes > Integer.MAX_VALUE) {
+				throw new IOException(
+						"Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
+			}
+			final ByteBuffer buffer = ByteBuffer.allocate((int) numBytes);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putLong(size);
+			buffer.putInt(nnz);
+			for (int i = first; i < first + nnz; i++) {
+				buffer.putInt((int) (positions[i] - start));
+			}
+			buffer.asFloatBuffer().put(values, first, nnz);
+			return buffer.array();
+		};
+	}
+
+	@Override
+	public Class<? extends DLBuffer> getBufferType() {
+		return DLPythonSparseFloatBuffer.class;
+	}
+}
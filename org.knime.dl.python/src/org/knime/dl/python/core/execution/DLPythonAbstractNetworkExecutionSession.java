@@ -48,19 +48,31 @@
  */
 package org.knime.dl.python.core.execution;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLMissingExtensionException;
 import org.knime.dl.core.DLNetworkInputPreparer;
+import org.knime.dl.core.DLSessionStatistics;
+import org.knime.dl.core.DLSessionStatistics.Stage;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.execution.DLAbstractNetworkExecutionSession;
 import org.knime.dl.core.execution.DLExecutionMonitor;
@@ -70,6 +82,8 @@
 import org.knime.dl.python.core.DLPythonCommands;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
+import org.knime.dl.python.core.DLPythonNetworkHandleCache;
+import org.knime.dl.python.core.DLPythonNetworkLoader;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
 
 /**
@@ -87,10 +101,40 @@
 
 	private DLPythonNetworkHandle m_handle;
 
+	private final int m_numBatchesInFlight;
+
+	/**
+	 * The input tensors of each pipeline slot. The first slot is {@link #m_input}. Is instantiated at the beginning of
+	 * the first pipelined execution.
+	 */
+	private List<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_pipelineInputs;
+
+	/**
+	 * The output tensors of each pipeline slot. The first slot is {@link #m_output}. Slots are populated lazily once
+	 * the output shapes are known.
+	 */
+	private List<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> m_pipelineOutputs;
+
 	protected DLPythonAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
 			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
 			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
+		this(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory, 1);
+	}
+
+	/**
+	 * @param numBatchesInFlight the maximum number of batches that are in flight at the same time. If greater than
+	 *            one, the next batches are prepared and the outputs of the previous batches are consumed while the
+	 *            current batch is executed in Python. Each batch in flight holds its own set of input and output
+	 *            tensors.
+	 */
+	protected DLPythonAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
+			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
+			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory,
+			final int numBatchesInFlight) {
 		super(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer, tensorFactory);
+		checkArgument(numBatchesInFlight > 0, "Number of batches in flight must be at least one but was %s.",
+				numBatchesInFlight);
+		m_numBatchesInFlight = numBatchesInFlight;
 	}
 
 	/**
@@ -101,6 +145,13 @@ protected DLPythonAbstractNetworkExecutionSession(final N network, final Set<DLT
 	@Override
 	public void close() throws Exception {
 		super.close();
+		if (m_pipelineInputs != null) {
+			// the first slot is closed by super
+			m_pipelineInputs.stream().skip(1).forEach(i -> i.values().forEach(DLTensor::close));
+		}
+		if (m_pipelineOutputs != null) {
+			m_pipelineOutputs.stream().skip(1).filter(o -> o != null).forEach(o -> o.values().forEach(DLTensor::close));
+		}
 		if (m_commands != null) {
 			m_commands.close();
 		}
@@ -110,57 +161,250 @@ public void close() throws Exception {
 	protected void executeInternal(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
 		if (m_commands == null) {
 			m_commands = createCommands();
-            m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
+            final DLPythonNetworkLoader<N> loader = DLPythonNetworkLoaderRegistry.getInstance()
+                .getNetworkLoader((Class<N>)m_network.getClass())
                 .orElseThrow(
                     () -> new DLMissingExtensionException("Python back end '" + m_network.getClass().getCanonicalName()
-                        + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
-                .load(m_network, m_commands.getContext(monitor), false, monitor);
+                        + "' could not be found. Are you missing a KNIME Deep Learning extension?"));
+            m_handle = DLPythonNetworkHandleCache.load(loader, m_network, m_commands.getContext(monitor), monitor);
+			m_commands.setTransferPrecisions(m_inputPreparer.getTransferPrecisions());
 		}
+		long numBatches;
+		try {
+			numBatches = m_inputPreparer.getNumBatches();
+		} catch (final UnsupportedOperationException e) {
+			// e.g. streamed or parallel execution, batches are executed until the preparer runs out of input
+			numBatches = -1;
+		}
+		if (m_numBatchesInFlight > 1 && (numBatches > 1 || numBatches == -1)) {
+			executePipelined(numBatches, monitor);
+		} else {
+			executeSerially(monitor);
+		}
+	}
+
+	private void executeSerially(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
 		final DLExecutionStatus status = monitor.getExecutionStatus();
-		long currentInBatchSize = m_expectedBatchSize;
-		final long numBatches = m_inputPreparer.getNumBatches();
-		final long lastBatchIndex = numBatches - 1;
-		for (long i = 0; i < numBatches; i++) {
+		final DLSessionStatistics statistics = status.getStatistics();
+		for (long i = 0; m_inputPreparer.hasBatch(i); i++) {
 			monitor.checkCanceled();
+			long start = System.nanoTime();
 			m_inputPreparer.prepare(m_input, i);
+			statistics.recordSince(Stage.PREPARE_INPUT, start, 0);
 			monitor.checkCanceled();
-			if (i == lastBatchIndex) {
-				// last batch might be incomplete
-				final DLTensor<? extends DLWritableBuffer> tensor = m_input.values().stream().findAny().get();
-				currentInBatchSize = tensor.getBuffer().size() / tensor.getExampleSize();
-			}
+			// last batch might be incomplete
+			final long currentInBatchSize = getInputBatchSize(m_input);
+			start = System.nanoTime();
+			long bytes = m_commands.getNumBytesSent();
 			m_commands.setNetworkInputs(m_handle, m_input, monitor);
+			statistics.recordSince(Stage.TRANSFER_INPUT, start, m_commands.getNumBytesSent() - bytes);
 			monitor.checkCanceled();
+			start = System.nanoTime();
 			m_commands.executeNetwork(m_handle, m_requestedOutputs, currentInBatchSize, monitor);
+			statistics.recordSince(Stage.EXECUTE, start, 0);
 			monitor.checkCanceled();
 			for (final DLTensor<?> input : m_input.values()) {
 				input.getBuffer().reset();
 			}
 			if (m_output == null) {
-				m_output = new HashMap<>(m_requestedOutputs.size());
-				final DLTensorSpec[] outputSpecs = ArrayUtils.addAll(m_network.getSpec().getOutputSpecs(),
-						m_network.getSpec().getHiddenOutputSpecs());
-				final Map<DLTensorId, long[]> outputShapes = m_commands.getNetworkOutputShapes(m_handle,
-						m_requestedOutputs, monitor);
-				for (final DLTensorSpec spec : outputSpecs) {
-					if (m_requestedOutputs.contains(spec.getIdentifier())) {
-						final long[] outShape = outputShapes.get(spec.getIdentifier());
-						final long outBatchSize = outShape[0];
-						final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
-						System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
-						final DLTensorSpec executionSpec = m_tensorFactory.createExecutionTensorSpec(spec, outBatchSize,
-								outShapeWithoutBatchSize);
-						m_output.put(spec.getIdentifier(), m_tensorFactory.createReadableTensor(executionSpec));
-					}
-				}
+				m_output = createOutputTensors(monitor);
 			}
+			start = System.nanoTime();
+			bytes = m_commands.getNumBytesReceived();
 			m_commands.getNetworkOutputs(m_handle, m_output, monitor);
+			statistics.recordSince(Stage.TRANSFER_OUTPUT, start, m_commands.getNumBytesReceived() - bytes);
 			monitor.checkCanceled();
+			start = System.nanoTime();
 			m_outputConsumer.accept(m_output);
+			statistics.recordSince(Stage.CONSUME_OUTPUT, start, 0);
 			for (final DLTensor<?> output : m_output.values()) {
 				output.getBuffer().reset();
 			}
+			statistics.recordRows(currentInBatchSize);
 			status.batchEnded().raise(null);
 		}
 	}
+
+	/**
+	 * Keeps up to {@link #m_numBatchesInFlight} batches in flight. Each batch is assigned to a pipeline slot that holds
+	 * its input and output tensors. Batches are prepared one after another by a dedicated thread and their outputs are
+	 * consumed one after another by another dedicated thread, so the input preparer and the output consumer never see
+	 * concurrent calls and batch order is retained. The calling thread exclusively communicates with Python.
+	 *
+	 * @param numBatches the number of batches or -1 if unknown, in which case batches are executed until the input
+	 *            preparer has no more batches
+	 */
+	private void executePipelined(final long numBatches, final DLExecutionMonitor monitor)
+			throws DLCanceledExecutionException, Exception {
+		if (m_pipelineInputs == null) {
+			final int numSlots = numBatches == -1 ? m_numBatchesInFlight
+					: (int) Math.min(m_numBatchesInFlight, numBatches);
+			m_pipelineInputs = new ArrayList<>(numSlots);
+			m_pipelineOutputs = new ArrayList<>(numSlots);
+			m_pipelineInputs.add(m_input);
+			m_pipelineOutputs.add(m_output);
+			final Set<DLTensorId> sparseTensors = m_inputPreparer.getSparseTensors();
+			for (int s = 1; s < numSlots; s++) {
+				final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = new HashMap<>(
+						m_executionInputSpecs.size());
+				for (final DLTensorSpec spec : m_executionInputSpecs) {
+					input.put(spec.getIdentifier(), sparseTensors.contains(spec.getIdentifier())
+							? m_tensorFactory.createWritableSparseTensor(spec)
+							: m_tensorFactory.createWritableTensor(spec));
+				}
+				m_pipelineInputs.add(input);
+				m_pipelineOutputs.add(null);
+			}
+		}
+		final int numSlots = m_pipelineInputs.size();
+		final DLExecutionStatus status = monitor.getExecutionStatus();
+		final DLSessionStatistics statistics = status.getStatistics();
+		@SuppressWarnings("unchecked")
+		final Future<Boolean>[] prepared = new Future[numSlots];
+		final Future<?>[] consumed = new Future<?>[numSlots];
+		final ExecutorService preparer = Executors
+				.newSingleThreadExecutor(r -> new Thread(r, "DL-Network-Execution-Input-Preparer"));
+		final ExecutorService consumer = Executors
+				.newSingleThreadExecutor(r -> new Thread(r, "DL-Network-Execution-Output-Consumer"));
+		try {
+			for (int s = 0; s < numSlots; s++) {
+				prepared[s] = submitPrepare(preparer, m_pipelineInputs.get(s), s, monitor);
+			}
+			for (long i = 0;; i++) {
+				final int slot = (int) (i % numSlots);
+				final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = m_pipelineInputs.get(slot);
+				// batches are prepared in order, so all subsequent batches are missing as well
+				if (!awaitStage(prepared[slot])) {
+					break;
+				}
+				monitor.checkCanceled();
+				// last batch might be incomplete
+				final long currentInBatchSize = getInputBatchSize(input);
+				long start = System.nanoTime();
+				long bytes = m_commands.getNumBytesSent();
+				m_commands.setNetworkInputs(m_handle, input, monitor);
+				statistics.recordSince(Stage.TRANSFER_INPUT, start, m_commands.getNumBytesSent() - bytes);
+				for (final DLTensor<?> tensor : input.values()) {
+					tensor.getBuffer().reset();
+				}
+				// the input tensors of this slot now reside in Python, so the slot can already be refilled
+				prepared[slot] = submitPrepare(preparer, input, i + numSlots, monitor);
+				monitor.checkCanceled();
+				start = System.nanoTime();
+				m_commands.executeNetwork(m_handle, m_requestedOutputs, currentInBatchSize, monitor);
+				statistics.recordSince(Stage.EXECUTE, start, 0);
+				monitor.checkCanceled();
+				// the output tensors of this slot may still be in use by the batch that previously occupied the slot
+				if (consumed[slot] != null) {
+					awaitStage(consumed[slot]);
+				}
+				Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = m_pipelineOutputs.get(slot);
+				if (output == null) {
+					output = createOutputTensors(monitor);
+					m_pipelineOutputs.set(slot, output);
+					if (slot == 0) {
+						m_output = output;
+					}
+				}
+				start = System.nanoTime();
+				bytes = m_commands.getNumBytesReceived();
+				m_commands.getNetworkOutputs(m_handle, output, monitor);
+				statistics.recordSince(Stage.TRANSFER_OUTPUT, start, m_commands.getNumBytesReceived() - bytes);
+				monitor.checkCanceled();
+				final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> finalOutput = output;
+				consumed[slot] = consumer.submit(() -> {
+					monitor.checkCanceled();
+					final long consumeStart = System.nanoTime();
+					m_outputConsumer.accept(finalOutput);
+					statistics.recordSince(Stage.CONSUME_OUTPUT, consumeStart, 0);
+					for (final DLTensor<?> tensor : finalOutput.values()) {
+						tensor.getBuffer().reset();
+					}
+					statistics.recordRows(currentInBatchSize);
+					status.batchEnded().raise(null);
+					return null;
+				});
+			}
+			for (final Future<?> stage : consumed) {
+				if (stage != null) {
+					awaitStage(stage);
+				}
+			}
+		} finally {
+			shutdownStage(preparer);
+			shutdownStage(consumer);
+		}
+	}
+
+	/**
+	 * @return a future that yields false if there is no batch with the given index
+	 */
+	private Future<Boolean> submitPrepare(final ExecutorService preparer,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex,
+			final DLExecutionMonitor monitor) {
+		return preparer.submit(() -> {
+			monitor.checkCanceled();
+			if (!m_inputPreparer.hasBatch(batchIndex)) {
+				return false;
+			}
+			final long start = System.nanoTime();
+			m_inputPreparer.prepare(input, batchIndex);
+			monitor.getExecutionStatus().getStatistics().recordSince(Stage.PREPARE_INPUT, start, 0);
+			return true;
+		});
+	}
+
+	private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> createOutputTensors(
+			final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
+		final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = new HashMap<>(
+				m_requestedOutputs.size());
+		final DLTensorSpec[] outputSpecs = ArrayUtils.addAll(m_network.getSpec().getOutputSpecs(),
+				m_network.getSpec().getHiddenOutputSpecs());
+		final Map<DLTensorId, long[]> outputShapes = m_commands.getNetworkOutputShapes(m_handle, m_requestedOutputs,
+				monitor);
+		for (final DLTensorSpec spec : outputSpecs) {
+			if (m_requestedOutputs.contains(spec.getIdentifier())) {
+				final long[] outShape = outputShapes.get(spec.getIdentifier());
+				final long outBatchSize = outShape[0];
+				final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
+				System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
+				final DLTensorSpec executionSpec = m_tensorFactory.createExecutionTensorSpec(spec, outBatchSize,
+						outShapeWithoutBatchSize);
+				output.put(spec.getIdentifier(), m_tensorFactory.createReadableTensor(executionSpec));
+			}
+		}
+		return output;
+	}
+
+	private static long getInputBatchSize(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		final DLTensor<? extends DLWritableBuffer> tensor = input.values().stream().findAny().get();
+		return tensor.getBuffer().size() / tensor.getExampleSize();
+	}
+
+	private static <T> T awaitStage(final Future<T> stage) throws DLCanceledExecutionException, Exception {
+		try {
+			return stage.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DLCanceledExecutionException("Execution was interrupted.");
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	private static void shutdownStage(final ExecutorService stage) {
+		stage.shutdownNow();
+		try {
+			// tensors must not be accessed by a stage anymore once the session gets closed
+			stage.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
 }
@@ -0,0 +1,219 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.base.nodes.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.workflow.SingleNodeContainer.MemoryPolicy;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+import org.knime.dl.base.nodes.executor.DLExecutorParallelExecution.DLExecutorWorker;
+import org.knime.dl.core.DLRowInputRowIterator;
+import org.knime.dl.core.execution.DLKnimeNetworkExecutionInputPreparer;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLExecutorParallelExecutionTest {
+
+	private static final int BATCH_SIZE = 2;
+
+	private static final DataTableSpec SPEC = new DataTableSpec(
+			new DataColumnSpecCreator("value", IntCell.TYPE).createSpec());
+
+	/**
+	 * Workers read from row inputs without size information. Their input preparers must nonetheless provide all
+	 * batches of their chunks.
+	 */
+	@Test
+	public void testWorkersExecuteAllBatchesOfInputWithoutSize() throws Exception {
+		for (final int numWorkers : new int[] { 2, 3 }) {
+			// incomplete last chunk and batch, more chunks than workers
+			final List<DataRow> rows = createRows(23);
+			final List<DataRow> output = new ArrayList<>();
+			final AtomicInteger numBatches = new AtomicInteger();
+			new DLExecutorParallelExecution(numWorkers, 2 * BATCH_SIZE).execute(new DLListRowInput(rows),
+					new DLListRowOutput(output), createExecutionContext(), createWorker(numBatches));
+			assertEquals(rows, output);
+			// each batch consists of rows of a single chunk: five complete chunks of two batches and a chunk of three
+			// rows in two batches
+			assertEquals(12, numBatches.get());
+		}
+	}
+
+	@Test
+	public void testWorkersWithoutInput() throws Exception {
+		// fewer chunks than workers
+		final List<DataRow> rows = createRows(3);
+		final List<DataRow> output = new ArrayList<>();
+		final AtomicInteger numBatches = new AtomicInteger();
+		new DLExecutorParallelExecution(4, 2 * BATCH_SIZE).execute(new DLListRowInput(rows),
+				new DLListRowOutput(output), createExecutionContext(), createWorker(numBatches));
+		assertEquals(rows, output);
+		assertEquals(2, numBatches.get());
+	}
+
+	/**
+	 * Mimics the input preparation and output consumption of an execution session: outputs the base rows of each
+	 * prepared batch.
+	 */
+	private static DLExecutorWorker createWorker(final AtomicInteger numBatches) {
+		return (in, out, exec) -> {
+			try (final DLRowInputRowIterator iterator = new DLRowInputRowIterator(in, Collections.emptyMap());
+					final DLKnimeNetworkExecutionInputPreparer preparer = new DLKnimeNetworkExecutionInputPreparer(
+							iterator, BATCH_SIZE, false, Collections.emptyMap())) {
+				try {
+					preparer.getNumBatches();
+					fail("Worker inputs are not expected to know their size.");
+				} catch (final UnsupportedOperationException e) {
+					// expected
+				}
+				final Queue<DataRow> baseRows = preparer.getBaseRows();
+				for (long i = 0; preparer.hasBatch(i); i++) {
+					preparer.prepare(Collections.emptyMap(), i);
+					assertTrue(baseRows.size() <= BATCH_SIZE);
+					while (!baseRows.isEmpty()) {
+						out.push(baseRows.remove());
+					}
+					numBatches.incrementAndGet();
+				}
+			}
+			out.close();
+		};
+	}
+
+	private static List<DataRow> createRows(final int numRows) {
+		final List<DataRow> rows = new ArrayList<>(numRows);
+		for (int i = 0; i < numRows; i++) {
+			rows.add(new DefaultRow("Row" + i, new DataCell[] { new IntCell(i) }));
+		}
+		return rows;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static ExecutionContext createExecutionContext() {
+		final NodeFactory<NodeModel> factory = (NodeFactory) new VirtualParallelizedChunkPortObjectInNodeFactory(
+				new PortType[0]);
+		return new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(factory),
+				MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+	}
+
+	/**
+	 * A streamed input, i.e. without size information.
+	 */
+	private static final class DLListRowInput extends RowInput {
+
+		private final Iterator<DataRow> m_rows;
+
+		private DLListRowInput(final List<DataRow> rows) {
+			m_rows = rows.iterator();
+		}
+
+		@Override
+		public DataTableSpec getDataTableSpec() {
+			return SPEC;
+		}
+
+		@Override
+		public DataRow poll() {
+			return m_rows.hasNext() ? m_rows.next() : null;
+		}
+
+		@Override
+		public void close() {
+			// no op
+		}
+	}
+
+	private static final class DLListRowOutput extends RowOutput {
+
+		private final List<DataRow> m_rows;
+
+		private DLListRowOutput(final List<DataRow> rows) {
+			m_rows = rows;
+		}
+
+		@Override
+		public void push(final DataRow row) {
+			m_rows.add(row);
+		}
+
+		@Override
+		public void setInactive() {
+			// no op
+		}
+
+		@Override
+		public void close() {
+			// no op
+		}
+	}
+}
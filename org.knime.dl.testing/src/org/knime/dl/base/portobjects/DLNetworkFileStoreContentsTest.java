@@ -0,0 +1,101 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.base.portobjects;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLNetworkFileStoreContentsTest {
+
+    @Rule
+    public final TemporaryFolder m_folder = new TemporaryFolder();
+
+    @Test
+    public void testCopiesOfSameContentAreIndependent() throws IOException {
+        final File source = m_folder.newFile("network.h5");
+        final byte[] content = new byte[1 << 20];
+        new Random(42).nextBytes(content);
+        Files.write(source.toPath(), content);
+
+        final File destination0 = new File(m_folder.getRoot(), "filestore0.h5");
+        final File destination1 = new File(m_folder.getRoot(), "filestore1.h5");
+        DLNetworkFileStoreContents.copy(source.toURI(), destination0);
+        DLNetworkFileStoreContents.copy(source.toURI(), destination1);
+        assertArrayEquals(content, Files.readAllBytes(destination0.toPath()));
+        assertArrayEquals(content, Files.readAllBytes(destination1.toPath()));
+
+        // Deleting a file store must not affect the other ones.
+        Files.delete(destination0.toPath());
+        assertArrayEquals(content, Files.readAllBytes(destination1.toPath()));
+
+        final File destination2 = new File(m_folder.getRoot(), "filestore2.h5");
+        DLNetworkFileStoreContents.copy(source.toURI(), destination2);
+        assertArrayEquals(content, Files.readAllBytes(destination2.toPath()));
+    }
+
+    @Test
+    public void testCopyOverwritesExistingDestination() throws IOException {
+        final File source = m_folder.newFile("network.json");
+        Files.write(source.toPath(), "{\"class_name\": \"Model\"}".getBytes("UTF-8"));
+        final File destination = m_folder.newFile("filestore.json");
+        Files.write(destination.toPath(), "outdated content that is longer than the network".getBytes("UTF-8"));
+        DLNetworkFileStoreContents.copy(source.toURI(), destination);
+        assertEquals(source.length(), destination.length());
+        assertArrayEquals(Files.readAllBytes(source.toPath()), Files.readAllBytes(destination.toPath()));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.dl.core.DLSessionStatistics.Stage;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLSessionStatisticsTest {
+
+	@Test
+	public void testBucketBoundsContainValue() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			final long nanos = random.nextLong() >>> 1;
+			final int index = DLSessionStatistics.getBucketIndex(nanos);
+			assertTrue(nanos <= DLSessionStatistics.getBucketUpperBound(index));
+			assertTrue(index == 0 || DLSessionStatistics.getBucketUpperBound(index - 1) < nanos);
+		}
+		assertEquals(0, DLSessionStatistics.getBucketIndex(0));
+		assertEquals(15, DLSessionStatistics.getBucketUpperBound(DLSessionStatistics.getBucketIndex(15)));
+	}
+
+	@Test
+	public void testPercentiles() {
+		final DLSessionStatistics statistics = new DLSessionStatistics();
+		for (int i = 1; i <= 100; i++) {
+			statistics.record(Stage.EXECUTE, i * 1_000_000L, 0);
+		}
+		assertEquals(100, statistics.getCount(Stage.EXECUTE));
+		assertEquals(5050 * 1_000_000L, statistics.getTotalNanos(Stage.EXECUTE));
+		// buckets have a relative error below 12.5%
+		assertEquals(50_000_000L, statistics.getPercentileNanos(Stage.EXECUTE, 50), 50_000_000L * 0.125);
+		assertEquals(99_000_000L, statistics.getPercentileNanos(Stage.EXECUTE, 99), 99_000_000L * 0.125);
+		// never exceeds the maximum
+		assertEquals(100_000_000L, statistics.getPercentileNanos(Stage.EXECUTE, 100));
+		assertEquals(0, statistics.getPercentileNanos(Stage.PREPARE_INPUT, 50));
+	}
+
+	@Test
+	public void testBytesAndRows() {
+		final DLSessionStatistics statistics = new DLSessionStatistics();
+		statistics.record(Stage.TRANSFER_INPUT, 10, 1024);
+		statistics.record(Stage.TRANSFER_INPUT, 10, 2048);
+		statistics.recordRows(32);
+		statistics.recordRows(16);
+		assertEquals(3072, statistics.getBytes(Stage.TRANSFER_INPUT));
+		assertEquals(48, statistics.getNumRows());
+		assertTrue(statistics.getRowsPerSecond() > 0);
+	}
+
+	@Test
+	public void testToMapOnlyContainsRecordedStages() {
+		final DLSessionStatistics statistics = new DLSessionStatistics();
+		statistics.record(Stage.PREPARE_INPUT, 2_000_000L, 0);
+		final Map<String, Double> map = statistics.toMap();
+		assertEquals(2d, map.get("prepare_input_total_ms"), 1e-9);
+		assertFalse(map.containsKey("prepare_input_mb"));
+		assertFalse(map.containsKey("execute_total_ms"));
+		assertTrue(map.containsKey("rows_per_second"));
+	}
+}
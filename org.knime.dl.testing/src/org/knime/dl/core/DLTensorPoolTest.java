@@ -0,0 +1,232 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import org.junit.Test;
+import org.knime.dl.core.DLTensorPool.DLTensorPoolStatistics;
+import org.knime.dl.core.data.DLDefaultDoubleBuffer;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLTensorPoolTest {
+
+	private static final DLTensorSpec SPEC = new DLDefaultTensorSpec(new DLDefaultTensorId("input"), "input", 2,
+			new DLDefaultFixedTensorShape(new long[] { 5 }), float.class, DLDimensionOrder.TDHWC);
+
+	@Test
+	public void testLeaseAndReturn() {
+		final DLTensorPool pool = new DLTensorPool(2);
+		final DLTrackingBufferFactory factory = new DLTrackingBufferFactory();
+		final DLTensor<DLDefaultFloatBuffer> first = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		assertSame(SPEC, first.getSpec());
+		assertEquals(5, first.getExampleSize());
+		final DLDefaultFloatBuffer buffer = first.getBuffer();
+		buffer.putAll(new float[] { 1, 2, 3 });
+		first.close();
+		assertStatistics(pool.getStatistics(), 0, 1, 1, 0, 0, 1);
+
+		final DLTensor<DLDefaultFloatBuffer> second = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		assertSame(buffer, second.getBuffer());
+		// returned buffers are reset
+		assertEquals(0, second.getBuffer().size());
+		assertEquals(1, factory.m_created.size());
+		assertStatistics(pool.getStatistics(), 1, 1, 1, 0, 0, 0);
+		second.close();
+		assertFalse(factory.m_created.get(0).m_closed);
+	}
+
+	@Test
+	public void testMostRecentlyReturnedBufferIsLeasedFirst() {
+		final DLTensorPool pool = new DLTensorPool(2);
+		final DLTrackingBufferFactory factory = new DLTrackingBufferFactory();
+		final DLTensor<DLDefaultFloatBuffer> first = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		final DLTensor<DLDefaultFloatBuffer> second = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		first.close();
+		second.close();
+		assertSame(second.getBuffer(),
+				pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10, factory).getBuffer());
+	}
+
+	@Test
+	public void testCapacityMismatchIsNotLeased() {
+		final DLTensorPool pool = new DLTensorPool(2);
+		final DLTrackingBufferFactory factory = new DLTrackingBufferFactory();
+		final DLTensor<DLDefaultFloatBuffer> first = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		first.close();
+		// e.g. a different batch size or shape
+		final DLTensor<DLDefaultFloatBuffer> second = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 15,
+				factory);
+		assertNotSame(first.getBuffer(), second.getBuffer());
+		assertEquals(15, second.getBuffer().getCapacity());
+		assertEquals(2, factory.m_created.size());
+		assertStatistics(pool.getStatistics(), 0, 2, 1, 0, 0, 1);
+	}
+
+	@Test
+	public void testTypeMismatchIsNotLeased() {
+		final DLTensorPool pool = new DLTensorPool(2);
+		final DLTrackingBufferFactory factory = new DLTrackingBufferFactory();
+		pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10, factory).close();
+		final DLTensor<DLDefaultDoubleBuffer> tensor = pool.createTensor(SPEC, 5, DLDefaultDoubleBuffer.class, 10,
+				DLDefaultDoubleBuffer::new);
+		assertEquals(DLDefaultDoubleBuffer.class, tensor.getBuffer().getClass());
+		assertStatistics(pool.getStatistics(), 0, 2, 1, 0, 0, 1);
+	}
+
+	@Test
+	public void testFullPoolDiscardsReturnedBuffers() {
+		final DLTensorPool pool = new DLTensorPool(1);
+		final DLTrackingBufferFactory factory = new DLTrackingBufferFactory();
+		final DLTensor<DLDefaultFloatBuffer> first = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		final DLTensor<DLDefaultFloatBuffer> second = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		first.close();
+		second.close();
+		assertFalse(factory.m_created.get(0).m_closed);
+		assertTrue(factory.m_created.get(1).m_closed);
+		assertStatistics(pool.getStatistics(), 0, 2, 1, 1, 0, 1);
+	}
+
+	@Test
+	public void testTrimReleasesIdleBuffers() {
+		final DLTensorPool pool = new DLTensorPool(2);
+		final DLTrackingBufferFactory factory = new DLTrackingBufferFactory();
+		final DLTensor<DLDefaultFloatBuffer> idle = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		final DLTensor<DLDefaultFloatBuffer> leased = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		idle.close();
+		pool.trim();
+		assertTrue(factory.m_created.get(0).m_closed);
+		assertFalse(factory.m_created.get(1).m_closed);
+		assertStatistics(pool.getStatistics(), 0, 2, 1, 0, 1, 0);
+		// leased buffers are returned as usual after trimming
+		leased.close();
+		assertFalse(factory.m_created.get(1).m_closed);
+		assertStatistics(pool.getStatistics(), 0, 2, 2, 0, 1, 1);
+	}
+
+	@Test
+	public void testClosingTensorTwiceReturnsBufferOnce() {
+		final DLTensorPool pool = new DLTensorPool(2);
+		final DLTensor<DLDefaultFloatBuffer> tensor = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				new DLTrackingBufferFactory());
+		tensor.close();
+		tensor.close();
+		assertStatistics(pool.getStatistics(), 0, 1, 1, 0, 0, 1);
+	}
+
+	@Test
+	public void testDisabledPoolDoesNotPool() {
+		final DLTensorPool pool = new DLTensorPool(0);
+		assertFalse(pool.isEnabled());
+		final DLTrackingBufferFactory factory = new DLTrackingBufferFactory();
+		final DLTensor<DLDefaultFloatBuffer> tensor = pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10,
+				factory);
+		assertEquals(DLDefaultTensor.class, tensor.getClass());
+		tensor.close();
+		assertTrue(factory.m_created.get(0).m_closed);
+		pool.createTensor(SPEC, 5, DLDefaultFloatBuffer.class, 10, factory).close();
+		assertEquals(2, factory.m_created.size());
+		assertStatistics(pool.getStatistics(), 0, 0, 0, 0, 0, 0);
+	}
+
+	private static void assertStatistics(final DLTensorPoolStatistics statistics, final long hits, final long misses,
+			final long returns, final long discards, final long trims, final int numIdle) {
+		assertEquals("hits", hits, statistics.getHits());
+		assertEquals("misses", misses, statistics.getMisses());
+		assertEquals("returns", returns, statistics.getReturns());
+		assertEquals("discards", discards, statistics.getDiscards());
+		assertEquals("trims", trims, statistics.getTrims());
+		assertEquals("idle", numIdle, statistics.getNumIdle());
+	}
+
+	private static final class DLTrackingBufferFactory implements LongFunction<DLTrackingFloatBuffer> {
+
+		private final List<DLTrackingFloatBuffer> m_created = new ArrayList<>();
+
+		@Override
+		public DLTrackingFloatBuffer apply(final long capacity) {
+			final DLTrackingFloatBuffer buffer = new DLTrackingFloatBuffer(capacity);
+			m_created.add(buffer);
+			return buffer;
+		}
+	}
+
+	private static final class DLTrackingFloatBuffer extends DLDefaultFloatBuffer {
+
+		private boolean m_closed = false;
+
+		private DLTrackingFloatBuffer(final long capacity) {
+			super(capacity);
+		}
+
+		@Override
+		public void close() {
+			m_closed = true;
+			super.close();
+		}
+	}
+}
@@ -75,10 +75,10 @@ public void testPutBoolean() throws Exception {
         try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
             assertEquals(buffer.m_nextWrite, 0);
             buffer.put(true);
-            assertEquals(true, buffer.m_storage[0]);
+            assertEquals(1L, buffer.m_storage[0] & 1L);
             assertEquals(1, buffer.m_nextWrite);
             buffer.put(false);
-            assertEquals(false, buffer.m_storage[1]);
+            assertEquals(0L, buffer.m_storage[0] & 2L);
         }
     }
 
@@ -95,7 +95,7 @@ public void testPutAllBoolean() throws Exception {
         try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
             final boolean[] expected = alternatingBooleanArray(10);
             buffer.putAll(expected);
-            assertArrayEquals(expected, buffer.m_storage);
+            assertArrayEquals(pack(expected), buffer.m_storage);
         }
     }
 
@@ -574,8 +574,22 @@ public void testZeroPad() throws Exception {
             buffer.putAll(booleanRange(10));
             buffer.reset();
             buffer.zeroPad(10);
-            final boolean[] expected = new boolean[10];
-            assertArrayEquals(expected, buffer.m_storage);
+            assertArrayEquals(new long[1], buffer.m_storage);
+        }
+    }
+
+    @Test
+    public void testZeroPadMultipleWords() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(200)) {
+            final boolean[] expected = new boolean[200];
+            Arrays.fill(expected, true);
+            buffer.putAll(expected);
+            buffer.reset();
+            buffer.put(true);
+            buffer.zeroPad(198);
+            Arrays.fill(expected, 1, 199, false);
+            assertEquals(199, buffer.size());
+            assertArrayEquals(expected, buffer.toBitArray());
         }
     }
 
@@ -597,17 +611,102 @@ public void testZeroPadOverflow() throws Exception {
     public void testSetStorage() throws Exception {
         try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
             final boolean[] expected = booleanRange(10);
-            buffer.setStorage(expected, 10);
+            buffer.setStorage(pack(expected), 10);
             assertEquals(0, buffer.m_nextRead);
-            assertArrayEquals(expected, buffer.m_storage);
+            assertArrayEquals(expected, buffer.toBitArray());
         }
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testSetStorageWrongCapacity() throws Exception {
         try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
-            final boolean[] storage = booleanRange(11);
+            final long[] storage = new long[2];
             buffer.setStorage(storage, 10);
         }
     }
+
+    @Test
+    public void testPutAllPacked() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(200)) {
+            final boolean[] values = booleanRange(130);
+            // start at an unaligned position such that the words spill over into the next word of the storage
+            buffer.put(true);
+            buffer.put(false);
+            buffer.put(true);
+            buffer.putAllPacked(pack(values), values.length);
+            assertEquals(133, buffer.size());
+            final boolean[] expected = new boolean[200];
+            expected[0] = true;
+            expected[2] = true;
+            System.arraycopy(values, 0, expected, 3, values.length);
+            assertArrayEquals(expected, buffer.toBitArray());
+        }
+    }
+
+    @Test
+    public void testPutAllPackedOverwritesStaleBits() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(70)) {
+            final boolean[] ones = new boolean[70];
+            Arrays.fill(ones, true);
+            buffer.putAll(ones);
+            buffer.reset();
+            buffer.put(true);
+            buffer.putAllPacked(new long[2], 69);
+            final boolean[] expected = new boolean[70];
+            expected[0] = true;
+            assertArrayEquals(expected, buffer.toBitArray());
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutAllPackedOverflow() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(64)) {
+            buffer.put(true);
+            buffer.putAllPacked(new long[1], 64);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutAllPackedTooFewWords() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(200)) {
+            buffer.putAllPacked(new long[1], 65);
+        }
+    }
+
+    @Test
+    public void testReadToPackedByteArray() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(100)) {
+            final boolean[] values = booleanRange(100);
+            buffer.putAll(values);
+            buffer.readNextBit();
+            final byte[] filled = new byte[14];
+            buffer.readToPackedByteArray(filled, 1, 99);
+            final byte[] expected = new byte[14];
+            for (int i = 0; i < 99; i++) {
+                if (values[i + 1]) {
+                    expected[1 + i / 8] |= 0x80 >>> (i % 8);
+                }
+            }
+            assertArrayEquals(expected, filled);
+            assertEquals(100, buffer.getNextReadPosition());
+        }
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void testReadToPackedByteArrayUnderflow() throws Exception {
+        try (DLDefaultBitBuffer buffer = new DLDefaultBitBuffer(10)) {
+            buffer.putAll(booleanRange(10));
+            buffer.readToPackedByteArray(new byte[2], 0, 11);
+        }
+    }
+
+    private static long[] pack(final boolean[] values) {
+        final long[] words = new long[DLDefaultBitBuffer.getNumWords(values.length)];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i]) {
+                words[i / 64] |= 1L << (i % 64);
+            }
+        }
+        return words;
+    }
 }
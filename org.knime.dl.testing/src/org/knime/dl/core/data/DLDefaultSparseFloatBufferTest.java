@@ -0,0 +1,158 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.knime.dl.testing.DLTestUtil.FLOAT_EPSILON;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLDefaultSparseFloatBufferTest {
+
+	@Test
+	public void testPutOnlyStoresNonZeroValues() throws Exception {
+		try (DLDefaultSparseFloatBuffer buffer = new DLDefaultSparseFloatBuffer(10)) {
+			buffer.putAll(new float[] { 0f, 2f, 0f, 0f, 5f });
+			buffer.put(0f);
+			buffer.put(true);
+			assertEquals(7, buffer.size());
+			assertEquals(3, buffer.m_storage.getNumEntries());
+			assertArrayEquals(new int[] { 1, 4, 6 }, Arrays.copyOf(buffer.m_storage.getPositions(), 3));
+		}
+	}
+
+	@Test
+	public void testPutSparse() throws Exception {
+		try (DLDefaultSparseFloatBuffer buffer = new DLDefaultSparseFloatBuffer(10)) {
+			buffer.put(3f);
+			buffer.putSparse(5, new int[] { 0, 3, 4 }, null, 2);
+			buffer.putSparse(4, new int[] { 1 }, new float[] { 7f }, 1);
+			assertEquals(10, buffer.size());
+			assertArrayEquals(new float[] { 3f, 1f, 0f, 0f, 1f, 0f, 0f, 7f, 0f, 0f }, buffer.toFloatArray(),
+					FLOAT_EPSILON);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPutSparseUnorderedOffsets() throws Exception {
+		try (DLDefaultSparseFloatBuffer buffer = new DLDefaultSparseFloatBuffer(10)) {
+			buffer.putSparse(5, new int[] { 3, 1 }, null, 2);
+		}
+	}
+
+	@Test(expected = BufferOverflowException.class)
+	public void testPutSparseOverflow() throws Exception {
+		try (DLDefaultSparseFloatBuffer buffer = new DLDefaultSparseFloatBuffer(4)) {
+			buffer.putSparse(5, new int[] { 1 }, null, 1);
+		}
+	}
+
+	@Test
+	public void testZeroPad() throws Exception {
+		try (DLDefaultSparseFloatBuffer buffer = new DLDefaultSparseFloatBuffer(10)) {
+			buffer.zeroPad(3);
+			buffer.put(4f);
+			buffer.zeroPad(6);
+			assertEquals(10, buffer.size());
+			assertEquals(1, buffer.m_storage.getNumEntries());
+			assertArrayEquals(new float[] { 0f, 0f, 0f, 4f, 0f, 0f, 0f, 0f, 0f, 0f }, buffer.toFloatArray(),
+					FLOAT_EPSILON);
+		}
+	}
+
+	@Test
+	public void testReadNextFloat() throws Exception {
+		try (DLDefaultSparseFloatBuffer buffer = new DLDefaultSparseFloatBuffer(5)) {
+			final float[] expected = new float[] { 0f, 1.5f, 0f, 0f, -2f };
+			buffer.putAll(expected);
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i], buffer.readNextFloat(), FLOAT_EPSILON);
+			}
+		}
+	}
+
+	@Test(expected = BufferUnderflowException.class)
+	public void testReadNextFloatUnderflow() throws Exception {
+		try (DLDefaultSparseFloatBuffer buffer = new DLDefaultSparseFloatBuffer(5)) {
+			buffer.put(1f);
+			buffer.readNextFloat();
+			buffer.readNextFloat();
+		}
+	}
+
+	@Test
+	public void testReadToFloatArray() throws Exception {
+		try (DLDefaultSparseFloatBuffer buffer = new DLDefaultSparseFloatBuffer(6)) {
+			buffer.putAll(new float[] { 1f, 0f, 0f, 2f, 0f, 3f });
+			final float[] dest = new float[] { 9f, 9f, 9f, 9f, 9f };
+			buffer.readToFloatArray(dest, 1, 4);
+			assertArrayEquals(new float[] { 9f, 1f, 0f, 0f, 2f }, dest, FLOAT_EPSILON);
+			assertEquals(3f, buffer.readNextFloat(), FLOAT_EPSILON);
+			assertEquals(3f, buffer.readNextFloat(), FLOAT_EPSILON);
+		}
+	}
+
+	@Test
+	public void testResetWriteDiscardsValues() throws Exception {
+		try (DLDefaultSparseFloatBuffer buffer = new DLDefaultSparseFloatBuffer(4)) {
+			buffer.putAll(new float[] { 1f, 2f, 3f, 4f });
+			buffer.reset();
+			buffer.put(5f);
+			assertEquals(1, buffer.size());
+			assertEquals(1, buffer.m_storage.getNumEntries());
+			assertArrayEquals(new float[] { 5f, 0f, 0f, 0f }, buffer.toFloatArray(), FLOAT_EPSILON);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+package org.knime.dl.core.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.alternatingBooleanArray;
+import static org.knime.dl.testing.DLTestUtil.doubleRange;
+import static org.knime.dl.testing.DLTestUtil.floatRange;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLStorageCopierTest {
+
+	@Test
+	public void testCopyDoubleRange() throws Exception {
+		try (DLDefaultDirectDoubleBuffer source = new DLDefaultDirectDoubleBuffer(10);
+				DLDefaultDirectDoubleBuffer target = new DLDefaultDirectDoubleBuffer(10)) {
+			source.putAll(doubleRange(10));
+			final ByteBuffer bytes = ByteBuffer.allocate(4 * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			DLStorageCopier.copyToBytes(source.m_storage, 3, 4, bytes);
+			assertEquals(0, bytes.position());
+			assertEquals(3.0, bytes.getDouble(0), DOUBLE_EPSILON);
+			assertEquals(6.0, bytes.getDouble(3 * Double.BYTES), DOUBLE_EPSILON);
+			DLStorageCopier.copyFromBytes(bytes, target.m_storage, 5, 4);
+			assertEquals(0, source.m_storage.position());
+			assertEquals(0, target.m_storage.position());
+			for (int i = 0; i < 4; i++) {
+				assertEquals(3.0 + i, target.m_storage.get(5 + i), DOUBLE_EPSILON);
+			}
+			assertEquals(0.0, target.m_storage.get(9), DOUBLE_EPSILON);
+		}
+	}
+
+	@Test
+	public void testCopyFloatRange() throws Exception {
+		try (DLDefaultDirectFloatBuffer source = new DLDefaultDirectFloatBuffer(10);
+				DLDefaultDirectFloatBuffer target = new DLDefaultDirectFloatBuffer(10)) {
+			source.putAll(floatRange(10));
+			final ByteBuffer bytes = ByteBuffer.allocate(4 * Float.BYTES).order(ByteOrder.nativeOrder());
+			DLStorageCopier.copyToBytes(source.m_storage, 3, 4, bytes);
+			assertEquals(3f, bytes.getFloat(0), DOUBLE_EPSILON);
+			assertEquals(6f, bytes.getFloat(3 * Float.BYTES), DOUBLE_EPSILON);
+			DLStorageCopier.copyFromBytes(bytes, target.m_storage, 5, 4);
+			for (int i = 0; i < 4; i++) {
+				assertEquals(3f + i, target.m_storage.get(5 + i), DOUBLE_EPSILON);
+			}
+			assertEquals(0f, target.m_storage.get(9), DOUBLE_EPSILON);
+		}
+	}
+
+	@Test
+	public void testCopyBitsAcrossWords() throws Exception {
+		final int numBits = 150;
+		final boolean[] bits = alternatingBooleanArray(numBits);
+		bits[64] = true;
+		bits[65] = true;
+		try (DLDefaultBitBuffer source = new DLDefaultBitBuffer(numBits);
+				DLDefaultBitBuffer target = new DLDefaultBitBuffer(numBits)) {
+			source.putAll(bits);
+			final ByteBuffer bytes = ByteBuffer.allocate(100);
+			DLStorageCopier.copyBitsToBytes(source.m_storage, 30, 100, bytes);
+			assertEquals(100, bytes.position());
+			for (int i = 0; i < 100; i++) {
+				assertEquals(bits[30 + i] ? 1 : 0, bytes.get(i));
+			}
+			bytes.flip();
+			// previously set bits must be cleared if the copied bit is not set
+			Arrays.fill(target.m_storage, -1L);
+			DLStorageCopier.copyBitsFromBytes(bytes, target.m_storage, 30, 100);
+			assertArrayEquals(Arrays.copyOfRange(bits, 30, 130), Arrays.copyOfRange(target.toBitArray(), 30, 130));
+		}
+	}
+}
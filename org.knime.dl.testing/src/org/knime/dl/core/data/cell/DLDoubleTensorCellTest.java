@@ -0,0 +1,93 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data.cell;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.dl.core.data.cell.DLDoubleTensorCell.DLDoubleTensorCellSerializer;
+import org.knime.dl.core.data.cell.DLFloatTensorCellTest.DLTestDataCellDataInput;
+import org.knime.dl.core.data.cell.DLFloatTensorCellTest.DLTestDataCellDataOutput;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLDoubleTensorCellTest {
+
+	@Test
+	public void testSerializationRoundTrip() throws IOException {
+		final Random random = new Random(42);
+		// smaller than, equal to and larger than a serialization chunk
+		for (final int numElements : new int[] { 1, 7, 1024, 3000 }) {
+			final double[] values = new double[numElements];
+			for (int i = 0; i < numElements; i++) {
+				values[i] = random.nextDouble() - 0.5;
+			}
+			final long[] shape = new long[] { numElements, 1 };
+			final DLDoubleTensorCell cell = new DLDoubleTensorCell(shape, values);
+			final DLDoubleTensorCellSerializer serializer = new DLDoubleTensorCellSerializer();
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (final DLTestDataCellDataOutput out = new DLTestDataCellDataOutput(bytes)) {
+				serializer.serialize(cell, out);
+			}
+			try (final DLTestDataCellDataInput in = new DLTestDataCellDataInput(
+					new ByteArrayInputStream(bytes.toByteArray()))) {
+				final DLDoubleTensorCell deserialized = serializer.deserialize(in);
+				assertEquals("Serializer did not consume all bytes.", -1, in.read());
+				assertEquals(cell, deserialized);
+				assertArrayEquals(shape, deserialized.getShape());
+				assertArrayEquals(values, deserialized.getDoubleArray(), 0d);
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data.cell;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.dl.core.data.cell.DLFloatTensorCell.DLFloatTensorCellSerializer;
+
+/**
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLFloatTensorCellTest {
+
+	@Test
+	public void testSerializationRoundTrip() throws IOException {
+		final Random random = new Random(42);
+		// smaller than, equal to and larger than a serialization chunk
+		for (final int numElements : new int[] { 1, 7, 2048, 5000 }) {
+			final float[] values = new float[numElements];
+			for (int i = 0; i < numElements; i++) {
+				values[i] = random.nextFloat() - 0.5f;
+			}
+			final long[] shape = new long[] { 1, numElements };
+			final DLFloatTensorCell cell = new DLFloatTensorCell(shape, values);
+			final DLFloatTensorCell deserialized = roundTrip(cell);
+			assertEquals(cell, deserialized);
+			assertArrayEquals(shape, deserialized.getShape());
+			assertArrayEquals(values, deserialized.getFloatArray(), 0f);
+		}
+	}
+
+	@Test
+	public void testSerializationRoundTripOfEmptyTensor() throws IOException {
+		final DLFloatTensorCell cell = new DLFloatTensorCell(new long[] { 0, 3 }, new float[0]);
+		final DLFloatTensorCell deserialized = roundTrip(cell);
+		assertEquals(cell, deserialized);
+		assertEquals(0, deserialized.getNumElements());
+	}
+
+	@Test
+	public void testSerializedValuesAreBigEndian() throws IOException {
+		final DLFloatTensorCell cell = new DLFloatTensorCell(new long[] { 2 }, new float[] { 1f, -2.5f });
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final DLTestDataCellDataOutput out = new DLTestDataCellDataOutput(bytes)) {
+			new DLFloatTensorCellSerializer().serialize(cell, out);
+		}
+		try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			// shape
+			assertEquals(1, in.readInt());
+			assertEquals(2, in.readLong());
+			// values
+			assertEquals(2, in.readInt());
+			assertEquals(1f, in.readFloat(), 0f);
+			assertEquals(-2.5f, in.readFloat(), 0f);
+			assertEquals(-1, in.read());
+		}
+	}
+
+	private static DLFloatTensorCell roundTrip(final DLFloatTensorCell cell) throws IOException {
+		final DLFloatTensorCellSerializer serializer = new DLFloatTensorCellSerializer();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final DLTestDataCellDataOutput out = new DLTestDataCellDataOutput(bytes)) {
+			serializer.serialize(cell, out);
+		}
+		try (final DLTestDataCellDataInput in = new DLTestDataCellDataInput(
+				new ByteArrayInputStream(bytes.toByteArray()))) {
+			final DLFloatTensorCell deserialized = serializer.deserialize(in);
+			assertEquals("Serializer did not consume all bytes.", -1, in.read());
+			return deserialized;
+		}
+	}
+
+	static final class DLTestDataCellDataOutput extends DataOutputStream implements DataCellDataOutput {
+
+		DLTestDataCellDataOutput(final ByteArrayOutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void writeDataCell(final DataCell cell) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	static final class DLTestDataCellDataInput extends DataInputStream implements DataCellDataInput {
+
+		DLTestDataCellDataInput(final ByteArrayInputStream in) {
+			super(in);
+		}
+
+		@Override
+		public DataCell readDataCell() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
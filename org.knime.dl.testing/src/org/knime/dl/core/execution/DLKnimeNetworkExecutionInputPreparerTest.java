@@ -0,0 +1,188 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.execution;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLRowInputRowIterator;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLIntValueToFloatTensorConverterFactory;
+import org.knime.dl.testing.DLTestUtil;
+
+/**
+ * Tests the preparation of streamed inputs, i.e. inputs without size information as they occur in streamed or
+ * parallel execution.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public class DLKnimeNetworkExecutionInputPreparerTest {
+
+	private static final int BATCH_SIZE = 3;
+
+	private static final DLTensorId TENSOR_ID = new DLDefaultTensorId("input");
+
+	private static final DataTableSpec SPEC = new DataTableSpec(
+			new DataColumnSpecCreator("value", IntCell.TYPE).createSpec());
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testStreamedInputHasNoNumberOfBatches() throws Exception {
+		try (final DLKnimeNetworkExecutionInputPreparer preparer = createPreparer(7, false)) {
+			preparer.getNumBatches();
+		}
+	}
+
+	@Test
+	public void testStreamedInputIsPreparedUntilExhausted() throws Exception {
+		final List<float[]> batches = prepareAll(7, false);
+		assertEquals(3, batches.size());
+		assertArrayEquals(new float[] { 0, 1, 2 }, batches.get(0), 0f);
+		assertArrayEquals(new float[] { 3, 4, 5 }, batches.get(1), 0f);
+		// incomplete last batch
+		assertArrayEquals(new float[] { 6 }, batches.get(2), 0f);
+	}
+
+	@Test
+	public void testIncompleteLastBatchOfStreamedInputIsZeroPaddedIfBatchSizeIsPredefined() throws Exception {
+		final List<float[]> batches = prepareAll(4, true);
+		assertEquals(2, batches.size());
+		assertArrayEquals(new float[] { 0, 1, 2 }, batches.get(0), 0f);
+		assertArrayEquals(new float[] { 3, 0, 0 }, batches.get(1), 0f);
+	}
+
+	@Test
+	public void testEmptyStreamedInputHasNoBatches() throws Exception {
+		try (final DLKnimeNetworkExecutionInputPreparer preparer = createPreparer(0, false)) {
+			assertFalse(preparer.hasBatch(0));
+		}
+	}
+
+	/**
+	 * Prepares batches the way an execution session does if the number of batches is unknown.
+	 */
+	private static List<float[]> prepareAll(final int numRows, final boolean isPredefinedBatchSize)
+			throws Exception {
+		final List<float[]> batches = new ArrayList<>();
+		try (final DLKnimeNetworkExecutionInputPreparer preparer = createPreparer(numRows, isPredefinedBatchSize);
+				@SuppressWarnings("unchecked")
+				final DLTensor<? extends DLWritableBuffer> tensor = (DLTensor<? extends DLWritableBuffer>) DLTestUtil
+						.createTensor(float.class, BATCH_SIZE, 1)) {
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = Collections.singletonMap(TENSOR_ID,
+					tensor);
+			for (long i = 0; preparer.hasBatch(i); i++) {
+				preparer.prepare(input, i);
+				@SuppressWarnings("unchecked")
+				final DLWrappingDataBuffer<float[]> buffer = (DLWrappingDataBuffer<float[]>) tensor.getBuffer();
+				final float[] batch = new float[(int) buffer.size()];
+				System.arraycopy(buffer.getStorageForReading(0, buffer.size()), 0, batch, 0, batch.length);
+				batches.add(batch);
+				buffer.reset();
+			}
+			// base rows are kept until their outputs are consumed
+			assertEquals(numRows, preparer.getBaseRows().size());
+		}
+		return batches;
+	}
+
+	private static DLKnimeNetworkExecutionInputPreparer createPreparer(final int numRows,
+			final boolean isPredefinedBatchSize) {
+		final List<DataRow> rows = new ArrayList<>(numRows);
+		for (int i = 0; i < numRows; i++) {
+			rows.add(new DefaultRow("Row" + i, new DataCell[] { new IntCell(i) }));
+		}
+		final DLRowInputRowIterator iterator = new DLRowInputRowIterator(new DLListRowInput(rows),
+				Collections.singletonMap(TENSOR_ID, new int[] { 0 }));
+		return new DLKnimeNetworkExecutionInputPreparer(iterator, BATCH_SIZE, isPredefinedBatchSize,
+				Collections.singletonMap(TENSOR_ID, new DLIntValueToFloatTensorConverterFactory()));
+	}
+
+	/**
+	 * A streamed input, i.e. without size information.
+	 */
+	private static final class DLListRowInput extends RowInput {
+
+		private final Iterator<DataRow> m_rows;
+
+		private DLListRowInput(final List<DataRow> rows) {
+			m_rows = rows.iterator();
+		}
+
+		@Override
+		public DataTableSpec getDataTableSpec() {
+			return SPEC;
+		}
+
+		@Override
+		public DataRow poll() {
+			return m_rows.hasNext() ? m_rows.next() : null;
+		}
+
+		@Override
+		public void close() {
+			// no op
+		}
+	}
+}
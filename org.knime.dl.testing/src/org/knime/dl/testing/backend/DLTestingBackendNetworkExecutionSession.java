@@ -82,7 +82,7 @@ public DLTestingBackendNetworkExecutionSession(final DLTestingBackendNetwork net
     @Override
     protected void executeInternal(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
         // we fake some network activity here: unwrap floats, calc some stuff, create doubles...
-        for (long i = 0; i < m_inputPreparer.getNumBatches(); i++) {
+        for (long i = 0; m_inputPreparer.hasBatch(i); i++) {
             m_inputPreparer.prepare(m_input, i);
             for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> in : m_input.entrySet()) {
                 // TODO: we can't be sure that casting will work here
@@ -49,9 +49,11 @@
 package org.knime.dl.base.nodes;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
@@ -72,6 +74,7 @@
 import org.knime.dl.base.settings.DLInputConfig;
 import org.knime.dl.core.DLContext;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.util.DLUtils;
@@ -97,6 +100,11 @@
 
     private final DataColumnSpecFilterPanel m_dcInputColumns;
 
+    /**
+     * <code>null</code> if the tensor's element type does not support reduced transfer precisions.
+     */
+    private final DialogComponentObjectSelection<DLTransferPrecision> m_dcTransferPrecision;
+
     private final DLTensorRole m_tensorRole;
 
     private final List<BiConsumer<?, ?>> m_listeners = new ArrayList<>();
@@ -129,6 +137,21 @@ public DLInputPanel(final I cfg, final DLTensorSpec tensorSpec, final String hea
         addDoubleColumnRow(getFirstComponent(m_dcConverter, JLabel.class),
             getFirstComponent(m_dcConverter, JComboBox.class));
 
+        // transfer precision selection
+        final List<DLTransferPrecision> transferPrecisions = Arrays.stream(DLTransferPrecision.values())
+            .filter(p -> p.isApplicableTo(m_inputTensorSpec.getElementType())).collect(Collectors.toList());
+        if (transferPrecisions.size() > 1) {
+            m_dcTransferPrecision = new DialogComponentObjectSelection<>(m_cfg.getTransferPrecisionEntry(),
+                DLTransferPrecision::getName, "Transfer precision");
+            m_dcTransferPrecision.replaceListItems(transferPrecisions, null);
+            m_dcTransferPrecision.setToolTipText("The precision in which the input data is transferred to the back "
+                + "end. Reduced precisions decrease the transfer volume at the cost of numeric accuracy.");
+            addDoubleColumnRow(getFirstComponent(m_dcTransferPrecision, JLabel.class),
+                getFirstComponent(m_dcTransferPrecision, JComboBox.class));
+        } else {
+            m_dcTransferPrecision = null;
+        }
+
         // column selection
         addLabelRow(header);
 
@@ -242,6 +265,9 @@ public void unregisterListeners() {
         }
         m_listeners.clear();
         m_dcConverter.unregisterListeners();
+        if (m_dcTransferPrecision != null) {
+            m_dcTransferPrecision.unregisterListeners();
+        }
     }
 
     private void refreshAllowedInputColumns() {
@@ -58,6 +58,7 @@
 import org.knime.dl.base.settings.AbstractConfigEntry;
 import org.knime.dl.base.settings.ConfigEntry;
 import org.knime.dl.base.settings.DLGeneralConfig;
+import org.knime.dl.base.settings.DefaultConfigEntry;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.execution.DLExecutionContext;
 import org.knime.dl.core.execution.DLExecutionContextRegistry;
@@ -81,6 +82,21 @@ class DLExecutorGeneralConfig extends AbstractConfig implements DLGeneralConfig<
 
 	private static final String CFG_KEY_KEEP_INPUT_COLS = "keep_input_columns";
 
+	/**
+	 * @since 3.7
+	 */
+	private static final String CFG_KEY_BATCHES_IN_FLIGHT = "batches_in_flight";
+
+	/**
+	 * @since 3.7
+	 */
+	private static final String CFG_KEY_NUM_WORKERS = "parallel_workers";
+
+	/**
+	 * @since 3.7
+	 */
+	private static final String CFG_KEY_STATISTICS_FLOW_VARIABLES = "statistics_flow_variables";
+
 
 	@SuppressWarnings("rawtypes") // java limitation
     DLExecutorGeneralConfig(final String defaultBackendName, final String defaultBackendId,
@@ -118,6 +134,33 @@ public void loadSettingsFrom(NodeSettingsRO settings) throws InvalidSettingsExce
 		put(SettingsModelConfigEntries.createIntegerBoundedConfigEntry(CFG_KEY_BATCH_SIZE, defaultBatchSize,
 		    1, Integer.MAX_VALUE));
 		put(SettingsModelConfigEntries.createBooleanConfigEntry(CFG_KEY_KEEP_INPUT_COLS, false));
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_BATCHES_IN_FLIGHT, Integer.class, 1) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): batches were always executed one after another
+				m_value = 1;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_NUM_WORKERS, Integer.class, 1) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): execution always used a single worker
+				m_value = 1;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_STATISTICS_FLOW_VARIABLES, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility (3.6): no statistics were pushed
+				m_value = false;
+				return true;
+			}
+		});
 	}
 
 	ConfigEntry<Integer> getBatchSizeEntry() {
@@ -134,6 +177,32 @@ public ConfigEntry<Boolean> getKeepInputColumnsEntry() {
         return get(CFG_KEY_KEEP_INPUT_COLS, Boolean.class);
     }
 
+    /**
+     * @return the number of batches that may be in flight at the same time during execution. A value of one means
+     *         that batches are executed strictly one after another.
+     * @since 3.7
+     */
+    ConfigEntry<Integer> getBatchesInFlightEntry() {
+        return get(CFG_KEY_BATCHES_IN_FLIGHT, Integer.class);
+    }
+
+    /**
+     * @return the number of workers that execute the network in parallel, each with its own execution session. A
+     *         value of one means that a single session processes all rows.
+     * @since 3.7
+     */
+    ConfigEntry<Integer> getNumWorkersEntry() {
+        return get(CFG_KEY_NUM_WORKERS, Integer.class);
+    }
+
+    /**
+     * @return whether the statistics of the execution sessions are pushed as flow variables
+     * @since 3.7
+     */
+    ConfigEntry<Boolean> getStatisticsFlowVariablesEntry() {
+        return get(CFG_KEY_STATISTICS_FLOW_VARIABLES, Boolean.class);
+    }
+
 
     static Collection<DLExecutionContext<?>> getAvailableExecutionContexts(Class<? extends DLNetwork> networkType) {
         return DLExecutionContextRegistry.getInstance().getExecutionContextsForNetworkType(networkType);
@@ -92,8 +92,14 @@ class DLExecutorGeneralPanel extends AbstractGridBagDialogComponentGroup {
 		    
 		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
 		    m_cfg.getBatchSizeEntry(), 1, Integer.MAX_VALUE), "Input batch size", 100);
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+		    m_cfg.getBatchesInFlightEntry(), 1, Integer.MAX_VALUE), "Batches in flight", 1);
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+		    m_cfg.getNumWorkersEntry(), 1, Integer.MAX_VALUE), "Parallel workers", 1);
 		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getKeepInputColumnsEntry()),
 		    "Keep input columns in output table", true);
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getStatisticsFlowVariablesEntry()),
+		    "Output execution statistics as flow variables", true);
 	}
 	
 
@@ -57,6 +57,7 @@
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalLong;
@@ -93,6 +94,7 @@
 import org.knime.core.util.UniqueNameGenerator;
 import org.knime.dl.base.nodes.DLConfigurationUtility;
 import org.knime.dl.base.nodes.DLTensorRole;
+import org.knime.dl.base.nodes.executor.DLExecutorParallelExecution.DLExecutorWorker;
 import org.knime.dl.base.portobjects.DLNetworkPortObject;
 import org.knime.dl.base.portobjects.DLNetworkPortObjectSpec;
 import org.knime.dl.base.settings.DLDataTypeColumnFilter;
@@ -107,8 +109,10 @@
 import org.knime.dl.core.DLNetworkSpec;
 import org.knime.dl.core.DLNotCancelable;
 import org.knime.dl.core.DLRowInputRowIterator;
+import org.knime.dl.core.DLSessionStatistics;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
 import org.knime.dl.core.execution.DLDefaultExecutionStatus;
@@ -199,13 +203,17 @@ static SettingsModelStringArray createOutputOrderSettingsModel(final int outputs
 
 	@Override
 	public InputPortRole[] getInputPortRoles() {
+		// Rows are processed independently of each other, so the data input can be split into partitions that are
+		// executed concurrently, each by its own execution session. Streamed partitions do not know their size, so
+		// their sessions execute batches until the partition is exhausted. Sessions of the same back end only share
+		// warm Python kernels and the networks loaded therein if kernel pooling is enabled (see DLPythonKernelPool).
 		return new InputPortRole[] { InputPortRole.NONDISTRIBUTED_NONSTREAMABLE,
-				InputPortRole.NONDISTRIBUTED_STREAMABLE };
+				InputPortRole.DISTRIBUTED_STREAMABLE };
 	}
 
 	@Override
 	public OutputPortRole[] getOutputPortRoles() {
-		return new OutputPortRole[] { OutputPortRole.NONDISTRIBUTED };
+		return new OutputPortRole[] { OutputPortRole.DISTRIBUTED };
 	}
 
 	@Override
@@ -220,6 +228,10 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final
 				final RowInput rowInput = (RowInput) inputs[IN_DATA_PORT_IDX];
 				final RowOutput rowOutput = (RowOutput) outputs[OUT_DATA_PORT_IDX];
 
+				if (partitionInfo.getPartitionCount() > 1) {
+					LOGGER.debug("Executing partition " + (partitionInfo.getPartitionIndex() + 1) + " of "
+							+ partitionInfo.getPartitionCount() + ".");
+				}
 				executeInternal(portObject, rowInput, rowOutput, exec);
 			}
 		};
@@ -537,6 +549,8 @@ private DataTableSpec createOutputSpec(final DataTableSpec inDataSpec) {
 	@SuppressWarnings("unchecked")
 	private <N extends DLNetwork> void executeInternal(final PortObject portObject, final RowInput rowInput,
 			final RowOutput rowOutput, final ExecutionContext exec) throws Exception {
+		// NB: port objects synchronize the (potentially lazy) loading of their network, partitions may get here
+		// concurrently
 		final N network = (N) ((DLNetworkPortObject) portObject).getNetwork();
 		final DLNetworkSpec networkSpec = network.getSpec();
 		final DataTableSpec inDataSpec = rowInput.getDataTableSpec();
@@ -564,6 +578,10 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
 
 		final boolean keepInputColumns = m_generalCfg.getKeepInputColumnsEntry().getValue();
 
+		final int numBatchesInFlight = m_generalCfg.getBatchesInFlightEntry().getValue();
+
+		final int numWorkers = m_generalCfg.getNumWorkersEntry().getValue();
+
 		// assign input column indices to network inputs
 		final LinkedHashMap<DLTensorId, int[]> columnsForTensorId = new LinkedHashMap<>(m_inputConverters.size());
 		final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId = new LinkedHashMap<>(
@@ -574,17 +592,27 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
 		final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId =
             createOutputConverterMap();
 
-		try (final DLRowInputRowIterator rowIterator = new DLRowInputRowIterator(rowInput, columnsForTensorId);
-				final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
-						rowIterator, batchSize, isPredefinedBatchSize, inputConverterForTensorId);
-				final DLKnimeNetworkOutputConsumer outputConsumer = new DLKnimeNetworkOutputConsumer(rowOutput,
-						inputPreparer.getBaseRows()::remove, keepInputColumns, outputConverterForTensorId, exec);
-				final DLNetworkExecutionSession session = ctx.createExecutionSession(network,
-						DLExecutionSpecCreator.createExecutionSpecs(rowIterator.peek(), ctx.getTensorFactory(),
-								batchSize, columnsForTensorId, m_inputConverters),
-						outputConverterForTensorId.keySet(), inputPreparer, outputConsumer)) {
-			final DLKnimeExecutionMonitor monitor = createExecutionMonitor(exec, inputPreparer);
-			session.run(monitor);
+		final Map<DLTensorId, DLTransferPrecision> transferPrecisionForTensorId = createTransferPrecisionMap();
+
+		// shared by all workers
+		final DLSessionStatistics statistics = new DLSessionStatistics();
+
+		final DLExecutorWorker worker = (in, out, e) -> executeSession(ctx, network, in, out, e, batchSize,
+				isPredefinedBatchSize, keepInputColumns, numBatchesInFlight, columnsForTensorId,
+				inputConverterForTensorId, outputConverterForTensorId, transferPrecisionForTensorId, statistics);
+		try {
+			if (numWorkers > 1) {
+				// chunks of whole batches, enough to keep each worker's batches in flight busy
+				final int chunkSize = (int) Math.min((long) batchSize * numBatchesInFlight, Integer.MAX_VALUE);
+				new DLExecutorParallelExecution(numWorkers, chunkSize).execute(rowInput, rowOutput, exec, worker);
+			} else {
+				worker.execute(rowInput, rowOutput, exec);
+			}
+			LOGGER.debug("Execution statistics:\n" + statistics);
+			if (m_generalCfg.getStatisticsFlowVariablesEntry().getValue()) {
+				statistics.toMap().forEach((name, value) -> pushFlowVariableDouble(
+						DLSessionStatistics.FLOW_VARIABLE_PREFIX + name, value));
+			}
 		} catch (final CanceledExecutionException | DLCanceledExecutionException e) {
 			throw e;
 		} catch (final Exception e) {
@@ -592,6 +620,35 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
 		}
 	}
 
+	private <N extends DLNetwork> void executeSession(final DLExecutionContext<N> ctx, final N network,
+			final RowInput rowInput, final RowOutput rowOutput, final ExecutionContext exec, final int batchSize,
+			final boolean isPredefinedBatchSize, final boolean keepInputColumns, final int numBatchesInFlight,
+			final LinkedHashMap<DLTensorId, int[]> columnsForTensorId,
+			final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId,
+			final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId,
+			final Map<DLTensorId, DLTransferPrecision> transferPrecisionForTensorId,
+			final DLSessionStatistics statistics) throws Exception {
+		try (final DLRowInputRowIterator rowIterator = new DLRowInputRowIterator(rowInput, columnsForTensorId)) {
+			if (!rowIterator.hasNext()) {
+				// may happen in parallel execution if there are fewer chunks than workers
+				rowOutput.close();
+				return;
+			}
+			try (final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
+					rowIterator, batchSize, isPredefinedBatchSize, inputConverterForTensorId);
+					final DLKnimeNetworkOutputConsumer outputConsumer = new DLKnimeNetworkOutputConsumer(rowOutput,
+							inputPreparer.getBaseRows()::remove, keepInputColumns, outputConverterForTensorId, exec);
+					final DLNetworkExecutionSession session = ctx.createExecutionSession(network,
+							DLExecutionSpecCreator.createExecutionSpecs(rowIterator.peek(), ctx.getTensorFactory(),
+									batchSize, columnsForTensorId, m_inputConverters),
+							outputConverterForTensorId.keySet(), inputPreparer, outputConsumer, numBatchesInFlight)) {
+				inputPreparer.setTransferPrecisions(transferPrecisionForTensorId);
+				final DLKnimeExecutionMonitor monitor = createExecutionMonitor(exec, inputPreparer, statistics);
+				session.run(monitor);
+			}
+		}
+	}
+
     private LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> createOutputConverterMap() {
         final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId = new LinkedHashMap<>(
 				m_outputConverters.size());
@@ -602,6 +659,17 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
         return outputConverterForTensorId;
     }
 
+    private Map<DLTensorId, DLTransferPrecision> createTransferPrecisionMap() {
+        final Map<DLTensorId, DLTransferPrecision> transferPrecisionForTensorId =
+            new HashMap<>(m_inputConverters.size());
+        for (final DLTensorSpec inputSpec : m_inputConverters.keySet()) {
+            final DLExecutorInputConfig inputCfg = getInputConfig(inputSpec.getIdentifier(), inputSpec.getName());
+            transferPrecisionForTensorId.put(inputSpec.getIdentifier(),
+                inputCfg.getTransferPrecisionEntry().getValue());
+        }
+        return transferPrecisionForTensorId;
+    }
+
     private void fillInputSpecificMaps(final DataTableSpec inDataSpec,
         final LinkedHashMap<DLTensorId, int[]> columnsForTensorId,
         final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId) {
@@ -646,8 +714,8 @@ private static void handleGeneralException(final Exception e) throws CanceledExe
     }
 
     private static DLKnimeExecutionMonitor createExecutionMonitor(final ExecutionContext exec,
-        final DLKnimeNetworkExecutionInputPreparer inputPreparer) {
-        final DLExecutionStatus status = createExecutionStatus(inputPreparer);
+        final DLKnimeNetworkExecutionInputPreparer inputPreparer, final DLSessionStatistics statistics) {
+        final DLExecutionStatus status = createExecutionStatus(inputPreparer, statistics);
         final DLKnimeExecutionMonitor monitor = new DLKnimeExecutionMonitor(exec, status);
         monitor.getExecutionStatus().batchEnded().addListener((src, v) -> {
         	final int currBatch = status.getCurrentBatch() + 1;
@@ -662,15 +730,16 @@ private static DLKnimeExecutionMonitor createExecutionMonitor(final ExecutionCon
         return monitor;
     }
 
-	private static DLExecutionStatus createExecutionStatus(final DLKnimeNetworkExecutionInputPreparer inputPreparer) {
+	private static DLExecutionStatus createExecutionStatus(final DLKnimeNetworkExecutionInputPreparer inputPreparer,
+			final DLSessionStatistics statistics) {
 	    int numBatches = -1;
         try {
             numBatches = (int) inputPreparer.getNumBatches();
         } catch (final UnsupportedOperationException ex) {
             // ignore - we now know that we don't know the number of batches
         }
-        return numBatches != -1 ? new DLDefaultExecutionStatus(numBatches)
-                : new DLDefaultExecutionStatus();
+        return numBatches != -1 ? new DLDefaultExecutionStatus(numBatches, statistics)
+                : new DLDefaultExecutionStatus(statistics);
 	}
 
 	// workaround; when changing code here, also update DLExecutorInputPanel#getAllowedInputColumnType
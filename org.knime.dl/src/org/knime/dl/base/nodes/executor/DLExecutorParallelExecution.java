@@ -0,0 +1,312 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.base.nodes.executor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.streamable.DataTableRowInput;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+
+/**
+ * Executes a network with several workers in parallel. Each worker runs its own execution session (and therefore, for
+ * Python back ends, its own Python process with its own copy of the network). The input rows are split into chunks
+ * which are distributed among the workers in a round-robin fashion. The outputs of the workers are merged back in the
+ * original row order.
+ * <P>
+ * Chunks are multiples of the batch size such that each batch of a worker consists of rows of a single chunk. Input
+ * queues are bounded to limit the number of rows that are held in memory, output queues are unbounded such that a
+ * worker never waits for the merging of another worker's outputs.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLExecutorParallelExecution {
+
+    /**
+     * Executes a network for the rows of a {@link RowInput} and writes one output row per input row to a
+     * {@link RowOutput}.
+     */
+    @FunctionalInterface
+    interface DLExecutorWorker {
+
+        void execute(RowInput input, RowOutput output, ExecutionContext exec) throws Exception;
+    }
+
+    /**
+     * Marks the end of a worker's input. Compared by identity.
+     */
+    private static final DataRow END_OF_INPUT = new DefaultRow("end_of_input", new DataCell[0]);
+
+    private static final long POLL_TIMEOUT = 100; // in ms
+
+    private final int m_numWorkers;
+
+    private final int m_chunkSize;
+
+    /**
+     * @param numWorkers the number of workers, must be greater than one
+     * @param chunkSize the number of consecutive rows that are processed by the same worker, should be a multiple of
+     *            the batch size
+     */
+    DLExecutorParallelExecution(final int numWorkers, final int chunkSize) {
+        checkArgument(numWorkers > 1, "Number of workers must be greater than one but was %s.", numWorkers);
+        checkArgument(chunkSize > 0, "Chunk size must be greater than zero but was %s.", chunkSize);
+        m_numWorkers = numWorkers;
+        m_chunkSize = chunkSize;
+    }
+
+    /**
+     * Distributes the rows of the given input among the workers and merges their outputs into the given output. Closes
+     * both input and output.
+     */
+    void execute(final RowInput input, final RowOutput output, final ExecutionContext exec,
+        final DLExecutorWorker worker) throws Exception {
+        final long numRows = input instanceof DataTableRowInput ? ((DataTableRowInput)input).getRowCount() : -1;
+        final DataTableSpec inSpec = input.getDataTableSpec();
+        final List<BlockingQueue<DataRow>> inQueues = new ArrayList<>(m_numWorkers);
+        final List<BlockingQueue<DataRow>> outQueues = new ArrayList<>(m_numWorkers);
+        // sizes of the dispatched chunks in dispatch order, -1 marks the end of the input
+        final BlockingQueue<Integer> chunkSizes = new LinkedBlockingQueue<>();
+        final List<Future<?>> workers = new ArrayList<>(m_numWorkers);
+        final AtomicInteger threadIndex = new AtomicInteger();
+        final ExecutorService threads = Executors.newFixedThreadPool(m_numWorkers + 1,
+            r -> new Thread(r, "DL-Network-Execution-Worker-" + threadIndex.getAndIncrement()));
+        try {
+            for (int i = 0; i < m_numWorkers; i++) {
+                final BlockingQueue<DataRow> inQueue = new LinkedBlockingQueue<>(2 * m_chunkSize);
+                final BlockingQueue<DataRow> outQueue = new LinkedBlockingQueue<>();
+                inQueues.add(inQueue);
+                outQueues.add(outQueue);
+                final ExecutionContext workerExec = exec.createSilentSubExecutionContext(0);
+                workers.add(threads.submit(() -> {
+                    worker.execute(new DLQueueRowInput(inSpec, inQueue), new DLQueueRowOutput(outQueue), workerExec);
+                    return null;
+                }));
+            }
+            final Future<?> dispatcher = threads.submit(() -> {
+                dispatch(input, inQueues, chunkSizes);
+                return null;
+            });
+            long numMerged = 0;
+            for (int chunk = 0;; chunk++) {
+                final Integer chunkSize = poll(chunkSizes, dispatcher, workers, exec);
+                if (chunkSize == -1) {
+                    break;
+                }
+                final int workerIdx = chunk % m_numWorkers;
+                for (int i = 0; i < chunkSize; i++) {
+                    output.push(poll(outQueues.get(workerIdx), workers.get(workerIdx), workers, exec));
+                }
+                numMerged += chunkSize;
+                if (numRows > 0) {
+                    exec.setProgress(numMerged / (double)numRows,
+                        "Processed row " + numMerged + " of " + numRows + "...");
+                } else {
+                    exec.setMessage("Processed row " + numMerged + "...");
+                }
+            }
+            for (final Future<?> w : workers) {
+                get(w);
+            }
+        } finally {
+            threads.shutdownNow();
+            try {
+                threads.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            input.close();
+            output.close();
+        }
+    }
+
+    private void dispatch(final RowInput input, final List<BlockingQueue<DataRow>> inQueues,
+        final BlockingQueue<Integer> chunkSizes) throws InterruptedException {
+        int chunk = 0;
+        int numRowsInChunk = 0;
+        DataRow row;
+        while ((row = input.poll()) != null) {
+            inQueues.get(chunk % m_numWorkers).put(row);
+            if (++numRowsInChunk == m_chunkSize) {
+                chunkSizes.put(numRowsInChunk);
+                chunk++;
+                numRowsInChunk = 0;
+            }
+        }
+        if (numRowsInChunk > 0) {
+            chunkSizes.put(numRowsInChunk);
+        }
+        for (final BlockingQueue<DataRow> inQueue : inQueues) {
+            inQueue.put(END_OF_INPUT);
+        }
+        chunkSizes.put(-1);
+    }
+
+    /**
+     * Waits for the next element of the given queue while watching the producer of the queue and the workers for
+     * failures and checking for cancellation.
+     */
+    private static <T> T poll(final BlockingQueue<T> queue, final Future<?> producer, final List<Future<?>> workers,
+        final ExecutionContext exec) throws Exception {
+        while (true) {
+            final T element = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            if (element != null) {
+                return element;
+            }
+            exec.checkCanceled();
+            for (final Future<?> w : workers) {
+                if (w.isDone()) {
+                    get(w);
+                }
+            }
+            if (producer.isDone()) {
+                get(producer);
+                final T last = queue.poll();
+                if (last != null) {
+                    return last;
+                }
+                throw new IllegalStateException(
+                    "Parallel execution ended unexpectedly. A worker did not produce an output for each input row.");
+            }
+        }
+    }
+
+    private static void get(final Future<?> future) throws Exception {
+        try {
+            future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CanceledExecutionException("Execution was interrupted.");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class DLQueueRowInput extends RowInput {
+
+        private final DataTableSpec m_spec;
+
+        private final BlockingQueue<DataRow> m_queue;
+
+        private boolean m_ended = false;
+
+        private DLQueueRowInput(final DataTableSpec spec, final BlockingQueue<DataRow> queue) {
+            m_spec = checkNotNull(spec);
+            m_queue = checkNotNull(queue);
+        }
+
+        @Override
+        public DataTableSpec getDataTableSpec() {
+            return m_spec;
+        }
+
+        @Override
+        public DataRow poll() throws InterruptedException {
+            if (m_ended) {
+                return null;
+            }
+            final DataRow row = m_queue.take();
+            if (row == END_OF_INPUT) {
+                m_ended = true;
+                return null;
+            }
+            return row;
+        }
+
+        @Override
+        public void close() {
+            // the queue is owned by the parallel execution
+        }
+    }
+
+    private static final class DLQueueRowOutput extends RowOutput {
+
+        private final BlockingQueue<DataRow> m_queue;
+
+        private DLQueueRowOutput(final BlockingQueue<DataRow> queue) {
+            m_queue = checkNotNull(queue);
+        }
+
+        @Override
+        public void push(final DataRow row) throws InterruptedException {
+            m_queue.put(row);
+        }
+
+        @Override
+        public void setInactive() {
+            // not applicable
+        }
+
+        @Override
+        public void close() {
+            // the queue is owned by the parallel execution
+        }
+    }
+}
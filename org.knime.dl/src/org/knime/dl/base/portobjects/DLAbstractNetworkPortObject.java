@@ -156,7 +156,7 @@ protected DLAbstractNetworkPortObject() {
     protected abstract N getNetworkInternal(S spec) throws DLInvalidSourceException, IOException;
 
     @Override
-    public final N getNetwork() throws DLInvalidSourceException, IOException {
+    public final synchronized N getNetwork() throws DLInvalidSourceException, IOException {
         if (m_network == null) {
             try {
                 m_network = getNetworkInternal(m_spec);
@@ -0,0 +1,167 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.base.portobjects;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.util.DLUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Content-addressed registry of network files that were copied to file stores. Copying the same network (e.g. a large
+ * pretrained model) to several file stores creates hard links to the first copy instead of copying the content again
+ * where the file system supports it. Each file store still owns a separate directory entry, so deleting a file store
+ * (e.g. on node reset) does not affect the others. Network files in file stores are not modified after they have been
+ * written which makes sharing their content safe.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+final class DLNetworkFileStoreContents {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLNetworkFileStoreContents.class);
+
+    /**
+     * Maps content hashes to file store files holding that content. Entries whose file store has been deleted in the
+     * meantime are detected and replaced upon lookup.
+     */
+    private static final Cache<String, DLStoredContent> CONTENTS = CacheBuilder.newBuilder().maximumSize(100).build();
+
+    private DLNetworkFileStoreContents() {
+        // utility class
+    }
+
+    /**
+     * Copies a single file from the given source to the given destination, deduplicating the content if possible.
+     */
+    static void copy(final URI source, final File destination) throws IOException {
+        final URL sourceURL = source.toURL();
+        File sourceFile = null;
+        try {
+            sourceFile = FileUtil.getFileFromURL(sourceURL);
+        } catch (final Exception e) {
+            // Unknown protocol or remote source, fall back to streaming.
+        }
+        if (sourceFile == null || !sourceFile.isFile()) {
+            try (InputStream in = sourceURL.openStream();
+                    OutputStream out = Files.newOutputStream(destination.toPath())) {
+                FileUtil.copy(in, out);
+            }
+            return;
+        }
+        final Optional<String> contentHash = DLUtils.Files.getContentHash(source);
+        if (contentHash.isPresent()) {
+            final DLStoredContent storedContent = CONTENTS.getIfPresent(contentHash.get());
+            if (storedContent != null && storedContent.isUnchanged() && tryLink(storedContent.m_file, destination)) {
+                LOGGER.debug("Network file '" + sourceFile + "' was linked to file store '" + destination
+                    + "' instead of being copied.");
+                return;
+            }
+        }
+        copyFile(sourceFile, destination);
+        if (contentHash.isPresent()) {
+            CONTENTS.put(contentHash.get(), new DLStoredContent(destination));
+        }
+    }
+
+    private static boolean tryLink(final File existing, final File destination) {
+        try {
+            Files.deleteIfExists(destination.toPath());
+            Files.createLink(destination.toPath(), existing.toPath());
+            return true;
+        } catch (final IOException | UnsupportedOperationException | SecurityException e) {
+            // E.g. the file stores are located on different file systems or the file system does not support links.
+            LOGGER.debug("Network file store '" + existing + "' could not be linked to '" + destination
+                + "', falling back to copying.", e);
+            return false;
+        }
+    }
+
+    private static void copyFile(final File source, final File destination) throws IOException {
+        try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(destination.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long size = in.size();
+            long position = 0;
+            while (position < size) {
+                // transferTo may transfer less than requested, e.g. if the channels are backed by large files.
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private static final class DLStoredContent {
+
+        private final File m_file;
+
+        private final long m_length;
+
+        private final long m_lastModified;
+
+        private DLStoredContent(final File file) {
+            m_file = file;
+            m_length = file.length();
+            m_lastModified = file.lastModified();
+        }
+
+        private boolean isUnchanged() {
+            return m_file.isFile() && m_file.length() == m_length && m_file.lastModified() == m_lastModified;
+        }
+    }
+}
@@ -49,11 +49,8 @@
 package org.knime.dl.base.portobjects;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
-import java.net.URL;
 import java.util.UUID;
 
 import javax.swing.JComponent;
@@ -65,7 +62,6 @@
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.port.PortTypeRegistry;
 import org.knime.core.util.DuplicateKeyException;
-import org.knime.core.util.FileUtil;
 import org.knime.dl.core.DLInvalidSourceException;
 import org.knime.dl.core.DLNetwork;
 
@@ -120,7 +116,9 @@ public static FileStore createFileStoreForSaving(final String ext, final Executi
 	}
 
 	/**
-	 * Copies a single file (no directory) from a source URL to a destination file store.
+	 * Copies a single file (no directory) from a source URL to a destination file store. If the same content has
+	 * already been copied to another file store, the destination is hard-linked to that file store's file where the
+	 * file system supports it.
 	 *
 	 * @param fileSource the source URL
 	 * @param destination the file store
@@ -128,16 +126,14 @@ public static FileStore createFileStoreForSaving(final String ext, final Executi
 	 */
     public static void copyFileToFileStore(final URI fileSource, final FileStore destination) throws IOException {
 		final File file = destination.getFile();
-        final URL fileSourceURL = fileSource.toURL();
-        if (!file.toURI().toURL().equals(fileSourceURL)) {
-            try (InputStream in = fileSourceURL.openStream(); FileOutputStream out = new FileOutputStream(file)) {
-				FileUtil.copy(in, out);
-			}
+        if (!file.toURI().toURL().equals(fileSource.toURL())) {
+            DLNetworkFileStoreContents.copy(fileSource, file);
 		}
 	}
 
 	/**
-	 * Returns the contained {@link DLNetwork}.
+	 * Returns the contained {@link DLNetwork}. May be called concurrently, e.g. by the partitions of a distributed
+	 * streaming execution, so implementations that load the network lazily must synchronize the loading.
 	 *
 	 * @return the network
 	 * @throws DLInvalidSourceException if network source has become unavailable or invalid
@@ -49,8 +49,10 @@
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
 import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 
 /**
@@ -70,11 +72,41 @@
      */
     public static final String CFG_KEY_INPUT_COL = "input_columns";
 
+    /**
+     * Config key for the transfer precision
+     *
+     * @since 3.7
+     */
+    public static final String CFG_KEY_TRANSFER_PRECISION = "transfer_precision";
+
     /**
      * @see DLAbstractIOConfig
      */
     public DLAbstractInputConfig(final DLTensorId tensorId, final String tensorName, final C generalCfg) {
         super(tensorId, tensorName, generalCfg);
+        put(new AbstractStandardConfigEntry<DLTransferPrecision>(CFG_KEY_TRANSFER_PRECISION, DLTransferPrecision.class,
+            DLTransferPrecision.FULL) {
+
+            @Override
+            protected void saveEntry(final NodeSettingsWO settings) throws InvalidSettingsException {
+                settings.addString(getEntryKey(), m_value.getIdentifier());
+            }
+
+            @Override
+            protected void loadEntry(final NodeSettingsRO settings) throws InvalidSettingsException {
+                final String identifier = settings.getString(getEntryKey());
+                m_value = DLTransferPrecision.fromIdentifier(identifier)
+                    .orElseThrow(() -> new InvalidSettingsException("Transfer precision '" + identifier
+                        + "' of network input '" + getTensorNameOrId() + "' is not supported."));
+            }
+
+            @Override
+            protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+                // backward compatibility (3.6): transfer in full precision as we previously did
+                m_value = DLTransferPrecision.FULL;
+                return true;
+            }
+        });
     }
 
     private DataColumnSpecFilterConfiguration getInputColumnConfig() {
@@ -115,4 +147,9 @@ public ConfigEntry<DataColumnSpecFilterConfiguration> getInputColumnsEntry() {
         return get(CFG_KEY_INPUT_COL, DataColumnSpecFilterConfiguration.class);
     }
 
+    @Override
+    public ConfigEntry<DLTransferPrecision> getTransferPrecisionEntry() {
+        return get(CFG_KEY_TRANSFER_PRECISION, DLTransferPrecision.class);
+    }
+
 }
\ No newline at end of file
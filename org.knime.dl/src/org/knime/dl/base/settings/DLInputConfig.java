@@ -47,6 +47,7 @@
 package org.knime.dl.base.settings;
 
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 
 /**
@@ -57,5 +58,11 @@ public interface DLInputConfig <C extends DLGeneralConfig<?>> extends DLIOConfig
     public ConfigEntry<DLDataValueToTensorConverterFactory<?, ?>> getConverterEntry();
 
     public ConfigEntry<DataColumnSpecFilterConfiguration> getInputColumnsEntry();
+
+    /**
+     * @return the precision in which the input is transferred to the back end
+     * @since 3.7
+     */
+    public ConfigEntry<DLTransferPrecision> getTransferPrecisionEntry();
     
 }
@@ -49,13 +49,20 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.nio.BufferOverflowException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
 
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLBulkDataValueToTensorConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 
@@ -71,6 +78,16 @@ public abstract class DLAbstractKnimeNetworkInputPreparer implements DLNetworkIn
 
 	protected final Map<DLTensorId, DLDataValueToTensorConverter<?, ?>> m_converters;
 
+	/**
+	 * The columns of each tensor if all converters support {@link DLBulkDataValueToTensorConverter bulk conversion},
+	 * <code>null</code> otherwise.
+	 */
+	private final Map<DLTensorId, int[]> m_bulkColumns;
+
+	private final Set<DLTensorId> m_sparseTensors;
+
+	private Map<DLTensorId, DLTransferPrecision> m_transferPrecisions = Collections.emptyMap();
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}.
@@ -83,9 +100,45 @@ public DLAbstractKnimeNetworkInputPreparer(final DLRowIterator iterator, final i
 		m_iterator = checkNotNull(iterator);
 		m_batchSize = batchSize;
 		m_converters = new HashMap<>(checkNotNull(converters).size());
+		final Set<DLTensorId> sparseTensors = new HashSet<>(2);
 		for (final Entry<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converter : converters.entrySet()) {
 			m_converters.put(converter.getKey(), converter.getValue().createConverter());
+			if (converter.getValue().isSparse()) {
+				sparseTensors.add(converter.getKey());
+			}
+		}
+		m_sparseTensors = Collections.unmodifiableSet(sparseTensors);
+		Map<DLTensorId, int[]> bulkColumns = new HashMap<>(m_converters.size());
+		for (final Entry<DLTensorId, DLDataValueToTensorConverter<?, ?>> converter : m_converters.entrySet()) {
+			final Optional<int[]> columns = m_iterator.getColumns(converter.getKey());
+			if (!(converter.getValue() instanceof DLBulkDataValueToTensorConverter) || !columns.isPresent()) {
+				bulkColumns = null;
+				break;
+			}
+			bulkColumns.put(converter.getKey(), columns.get());
 		}
+		m_bulkColumns = bulkColumns;
+	}
+
+	@Override
+	public Set<DLTensorId> getSparseTensors() {
+		return m_sparseTensors;
+	}
+
+	@Override
+	public Map<DLTensorId, DLTransferPrecision> getTransferPrecisions() {
+		return m_transferPrecisions;
+	}
+
+	/**
+	 * Sets the precision in which each prepared tensor should be transferred to the back end. Tensors that are not
+	 * contained in the map are transferred in {@link DLTransferPrecision#FULL full precision}.
+	 *
+	 * @param transferPrecisions the transfer precisions per tensor
+	 * @since 3.7
+	 */
+	public void setTransferPrecisions(final Map<DLTensorId, DLTransferPrecision> transferPrecisions) {
+		m_transferPrecisions = Collections.unmodifiableMap(new HashMap<>(checkNotNull(transferPrecisions)));
 	}
 
 	@Override
@@ -115,7 +168,46 @@ protected final void writeDataValuesInTensors(final Map<DLTensorId, List<DataVal
 	}
 
 	/**
-	 * Thrown by {@link DLAbstractKnimeNetworkInputPreparer#writeDataValuesInTensors(Map, Map)} if a
+	 * Writes the given rows in the tensors, one after another. If all converters support
+	 * {@link DLBulkDataValueToTensorConverter bulk conversion}, the cells are read directly from the rows and each
+	 * tensor is filled in one go. Otherwise, this is equivalent to calling
+	 * {@link #writeDataValuesInTensors(Map, Map)} for each row grouped by {@link DLRowIterator#groupByTensor(DataRow)}.
+	 *
+	 * @param rows the rows which to write in the tensors
+	 * @param tensors the tensors in which to write the rows
+	 * @throws DLBufferOverflowExceptionForTensor if writing in a tensor exceeds its buffer's capacity. The affected
+	 *             tensor can be retrieved via {@link DLBufferOverflowExceptionForTensor#getTensor()}.
+	 * @throws DLInvalidNetworkInputException if a cell of one of the rows is missing
+	 * @since 3.7
+	 */
+	protected final void writeRowsInTensors(final List<DataRow> rows,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors)
+			throws DLBufferOverflowExceptionForTensor {
+		if (m_bulkColumns == null) {
+			for (final DataRow row : rows) {
+				writeDataValuesInTensors(m_iterator.groupByTensor(row), tensors);
+			}
+			return;
+		}
+		for (final DataRow row : rows) {
+			m_iterator.checkForMissingCells(row);
+		}
+		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : tensors.entrySet()) {
+			final DLTensorId identifier = entry.getKey();
+			final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+			final DLBulkDataValueToTensorConverter converter =
+					(DLBulkDataValueToTensorConverter) m_converters.get(identifier);
+			try {
+				converter.convertBulk(rows, m_bulkColumns.get(identifier), tensor);
+			} catch (final BufferOverflowException ex) {
+				throw new DLBufferOverflowExceptionForTensor(ex, tensor);
+			}
+		}
+	}
+
+	/**
+	 * Thrown by {@link DLAbstractKnimeNetworkInputPreparer#writeDataValuesInTensors(Map, Map)} and
+	 * {@link DLAbstractKnimeNetworkInputPreparer#writeRowsInTensors(List, Map)} if a
 	 * <code>BufferOverflowException</code> occurs while filling a tensor.
 	 */
 	protected static class DLBufferOverflowExceptionForTensor extends Exception {
@@ -54,6 +54,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
@@ -102,4 +103,21 @@ public final Map<DLTensorId, List<DataValue>> groupByTensor(final DataRow row) {
 		}
 		return m_temp;
 	}
+
+	@Override
+	public Optional<int[]> getColumns(final DLTensorId id) {
+		return Optional.ofNullable(m_columns.get(id));
+	}
+
+	@Override
+	public void checkForMissingCells(final DataRow row) {
+		for (final int[] columns : m_columns.values()) {
+			for (final int column : columns) {
+				if (row.getCell(column).isMissing()) {
+					throw new DLInvalidNetworkInputException("Missing cell in input row '" + row.getKey()
+							+ "', column '" + m_tableSpec.getColumnSpec(column).getName() + "'.");
+				}
+			}
+		}
+	}
 }
@@ -46,8 +46,11 @@
  */
 package org.knime.dl.core;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.DLWritableBuffer;
 
 /**
@@ -61,6 +64,38 @@ public interface DLNetworkInputPreparer extends AutoCloseable {
 	 */
 	long getNumBatches();
 
+	/**
+	 * Returns whether there is a batch with the given index that can be {@link #prepare(Map, long) prepared}. Unlike
+	 * {@link #getNumBatches()}, this is also supported if the preparer has no size information, e.g. when streaming.
+	 * Must only be called for the batch that follows the last prepared batch and from the thread that prepares the
+	 * batches.
+	 *
+	 * @param batchIndex the index of the batch
+	 * @return true if the batch exists
+	 * @since 3.7
+	 */
+	default boolean hasBatch(final long batchIndex) {
+		return batchIndex < getNumBatches();
+	}
+
 	void prepare(Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, long batchIndex)
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException;
+
+	/**
+	 * @return the precision in which each prepared tensor should be transferred to the back end. Tensors that are not
+	 *         contained in the map are transferred in {@link DLTransferPrecision#FULL full precision}.
+	 * @since 3.7
+	 */
+	default Map<DLTensorId, DLTransferPrecision> getTransferPrecisions() {
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * @return the ids of the prepared tensors that should be created with sparse buffers, see
+	 *         {@link DLTensorFactory#createWritableSparseTensor(DLTensorSpec)}. All other tensors are dense.
+	 * @since 3.7
+	 */
+	default Set<DLTensorId> getSparseTensors() {
+		return Collections.emptySet();
+	}
 }
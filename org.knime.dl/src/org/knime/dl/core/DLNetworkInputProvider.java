@@ -46,8 +46,11 @@
  */
 package org.knime.dl.core;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.DLWritableBuffer;
 
 /**
@@ -60,4 +63,48 @@ public interface DLNetworkInputProvider extends AutoCloseable {
 
 	Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(long batchIndex)
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException;
+
+	/**
+	 * Creates a set of tensors that is independent of the tensors returned by {@link #get(long)}. Allows to hold
+	 * several prepared batches at the same time, see {@link #prepare(long, Map)}. The caller is responsible for closing
+	 * the tensors.
+	 *
+	 * @return the tensors
+	 * @throws UnsupportedOperationException if the provider does not support this
+	 * @since 3.7
+	 */
+	default Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createTensors() {
+		throw new UnsupportedOperationException("Input provider does not support creating additional tensors.");
+	}
+
+	/**
+	 * Prepares the batch with the given index in the given tensors instead of the ones returned by {@link #get(long)}.
+	 *
+	 * @param batchIndex the index of the batch
+	 * @param tensors tensors created by {@link #createTensors()}
+	 * @throws UnsupportedOperationException if the provider does not support this
+	 * @since 3.7
+	 */
+	default void prepare(final long batchIndex, final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors)
+			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+		throw new UnsupportedOperationException("Input provider does not support preparing additional tensors.");
+	}
+
+	/**
+	 * @return the precision in which each provided tensor should be transferred to the back end. Tensors that are not
+	 *         contained in the map are transferred in {@link DLTransferPrecision#FULL full precision}.
+	 * @since 3.7
+	 */
+	default Map<DLTensorId, DLTransferPrecision> getTransferPrecisions() {
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * @return the ids of the provided tensors that should be created with sparse buffers, see
+	 *         {@link DLTensorFactory#createWritableSparseTensor(DLTensorSpec)}. All other tensors are dense.
+	 * @since 3.7
+	 */
+	default Set<DLTensorId> getSparseTensors() {
+		return Collections.emptySet();
+	}
 }
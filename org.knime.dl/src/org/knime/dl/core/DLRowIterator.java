@@ -50,6 +50,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
@@ -80,6 +81,27 @@ public interface DLRowIterator extends Iterator<DataRow>, AutoCloseable {
 	 */
 	Map<DLTensorId, List<DataValue>> groupByTensor(DataRow row);
 
+	/**
+	 * Returns the indices of the columns that are grouped into the given tensor by {@link #groupByTensor(DataRow)}.
+	 * The returned array must not be modified.
+	 *
+	 * @return the column indices or an empty optional if the iterator does not expose them
+	 * @since 3.7
+	 */
+	default Optional<int[]> getColumns(final DLTensorId id) {
+		return Optional.empty();
+	}
+
+	/**
+	 * Checks the given row for missing cells in any of the columns that are grouped into tensors.
+	 *
+	 * @throws DLInvalidNetworkInputException if a relevant cell of the row is missing
+	 * @since 3.7
+	 */
+	default void checkForMissingCells(final DataRow row) {
+		groupByTensor(row);
+	}
+
 	/**
 	 * @throws UnsupportedOperationException if the iterator does not support reset, e.g. when streaming
 	 */
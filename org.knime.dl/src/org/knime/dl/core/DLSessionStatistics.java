@@ -0,0 +1,337 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records how long the stages of an execution or training session take. Per stage, the latencies are kept in a
+ * histogram of logarithmically sized buckets (relative error below 12.5%) along with the number of bytes that were
+ * moved. The bytes are those that the transport actually moved, e.g. after serialization or reduction of the
+ * transfer precision, not the logical size of the tensors. Recording is cheap and thread-safe, so a single instance
+ * can be shared by all sessions of a node, e.g. by parallel execution workers.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public final class DLSessionStatistics {
+
+	/**
+	 * The prefix of the names of the flow variables that nodes push the {@link #toMap() statistics} of their sessions
+	 * as, if configured to do so. The remainder of the names are the keys of the map.
+	 */
+	public static final String FLOW_VARIABLE_PREFIX = "dl_";
+
+	/**
+	 * The stages of a session whose latencies are recorded.
+	 */
+	public enum Stage {
+
+		/**
+		 * Reading the input rows and converting them into tensors.
+		 */
+		PREPARE_INPUT("prepare_input", "Input preparation"),
+
+		/**
+		 * Serializing the input tensors and sending them to the back end.
+		 */
+		TRANSFER_INPUT("transfer_input", "Input transfer"),
+
+		/**
+		 * Executing (or training) the network on a batch in the back end.
+		 */
+		EXECUTE("execute", "Network execution"),
+
+		/**
+		 * Receiving the output tensors from the back end and deserializing them.
+		 */
+		TRANSFER_OUTPUT("transfer_output", "Output transfer"),
+
+		/**
+		 * Converting the output tensors into data cells.
+		 */
+		CONSUME_OUTPUT("consume_output", "Output consumption");
+
+		private final String m_identifier;
+
+		private final String m_name;
+
+		private Stage(final String identifier, final String name) {
+			m_identifier = identifier;
+			m_name = name;
+		}
+
+		/**
+		 * @return the identifier of the stage, suitable as part of flow variable names
+		 */
+		public String getIdentifier() {
+			return m_identifier;
+		}
+
+		/**
+		 * @return the friendly name of the stage
+		 */
+		public String getName() {
+			return m_name;
+		}
+	}
+
+	/**
+	 * Latencies below this value (in nanoseconds) are recorded exactly.
+	 */
+	private static final int NUM_LINEAR_BUCKETS = 16;
+
+	/**
+	 * Each power of two above {@link #NUM_LINEAR_BUCKETS} is split into this many buckets.
+	 */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int NUM_BUCKETS = NUM_LINEAR_BUCKETS + (63 - 4) * (1 << SUB_BUCKET_BITS);
+
+	private final Map<Stage, StageHistogram> m_histograms = new EnumMap<>(Stage.class);
+
+	private long m_numRows;
+
+	private long m_firstStartNanos = Long.MAX_VALUE;
+
+	private long m_lastEndNanos = Long.MIN_VALUE;
+
+	/**
+	 * Records that a stage has taken the given time.
+	 *
+	 * @param stage the stage
+	 * @param nanos the duration of the stage in nanoseconds
+	 * @param bytes the number of bytes that were moved during the stage, zero if not applicable
+	 */
+	public synchronized void record(final Stage stage, final long nanos, final long bytes) {
+		final long end = System.nanoTime();
+		m_firstStartNanos = Math.min(m_firstStartNanos, end - nanos);
+		m_lastEndNanos = Math.max(m_lastEndNanos, end);
+		m_histograms.computeIfAbsent(stage, s -> new StageHistogram()).record(Math.max(nanos, 0), bytes);
+	}
+
+	/**
+	 * Convenience method that records the time that passed since the given start time.
+	 *
+	 * @param stage the stage
+	 * @param startNanos the start of the stage as obtained via {@link System#nanoTime()}
+	 * @param bytes the number of bytes that were moved during the stage, zero if not applicable
+	 */
+	public void recordSince(final Stage stage, final long startNanos, final long bytes) {
+		record(stage, System.nanoTime() - startNanos, bytes);
+	}
+
+	/**
+	 * Records that the given number of rows passed through the session.
+	 *
+	 * @param numRows the number of rows
+	 */
+	public synchronized void recordRows(final long numRows) {
+		m_numRows += numRows;
+	}
+
+	/**
+	 * @return the number of rows that passed through the session
+	 */
+	public synchronized long getNumRows() {
+		return m_numRows;
+	}
+
+	/**
+	 * @return the number of rows per second from the start of the first recorded stage until the end of the last
+	 *         recorded stage, zero if nothing was recorded yet
+	 */
+	public synchronized double getRowsPerSecond() {
+		final long elapsed = m_lastEndNanos - m_firstStartNanos;
+		return elapsed > 0 ? m_numRows / (elapsed / 1e9) : 0d;
+	}
+
+	/**
+	 * @param stage the stage
+	 * @return the number of times the stage was recorded
+	 */
+	public synchronized long getCount(final Stage stage) {
+		final StageHistogram histogram = m_histograms.get(stage);
+		return histogram != null ? histogram.m_count : 0;
+	}
+
+	/**
+	 * @param stage the stage
+	 * @return the accumulated duration of the stage in nanoseconds
+	 */
+	public synchronized long getTotalNanos(final Stage stage) {
+		final StageHistogram histogram = m_histograms.get(stage);
+		return histogram != null ? histogram.m_totalNanos : 0;
+	}
+
+	/**
+	 * @param stage the stage
+	 * @return the number of bytes that were moved during the stage
+	 */
+	public synchronized long getBytes(final Stage stage) {
+		final StageHistogram histogram = m_histograms.get(stage);
+		return histogram != null ? histogram.m_bytes : 0;
+	}
+
+	/**
+	 * @param stage the stage
+	 * @param percentile the percentile, between zero and one hundred
+	 * @return an upper bound of the given latency percentile of the stage in nanoseconds, zero if the stage was not
+	 *         recorded yet
+	 */
+	public synchronized long getPercentileNanos(final Stage stage, final double percentile) {
+		final StageHistogram histogram = m_histograms.get(stage);
+		return histogram != null ? histogram.getPercentile(percentile) : 0;
+	}
+
+	/**
+	 * Returns the main statistics of all recorded stages: the total, median, 90th and 99th percentile latencies in
+	 * milliseconds, the number of megabytes moved and the number of rows per second. The keys are in the form of
+	 * <code>&lt;stage identifier&gt;_&lt;statistic&gt;</code>, e.g. <code>execute_p99_ms</code>.
+	 *
+	 * @return the statistics in a stable iteration order
+	 */
+	public synchronized Map<String, Double> toMap() {
+		final Map<String, Double> map = new LinkedHashMap<>();
+		for (final Stage stage : Stage.values()) {
+			final StageHistogram histogram = m_histograms.get(stage);
+			if (histogram == null) {
+				continue;
+			}
+			final String prefix = stage.getIdentifier() + "_";
+			map.put(prefix + "total_ms", histogram.m_totalNanos / 1e6);
+			map.put(prefix + "p50_ms", histogram.getPercentile(50) / 1e6);
+			map.put(prefix + "p90_ms", histogram.getPercentile(90) / 1e6);
+			map.put(prefix + "p99_ms", histogram.getPercentile(99) / 1e6);
+			if (histogram.m_bytes > 0) {
+				map.put(prefix + "mb", histogram.m_bytes / (1024d * 1024d));
+			}
+		}
+		map.put("rows_per_second", getRowsPerSecond());
+		return map;
+	}
+
+	@Override
+	public synchronized String toString() {
+		final StringBuilder b = new StringBuilder();
+		for (final Stage stage : Stage.values()) {
+			final StageHistogram histogram = m_histograms.get(stage);
+			if (histogram == null) {
+				continue;
+			}
+			b.append(String.format("%s: %d x, total %.1f ms, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms", stage.getName(),
+					histogram.m_count, histogram.m_totalNanos / 1e6, histogram.getPercentile(50) / 1e6,
+					histogram.getPercentile(90) / 1e6, histogram.getPercentile(99) / 1e6));
+			if (histogram.m_bytes > 0) {
+				b.append(String.format(", %.1f MB", histogram.m_bytes / (1024d * 1024d)));
+			}
+			b.append('\n');
+		}
+		b.append(String.format("%d rows, %.1f rows/s", m_numRows, getRowsPerSecond()));
+		return b.toString();
+	}
+
+	static int getBucketIndex(final long nanos) {
+		if (nanos < NUM_LINEAR_BUCKETS) {
+			return (int) nanos;
+		}
+		final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+		return NUM_LINEAR_BUCKETS + ((exponent - 4) << SUB_BUCKET_BITS) + subBucket;
+	}
+
+	/**
+	 * @return the largest value that falls into the bucket with the given index
+	 */
+	static long getBucketUpperBound(final int index) {
+		if (index < NUM_LINEAR_BUCKETS) {
+			return index;
+		}
+		final int exponent = ((index - NUM_LINEAR_BUCKETS) >>> SUB_BUCKET_BITS) + 4;
+		final long subBucket = (index - NUM_LINEAR_BUCKETS) & ((1 << SUB_BUCKET_BITS) - 1);
+		final long lowerBound = (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+		return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	private static final class StageHistogram {
+
+		private final long[] m_buckets = new long[NUM_BUCKETS];
+
+		private long m_count;
+
+		private long m_totalNanos;
+
+		private long m_maxNanos;
+
+		private long m_bytes;
+
+		private void record(final long nanos, final long bytes) {
+			m_buckets[getBucketIndex(nanos)]++;
+			m_count++;
+			m_totalNanos += nanos;
+			m_maxNanos = Math.max(m_maxNanos, nanos);
+			m_bytes += bytes;
+		}
+
+		private long getPercentile(final double percentile) {
+			if (m_count == 0) {
+				return 0;
+			}
+			final long rank = Math.max(1, (long) Math.ceil(percentile / 100d * m_count));
+			long seen = 0;
+			for (int i = 0; i < m_buckets.length; i++) {
+				seen += m_buckets[i];
+				if (seen >= rank) {
+					// never report more than what was actually observed
+					return Math.min(getBucketUpperBound(i), m_maxNanos);
+				}
+			}
+			return m_maxNanos;
+		}
+	}
+}
@@ -75,6 +75,18 @@ public interface DLTensorFactory {
 	 */
 	DLTensor<? extends DLWritableBuffer> createWritableTensor(DLTensorSpec spec);
 
+	/**
+	 * Creates a writable tensor whose buffer only stores the non-zero elements written to it, if the factory supports
+	 * sparse storage for the given spec. The default implementation falls back to
+	 * {@link #createWritableTensor(DLTensorSpec) dense storage}.
+	 *
+	 * @throws IllegalArgumentException if failed to create a tensor due to invalid arguments
+	 * @since 3.7
+	 */
+	default DLTensor<? extends DLWritableBuffer> createWritableSparseTensor(final DLTensorSpec spec) {
+		return createWritableTensor(spec);
+	}
+
 	/**
 	 * @throws IllegalArgumentException if failed to create a tensor due to invalid arguments
 	 */
@@ -0,0 +1,373 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongFunction;
+
+import org.knime.core.data.util.memory.MemoryAlert;
+import org.knime.core.data.util.memory.MemoryAlertListener;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.data.DLBuffer;
+
+/**
+ * Keeps the buffers of closed tensors such that later tensors of the same size class can reuse them instead of
+ * allocating new storage. This saves repeated allocations of large batch buffers if networks are executed or trained
+ * back-to-back, e.g. in loops.
+ * <P>
+ * A size class is defined by the concrete type of a buffer and its exact capacity (the capacity must match exactly as
+ * input preparers rely on it to detect overflows). Tensors created via
+ * {@link #createTensor(DLTensorSpec, long, Class, long, LongFunction)} lease a buffer of their size class from the pool
+ * and return it when they are closed. Returned buffers are {@link DLBuffer#reset() reset}, their contents are not
+ * cleared. All idle buffers are released if the {@link MemoryAlertSystem} reports low memory.
+ * <P>
+ * The pool is disabled by default. Its size (the maximum number of idle buffers per size class) can be specified via
+ * VM option {@link #TENSOR_POOL_SIZE_VM_OPT}.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLTensorPool {
+
+	/**
+	 * @see #getMaxIdleBuffersPerSizeClass()
+	 */
+	public static final String TENSOR_POOL_SIZE_VM_OPT = "knime.dl.tensorpoolsize";
+
+	/**
+	 * @see #getMaxIdleBuffersPerSizeClass()
+	 */
+	public static final int TENSOR_POOL_DEFAULT_SIZE = 0;
+
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLTensorPool.class);
+
+	private static DLTensorPool instance;
+
+	/**
+	 * @return the instance of this class
+	 */
+	public static synchronized DLTensorPool getInstance() {
+		if (instance == null) {
+			instance = new DLTensorPool(parseMaxIdleBuffersPerSizeClass());
+		}
+		return instance;
+	}
+
+	private static int parseMaxIdleBuffersPerSizeClass() {
+		int size = -1;
+		try {
+			size = Integer
+					.parseInt(System.getProperty(TENSOR_POOL_SIZE_VM_OPT, Integer.toString(TENSOR_POOL_DEFAULT_SIZE)));
+		} catch (final NumberFormatException ex) {
+			// Ignore, see below.
+		}
+		if (size < 0) {
+			size = TENSOR_POOL_DEFAULT_SIZE;
+			LOGGER.warn("The VM option -D" + TENSOR_POOL_SIZE_VM_OPT
+					+ " was not set to a non-negative integer value, and thus defaults to " + size + ".");
+		}
+		return size;
+	}
+
+	private final int m_maxIdleBuffersPerSizeClass;
+
+	private final Map<DLSizeClass, Deque<DLBuffer>> m_idleBuffers = new HashMap<>();
+
+	private long m_hits;
+
+	private long m_misses;
+
+	private long m_returns;
+
+	private long m_discards;
+
+	private long m_trims;
+
+	/**
+	 * Package-private for testing. Use {@link #getInstance()} otherwise.
+	 *
+	 * @param maxIdleBuffersPerSizeClass the maximum number of idle buffers that are kept per size class
+	 */
+	DLTensorPool(final int maxIdleBuffersPerSizeClass) {
+		m_maxIdleBuffersPerSizeClass = maxIdleBuffersPerSizeClass;
+		if (isEnabled()) {
+			MemoryAlertSystem.getInstance().addListener(new MemoryAlertListener() {
+				@Override
+				protected boolean memoryAlert(final MemoryAlert alert) {
+					trim();
+					return false;
+				}
+			});
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if buffers are pooled at all, i.e. if {@link #getMaxIdleBuffersPerSizeClass()} is
+	 *         greater than zero
+	 */
+	public boolean isEnabled() {
+		return m_maxIdleBuffersPerSizeClass > 0;
+	}
+
+	/**
+	 * @return the maximum number of idle buffers that are kept per size class, can be specified by the user via VM
+	 *         option {@link #TENSOR_POOL_SIZE_VM_OPT}, defaults to {@link #TENSOR_POOL_DEFAULT_SIZE}
+	 */
+	public int getMaxIdleBuffersPerSizeClass() {
+		return m_maxIdleBuffersPerSizeClass;
+	}
+
+	/**
+	 * Creates a tensor whose buffer is leased from the pool if an idle buffer of the requested size class is available
+	 * and created via the given factory otherwise. The buffer is returned to the pool when the tensor is closed. If the
+	 * pool is disabled, this is equivalent to creating a {@link DLDefaultTensor} with a newly created buffer.
+	 *
+	 * @param spec the spec of the tensor
+	 * @param exampleSize the example size of the tensor
+	 * @param bufferType the concrete type of the buffer, part of the size class
+	 * @param capacity the capacity of the buffer, part of the size class
+	 * @param bufferFactory creates a buffer of the given type and capacity if none can be leased
+	 * @return the tensor
+	 */
+	public <B extends DLBuffer> DLTensor<B> createTensor(final DLTensorSpec spec, final long exampleSize,
+			final Class<B> bufferType, final long capacity, final LongFunction<? extends B> bufferFactory) {
+		if (!isEnabled()) {
+			return new DLDefaultTensor<>(spec, bufferFactory.apply(capacity), exampleSize);
+		}
+		final DLSizeClass sizeClass = new DLSizeClass(bufferType, capacity);
+		final DLBuffer idle;
+		synchronized (this) {
+			final Deque<DLBuffer> idleBuffers = m_idleBuffers.get(sizeClass);
+			// most recently used first, its storage is more likely to still be in the cache
+			idle = idleBuffers != null ? idleBuffers.pollLast() : null;
+			if (idle != null) {
+				m_hits++;
+			} else {
+				m_misses++;
+			}
+		}
+		final B buffer = idle != null ? bufferType.cast(idle) : bufferFactory.apply(capacity);
+		return new DLPooledTensor<>(spec, buffer, exampleSize, sizeClass);
+	}
+
+	/**
+	 * Releases all idle buffers. Buffers that are currently leased are returned to the pool as usual once their tensor
+	 * is closed.
+	 */
+	public void trim() {
+		final List<DLBuffer> toClose = new ArrayList<>();
+		synchronized (this) {
+			m_idleBuffers.values().forEach(toClose::addAll);
+			m_idleBuffers.clear();
+			m_trims += toClose.size();
+		}
+		if (!toClose.isEmpty()) {
+			LOGGER.debug("Releasing " + toClose.size() + " idle pooled tensor buffer(s). " + getStatistics());
+			toClose.forEach(DLBuffer::close);
+		}
+	}
+
+	/**
+	 * @return a snapshot of the statistics of this pool
+	 */
+	public synchronized DLTensorPoolStatistics getStatistics() {
+		int numIdle = 0;
+		for (final Deque<DLBuffer> idleBuffers : m_idleBuffers.values()) {
+			numIdle += idleBuffers.size();
+		}
+		return new DLTensorPoolStatistics(m_hits, m_misses, m_returns, m_discards, m_trims, numIdle);
+	}
+
+	private void release(final DLSizeClass sizeClass, final DLBuffer buffer) {
+		buffer.reset();
+		synchronized (this) {
+			final Deque<DLBuffer> idleBuffers = m_idleBuffers.computeIfAbsent(sizeClass, c -> new ArrayDeque<>());
+			if (idleBuffers.size() < m_maxIdleBuffersPerSizeClass) {
+				idleBuffers.addLast(buffer);
+				m_returns++;
+				return;
+			}
+			m_discards++;
+		}
+		buffer.close();
+	}
+
+	/**
+	 * Immutable snapshot of the statistics of a {@link DLTensorPool}.
+	 */
+	public static final class DLTensorPoolStatistics {
+
+		private final long m_hits;
+
+		private final long m_misses;
+
+		private final long m_returns;
+
+		private final long m_discards;
+
+		private final long m_trims;
+
+		private final int m_numIdle;
+
+		private DLTensorPoolStatistics(final long hits, final long misses, final long returns, final long discards,
+				final long trims, final int numIdle) {
+			m_hits = hits;
+			m_misses = misses;
+			m_returns = returns;
+			m_discards = discards;
+			m_trims = trims;
+			m_numIdle = numIdle;
+		}
+
+		/**
+		 * @return the number of tensors whose buffer was leased from the pool
+		 */
+		public long getHits() {
+			return m_hits;
+		}
+
+		/**
+		 * @return the number of tensors whose buffer had to be newly created because no idle buffer of their size class
+		 *         was available
+		 */
+		public long getMisses() {
+			return m_misses;
+		}
+
+		/**
+		 * @return the number of buffers that were returned to the pool
+		 */
+		public long getReturns() {
+			return m_returns;
+		}
+
+		/**
+		 * @return the number of buffers that were released upon return because the pool was full
+		 */
+		public long getDiscards() {
+			return m_discards;
+		}
+
+		/**
+		 * @return the number of idle buffers that were released due to {@link DLTensorPool#trim() trimming}
+		 */
+		public long getTrims() {
+			return m_trims;
+		}
+
+		/**
+		 * @return the number of buffers that are currently idle
+		 */
+		public int getNumIdle() {
+			return m_numIdle;
+		}
+
+		@Override
+		public String toString() {
+			return "Tensor pool statistics: hits=" + m_hits + ", misses=" + m_misses + ", returns=" + m_returns
+					+ ", discards=" + m_discards + ", trims=" + m_trims + ", idle=" + m_numIdle;
+		}
+	}
+
+	private static final class DLSizeClass {
+
+		private final Class<?> m_bufferType;
+
+		private final long m_capacity;
+
+		private DLSizeClass(final Class<?> bufferType, final long capacity) {
+			m_bufferType = bufferType;
+			m_capacity = capacity;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(m_bufferType, m_capacity);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (obj == null || obj.getClass() != getClass()) {
+				return false;
+			}
+			final DLSizeClass other = (DLSizeClass) obj;
+			return other.m_bufferType.equals(m_bufferType) && other.m_capacity == m_capacity;
+		}
+	}
+
+	/**
+	 * Returns its buffer to the pool instead of closing it. Closing the tensor more than once has no further effect.
+	 */
+	private final class DLPooledTensor<B extends DLBuffer> extends DLAbstractTensor<B> {
+
+		private final DLSizeClass m_sizeClass;
+
+		private final AtomicBoolean m_closed = new AtomicBoolean(false);
+
+		private DLPooledTensor(final DLTensorSpec spec, final B buffer, final long exampleSize,
+				final DLSizeClass sizeClass) {
+			super(spec, buffer, exampleSize);
+			m_sizeClass = sizeClass;
+		}
+
+		@Override
+		public void close() {
+			if (m_closed.compareAndSet(false, true)) {
+				release(m_sizeClass, getBuffer());
+			}
+		}
+	}
+}
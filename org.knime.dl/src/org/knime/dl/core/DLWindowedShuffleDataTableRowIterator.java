@@ -0,0 +1,143 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.node.BufferedDataTable;
+
+/**
+ * Shuffles the rows of a data table within a sliding window (a "shuffle buffer") while streaming over the table. In
+ * contrast to {@link DLShuffleDataTableRowIterator}, the table is never rewritten: each {@link #reset() reset} simply
+ * streams over the original table again and only the rows within the window are kept in memory. The larger the window,
+ * the closer the result gets to a uniform shuffle of the whole table.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLWindowedShuffleDataTableRowIterator extends DLAbstractDataTableRowIterator {
+
+	private final Random m_random;
+
+	private final int m_windowSize;
+
+	/**
+	 * @param input the data table
+	 * @param columns a map specifying which columns belong to which tensor
+	 * @param seed seed for random number generator
+	 * @param windowSize the number of rows from which the next row is randomly drawn, must be greater than zero
+	 */
+	public DLWindowedShuffleDataTableRowIterator(final BufferedDataTable input, final Map<DLTensorId, int[]> columns,
+			final long seed, final int windowSize) {
+		super(input, columns);
+		checkArgument(windowSize > 0, "Shuffle window size must be greater than zero.");
+		m_random = new Random(seed);
+		// no need to buffer more rows than there are in the table
+		m_windowSize = (int) Math.min(windowSize, input.size());
+		m_iterator = makeNewIterator();
+	}
+
+	@Override
+	protected CloseableRowIterator makeNewIterator() {
+		return new WindowedShuffleRowIterator(getInputTable().iterator(), new Random(m_random.nextLong()),
+				m_windowSize);
+	}
+
+	private static final class WindowedShuffleRowIterator extends CloseableRowIterator {
+
+		private final CloseableRowIterator m_source;
+
+		private final Random m_random;
+
+		private final DataRow[] m_window;
+
+		private int m_numBuffered;
+
+		private WindowedShuffleRowIterator(final CloseableRowIterator source, final Random random,
+				final int windowSize) {
+			m_source = source;
+			m_random = random;
+			m_window = new DataRow[Math.max(windowSize, 1)];
+			while (m_numBuffered < m_window.length && m_source.hasNext()) {
+				m_window[m_numBuffered++] = m_source.next();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return m_numBuffered > 0;
+		}
+
+		@Override
+		public DataRow next() {
+			if (m_numBuffered == 0) {
+				throw new NoSuchElementException();
+			}
+			final int i = m_random.nextInt(m_numBuffered);
+			final DataRow row = m_window[i];
+			if (m_source.hasNext()) {
+				m_window[i] = m_source.next();
+			} else {
+				// source is exhausted, drain the window
+				m_window[i] = m_window[--m_numBuffered];
+				m_window[m_numBuffered] = null;
+			}
+			return row;
+		}
+
+		@Override
+		public void close() {
+			m_source.close();
+			m_numBuffered = 0;
+		}
+	}
+}
@@ -50,18 +50,32 @@
 
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
+import java.util.Arrays;
 
 /**
  * Bit type implementation of {@link DLWrappingDataBuffer}.
+ * <P>
+ * The bits are packed into the words of a <code>long</code> array, least significant bit first. That is, the bit at
+ * position <code>i</code> is stored in bit <code>i % 64</code> of word <code>i / 64</code>.
  *
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  * @author Adrian Nembach, KNIME GmbH, Konstanz, Germany
  * @author Benjamin Wilhelm, KNIME GmbH, Konstanz, Germany
  */
-public class DLDefaultBitBuffer extends DLAbstractFlatWrappingDataBuffer<boolean[]>
+public class DLDefaultBitBuffer extends DLAbstractFlatWrappingDataBuffer<long[]>
     implements DLWritableBitBuffer, DLReadableBitBuffer {
 
+    /**
+     * Returns the number of words that are needed to store the given number of bits.
+     *
+     * @param numBits the number of bits
+     * @return the number of words
+     */
+    public static int getNumWords(final long numBits) {
+        return (int)((numBits + Long.SIZE - 1) >>> 6);
+    }
+
     /**
      * Creates a new instance of this buffer.
      *
@@ -72,8 +86,9 @@ public DLDefaultBitBuffer(final long capacity) {
     }
 
     @Override
-    public void setStorage(final boolean[] storage, final long storageSize) throws IllegalArgumentException {
-        checkArgument(storage.length == m_capacity, "Input storage capacity does not match buffer capacity.");
+    public void setStorage(final long[] storage, final long storageSize) throws IllegalArgumentException {
+        checkArgument(storage.length == getNumWords(m_capacity),
+            "Input storage capacity does not match buffer capacity.");
         m_storage = storage;
         m_nextWrite = (int)storageSize;
         resetRead();
@@ -83,20 +98,36 @@ public void setStorage(final boolean[] storage, final long storageSize) throws I
     public void zeroPad(long length) throws IllegalArgumentException, BufferOverflowException {
         checkArgument(length > 0);
         checkOverflow(m_nextWrite + length <= m_capacity);
-        for (int i = 0; i < length; i++) {
-            m_storage[m_nextWrite++] = false;
+        final int end = (int)(m_nextWrite + length);
+        // clear the partial words at the boundaries bit by bit and the words in between at once
+        while (m_nextWrite < end && (m_nextWrite & 63) != 0) {
+            m_storage[m_nextWrite >>> 6] &= ~(1L << m_nextWrite);
+            m_nextWrite++;
+        }
+        final int fullWordsEnd = end & ~63;
+        if (m_nextWrite < fullWordsEnd) {
+            Arrays.fill(m_storage, m_nextWrite >>> 6, fullWordsEnd >>> 6, 0L);
+            m_nextWrite = fullWordsEnd;
+        }
+        while (m_nextWrite < end) {
+            m_storage[m_nextWrite >>> 6] &= ~(1L << m_nextWrite);
+            m_nextWrite++;
         }
     }
 
     @Override
     public boolean readNextBit() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++];
+        return getBit(m_nextRead++);
     }
 
     @Override
     public boolean[] toBitArray() {
-        return m_storage.clone();
+        final boolean[] tmp = new boolean[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i);
+        }
+        return tmp;
     }
 
     @Override
@@ -104,21 +135,46 @@ public void readToBitArray(boolean[] dest, int destPos, int length) {
         checkArgument(destPos >= 0);
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
-        System.arraycopy(m_storage, m_nextRead, dest, destPos, length);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = getBit(m_nextRead + i);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public void readToPackedByteArray(final byte[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        final int numBytes = (length + Byte.SIZE - 1) >>> 3;
+        for (int i = 0; i < numBytes; i += Long.BYTES) {
+            // reversing the word moves its first bit to the most significant position, i.e. the bytes can be taken
+            // from the most significant one downwards
+            final long reversed = Long.reverse(getWord(m_nextRead + i * Byte.SIZE));
+            final int n = Math.min(Long.BYTES, numBytes - i);
+            for (int j = 0; j < n; j++) {
+                dest[destPos + i + j] = (byte)(reversed >>> (Long.SIZE - Byte.SIZE * (j + 1)));
+            }
+        }
+        // clear trailing bits of the last byte that do not belong to the requested range
+        final int trailing = numBytes * Byte.SIZE - length;
+        if (trailing > 0) {
+            dest[destPos + numBytes - 1] &= (byte)(0xFF << trailing);
+        }
         m_nextRead += length;
     }
 
     @Override
     public byte readNextByte() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return (byte)(m_storage[m_nextRead++] ? 1 : 0);
+        return (byte)(getBit(m_nextRead++) ? 1 : 0);
     }
 
     @Override
     public byte[] toByteArray() {
-        final byte[] tmp = new byte[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = (byte)(m_storage[i] ? 1 : 0);
+        final byte[] tmp = new byte[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (byte)(getBit(i) ? 1 : 0);
         }
         return tmp;
     }
@@ -129,7 +185,7 @@ public void readToByteArray(byte[] dest, int destPos, int length) {
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = (byte)(m_storage[m_nextRead + i] ? 1 : 0);
+            dest[destPos + i] = (byte)(getBit(m_nextRead + i) ? 1 : 0);
         }
         m_nextRead += length;
     }
@@ -137,14 +193,14 @@ public void readToByteArray(byte[] dest, int destPos, int length) {
     @Override
     public short readNextShort() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return (short)(m_storage[m_nextRead++] ? 1 : 0);
+        return (short)(getBit(m_nextRead++) ? 1 : 0);
     }
 
     @Override
     public short[] toShortArray() {
-        final short[] tmp = new short[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = (short)(m_storage[i] ? 1 : 0);
+        final short[] tmp = new short[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (short)(getBit(i) ? 1 : 0);
         }
         return tmp;
     }
@@ -155,7 +211,7 @@ public void readToShortArray(short[] dest, int destPos, int length) {
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = (short)(m_storage[m_nextRead + i] ? 1 : 0);
+            dest[destPos + i] = (short)(getBit(m_nextRead + i) ? 1 : 0);
         }
         m_nextRead += length;
     }
@@ -163,14 +219,14 @@ public void readToShortArray(short[] dest, int destPos, int length) {
     @Override
     public int readNextInt() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++] ? 1 : 0;
+        return getBit(m_nextRead++) ? 1 : 0;
     }
 
     @Override
     public int[] toIntArray() {
-        final int[] tmp = new int[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = m_storage[i] ? 1 : 0;
+        final int[] tmp = new int[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) ? 1 : 0;
         }
         return tmp;
     }
@@ -181,7 +237,7 @@ public void readToIntArray(int[] dest, int destPos, int length) {
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = m_storage[m_nextRead + i] ? 1 : 0;
+            dest[destPos + i] = getBit(m_nextRead + i) ? 1 : 0;
         }
         m_nextRead += length;
     }
@@ -189,14 +245,14 @@ public void readToIntArray(int[] dest, int destPos, int length) {
     @Override
     public long readNextLong() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++] ? 1L : 0L;
+        return getBit(m_nextRead++) ? 1L : 0L;
     }
 
     @Override
     public long[] toLongArray() {
-        final long[] tmp = new long[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = m_storage[i] ? 1L : 0L;
+        final long[] tmp = new long[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) ? 1L : 0L;
         }
         return tmp;
     }
@@ -207,7 +263,7 @@ public void readToLongArray(long[] dest, int destPos, int length) {
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = m_storage[m_nextRead + i] ? 1L : 0L;
+            dest[destPos + i] = getBit(m_nextRead + i) ? 1L : 0L;
         }
         m_nextRead += length;
     }
@@ -215,14 +271,14 @@ public void readToLongArray(long[] dest, int destPos, int length) {
     @Override
     public float readNextFloat() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++] ? 1f : 0f;
+        return getBit(m_nextRead++) ? 1f : 0f;
     }
 
     @Override
     public float[] toFloatArray() {
-        final float[] tmp = new float[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = m_storage[i] ? 1f : 0f;
+        final float[] tmp = new float[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) ? 1f : 0f;
         }
         return tmp;
     }
@@ -233,7 +289,7 @@ public void readToFloatArray(float[] dest, int destPos, int length) {
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = m_storage[m_nextRead + i] ? 1f : 0f;
+            dest[destPos + i] = getBit(m_nextRead + i) ? 1f : 0f;
         }
         m_nextRead += length;
     }
@@ -241,14 +297,14 @@ public void readToFloatArray(float[] dest, int destPos, int length) {
     @Override
     public double readNextDouble() throws BufferUnderflowException {
         checkUnderflow(m_nextRead < m_nextWrite);
-        return m_storage[m_nextRead++] ? 1. : 0.;
+        return getBit(m_nextRead++) ? 1. : 0.;
     }
 
     @Override
     public double[] toDoubleArray() {
-        final double[] tmp = new double[m_storage.length];
-        for (int i = 0; i < m_storage.length; i++) {
-            tmp[i] = m_storage[i] ? 1. : 0.;
+        final double[] tmp = new double[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = getBit(i) ? 1. : 0.;
         }
         return tmp;
     }
@@ -259,7 +315,7 @@ public void readToDoubleArray(double[] dest, int destPos, int length) {
         checkArgument(length > 0);
         checkUnderflow(m_nextRead + length <= m_nextWrite);
         for (int i = 0; i < length; i++) {
-            dest[destPos + i] = m_storage[m_nextRead + i] ? 1. : 0.;
+            dest[destPos + i] = getBit(m_nextRead + i) ? 1. : 0.;
         }
         m_nextRead += length;
     }
@@ -267,18 +323,68 @@ public void readToDoubleArray(double[] dest, int destPos, int length) {
     @Override
     public void put(boolean value) throws BufferOverflowException {
         checkOverflow(m_nextWrite < m_capacity);
-        m_storage[m_nextWrite++] = value;
+        setBit(m_nextWrite++, value);
     }
 
     @Override
     public void putAll(boolean[] values) throws BufferOverflowException {
         checkOverflow(m_nextWrite + values.length <= m_capacity);
-        System.arraycopy(values, 0, m_storage, m_nextWrite, values.length);
+        for (int i = 0; i < values.length; i++) {
+            setBit(m_nextWrite + i, values[i]);
+        }
         m_nextWrite += values.length;
     }
 
     @Override
-    protected boolean[] createStorage() {
-        return new boolean[m_capacity];
+    public void putAllPacked(final long[] words, final long numBits) throws BufferOverflowException {
+        checkArgument(numBits >= 0 && getNumWords(numBits) <= words.length,
+            "Number of bits exceeds the number of given words.");
+        checkOverflow(m_nextWrite + numBits <= m_capacity);
+        final int offset = m_nextWrite & 63;
+        int wordIndex = m_nextWrite >>> 6;
+        for (int i = 0; i < getNumWords(numBits); i++) {
+            final int n = (int)Math.min(Long.SIZE, numBits - (long)i * Long.SIZE);
+            final long mask = n == Long.SIZE ? -1L : (1L << n) - 1;
+            final long bits = words[i] & mask;
+            m_storage[wordIndex] = (m_storage[wordIndex] & ~(mask << offset)) | (bits << offset);
+            if (offset + n > Long.SIZE) {
+                // the bits spill over into the next word
+                m_storage[wordIndex + 1] = (m_storage[wordIndex + 1] & ~(mask >>> (Long.SIZE - offset)))
+                    | (bits >>> (Long.SIZE - offset));
+            }
+            wordIndex++;
+        }
+        m_nextWrite += numBits;
+    }
+
+    @Override
+    protected long[] createStorage() {
+        return new long[getNumWords(m_capacity)];
+    }
+
+    private boolean getBit(final int index) {
+        return (m_storage[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private void setBit(final int index, final boolean value) {
+        if (value) {
+            m_storage[index >>> 6] |= 1L << index;
+        } else {
+            m_storage[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * @return the 64 bits starting at the given position, the first one being the least significant bit. Positions
+     *         beyond the storage are filled with zeros.
+     */
+    private long getWord(final int index) {
+        final int wordIndex = index >>> 6;
+        final int offset = index & 63;
+        long word = m_storage[wordIndex] >>> offset;
+        if (offset != 0 && wordIndex + 1 < m_storage.length) {
+            word |= m_storage[wordIndex + 1] << (Long.SIZE - offset);
+        }
+        return word;
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Double type implementation of {@link DLWrappingDataBuffer} whose storage lives off the Java heap. See
+ * {@link DLDefaultDirectFloatBuffer} for details.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public class DLDefaultDirectDoubleBuffer extends DLAbstractFlatWrappingDataBuffer<DoubleBuffer>
+		implements DLWritableDoubleBuffer, DLReadableDoubleBuffer {
+
+	/**
+	 * The maximum capacity of this buffer.
+	 */
+	public static final long MAX_CAPACITY = Integer.MAX_VALUE / Double.BYTES;
+
+	/**
+	 * Creates a new instance of this buffer.
+	 *
+	 * @param capacity the immutable capacity of the buffer, must not exceed {@link #MAX_CAPACITY}
+	 */
+	public DLDefaultDirectDoubleBuffer(final long capacity) {
+		super(checkCapacity(capacity));
+	}
+
+	private static long checkCapacity(final long capacity) {
+		checkArgument(capacity <= MAX_CAPACITY,
+				"Invalid input capacity. Buffer only supports capacities up to " + MAX_CAPACITY + ".");
+		return capacity;
+	}
+
+	@Override
+	public void setStorage(final DoubleBuffer storage, final long storageSize) throws IllegalArgumentException {
+		checkArgument(storage.capacity() == m_capacity, "Input storage capacity does not match buffer capacity.");
+		m_storage = storage;
+		m_nextWrite = (int) storageSize;
+		resetRead();
+	}
+
+	@Override
+	public double readNextDouble() throws BufferUnderflowException {
+		checkUnderflow(m_nextRead < m_nextWrite);
+		return m_storage.get(m_nextRead++);
+	}
+
+	@Override
+	public double[] toDoubleArray() {
+		final double[] tmp = new double[m_capacity];
+		view(0).get(tmp);
+		return tmp;
+	}
+
+	@Override
+	public void put(final boolean value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value ? 1d : 0d);
+	}
+
+	@Override
+	public void putAll(final boolean[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			m_storage.put(m_nextWrite++, values[i] ? 1d : 0d);
+		}
+	}
+
+	@Override
+	public void put(final byte value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value);
+	}
+
+	@Override
+	public void putAll(final byte[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			m_storage.put(m_nextWrite++, values[i]);
+		}
+	}
+
+	@Override
+	public void put(final double value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value);
+	}
+
+	@Override
+	public void putAll(final double[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		view(m_nextWrite).put(values);
+		m_nextWrite += values.length;
+	}
+
+	@Override
+	public void put(final float value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value);
+	}
+
+	@Override
+	public void putAll(final float[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			m_storage.put(m_nextWrite++, values[i]);
+		}
+	}
+
+	@Override
+	public void put(final int value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value);
+	}
+
+	@Override
+	public void putAll(final int[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			m_storage.put(m_nextWrite++, values[i]);
+		}
+	}
+
+	@Override
+	public void put(final short value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value);
+	}
+
+	@Override
+	public void putAll(final short[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			m_storage.put(m_nextWrite++, values[i]);
+		}
+	}
+
+	@Override
+	public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
+		checkArgument(length > 0);
+		checkOverflow(m_nextWrite + length <= m_capacity);
+		for (int i = 0; i < length; i++) {
+			m_storage.put(m_nextWrite++, 0.0);
+		}
+	}
+
+	@Override
+	protected DoubleBuffer createStorage() {
+		return ByteBuffer.allocateDirect(m_capacity * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+	}
+
+	@Override
+	public void readToDoubleArray(final double[] dest, final int destPos, final int length) {
+		checkArgument(destPos >= 0);
+		checkArgument(length > 0);
+		checkUnderflow(m_nextRead + length <= m_nextWrite);
+		view(m_nextRead).get(dest, destPos, length);
+		m_nextRead += length;
+	}
+
+	/**
+	 * Bulk operations on direct buffers are relative, thus we operate on a duplicate to keep the storage's position
+	 * untouched.
+	 */
+	private DoubleBuffer view(final int position) {
+		final DoubleBuffer view = m_storage.duplicate();
+		view.position(position);
+		return view;
+	}
+}
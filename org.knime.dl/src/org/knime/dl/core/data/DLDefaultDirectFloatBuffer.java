@@ -0,0 +1,224 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Float type implementation of {@link DLWrappingDataBuffer} whose storage lives off the Java heap. The storage is a
+ * direct {@link FloatBuffer} in native byte order which can be copied in bulk into other direct or mapped buffers
+ * without going through an intermediate array.
+ * <P>
+ * A single direct buffer cannot exceed 2^31-1 bytes, thus the capacity of this buffer is limited to
+ * {@link #MAX_CAPACITY}.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public class DLDefaultDirectFloatBuffer extends DLAbstractFlatWrappingDataBuffer<FloatBuffer>
+		implements DLWritableFloatBuffer, DLReadableFloatBuffer {
+
+	/**
+	 * The maximum capacity of this buffer.
+	 */
+	public static final long MAX_CAPACITY = Integer.MAX_VALUE / Float.BYTES;
+
+	/**
+	 * Creates a new instance of this buffer.
+	 *
+	 * @param capacity the immutable capacity of the buffer, must not exceed {@link #MAX_CAPACITY}
+	 */
+	public DLDefaultDirectFloatBuffer(final long capacity) {
+		super(checkCapacity(capacity));
+	}
+
+	private static long checkCapacity(final long capacity) {
+		checkArgument(capacity <= MAX_CAPACITY,
+				"Invalid input capacity. Buffer only supports capacities up to " + MAX_CAPACITY + ".");
+		return capacity;
+	}
+
+	@Override
+	public void setStorage(final FloatBuffer storage, final long storageSize) throws IllegalArgumentException {
+		checkArgument(storage.capacity() == m_capacity, "Input storage capacity does not match buffer capacity.");
+		m_storage = storage;
+		m_nextWrite = (int) storageSize;
+		resetRead();
+	}
+
+	@Override
+	public double readNextDouble() throws BufferUnderflowException {
+		checkUnderflow(m_nextRead < m_nextWrite);
+		return m_storage.get(m_nextRead++);
+	}
+
+	@Override
+	public double[] toDoubleArray() {
+		final double[] tmp = new double[m_capacity];
+		for (int i = 0; i < m_capacity; i++) {
+			tmp[i] = m_storage.get(i);
+		}
+		return tmp;
+	}
+
+	@Override
+	public float readNextFloat() throws BufferUnderflowException {
+		checkUnderflow(m_nextRead < m_nextWrite);
+		return m_storage.get(m_nextRead++);
+	}
+
+	@Override
+	public float[] toFloatArray() {
+		final float[] tmp = new float[m_capacity];
+		view(0).get(tmp);
+		return tmp;
+	}
+
+	@Override
+	public void put(final boolean value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value ? 1f : 0f);
+	}
+
+	@Override
+	public void putAll(final boolean[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			m_storage.put(m_nextWrite++, values[i] ? 1f : 0f);
+		}
+	}
+
+	@Override
+	public void put(final byte value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value);
+	}
+
+	@Override
+	public void putAll(final byte[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			m_storage.put(m_nextWrite++, values[i]);
+		}
+	}
+
+	@Override
+	public void put(final float value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value);
+	}
+
+	@Override
+	public void putAll(final float[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		view(m_nextWrite).put(values);
+		m_nextWrite += values.length;
+	}
+
+	@Override
+	public void put(final short value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		m_storage.put(m_nextWrite++, value);
+	}
+
+	@Override
+	public void putAll(final short[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			m_storage.put(m_nextWrite++, values[i]);
+		}
+	}
+
+	@Override
+	public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
+		checkArgument(length > 0);
+		checkOverflow(m_nextWrite + length <= m_capacity);
+		for (int i = 0; i < length; i++) {
+			m_storage.put(m_nextWrite++, 0.0f);
+		}
+	}
+
+	@Override
+	protected FloatBuffer createStorage() {
+		return ByteBuffer.allocateDirect(m_capacity * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+	}
+
+	@Override
+	public void readToDoubleArray(final double[] dest, final int destPos, final int length) {
+		checkArgument(destPos >= 0);
+		checkArgument(length > 0);
+		checkUnderflow(m_nextRead + length <= m_nextWrite);
+		for (int i = 0; i < length; i++) {
+			dest[destPos + i] = m_storage.get(m_nextRead + i);
+		}
+		m_nextRead += length;
+	}
+
+	@Override
+	public void readToFloatArray(final float[] dest, final int destPos, final int length) {
+		checkArgument(destPos >= 0);
+		checkArgument(length > 0);
+		checkUnderflow(m_nextRead + length <= m_nextWrite);
+		view(m_nextRead).get(dest, destPos, length);
+		m_nextRead += length;
+	}
+
+	/**
+	 * Bulk operations on direct buffers are relative, thus we operate on a duplicate to keep the storage's position
+	 * untouched.
+	 */
+	private FloatBuffer view(final int position) {
+		final FloatBuffer view = m_storage.duplicate();
+		view.position(position);
+		return view;
+	}
+}
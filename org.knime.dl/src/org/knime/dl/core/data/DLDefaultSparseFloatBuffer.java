@@ -0,0 +1,348 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.Arrays;
+
+/**
+ * Float type implementation of {@link DLWrappingDataBuffer} that only stores its non-zero values in coordinate format
+ * (COO), i.e. as pairs of position and value sorted by position. Memory consumption and transfer volume scale with the
+ * number of non-zero values instead of the capacity, which pays off for sparse data such as one-hot encodings or bit
+ * vectors. Dense writes are supported as well, zeros are skipped.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public class DLDefaultSparseFloatBuffer extends DLAbstractFlatWrappingDataBuffer<DLDefaultSparseFloatBuffer.Storage>
+		implements DLWritableFloatBuffer, DLReadableFloatBuffer, DLWritableSparseBuffer {
+
+	private static final int INITIAL_STORAGE_CAPACITY = 16;
+
+	/**
+	 * The index of the first non-zero value at or after the next read position.
+	 */
+	private int m_nextReadEntry = 0;
+
+	/**
+	 * Creates a new instance of this buffer.
+	 *
+	 * @param capacity the immutable capacity of the buffer
+	 */
+	public DLDefaultSparseFloatBuffer(final long capacity) {
+		super(capacity);
+	}
+
+	@Override
+	public void setStorage(final Storage storage, final long storageSize) throws IllegalArgumentException {
+		checkArgument(storageSize <= m_capacity, "Input storage size exceeds buffer capacity.");
+		checkArgument(storage.m_numEntries == 0 || storage.m_positions[storage.m_numEntries - 1] < storageSize,
+				"Input storage contains values beyond its size.");
+		m_storage = storage;
+		m_nextWrite = (int) storageSize;
+		resetRead();
+	}
+
+	/**
+	 * Inherited documentation: {@inheritDoc}
+	 * <P>
+	 * Non-zero values at or after <code>startPos</code> are discarded, the caller is expected to
+	 * {@link Storage#add(int, float) add} the values to write.
+	 */
+	@Override
+	public Storage getStorageForWriting(final long startPos, final long length) throws BufferOverflowException {
+		final Storage storage = super.getStorageForWriting(startPos, length);
+		storage.truncate((int) startPos);
+		return storage;
+	}
+
+	@Override
+	public void resetRead() {
+		super.resetRead();
+		m_nextReadEntry = 0;
+	}
+
+	@Override
+	public void resetWrite() {
+		super.resetWrite();
+		m_storage.truncate(0);
+	}
+
+	@Override
+	public double readNextDouble() throws BufferUnderflowException {
+		return readNextFloat();
+	}
+
+	@Override
+	public double[] toDoubleArray() {
+		final double[] tmp = new double[m_capacity];
+		for (int e = 0; e < m_storage.m_numEntries; e++) {
+			tmp[m_storage.m_positions[e]] = m_storage.m_values[e];
+		}
+		return tmp;
+	}
+
+	@Override
+	public float readNextFloat() throws BufferUnderflowException {
+		checkUnderflow(m_nextRead < m_nextWrite);
+		float value = 0f;
+		if (m_nextReadEntry < m_storage.m_numEntries && m_storage.m_positions[m_nextReadEntry] == m_nextRead) {
+			value = m_storage.m_values[m_nextReadEntry++];
+		}
+		m_nextRead++;
+		return value;
+	}
+
+	@Override
+	public float[] toFloatArray() {
+		final float[] tmp = new float[m_capacity];
+		for (int e = 0; e < m_storage.m_numEntries; e++) {
+			tmp[m_storage.m_positions[e]] = m_storage.m_values[e];
+		}
+		return tmp;
+	}
+
+	@Override
+	public void readToDoubleArray(final double[] dest, final int destPos, final int length) {
+		checkArgument(destPos >= 0);
+		checkArgument(length > 0);
+		checkUnderflow(m_nextRead + length <= m_nextWrite);
+		Arrays.fill(dest, destPos, destPos + length, 0d);
+		final int end = m_nextRead + length;
+		while (m_nextReadEntry < m_storage.m_numEntries && m_storage.m_positions[m_nextReadEntry] < end) {
+			dest[destPos + m_storage.m_positions[m_nextReadEntry] - m_nextRead] = m_storage.m_values[m_nextReadEntry];
+			m_nextReadEntry++;
+		}
+		m_nextRead = end;
+	}
+
+	@Override
+	public void readToFloatArray(final float[] dest, final int destPos, final int length) {
+		checkArgument(destPos >= 0);
+		checkArgument(length > 0);
+		checkUnderflow(m_nextRead + length <= m_nextWrite);
+		Arrays.fill(dest, destPos, destPos + length, 0f);
+		final int end = m_nextRead + length;
+		while (m_nextReadEntry < m_storage.m_numEntries && m_storage.m_positions[m_nextReadEntry] < end) {
+			dest[destPos + m_storage.m_positions[m_nextReadEntry] - m_nextRead] = m_storage.m_values[m_nextReadEntry];
+			m_nextReadEntry++;
+		}
+		m_nextRead = end;
+	}
+
+	@Override
+	public void put(final boolean value) throws BufferOverflowException {
+		put(value ? 1f : 0f);
+	}
+
+	@Override
+	public void putAll(final boolean[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			if (values[i]) {
+				m_storage.add(m_nextWrite, 1f);
+			}
+			m_nextWrite++;
+		}
+	}
+
+	@Override
+	public void put(final byte value) throws BufferOverflowException {
+		put((float) value);
+	}
+
+	@Override
+	public void putAll(final byte[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != 0) {
+				m_storage.add(m_nextWrite, values[i]);
+			}
+			m_nextWrite++;
+		}
+	}
+
+	@Override
+	public void put(final float value) throws BufferOverflowException {
+		checkOverflow(m_nextWrite < m_capacity);
+		if (value != 0f) {
+			m_storage.add(m_nextWrite, value);
+		}
+		m_nextWrite++;
+	}
+
+	@Override
+	public void putAll(final float[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != 0f) {
+				m_storage.add(m_nextWrite, values[i]);
+			}
+			m_nextWrite++;
+		}
+	}
+
+	@Override
+	public void put(final short value) throws BufferOverflowException {
+		put((float) value);
+	}
+
+	@Override
+	public void putAll(final short[] values) throws BufferOverflowException {
+		checkOverflow(m_nextWrite + values.length <= m_capacity);
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != 0) {
+				m_storage.add(m_nextWrite, values[i]);
+			}
+			m_nextWrite++;
+		}
+	}
+
+	@Override
+	public void putSparse(final long length, final int[] offsets, final float[] values, final int count)
+			throws IllegalArgumentException, BufferOverflowException {
+		checkArgument(length >= 0, "Length must not be negative.");
+		checkArgument(count <= offsets.length && (values == null || count <= values.length),
+				"Count exceeds the number of given offsets or values.");
+		checkOverflow(m_nextWrite + length <= m_capacity);
+		int previous = -1;
+		for (int i = 0; i < count; i++) {
+			final int offset = offsets[i];
+			checkArgument(offset > previous && offset < length,
+					"Offsets must be strictly increasing and less than the length (%s) but was %s.", length, offset);
+			previous = offset;
+			final float value = values != null ? values[i] : 1f;
+			if (value != 0f) {
+				m_storage.add(m_nextWrite + offset, value);
+			}
+		}
+		m_nextWrite += length;
+	}
+
+	@Override
+	public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
+		checkArgument(length > 0);
+		checkOverflow(m_nextWrite + length <= m_capacity);
+		m_nextWrite += length;
+	}
+
+	@Override
+	protected Storage createStorage() {
+		return new Storage();
+	}
+
+	/**
+	 * The storage of a {@link DLDefaultSparseFloatBuffer}: the positions and values of the buffer's non-zero values,
+	 * sorted by position. Grows on demand.
+	 */
+	public static final class Storage {
+
+		private int[] m_positions = new int[INITIAL_STORAGE_CAPACITY];
+
+		private float[] m_values = new float[INITIAL_STORAGE_CAPACITY];
+
+		private int m_numEntries = 0;
+
+		/**
+		 * @return the positions of the non-zero values, only the first {@link #getNumEntries()} are valid. Must not be
+		 *         modified.
+		 */
+		public int[] getPositions() {
+			return m_positions;
+		}
+
+		/**
+		 * @return the non-zero values, only the first {@link #getNumEntries()} are valid. Must not be modified.
+		 */
+		public float[] getValues() {
+			return m_values;
+		}
+
+		/**
+		 * @return the number of non-zero values
+		 */
+		public int getNumEntries() {
+			return m_numEntries;
+		}
+
+		/**
+		 * Returns the index of the first non-zero value whose position is greater than or equal to the given
+		 * position.
+		 *
+		 * @param position the position
+		 * @return the index of the entry, {@link #getNumEntries()} if there is no such entry
+		 */
+		public int getEntryIndex(final int position) {
+			final int index = Arrays.binarySearch(m_positions, 0, m_numEntries, position);
+			return index >= 0 ? index : -index - 1;
+		}
+
+		/**
+		 * Appends a value. Its position must be greater than the position of all previously added values.
+		 *
+		 * @param position the position of the value
+		 * @param value the value
+		 */
+		public void add(final int position, final float value) {
+			if (m_numEntries == m_positions.length) {
+				// stay below the maximum array size of most VMs
+				final int newLength = (int) Math.min(m_positions.length * 2L, Integer.MAX_VALUE - 8);
+				m_positions = Arrays.copyOf(m_positions, newLength);
+				m_values = Arrays.copyOf(m_values, newLength);
+			}
+			m_positions[m_numEntries] = position;
+			m_values[m_numEntries] = value;
+			m_numEntries++;
+		}
+
+		private void truncate(final int position) {
+			m_numEntries = getEntryIndex(position);
+		}
+	}
+}
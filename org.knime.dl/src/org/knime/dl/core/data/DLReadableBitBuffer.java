@@ -82,4 +82,16 @@ public interface DLReadableBitBuffer extends DLReadableByteBuffer {
      * @throws BufferUnderflowException if the buffer's {@link #size() size} is exceeded.
      */
     void readToBitArray(boolean[] dest, int destPos, int length);
+
+    /**
+     * Reads <b>length</b> values from the buffer and packs them into the <b>dest</b> array, eight values per byte and
+     * the first value in the most significant bit (which is the layout expected by <code>numpy.unpackbits</code>).
+     * Trailing bits of the last byte are zero.
+     *
+     * @param dest destination array, must provide at least <code>ceil(length / 8)</code> bytes from <b>destPos</b> on
+     * @param destPos position at which to start writing in <b>dest</b>
+     * @param length number of elements to read from the buffer
+     * @throws BufferUnderflowException if the buffer's {@link #size() size} is exceeded.
+     */
+    void readToPackedByteArray(byte[] dest, int destPos, int length);
 }
@@ -0,0 +1,168 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+package org.knime.dl.core.data;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Copies ranges of the storage of data buffers from and to flat byte buffers, e.g. memory-mapped files. Primitive
+ * elements are copied in the byte order of the byte buffer. Bits are copied as one byte (zero or one) per bit, their
+ * packing into words follows the layout of {@link DLDefaultBitBuffer}.
+ * <P>
+ * The copy methods do not change the position of the copied range's storage. Copying to or from a byte buffer starts
+ * at its current position.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public final class DLStorageCopier {
+
+    /**
+     * @param storage the off-heap storage of a double buffer
+     * @param start the index of the first element to copy
+     * @param length the number of elements to copy
+     * @param target the byte buffer to copy the elements to
+     */
+    public static void copyToBytes(final DoubleBuffer storage, final int start, final int length,
+        final ByteBuffer target) {
+        target.asDoubleBuffer().put(view(storage, start, length));
+    }
+
+    /**
+     * @param source the byte buffer to copy the elements from
+     * @param storage the off-heap storage of a double buffer
+     * @param start the index of the first element to copy
+     * @param length the number of elements to copy
+     */
+    public static void copyFromBytes(final ByteBuffer source, final DoubleBuffer storage, final int start,
+        final int length) {
+        final DoubleBuffer elements = source.asDoubleBuffer();
+        elements.limit(length);
+        view(storage, start, length).put(elements);
+    }
+
+    /**
+     * @param storage the off-heap storage of a float buffer
+     * @param start the index of the first element to copy
+     * @param length the number of elements to copy
+     * @param target the byte buffer to copy the elements to
+     */
+    public static void copyToBytes(final FloatBuffer storage, final int start, final int length,
+        final ByteBuffer target) {
+        target.asFloatBuffer().put(view(storage, start, length));
+    }
+
+    /**
+     * @param source the byte buffer to copy the elements from
+     * @param storage the off-heap storage of a float buffer
+     * @param start the index of the first element to copy
+     * @param length the number of elements to copy
+     */
+    public static void copyFromBytes(final ByteBuffer source, final FloatBuffer storage, final int start,
+        final int length) {
+        final FloatBuffer elements = source.asFloatBuffer();
+        elements.limit(length);
+        view(storage, start, length).put(elements);
+    }
+
+    /**
+     * Copies bits as one byte per bit. Advances the position of the target by the number of copied bits.
+     *
+     * @param words the storage of a bit buffer, see {@link DLDefaultBitBuffer}
+     * @param start the index of the first bit to copy
+     * @param length the number of bits to copy
+     * @param target the byte buffer to copy the bits to
+     */
+    public static void copyBitsToBytes(final long[] words, final int start, final int length,
+        final ByteBuffer target) {
+        for (int i = start; i < start + length; i++) {
+            target.put((byte)((words[i >>> 6] >>> i) & 1L));
+        }
+    }
+
+    /**
+     * Copies bits that are stored as one byte per bit, any non-zero byte is a set bit. Advances the position of the
+     * source by the number of copied bits.
+     *
+     * @param source the byte buffer to copy the bits from
+     * @param words the storage of a bit buffer, see {@link DLDefaultBitBuffer}
+     * @param start the index of the first bit to copy
+     * @param length the number of bits to copy
+     */
+    public static void copyBitsFromBytes(final ByteBuffer source, final long[] words, final int start,
+        final int length) {
+        for (int i = start; i < start + length; i++) {
+            if (source.get() != 0) {
+                words[i >>> 6] |= 1L << i;
+            } else {
+                words[i >>> 6] &= ~(1L << i);
+            }
+        }
+    }
+
+    /**
+     * Off-heap storages are copied in bulk, thus we limit a duplicate of them to the affected range.
+     */
+    private static DoubleBuffer view(final DoubleBuffer storage, final int start, final int length) {
+        final DoubleBuffer view = storage.duplicate();
+        view.limit(start + length);
+        view.position(start);
+        return view;
+    }
+
+    private static FloatBuffer view(final FloatBuffer storage, final int start, final int length) {
+        final FloatBuffer view = storage.duplicate();
+        view.limit(start + length);
+        view.position(start);
+        return view;
+    }
+
+    private DLStorageCopier() {
+        // utility class
+    }
+}
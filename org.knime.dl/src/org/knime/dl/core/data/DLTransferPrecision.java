@@ -0,0 +1,132 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data;
+
+import java.util.Optional;
+
+/**
+ * The precision in which the values of a tensor are transferred to a back end that does not share the memory of the
+ * tensor, e.g. a Python process. Reduced precisions trade numeric accuracy for a smaller transfer volume. They only
+ * apply to tensors of {@link #isApplicableTo(Class) floating point element type} and are ignored otherwise.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public enum DLTransferPrecision {
+
+	/**
+	 * Values are transferred as they are stored in the tensor.
+	 */
+	FULL("full", "Full"),
+
+	/**
+	 * Values are rounded to IEEE 754 half precision (two bytes per value).
+	 */
+	FLOAT16("float16", "Half precision (float16)"),
+
+	/**
+	 * Values are truncated to the upper half of their single precision representation with rounding (two bytes per
+	 * value). Retains the range of single precision at the cost of mantissa bits.
+	 */
+	BFLOAT16("bfloat16", "Brain floating point (bfloat16)"),
+
+	/**
+	 * Values are linearly quantized to 256 levels between the minimum and maximum value of each batch (one byte per
+	 * value). The quantization step depends on the range of the batch, so this is lossy in general. Use
+	 * {@link #UINT8_FIXED} for data that is already in [0, 255].
+	 */
+	UINT8("uint8", "Quantized (uint8)"),
+
+	/**
+	 * Values are rounded to the nearest integer and clamped to [0, 255] (one byte per value). Lossless for data that
+	 * originates from 8-bit sources, e.g. most images, as long as it has not been rescaled.
+	 */
+	UINT8_FIXED("uint8_fixed", "Quantized (uint8, fixed range 0 to 255)");
+
+	private final String m_identifier;
+
+	private final String m_name;
+
+	DLTransferPrecision(final String identifier, final String name) {
+		m_identifier = identifier;
+		m_name = name;
+	}
+
+	/**
+	 * @param identifier the identifier of the precision
+	 * @return the precision with the given identifier, if any
+	 */
+	public static Optional<DLTransferPrecision> fromIdentifier(final String identifier) {
+		for (final DLTransferPrecision precision : values()) {
+			if (precision.m_identifier.equals(identifier)) {
+				return Optional.of(precision);
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * @return the identifier of this precision that is used to persist it
+	 */
+	public String getIdentifier() {
+		return m_identifier;
+	}
+
+	/**
+	 * @return the human readable name of this precision
+	 */
+	public String getName() {
+		return m_name;
+	}
+
+	/**
+	 * @param elementType the element type of a tensor
+	 * @return <code>true</code> if tensors of the given element type can be transferred in this precision
+	 */
+	public boolean isApplicableTo(final Class<?> elementType) {
+		return this == FULL || elementType == float.class || elementType == double.class;
+	}
+}
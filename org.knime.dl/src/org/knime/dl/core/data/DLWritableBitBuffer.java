@@ -25,4 +25,29 @@ public interface DLWritableBitBuffer extends DLWritableBuffer {
 	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
 	 */
 	void putAll(boolean[] values) throws BufferOverflowException;
+
+	/**
+	 * Copies bits that are packed into words into the buffer. The bit at position <code>i</code> is expected in bit
+	 * <code>i % 64</code> of word <code>i / 64</code>, which is the layout of e.g. KNIME's dense bit vectors.
+	 * <P>
+	 * The default implementation {@link #put(boolean) puts} the bits one by one. Implementations that store bits in
+	 * packed form should copy whole words instead.
+	 *
+	 * @param words the packed bits
+	 * @param numBits the number of bits to copy, bits of the last word beyond this number are ignored
+	 * @throws IllegalArgumentException if <b>numBits</b> is negative or exceeds the number of given words
+	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
+	 */
+	default void putAllPacked(final long[] words, final long numBits)
+			throws IllegalArgumentException, BufferOverflowException {
+		if (numBits < 0 || numBits > (long) words.length * Long.SIZE) {
+			throw new IllegalArgumentException("Number of bits exceeds the number of given words.");
+		}
+		if (size() + numBits > getCapacity()) {
+			throw new BufferOverflowException();
+		}
+		for (long i = 0; i < numBits; i++) {
+			put((words[(int) (i >>> 6)] & (1L << i)) != 0);
+		}
+	}
 }
@@ -0,0 +1,194 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data.cell;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Base class of cells that hold a single tensor in one primitive array. Handles the tensor's shape.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public abstract class DLAbstractTensorCell extends DataCell implements DLTensorValue {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The maximum number of bytes that are converted at once when serializing values. Values are converted chunk by
+	 * chunk instead of into one array of the size of the tensor to avoid an additional full copy.
+	 */
+	private static final int SERIALIZATION_CHUNK_SIZE = 8192;
+
+	private final long[] m_shape;
+
+	/**
+	 * @param shape the shape of the tensor, not copied
+	 * @param numElements the number of values held by the cell
+	 * @throws IllegalArgumentException if the number of values does not match the shape
+	 */
+	protected DLAbstractTensorCell(final long[] shape, final int numElements) {
+		m_shape = checkNotNull(shape);
+		checkArgument(DLUtils.Shapes.getSize(shape) == numElements,
+				"Tensor shape %s does not match the number of values, %s.", Arrays.toString(shape), numElements);
+	}
+
+	@Override
+	public long[] getShape() {
+		return m_shape.clone();
+	}
+
+	@Override
+	public int getNumElements() {
+		return (int) DLUtils.Shapes.getSize(m_shape);
+	}
+
+	@Override
+	public String toString() {
+		return getTypeName() + " " + Arrays.toString(m_shape);
+	}
+
+	/**
+	 * @return the name of the tensor type that is displayed along with the shape
+	 */
+	protected abstract String getTypeName();
+
+	protected final boolean shapeEquals(final DLAbstractTensorCell other) {
+		return Arrays.equals(m_shape, other.m_shape);
+	}
+
+	protected final int shapeHashCode() {
+		return Arrays.hashCode(m_shape);
+	}
+
+	protected static void writeShape(final DLAbstractTensorCell cell, final DataCellDataOutput out)
+			throws IOException {
+		out.writeInt(cell.m_shape.length);
+		for (final long dim : cell.m_shape) {
+			out.writeLong(dim);
+		}
+	}
+
+	protected static long[] readShape(final DataCellDataInput in) throws IOException {
+		final long[] shape = new long[in.readInt()];
+		for (int i = 0; i < shape.length; i++) {
+			shape[i] = in.readLong();
+		}
+		return shape;
+	}
+
+	/**
+	 * Writes the given values as big-endian bytes.
+	 */
+	protected static void writeFloats(final float[] values, final DataCellDataOutput out) throws IOException {
+		final byte[] chunk = createChunk(values.length, Float.BYTES);
+		final FloatBuffer view = ByteBuffer.wrap(chunk).asFloatBuffer();
+		for (int i = 0; i < values.length; i += view.capacity()) {
+			final int length = Math.min(view.capacity(), values.length - i);
+			view.clear();
+			view.put(values, i, length);
+			out.write(chunk, 0, length * Float.BYTES);
+		}
+	}
+
+	/**
+	 * Reads values written by {@link #writeFloats(float[], DataCellDataOutput)} into the given array.
+	 */
+	protected static void readFloats(final DataCellDataInput in, final float[] values) throws IOException {
+		final byte[] chunk = createChunk(values.length, Float.BYTES);
+		final FloatBuffer view = ByteBuffer.wrap(chunk).asFloatBuffer();
+		for (int i = 0; i < values.length; i += view.capacity()) {
+			final int length = Math.min(view.capacity(), values.length - i);
+			in.readFully(chunk, 0, length * Float.BYTES);
+			view.clear();
+			view.get(values, i, length);
+		}
+	}
+
+	/**
+	 * Writes the given values as big-endian bytes.
+	 */
+	protected static void writeDoubles(final double[] values, final DataCellDataOutput out) throws IOException {
+		final byte[] chunk = createChunk(values.length, Double.BYTES);
+		final DoubleBuffer view = ByteBuffer.wrap(chunk).asDoubleBuffer();
+		for (int i = 0; i < values.length; i += view.capacity()) {
+			final int length = Math.min(view.capacity(), values.length - i);
+			view.clear();
+			view.put(values, i, length);
+			out.write(chunk, 0, length * Double.BYTES);
+		}
+	}
+
+	/**
+	 * Reads values written by {@link #writeDoubles(double[], DataCellDataOutput)} into the given array.
+	 */
+	protected static void readDoubles(final DataCellDataInput in, final double[] values) throws IOException {
+		final byte[] chunk = createChunk(values.length, Double.BYTES);
+		final DoubleBuffer view = ByteBuffer.wrap(chunk).asDoubleBuffer();
+		for (int i = 0; i < values.length; i += view.capacity()) {
+			final int length = Math.min(view.capacity(), values.length - i);
+			in.readFully(chunk, 0, length * Double.BYTES);
+			view.clear();
+			view.get(values, i, length);
+		}
+	}
+
+	private static byte[] createChunk(final int numValues, final int bytesPerValue) {
+		return new byte[(int) Math.min((long) numValues * bytesPerValue, SERIALIZATION_CHUNK_SIZE)];
+	}
+}
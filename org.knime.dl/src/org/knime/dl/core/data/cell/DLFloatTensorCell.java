@@ -0,0 +1,130 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data.cell;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataCellSerializer;
+import org.knime.core.data.DataType;
+
+/**
+ * A cell that holds a single float tensor in one primitive array.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public final class DLFloatTensorCell extends DLAbstractTensorCell implements DLFloatTensorValue {
+
+	/**
+	 * The data type of this cell.
+	 */
+	public static final DataType TYPE = DataType.getType(DLFloatTensorCell.class);
+
+	private static final long serialVersionUID = 1L;
+
+	private final float[] m_values;
+
+	/**
+	 * Creates a new cell. The given arrays are not copied and must not be modified afterwards.
+	 *
+	 * @param shape the shape of the tensor
+	 * @param values the flat, row-major values of the tensor
+	 * @throws IllegalArgumentException if the number of values does not match the shape
+	 */
+	public DLFloatTensorCell(final long[] shape, final float[] values) {
+		super(shape, values.length);
+		m_values = values;
+	}
+
+	/**
+	 * {@inheritDoc} This implementation returns its internal array which must be treated as read-only.
+	 */
+	@Override
+	public float[] getFloatArray() {
+		return m_values;
+	}
+
+	@Override
+	protected boolean equalsDataCell(final DataCell dc) {
+		final DLFloatTensorCell other = (DLFloatTensorCell) dc;
+		return shapeEquals(other) && Arrays.equals(m_values, other.m_values);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * shapeHashCode() + Arrays.hashCode(m_values);
+	}
+
+	@Override
+	protected String getTypeName() {
+		return "Tensor (float)";
+	}
+
+	/**
+	 * Serializer for {@link DLFloatTensorCell}s. Writes the values as big-endian bytes.
+	 */
+	public static final class DLFloatTensorCellSerializer implements DataCellSerializer<DLFloatTensorCell> {
+
+		@Override
+		public void serialize(final DLFloatTensorCell cell, final DataCellDataOutput out) throws IOException {
+			writeShape(cell, out);
+			out.writeInt(cell.m_values.length);
+			writeFloats(cell.m_values, out);
+		}
+
+		@Override
+		public DLFloatTensorCell deserialize(final DataCellDataInput in) throws IOException {
+			final long[] shape = readShape(in);
+			final float[] values = new float[in.readInt()];
+			readFloats(in, values);
+			return new DLFloatTensorCell(shape, values);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data.convert;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+/**
+ * Base class for scalar converters that support {@link DLBulkDataValueToTensorConverter bulk conversion}. Provides
+ * access to the primitive storage of the output buffer and fast paths for the most common cell types.
+ *
+ * @param <FROM> the input {@link DataValue} type
+ * @param <VIA> the output {@link DLWritableBuffer} type
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public abstract class DLAbstractBulkScalarDataValueToTensorConverter<FROM extends DataValue, VIA extends DLWritableBuffer>
+		extends DLAbstractScalarDataValueToTensorConverter<FROM, VIA> implements DLBulkDataValueToTensorConverter<FROM, VIA> {
+
+	/**
+	 * Returns the storage of the given buffer such that the given number of elements can be written right after the
+	 * buffer's current end. The buffer's size is advanced accordingly.
+	 *
+	 * @param buffer the buffer
+	 * @param storageType the expected type of the storage, e.g. <code>float[].class</code>
+	 * @param length the number of elements that will be written
+	 * @return the storage or <code>null</code> if the buffer does not expose a storage of the expected type, in which
+	 *         case the buffer was not modified and the elements must be put one by one
+	 * @throws java.nio.BufferOverflowException if the buffer's capacity would be exceeded
+	 */
+	protected static <S> S getStorageForWriting(final DLWritableBuffer buffer, final Class<S> storageType,
+			final long length) {
+		if (buffer instanceof DLWrappingDataBuffer) {
+			final DLWrappingDataBuffer<?> wrapping = (DLWrappingDataBuffer<?>) buffer;
+			// reading nothing has no side effects but reveals the storage type
+			if (storageType.isInstance(wrapping.getStorageForReading(0, 0))) {
+				return storageType.cast(wrapping.getStorageForWriting(wrapping.size(), length));
+			}
+		}
+		return null;
+	}
+
+	protected static double getDoubleValue(final DataCell cell) {
+		// avoid the interface call for the by far most common cell type
+		return cell instanceof DoubleCell ? ((DoubleCell) cell).getDoubleValue() : ((DoubleValue) cell).getDoubleValue();
+	}
+
+	protected static int getIntValue(final DataCell cell) {
+		return cell instanceof IntCell ? ((IntCell) cell).getIntValue() : ((IntValue) cell).getIntValue();
+	}
+
+	protected static long getLongValue(final DataCell cell) {
+		return cell instanceof LongCell ? ((LongCell) cell).getLongValue() : ((LongValue) cell).getLongValue();
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data.convert;
+
+import java.util.OptionalLong;
+
+import org.knime.core.data.DataCell;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.cell.DLTensorValue;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Base class of converter factories that convert each example of a tensor into a single {@link DLTensorValue tensor
+ * cell} instead of one cell per tensor element.
+ *
+ * @param <I> the input {@link DLReadableBuffer} type
+ * @param <O> the output tensor cell type
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public abstract class DLAbstractTensorToTensorCellConverterFactory<I extends DLReadableBuffer, O extends DataCell>
+		implements DLTensorToDataCellConverterFactory<I, O> {
+
+	private static final OptionalLong DEST_COUNT = OptionalLong.of(1);
+
+	@Override
+	public String getName() {
+		return getDestType().toPrettyString();
+	}
+
+	@Override
+	public OptionalLong getDestCount(final DLTensorSpec spec) {
+		return DEST_COUNT;
+	}
+
+	/**
+	 * @return the shape of one example of the given tensor, shared by all cells created for the tensor. Falls back to
+	 *         a flat shape if the tensor's spec does not fully describe its examples.
+	 */
+	protected static long[] getExampleShape(final DLTensor<?> tensor) {
+		final long exampleSize = tensor.getExampleSize();
+		return DLUtils.Shapes.getFixedShape(tensor.getSpec().getShape())
+				.filter(shape -> DLUtils.Shapes.getSize(shape) == exampleSize)
+				.orElseGet(() -> new long[] { exampleSize });
+	}
+
+	/**
+	 * @return the number of elements of one example of the given tensor
+	 * @throws IllegalArgumentException if the example size exceeds the capacity of an array
+	 */
+	protected static int getExampleSize(final DLTensor<?> tensor) {
+		final long exampleSize = tensor.getExampleSize();
+		if (exampleSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The number of entries of one sample, " + exampleSize
+					+ ", is larger than 2^31-1. This is currently not supported.");
+		}
+		return (int) exampleSize;
+	}
+}
@@ -48,6 +48,7 @@
  */
 package org.knime.dl.core.data.convert;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.OptionalLong;
 
@@ -90,12 +91,23 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 	public DLDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer> createConverter() {
 		return new DLAbstractTensorDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer>() {
 
+			private long[] m_words = new long[0];
+
 			@Override
 			public void convertInternal(final BitVectorValue input, final DLTensor<DLWritableBitBuffer> output) {
-				final DLWritableBitBuffer buffer = output.getBuffer();
-				for (int i = 0; i < input.length(); i++) {
-					buffer.put(input.get(i));
+				// collect the set bits in packed form and copy them into the buffer word by word, bit vectors used as
+				// network input (e.g. fingerprints) are usually long but sparse
+				final long length = input.length();
+				final int numWords = (int) ((length + Long.SIZE - 1) >>> 6);
+				if (m_words.length < numWords) {
+					m_words = new long[numWords];
+				} else {
+					Arrays.fill(m_words, 0, numWords, 0L);
+				}
+				for (long i = input.nextSetBit(0); i >= 0 && i < length; i = input.nextSetBit(i + 1)) {
+					m_words[(int) (i >>> 6)] |= 1L << i;
 				}
+				output.getBuffer().putAllPacked(m_words, length);
 			}
 		};
 	}
@@ -0,0 +1,141 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.data.convert;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.core.data.DLWritableSparseBuffer;
+
+/**
+ * Converts bit vectors into float tensors of zeros and ones. Bit vectors used as network input (e.g. fingerprints or
+ * bag-of-words encodings) are usually long but sparse, thus only the set bits are written if the tensor is backed by
+ * a {@link DLWritableSparseBuffer sparse buffer}.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ * @since 3.7
+ */
+public class DLBitVectorToFloatTensorConverterFactory
+	extends DLAbstractTensorDataValueToTensorConverterFactory<BitVectorValue, DLWritableFloatBuffer> {
+
+	private static final String NAME = "Bit vector to Float Tensor";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public Class<BitVectorValue> getSourceType() {
+		return BitVectorValue.class;
+	}
+
+	@Override
+	public Class<DLWritableFloatBuffer> getBufferType() {
+		return DLWritableFloatBuffer.class;
+	}
+
+	@Override
+	public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
+		return OptionalLong.empty();
+	}
+
+	@Override
+	public boolean isSparse() {
+		return true;
+	}
+
+	@Override
+	public DLDataValueToTensorConverter<BitVectorValue, DLWritableFloatBuffer> createConverter() {
+		return new DLAbstractTensorDataValueToTensorConverter<BitVectorValue, DLWritableFloatBuffer>() {
+
+			private int[] m_offsets = new int[0];
+
+			@Override
+			public void convertInternal(final BitVectorValue input, final DLTensor<DLWritableFloatBuffer> output) {
+				final DLWritableFloatBuffer buffer = output.getBuffer();
+				final long length = input.length();
+				if (buffer instanceof DLWritableSparseBuffer) {
+					final long cardinality = input.cardinality();
+					if (m_offsets.length < cardinality) {
+						m_offsets = new int[(int) cardinality];
+					}
+					int count = 0;
+					for (long i = input.nextSetBit(0); i >= 0 && i < length; i = input.nextSetBit(i + 1)) {
+						m_offsets[count++] = (int) i;
+					}
+					((DLWritableSparseBuffer) buffer).putSparse(length, m_offsets, null, count);
+				} else {
+					long next = 0;
+					for (long i = input.nextSetBit(0); i >= 0 && i < length; i = input.nextSetBit(i + 1)) {
+						if (i > next) {
+							buffer.zeroPad(i - next);
+						}
+						buffer.put(1f);
+						next = i + 1;
+					}
+					if (length > next) {
+						buffer.zeroPad(length - next);
+					}
+				}
+			}
+		};
+	}
+
+	@Override
+	protected long[] getDataShapeInternal(final BitVectorValue input, final DLTensorSpec tensorSpec) {
+		if (input.length() > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"The provided bit vector is too large, currently bit vectors may have a maximal length of 2^31-1.");
+		}
+		return new long[]{input.length()};
+	}
+}
@@ -54,8 +54,10 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataValue;
 import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableSparseBuffer;
 
 /**
  * Root interface for deep learning input converter factories that create converters which allow conversion of
@@ -123,6 +125,19 @@ default String getIdentifier() {
 	 */
 	long[] getDataShape(List<? extends DataValue> input, DLTensorSpec tensorSpec);
 
+	/**
+	 * Returns whether the output of converters created by this factory consists mostly of zeros, e.g. one-hot
+	 * encodings. Tensors that are filled by such converters are backed by {@link DLWritableSparseBuffer sparse
+	 * buffers} if the back end supports them, see {@link DLTensorFactory#createWritableSparseTensor(DLTensorSpec)}.
+	 * Converters must not rely on that and check the type of the buffer they write to.
+	 *
+	 * @return <code>true</code> if the output is sparse
+	 * @since 3.7
+	 */
+	default boolean isSparse() {
+		return false;
+	}
+
 	/**
 	 * Creates a new converter instance.
 	 *
@@ -52,6 +52,7 @@
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.dl.core.DLTensor;
@@ -86,7 +87,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer>() {
+		return new DLAbstractBulkScalarDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer>() {
 
 			@Override
 			public void convert(final Iterable<? extends DoubleValue> input,
@@ -96,6 +97,27 @@ public void convert(final Iterable<? extends DoubleValue> input,
 					buf.put(val.getDoubleValue());
 				}
 			}
+
+			@Override
+			public void convertBulk(final List<? extends DataRow> rows, final int[] columns,
+					final DLTensor<DLWritableDoubleBuffer> output) {
+				final DLWritableDoubleBuffer buf = output.getBuffer();
+				int i = (int) buf.size();
+				final double[] storage = getStorageForWriting(buf, double[].class, (long) rows.size() * columns.length);
+				if (storage != null) {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							storage[i++] = getDoubleValue(row.getCell(c));
+						}
+					}
+				} else {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							buf.put(getDoubleValue(row.getCell(c)));
+						}
+					}
+				}
+			}
 		};
 	}
 }
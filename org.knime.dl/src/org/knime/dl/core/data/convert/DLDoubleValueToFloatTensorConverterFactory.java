@@ -52,6 +52,7 @@
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.dl.core.DLTensor;
@@ -86,7 +87,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer>() {
+		return new DLAbstractBulkScalarDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer>() {
 
 			@Override
 			public void convert(final Iterable<? extends DoubleValue> input,
@@ -97,6 +98,27 @@ public void convert(final Iterable<? extends DoubleValue> input,
 					buf.put((float) val.getDoubleValue());
 				}
 			}
+
+			@Override
+			public void convertBulk(final List<? extends DataRow> rows, final int[] columns,
+					final DLTensor<DLWritableFloatBuffer> output) {
+				final DLWritableFloatBuffer buf = output.getBuffer();
+				int i = (int) buf.size();
+				final float[] storage = getStorageForWriting(buf, float[].class, (long) rows.size() * columns.length);
+				if (storage != null) {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							storage[i++] = (float) getDoubleValue(row.getCell(c));
+						}
+					}
+				} else {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							buf.put((float) getDoubleValue(row.getCell(c)));
+						}
+					}
+				}
+			}
 		};
 	}
 }
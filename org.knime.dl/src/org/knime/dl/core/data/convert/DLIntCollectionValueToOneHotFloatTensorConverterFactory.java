@@ -60,6 +60,7 @@
 import org.knime.dl.core.DLTensorShape;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.core.data.DLWritableSparseBuffer;
 import org.knime.dl.util.DLUtils;
 
 /**
@@ -94,22 +95,38 @@ public OptionalLong getDestCount(List<DataColumnSpec> spec) {
 	public DLDataValueToTensorConverter<CollectionDataValue, DLWritableFloatBuffer> createConverter() {
 		return new DLAbstractTensorDataValueToTensorConverter<CollectionDataValue, DLWritableFloatBuffer>() {
 
+			private final int[] m_offset = new int[1];
+
 			@Override
 			protected void convertInternal(CollectionDataValue element, DLTensor<DLWritableFloatBuffer> output) {
 				checkType(element.getElementType());
 				DLWritableFloatBuffer buffer = output.getBuffer();
 				int featureDimSize = getFeatureDimSize(output.getSpec());
-				byte[] dummyVector = new byte[featureDimSize];
 				for (DataCell cell : element) {
 					int index = ((IntCell)cell).getIntValue();
 					checkIndexValid(index, featureDimSize);
-					dummyVector[index] = 1;
-					buffer.putAll(dummyVector);
-					dummyVector[index] = 0;
+					if (buffer instanceof DLWritableSparseBuffer) {
+						// only the index of the hot element is stored
+						m_offset[0] = index;
+						((DLWritableSparseBuffer) buffer).putSparse(featureDimSize, m_offset, null, 1);
+					} else {
+						if (index > 0) {
+							buffer.zeroPad(index);
+						}
+						buffer.put(1f);
+						if (index < featureDimSize - 1) {
+							buffer.zeroPad(featureDimSize - 1L - index);
+						}
+					}
 				}
 			}
 		};
 	}
+
+	@Override
+	public boolean isSparse() {
+		return true;
+	}
 	
 	private int getFeatureDimSize(DLTensorSpec tensorSpec) {
 		DLTensorShape shape = tensorSpec.getShape();
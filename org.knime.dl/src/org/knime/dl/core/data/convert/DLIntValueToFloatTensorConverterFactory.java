@@ -50,6 +50,7 @@
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.IntValue;
 import org.knime.dl.core.DLTensor;
@@ -84,7 +85,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<IntValue, DLWritableFloatBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<IntValue, DLWritableFloatBuffer>() {
+		return new DLAbstractBulkScalarDataValueToTensorConverter<IntValue, DLWritableFloatBuffer>() {
 
 			@Override
 			public void convert(final Iterable<? extends IntValue> input,
@@ -97,6 +98,27 @@ public void convert(final Iterable<? extends IntValue> input,
 					buf.put(val.getIntValue());
 				}
 			}
+
+			@Override
+			public void convertBulk(final List<? extends DataRow> rows, final int[] columns,
+					final DLTensor<DLWritableFloatBuffer> output) {
+				final DLWritableFloatBuffer buf = output.getBuffer();
+				int i = (int) buf.size();
+				final float[] storage = getStorageForWriting(buf, float[].class, (long) rows.size() * columns.length);
+				if (storage != null) {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							storage[i++] = getIntValue(row.getCell(c));
+						}
+					}
+				} else {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							buf.put(getIntValue(row.getCell(c)));
+						}
+					}
+				}
+			}
 		};
 	}
 }
@@ -52,6 +52,7 @@
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.IntValue;
 import org.knime.dl.core.DLTensor;
@@ -86,7 +87,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<IntValue, DLWritableIntBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<IntValue, DLWritableIntBuffer>() {
+		return new DLAbstractBulkScalarDataValueToTensorConverter<IntValue, DLWritableIntBuffer>() {
 
 			@Override
 			public void convert(final Iterable<? extends IntValue> input, final DLTensor<DLWritableIntBuffer> output) {
@@ -95,6 +96,27 @@ public void convert(final Iterable<? extends IntValue> input, final DLTensor<DLW
 					buf.put(val.getIntValue());
 				}
 			}
+
+			@Override
+			public void convertBulk(final List<? extends DataRow> rows, final int[] columns,
+					final DLTensor<DLWritableIntBuffer> output) {
+				final DLWritableIntBuffer buf = output.getBuffer();
+				int i = (int) buf.size();
+				final int[] storage = getStorageForWriting(buf, int[].class, (long) rows.size() * columns.length);
+				if (storage != null) {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							storage[i++] = getIntValue(row.getCell(c));
+						}
+					}
+				} else {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							buf.put(getIntValue(row.getCell(c)));
+						}
+					}
+				}
+			}
 		};
 	}
 }
@@ -50,6 +50,7 @@
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.LongValue;
 import org.knime.dl.core.DLTensor;
@@ -84,7 +85,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<LongValue, DLWritableLongBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<LongValue, DLWritableLongBuffer>() {
+		return new DLAbstractBulkScalarDataValueToTensorConverter<LongValue, DLWritableLongBuffer>() {
 
 			@Override
 			public void convert(final Iterable<? extends LongValue> input,
@@ -94,6 +95,27 @@ public void convert(final Iterable<? extends LongValue> input,
 					buf.put(val.getLongValue());
 				}
 			}
+
+			@Override
+			public void convertBulk(final List<? extends DataRow> rows, final int[] columns,
+					final DLTensor<DLWritableLongBuffer> output) {
+				final DLWritableLongBuffer buf = output.getBuffer();
+				int i = (int) buf.size();
+				final long[] storage = getStorageForWriting(buf, long[].class, (long) rows.size() * columns.length);
+				if (storage != null) {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							storage[i++] = getLongValue(row.getCell(c));
+						}
+					}
+				} else {
+					for (final DataRow row : rows) {
+						for (final int c : columns) {
+							buf.put(getLongValue(row.getCell(c)));
+						}
+					}
+				}
+			}
 		};
 	}
 }
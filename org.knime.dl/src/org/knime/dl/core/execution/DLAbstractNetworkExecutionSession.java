@@ -155,8 +155,11 @@ public void run(final DLExecutionMonitor monitor) throws DLCanceledExecutionExce
 		// lazily preallocate input tensors
 		if (m_input == null) {
 			m_input = new HashMap<>(m_executionInputSpecs.size());
+			final Set<DLTensorId> sparseTensors = m_inputPreparer.getSparseTensors();
 			for (final DLTensorSpec spec : m_executionInputSpecs) {
-				m_input.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
+				m_input.put(spec.getIdentifier(), sparseTensors.contains(spec.getIdentifier())
+						? m_tensorFactory.createWritableSparseTensor(spec)
+						: m_tensorFactory.createWritableTensor(spec));
 			}
 		}
 		executeInternal(monitor);
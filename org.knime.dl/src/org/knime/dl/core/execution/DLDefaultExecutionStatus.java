@@ -46,10 +46,13 @@
  */
 package org.knime.dl.core.execution;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.util.OptionalInt;
 
 import org.knime.dl.core.DLDefaultEvent;
 import org.knime.dl.core.DLEvent;
+import org.knime.dl.core.DLSessionStatistics;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -61,15 +64,35 @@ public class DLDefaultExecutionStatus implements DLExecutionStatus {
 
 	private int m_currentBatch = -1;
 
+	private final DLSessionStatistics m_statistics;
+
 	private final DLEvent<Void> m_batchEnded = new DLDefaultEvent<>();
 
 	public DLDefaultExecutionStatus(final int numBatches) {
+		this(numBatches, new DLSessionStatistics());
+	}
+
+	public DLDefaultExecutionStatus() {
+		this(new DLSessionStatistics());
+	}
+
+	/**
+	 * @param statistics records the timings of the execution, may be shared with other statuses
+	 * @since 3.7
+	 */
+	public DLDefaultExecutionStatus(final int numBatches, final DLSessionStatistics statistics) {
 		m_numBatches = OptionalInt.of(numBatches);
+		m_statistics = checkNotNull(statistics);
 		subscribeToBatchEnded();
 	}
 
-	public DLDefaultExecutionStatus() {
+	/**
+	 * @param statistics records the timings of the execution, may be shared with other statuses
+	 * @since 3.7
+	 */
+	public DLDefaultExecutionStatus(final DLSessionStatistics statistics) {
 		m_numBatches = OptionalInt.empty();
+		m_statistics = checkNotNull(statistics);
 		subscribeToBatchEnded();
 	}
 
@@ -83,6 +106,11 @@ public int getCurrentBatch() {
 		return m_currentBatch;
 	}
 
+	@Override
+	public DLSessionStatistics getStatistics() {
+		return m_statistics;
+	}
+
 	@Override
 	public DLEvent<Void> batchEnded() {
 		return m_batchEnded;
@@ -89,4 +89,32 @@ DLNetworkExecutionSession createExecutionSession(N network, Set<DLTensorSpec> ex
 			Set<DLTensorId> requestedOutputs, DLNetworkInputPreparer inputPreparer,
 			DLNetworkOutputConsumer outputConsumer);
 
+	/**
+	 * Creates a {@link DLNetworkExecutionSession execution session} for a given {@link DLNetwork network} that may
+	 * keep several batches in flight at the same time. That is, while the back end executes a batch, subsequent
+	 * batches may already be prepared by the input preparer and the outputs of previous batches may still be processed
+	 * by the output consumer. Batches are still prepared and consumed in order and by a single thread each.
+	 * <P>
+	 * The default implementation ignores <code>numBatchesInFlight</code> and falls back to
+	 * {@link #createExecutionSession(DLNetwork, Set, Set, DLNetworkInputPreparer, DLNetworkOutputConsumer) serial
+	 * execution}. Back ends that support pipelined execution should override this method.
+	 *
+	 * @param network the network to execute
+	 * @param executionInputSpecs see
+	 *            {@link #createExecutionSession(DLNetwork, Set, Set, DLNetworkInputPreparer, DLNetworkOutputConsumer)}
+	 * @param requestedOutputs see
+	 *            {@link #createExecutionSession(DLNetwork, Set, Set, DLNetworkInputPreparer, DLNetworkOutputConsumer)}
+	 * @param inputPreparer the input data preparer
+	 * @param outputConsumer the network output consumer
+	 * @param numBatchesInFlight the maximum number of batches that are in flight at the same time, must be at least
+	 *            one. A value of one results in serial execution.
+	 * @return the created execution session
+	 * @throws IllegalArgumentException if failed to create the execution session due to invalid arguments
+	 */
+	default DLNetworkExecutionSession createExecutionSession(final N network,
+			final Set<DLTensorSpec> executionInputSpecs, final Set<DLTensorId> requestedOutputs,
+			final DLNetworkInputPreparer inputPreparer, final DLNetworkOutputConsumer outputConsumer,
+			final int numBatchesInFlight) {
+		return createExecutionSession(network, executionInputSpecs, requestedOutputs, inputPreparer, outputConsumer);
+	}
 }
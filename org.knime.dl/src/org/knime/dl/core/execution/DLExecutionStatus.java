@@ -49,6 +49,7 @@
 import java.util.OptionalInt;
 
 import org.knime.dl.core.DLEvent;
+import org.knime.dl.core.DLSessionStatistics;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -68,6 +69,12 @@ public interface DLExecutionStatus {
 	 */
 	int getCurrentBatch();
 
+	/**
+	 * @return the timings of the stages of the execution
+	 * @since 3.7
+	 */
+	DLSessionStatistics getStatistics();
+
 	// events:
 
 	DLEvent<Void> batchEnded();
@@ -46,10 +46,12 @@
  */
 package org.knime.dl.core.execution;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.knime.core.data.DataRow;
 import org.knime.dl.core.DLAbstractKnimeNetworkInputPreparer;
@@ -72,10 +74,12 @@ public final class DLKnimeNetworkExecutionInputPreparer extends DLAbstractKnimeN
 
 	private final Queue<DataRow> m_baseRows;
 
+	private final List<DataRow> m_batchRows;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
-	 *            fed to {@link #prepare(Map, long)}. The iterator must know its size. It must be in a proper initial
-	 *            state (i.e. reset).
+	 *            fed to {@link #prepare(Map, long)}. The iterator does not need to know its size (see
+	 *            {@link #hasBatch(long)}). It must be in a proper initial state (i.e. reset).
 	 * @param batchSize the batch size of the tensors that will be prepared by this instance
 	 * @param isPredefinedBatchSize true if the batch size is defined by the network specification (rather than by the
 	 *            user). In this case, incomplete last batches will be zero-padded to match the expected batch size.
@@ -88,7 +92,10 @@ public DLKnimeNetworkExecutionInputPreparer(final DLRowIterator iterator, final
 			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters) {
 		super(iterator, batchSize, converters);
 		m_isPredefinedBatchSize = isPredefinedBatchSize;
-		m_baseRows = new ArrayDeque<>(batchSize);
+		// rows are added while preparing and removed while consuming which may happen concurrently in pipelined
+		// execution
+		m_baseRows = new ConcurrentLinkedQueue<>();
+		m_batchRows = new ArrayList<>(batchSize);
 	}
 
 	@Override
@@ -96,6 +103,12 @@ public long getNumBatches() {
 		return (long) Math.ceil(m_iterator.size() / (double) m_batchSize);
 	}
 
+	@Override
+	public boolean hasBatch(final long batchIndex) {
+		// batches are prepared in order, so the next batch exists if there are rows left
+		return m_iterator.hasNext();
+	}
+
 	public Queue<DataRow> getBaseRows() {
 		return m_baseRows;
 	}
@@ -104,6 +117,7 @@ public Queue<DataRow> getBaseRows() {
 	public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex)
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
 		long i;
+		m_batchRows.clear();
 		for (i = 0; i < m_batchSize; i++) {
 			if (!m_iterator.hasNext()) {
 				// last batch will be incomplete, handled below
@@ -111,22 +125,25 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 			}
 			final DataRow row = m_iterator.next();
 			m_baseRows.add(row);
-			try {
-				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
-			} catch (final DLBufferOverflowExceptionForTensor e) {
-				final DLTensor<?> tensor = e.getTensor();
-				// must be present
-				final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
-				// must be present
-				final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
-				throw new DLInvalidNetworkInputException(
-						"Node input data size exceeds the expected size of network input '" + tensor.getSpec().getName()
-								+ "'. Neuron count is " + exampleSize + ", batch size is " + batchSize
-								+ ". Thus, expected input data size is " + exampleSize * batchSize
-								+ ". Please check the column selection for this input "
-								+ "and validate the node's input data.",
-						e);
-			}
+			m_batchRows.add(row);
+		}
+		try {
+			writeRowsInTensors(m_batchRows, input);
+		} catch (final DLBufferOverflowExceptionForTensor e) {
+			final DLTensor<?> tensor = e.getTensor();
+			// must be present
+			final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
+			// must be present
+			final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
+			throw new DLInvalidNetworkInputException(
+					"Node input data size exceeds the expected size of network input '" + tensor.getSpec().getName()
+							+ "'. Neuron count is " + exampleSize + ", batch size is " + batchSize
+							+ ". Thus, expected input data size is " + exampleSize * batchSize
+							+ ". Please check the column selection for this input "
+							+ "and validate the node's input data.",
+					e);
+		} finally {
+			m_batchRows.clear();
 		}
 		// check if tensors were filled correctly
 		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
@@ -163,5 +180,6 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 	public void close() throws Exception {
 		super.close();
 		m_baseRows.clear();
+		m_batchRows.clear();
 	}
 }
@@ -65,6 +65,7 @@
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLTransferPrecision;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.util.DLUtils;
 
@@ -194,6 +195,28 @@ public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batc
 				return m_trainingInput;
 			}
 
+			@Override
+			public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createTensors() {
+				return createTrainingTensors();
+			}
+
+			@Override
+			public void prepare(final long batchIndex,
+					final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors)
+					throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+				trainingInputPreparer.prepare(tensors, batchIndex);
+			}
+
+			@Override
+			public Map<DLTensorId, DLTransferPrecision> getTransferPrecisions() {
+				return trainingInputPreparer.getTransferPrecisions();
+			}
+
+			@Override
+			public Set<DLTensorId> getSparseTensors() {
+				return trainingInputPreparer.getSparseTensors();
+			}
+
 			@Override
 			public void close() throws Exception {
 				trainingInputPreparer.close();
@@ -214,6 +237,16 @@ public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batc
 				return m_validationInput;
 			}
 
+			@Override
+			public Map<DLTensorId, DLTransferPrecision> getTransferPrecisions() {
+				return validationInputPreparer.getTransferPrecisions();
+			}
+
+			@Override
+			public Set<DLTensorId> getSparseTensors() {
+				return validationInputPreparer.getSparseTensors();
+			}
+
 			@Override
 			public void close() throws Exception {
 				validationInputPreparer.close();
@@ -253,27 +286,39 @@ public void run(final DLTrainingMonitor<? extends S> monitor) throws DLCanceledE
 		monitor.getTrainingStatus().trainingStarted().raise(null);
 		// lazily preallocate training input/target tensors
 		if (m_trainingInput == null) {
-			m_trainingInput = new HashMap<>(m_executionInputSpecs.size());
-			for (final DLTensorSpec spec : m_executionInputSpecs) {
-				m_trainingInput.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
-			}
+			m_trainingInput = createTrainingTensors();
 		}
 		// lazily preallocate validation input/target tensors
 		if (m_doValidation && m_validationInput == null) {
 			m_validationInput = new HashMap<>(m_executionInputSpecs.size());
+			final Set<DLTensorId> sparseTensors = m_validationInputProvider.getSparseTensors();
 			for (final DLTensorSpec spec : m_executionInputSpecs) {
 				// we need to replace the training data batch size by the validation data batch size. Specs are fully
 				// defined, no need to check if optionals are present.
 				final DLTensorSpec validationSpec = m_tensorFactory.createExecutionTensorSpec(spec,
 						m_trainingConfig.getValidationBatchSize(), DLUtils.Shapes.getFixedShape(spec.getShape()).get());
 				m_validationInput.put(validationSpec.getIdentifier(),
-						m_tensorFactory.createWritableTensor(validationSpec));
+						sparseTensors.contains(spec.getIdentifier())
+								? m_tensorFactory.createWritableSparseTensor(validationSpec)
+								: m_tensorFactory.createWritableTensor(validationSpec));
 			}
 		}
 		trainInternal(monitor);
 		monitor.getTrainingStatus().trainingEnded().raise(null);
 	}
 
+	private Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createTrainingTensors() {
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors = new HashMap<>(
+				m_executionInputSpecs.size());
+		final Set<DLTensorId> sparseTensors = m_trainingInputProvider.getSparseTensors();
+		for (final DLTensorSpec spec : m_executionInputSpecs) {
+			tensors.put(spec.getIdentifier(), sparseTensors.contains(spec.getIdentifier())
+					? m_tensorFactory.createWritableSparseTensor(spec)
+					: m_tensorFactory.createWritableTensor(spec));
+		}
+		return tensors;
+	}
+
 	@Override
 	public void close() throws Exception {
 		if (m_trainingInput != null) {
@@ -56,6 +56,7 @@
 
 import org.knime.dl.core.DLDefaultEvent;
 import org.knime.dl.core.DLEvent;
+import org.knime.dl.core.DLSessionStatistics;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -77,6 +78,8 @@ public abstract class DLAbstractTrainingStatus implements DLTrainingStatus {
 
 	private int m_currentBatchInEpoch = -1;
 
+	private final DLSessionStatistics m_statistics = new DLSessionStatistics();
+
 	private final DLEvent<Void> m_trainingStarted = new DLDefaultEvent<>();
 
 	private final DLEvent<Void> m_trainingEnded = new DLDefaultEvent<>();
@@ -166,6 +169,11 @@ public int getCurrentBatchInEpoch() {
 		return m_currentBatchInEpoch;
 	}
 
+	@Override
+	public DLSessionStatistics getStatistics() {
+		return m_statistics;
+	}
+
 	// callbacks:
 
 	@Override
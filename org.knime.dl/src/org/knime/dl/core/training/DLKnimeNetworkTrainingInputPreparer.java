@@ -46,8 +46,12 @@
  */
 package org.knime.dl.core.training;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
 
 import org.knime.core.data.DataRow;
 import org.knime.core.node.NodeLogger;
@@ -69,6 +73,24 @@ public final class DLKnimeNetworkTrainingInputPreparer extends DLAbstractKnimeNe
 
 	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKnimeNetworkTrainingInputPreparer.class);
 
+	/**
+	 * <code>null</code> if caching is disabled.
+	 */
+	private final DLTensorizedDataCache m_cache;
+
+	/**
+	 * <code>null</code> if the cached rows are not shuffled.
+	 */
+	private final Random m_random;
+
+	/**
+	 * The order in which the cached rows are prepared in the current epoch, <code>null</code> until the cache is
+	 * complete.
+	 */
+	private int[] m_cacheOrder;
+
+	private int m_cachePosition;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}. The iterator must know its size and must be resettable. It must be
@@ -79,7 +101,29 @@ public final class DLKnimeNetworkTrainingInputPreparer extends DLAbstractKnimeNe
 	 */
 	public DLKnimeNetworkTrainingInputPreparer(final DLRowIterator iterator, final int batchSize,
 			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters) {
+		this(iterator, batchSize, converters, false, null);
+	}
+
+	/**
+	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
+	 *            fed to {@link #prepare(Map, long)}. The iterator must know its size and must be resettable. It must be
+	 *            in a proper initial state (i.e. reset).
+	 * @param batchSize the batch size of the tensors that will be prepared by this instance
+	 * @param converters the converters that are used to write the data rows into the tensors. The given tensor ids
+	 *            determine the set of tensors supported by {@link #prepare(Map, long)}.
+	 * @param cacheData if <code>true</code>, the converted data rows are kept in a {@link DLTensorizedDataCache} during
+	 *            the first epoch and all later epochs are prepared from that cache instead of the iterator
+	 * @param random used to shuffle the cached data rows before each epoch after the first one, may be
+	 *            <code>null</code> in which case the cached rows are not shuffled. Only has an effect if
+	 *            <code>cacheData</code> is <code>true</code>.
+	 * @since 3.7
+	 */
+	public DLKnimeNetworkTrainingInputPreparer(final DLRowIterator iterator, final int batchSize,
+			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters, final boolean cacheData,
+			final Random random) {
 		super(iterator, batchSize, converters);
+		m_cache = cacheData ? new DLTensorizedDataCache(iterator.size()) : null;
+		m_random = random;
 		final long size = iterator.size();
 		if (size % batchSize != 0) {
 			LOGGER.warn("The number of rows of the input training data table (" + size
@@ -97,10 +141,20 @@ public long getNumBatches() {
 		return (long) Math.ceil(m_iterator.size() / (double) m_batchSize);
 	}
 
+	@Override
+	public Set<DLTensorId> getSparseTensors() {
+		// the data cache copies the dense storage of the tensors
+		return m_cache != null ? Collections.emptySet() : super.getSparseTensors();
+	}
+
 	@Override
 	public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex)
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
 		for (long i = 0; i < m_batchSize; i++) {
+			if (m_cache != null && m_cache.isComplete()) {
+				prepareFromCache(input);
+				continue;
+			}
 			if (!m_iterator.hasNext()) {
 				// continue at the beginning of the table to fill up incomplete batch
 				m_iterator.reset();
@@ -108,6 +162,11 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 			final DataRow row = m_iterator.next();
 			try {
 				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
+				if (m_cache != null) {
+					m_cache.appendLastExample(input);
+				}
+			} catch (final IOException ex) {
+				throw new RuntimeException("Caching the training data failed.", ex);
 			} catch (final DLBufferOverflowExceptionForTensor ex) {
 				final DLTensor<?> tensor = ex.getTensor();
 				// must be present
@@ -140,4 +199,41 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 			}
 		}
 	}
+
+	@Override
+	public void close() throws Exception {
+		try {
+			super.close();
+		} finally {
+			if (m_cache != null) {
+				m_cache.close();
+			}
+		}
+	}
+
+	private void prepareFromCache(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		if (m_cacheOrder == null || m_cachePosition == m_cacheOrder.length) {
+			// start of a new pass over the cached rows
+			if (m_cacheOrder == null) {
+				m_cacheOrder = new int[(int) m_cache.size()];
+				for (int i = 0; i < m_cacheOrder.length; i++) {
+					m_cacheOrder[i] = i;
+				}
+			}
+			if (m_random != null) {
+				for (int i = m_cacheOrder.length - 1; i > 0; i--) {
+					final int j = m_random.nextInt(i + 1);
+					final int tmp = m_cacheOrder[i];
+					m_cacheOrder[i] = m_cacheOrder[j];
+					m_cacheOrder[j] = tmp;
+				}
+			}
+			m_cachePosition = 0;
+		}
+		try {
+			m_cache.writeExample(m_cacheOrder[m_cachePosition++], input);
+		} catch (final IOException ex) {
+			throw new RuntimeException("Reading the cached training data failed.", ex);
+		}
+	}
 }
@@ -46,6 +46,7 @@
  */
 package org.knime.dl.core.training;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -69,6 +70,13 @@ public final class DLKnimeNetworkValidationInputPreparer extends DLAbstractKnime
 
 	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKnimeNetworkValidationInputPreparer.class);
 
+	/**
+	 * <code>null</code> if caching is disabled.
+	 */
+	private final DLTensorizedDataCache m_cache;
+
+	private long m_cachePosition;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}. The iterator must know its size and must be resettable. It must be
@@ -79,7 +87,24 @@ public final class DLKnimeNetworkValidationInputPreparer extends DLAbstractKnime
 	 */
 	public DLKnimeNetworkValidationInputPreparer(final DLRowIterator iterator, final int batchSize,
 			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters) {
+		this(iterator, batchSize, converters, false);
+	}
+
+	/**
+	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
+	 *            fed to {@link #prepare(Map, long)}. The iterator must know its size and must be resettable. It must be
+	 *            in a proper initial state (i.e. reset).
+	 * @param batchSize the batch size of the tensors that will be prepared by this instance
+	 * @param converters the converters that are used to write the data rows into the tensors. The given tensor ids
+	 *            determine the set of tensors supported by {@link #prepare(Map, long)}.
+	 * @param cacheData if <code>true</code>, the converted data rows are kept in a {@link DLTensorizedDataCache} during
+	 *            the first validation phase and all later phases are prepared from that cache instead of the iterator
+	 * @since 3.7
+	 */
+	public DLKnimeNetworkValidationInputPreparer(final DLRowIterator iterator, final int batchSize,
+			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters, final boolean cacheData) {
 		super(iterator, batchSize, converters);
+		m_cache = cacheData ? new DLTensorizedDataCache(iterator.size()) : null;
 		final long size = iterator.size();
 		if (size % batchSize != 0) {
 			LOGGER.warn("The number of rows of the input validation data table (" + size
@@ -102,6 +127,20 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
 		boolean reset = false;
 		for (long i = 0; i < m_batchSize; i++) {
+			if (m_cache != null && m_cache.isComplete()) {
+				if (m_cachePosition == m_cache.size()) {
+					m_cachePosition = 0;
+					// continue at the beginning of the cache to fill up incomplete batch, a wrap-around at the very
+					// beginning of the batch is simply the start of a new validation phase
+					reset = reset || i > 0;
+				}
+				try {
+					m_cache.writeExample(m_cachePosition++, input);
+				} catch (final IOException ex) {
+					throw new RuntimeException("Reading the cached validation data failed.", ex);
+				}
+				continue;
+			}
 			if (!m_iterator.hasNext()) {
 				// continue at the beginning of the table to fill up incomplete batch
 				m_iterator.reset();
@@ -110,6 +149,11 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 			final DataRow row = m_iterator.next();
 			try {
 				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
+				if (m_cache != null) {
+					m_cache.appendLastExample(input);
+				}
+			} catch (final IOException ex) {
+				throw new RuntimeException("Caching the validation data failed.", ex);
 			} catch (final DLBufferOverflowExceptionForTensor ex) {
 				final DLTensor<?> tensor = ex.getTensor();
 				// must be present
@@ -128,7 +172,11 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 		if (reset) {
 			// Validation outcomes must be comparable. Each validation phase should be executed with the same set of
 			// batches.
-			m_iterator.reset();
+			if (m_cache != null && m_cache.isComplete()) {
+				m_cachePosition = 0;
+			} else {
+				m_iterator.reset();
+			}
 		}
 		// check if tensors were filled correctly
 		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
@@ -147,4 +195,15 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 			}
 		}
 	}
+
+	@Override
+	public void close() throws Exception {
+		try {
+			super.close();
+		} finally {
+			if (m_cache != null) {
+				m_cache.close();
+			}
+		}
+	}
 }
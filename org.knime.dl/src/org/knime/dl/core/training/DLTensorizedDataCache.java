@@ -0,0 +1,413 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.dl.core.training;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLReadableBitBuffer;
+import org.knime.dl.core.data.DLStorageCopier;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+/**
+ * Stores the examples of a data table in their already converted, tensorized form. The examples of each tensor are
+ * kept in a flat, memory-mapped temporary file, i.e. off the Java heap, such that they can be copied back into the
+ * network tensors in later epochs without having to touch (and convert) the cells of the table again.
+ * <P>
+ * The cache is filled by {@link #appendLastExample(Map) appending} the examples in the order in which they are
+ * written in the network tensors. Once it {@link #isComplete() is complete}, examples can be {@link #writeExample(long,
+ * Map) written} back in arbitrary order.
+ *
+ * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
+ */
+public final class DLTensorizedDataCache implements AutoCloseable {
+
+    /**
+     * A single mapping cannot exceed 2^31-1 bytes, the files are therefore mapped segment-wise.
+     */
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLTensorizedDataCache.class);
+
+    private final long m_numExamples;
+
+    private final Map<DLTensorId, DLTensorStore> m_stores = new HashMap<>();
+
+    private long m_size = 0;
+
+    private File m_directory;
+
+    /**
+     * @param numExamples the number of examples (i.e. data rows) that will be cached
+     */
+    public DLTensorizedDataCache(final long numExamples) {
+        checkArgument(numExamples > 0, "Number of examples must be greater than zero.");
+        checkArgument(numExamples <= Integer.MAX_VALUE, "Number of examples must not exceed 2^31-1.");
+        m_numExamples = numExamples;
+    }
+
+    /**
+     * @return the number of examples that were appended so far
+     */
+    public long size() {
+        return m_size;
+    }
+
+    /**
+     * @return <code>true</code> if all examples were appended to the cache
+     */
+    public boolean isComplete() {
+        return m_size == m_numExamples;
+    }
+
+    /**
+     * Copies the last example of each of the given tensors (i.e. the one that was written most recently) into the
+     * cache.
+     *
+     * @param tensors the tensors
+     * @throws IOException if writing the examples to the cache failed
+     */
+    public void appendLastExample(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors)
+        throws IOException {
+        checkState(!isComplete(), "Cache is already complete.");
+        for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : tensors.entrySet()) {
+            final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+            final DLWrappingDataBuffer<?> buffer = getBuffer(tensor);
+            final int exampleSize = (int)tensor.getExampleSize();
+            final int start = (int)buffer.size() - exampleSize;
+            final Object storage = buffer.getStorageForReading(start, exampleSize);
+            DLTensorStore store = m_stores.get(entry.getKey());
+            if (store == null) {
+                store = new DLTensorStore(getDirectory(), m_stores.size(), m_numExamples, exampleSize,
+                    DLElementType.of(buffer, storage));
+                m_stores.put(entry.getKey(), store);
+            }
+            store.m_type.copyToStore(storage, start, exampleSize, store.getExampleView(m_size));
+        }
+        m_size++;
+    }
+
+    /**
+     * Writes the cached example of the given index in each of the given tensors.
+     *
+     * @param exampleIndex the index of the example, i.e. its position in the order of appending
+     * @param tensors the tensors
+     * @throws IOException if reading the examples from the cache failed
+     */
+    public void writeExample(final long exampleIndex,
+        final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors) throws IOException {
+        checkState(isComplete(), "Cache is not complete yet.");
+        for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : tensors.entrySet()) {
+            final DLTensorStore store = m_stores.get(entry.getKey());
+            checkArgument(store != null, "Tensor '%s' is not cached.", entry.getKey());
+            final DLWrappingDataBuffer<?> buffer = getBuffer(entry.getValue());
+            final int start = (int)buffer.size();
+            final Object storage = buffer.getStorageForWriting(start, store.m_exampleSize);
+            store.m_type.copyFromStore(store.getExampleView(exampleIndex), storage, start, store.m_exampleSize);
+        }
+    }
+
+    /**
+     * Deletes the files of this cache.
+     */
+    @Override
+    public void close() {
+        for (final DLTensorStore store : m_stores.values()) {
+            store.close();
+        }
+        m_stores.clear();
+        if (m_directory != null && !FileUtil.deleteRecursively(m_directory)) {
+            // Mapped files cannot be deleted on some platforms as long as they are not garbage collected.
+            LOGGER.debug("Could not delete directory '" + m_directory + "' of training data cache.");
+        }
+        m_directory = null;
+    }
+
+    private File getDirectory() throws IOException {
+        if (m_directory == null) {
+            m_directory = FileUtil.createTempDir("knime-dl-training-data-cache");
+        }
+        return m_directory;
+    }
+
+    private static DLWrappingDataBuffer<?> getBuffer(final DLTensor<? extends DLWritableBuffer> tensor) {
+        final DLWritableBuffer buffer = tensor.getBuffer();
+        if (!(buffer instanceof DLWrappingDataBuffer)) {
+            throw new IllegalArgumentException("Caching tensors with buffers of type '"
+                + buffer.getClass().getSimpleName() + "' is not supported.");
+        }
+        return (DLWrappingDataBuffer<?>)buffer;
+    }
+
+    private static final class DLTensorStore {
+
+        private final RandomAccessFile m_file;
+
+        private final int m_exampleSize;
+
+        private final DLElementType m_type;
+
+        private final long m_numExamples;
+
+        private final long m_exampleBytes;
+
+        private final long m_examplesPerSegment;
+
+        private final MappedByteBuffer[] m_segments;
+
+        private DLTensorStore(final File directory, final int index, final long numExamples, final int exampleSize,
+            final DLElementType type) throws IOException {
+            m_file = new RandomAccessFile(new File(directory, "tensor_" + index + ".bin"), "rw");
+            m_exampleSize = exampleSize;
+            m_type = type;
+            m_numExamples = numExamples;
+            m_exampleBytes = (long)exampleSize * type.m_elementBytes;
+            checkArgument(m_exampleBytes <= MAX_SEGMENT_SIZE, "Examples must not exceed 2^31-1 bytes.");
+            m_examplesPerSegment = MAX_SEGMENT_SIZE / m_exampleBytes;
+            m_segments = new MappedByteBuffer[(int)((numExamples + m_examplesPerSegment - 1) / m_examplesPerSegment)];
+        }
+
+        private ByteBuffer getExampleView(final long exampleIndex) throws IOException {
+            final int segmentIndex = (int)(exampleIndex / m_examplesPerSegment);
+            MappedByteBuffer segment = m_segments[segmentIndex];
+            if (segment == null) {
+                final long segmentStart = segmentIndex * m_examplesPerSegment;
+                final long segmentExamples = Math.min(m_examplesPerSegment, m_numExamples - segmentStart);
+                segment = m_file.getChannel().map(MapMode.READ_WRITE, segmentStart * m_exampleBytes,
+                    segmentExamples * m_exampleBytes);
+                m_segments[segmentIndex] = segment;
+            }
+            final ByteBuffer view = segment.duplicate();
+            view.position((int)((exampleIndex - segmentIndex * m_examplesPerSegment) * m_exampleBytes));
+            view.limit((int)(view.position() + m_exampleBytes));
+            return view.slice().order(ByteOrder.nativeOrder());
+        }
+
+        private void close() {
+            try {
+                m_file.close();
+            } catch (final IOException ex) {
+                LOGGER.debug("Could not close file of training data cache.", ex);
+            }
+        }
+    }
+
+    private enum DLElementType {
+
+            DOUBLE(Double.BYTES) {
+
+                @Override
+                void copyToStore(final Object storage, final int start, final int length, final ByteBuffer target) {
+                    target.asDoubleBuffer().put((double[])storage, start, length);
+                }
+
+                @Override
+                void copyFromStore(final ByteBuffer source, final Object storage, final int start,
+                    final int length) {
+                    source.asDoubleBuffer().get((double[])storage, start, length);
+                }
+            },
+            FLOAT(Float.BYTES) {
+
+                @Override
+                void copyToStore(final Object storage, final int start, final int length, final ByteBuffer target) {
+                    target.asFloatBuffer().put((float[])storage, start, length);
+                }
+
+                @Override
+                void copyFromStore(final ByteBuffer source, final Object storage, final int start,
+                    final int length) {
+                    source.asFloatBuffer().get((float[])storage, start, length);
+                }
+            },
+            DIRECT_DOUBLE(Double.BYTES) {
+
+                @Override
+                void copyToStore(final Object storage, final int start, final int length, final ByteBuffer target) {
+                    DLStorageCopier.copyToBytes((DoubleBuffer)storage, start, length, target);
+                }
+
+                @Override
+                void copyFromStore(final ByteBuffer source, final Object storage, final int start,
+                    final int length) {
+                    DLStorageCopier.copyFromBytes(source, (DoubleBuffer)storage, start, length);
+                }
+            },
+            DIRECT_FLOAT(Float.BYTES) {
+
+                @Override
+                void copyToStore(final Object storage, final int start, final int length, final ByteBuffer target) {
+                    DLStorageCopier.copyToBytes((FloatBuffer)storage, start, length, target);
+                }
+
+                @Override
+                void copyFromStore(final ByteBuffer source, final Object storage, final int start,
+                    final int length) {
+                    DLStorageCopier.copyFromBytes(source, (FloatBuffer)storage, start, length);
+                }
+            },
+            LONG(Long.BYTES) {
+
+                @Override
+                void copyToStore(final Object storage, final int start, final int length, final ByteBuffer target) {
+                    target.asLongBuffer().put((long[])storage, start, length);
+                }
+
+                @Override
+                void copyFromStore(final ByteBuffer source, final Object storage, final int start,
+                    final int length) {
+                    source.asLongBuffer().get((long[])storage, start, length);
+                }
+            },
+            INT(Integer.BYTES) {
+
+                @Override
+                void copyToStore(final Object storage, final int start, final int length, final ByteBuffer target) {
+                    target.asIntBuffer().put((int[])storage, start, length);
+                }
+
+                @Override
+                void copyFromStore(final ByteBuffer source, final Object storage, final int start,
+                    final int length) {
+                    source.asIntBuffer().get((int[])storage, start, length);
+                }
+            },
+            SHORT(Short.BYTES) {
+
+                @Override
+                void copyToStore(final Object storage, final int start, final int length, final ByteBuffer target) {
+                    target.asShortBuffer().put((short[])storage, start, length);
+                }
+
+                @Override
+                void copyFromStore(final ByteBuffer source, final Object storage, final int start,
+                    final int length) {
+                    source.asShortBuffer().get((short[])storage, start, length);
+                }
+            },
+            BYTE(Byte.BYTES) {
+
+                @Override
+                void copyToStore(final Object storage, final int start, final int length, final ByteBuffer target) {
+                    target.put((byte[])storage, start, length);
+                }
+
+                @Override
+                void copyFromStore(final ByteBuffer source, final Object storage, final int start,
+                    final int length) {
+                    source.get((byte[])storage, start, length);
+                }
+            },
+            // bits are packed into words, see DLDefaultBitBuffer, but stored as one byte per bit
+            BIT(Byte.BYTES) {
+
+                @Override
+                void copyToStore(final Object storage, final int start, final int length, final ByteBuffer target) {
+                    DLStorageCopier.copyBitsToBytes((long[])storage, start, length, target);
+                }
+
+                @Override
+                void copyFromStore(final ByteBuffer source, final Object storage, final int start,
+                    final int length) {
+                    DLStorageCopier.copyBitsFromBytes(source, (long[])storage, start, length);
+                }
+            };
+
+        private static DLElementType of(final DLWrappingDataBuffer<?> buffer, final Object storage) {
+            // bit buffers are the only readable buffers of their kind, their storage cannot be told apart from the
+            // storage of long buffers
+            if (buffer instanceof DLReadableBitBuffer) {
+                return BIT;
+            } else if (storage instanceof double[]) {
+                return DOUBLE;
+            } else if (storage instanceof float[]) {
+                return FLOAT;
+            } else if (storage instanceof DoubleBuffer) {
+                return DIRECT_DOUBLE;
+            } else if (storage instanceof FloatBuffer) {
+                return DIRECT_FLOAT;
+            } else if (storage instanceof long[]) {
+                return LONG;
+            } else if (storage instanceof int[]) {
+                return INT;
+            } else if (storage instanceof short[]) {
+                return SHORT;
+            } else if (storage instanceof byte[]) {
+                return BYTE;
+            }
+            throw new IllegalArgumentException("Caching tensors with storage of type '"
+                + storage.getClass().getSimpleName() + "' is not supported.");
+        }
+
+        private final int m_elementBytes;
+
+        private DLElementType(final int elementBytes) {
+            m_elementBytes = elementBytes;
+        }
+
+        abstract void copyToStore(Object storage, int start, int length, ByteBuffer target);
+
+        abstract void copyFromStore(ByteBuffer source, Object storage, int start, int length);
+    }
+}
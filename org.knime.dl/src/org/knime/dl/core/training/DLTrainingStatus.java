@@ -54,6 +54,7 @@
 import java.util.Map;
 
 import org.knime.dl.core.DLEvent;
+import org.knime.dl.core.DLSessionStatistics;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -91,6 +92,12 @@ public enum Status {
 	 */
 	int getCurrentBatchInEpoch();
 
+	/**
+	 * @return the timings of the stages of the training, not persisted
+	 * @since 3.7
+	 */
+	DLSessionStatistics getStatistics();
+
 	// events:
 
 	DLEvent<Void> trainingStarted();
@@ -54,6 +54,7 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -62,6 +63,8 @@
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.StringUtils;
@@ -80,9 +83,12 @@
 import org.knime.dl.core.DLTensorShape;
 import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.core.DLUnknownTensorShape;
+import org.knime.dl.core.cache.DLMemoryAlertAwareGuavaCache;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.FrameworkUtil;
 
+import com.google.common.hash.Hashing;
+
 /**
  * Various utility methods and classes.
  *
@@ -135,6 +141,37 @@ public static String readAllUTF8(final File f) throws IOException {
             checkNotNull(f);
             return new String(java.nio.file.Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
         }
+
+        /**
+         * Returns the SHA-256 hash of the content of the given file. Hashing large network files is expensive, so the
+         * hash is memoized as long as the file's path, size and modification time do not change.
+         *
+         * @param uri the URI of the file
+         * @return the hash as hex string, empty if the URI cannot be resolved to a local file or the file cannot be
+         *         read
+         * @since 3.7
+         */
+        public static Optional<String> getContentHash(final URI uri) {
+            checkNotNull(uri);
+            File file = null;
+            try {
+                file = FileUtil.getFileFromURL(uri.toURL());
+            } catch (final Exception e) {
+                // Unknown protocol, remote source or resolving failed.
+            }
+            if (file == null || !file.isFile()) {
+                return Optional.empty();
+            }
+            final UUID hashKey = UUID.nameUUIDFromBytes((Files.class.getName() + "\n" + file.getAbsolutePath() + "\n"
+                + file.length() + "\n" + file.lastModified()).getBytes(StandardCharsets.UTF_8));
+            final File f = file;
+            try {
+                return Optional.of(DLMemoryAlertAwareGuavaCache.CACHE.get(hashKey,
+                    () -> com.google.common.io.Files.hash(f, Hashing.sha256()).toString()));
+            } catch (final ExecutionException e) {
+                return Optional.empty();
+            }
+        }
     }
 
     public static class Layers {